@@ -0,0 +1,132 @@
+package rh.ptp.quizapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Stellt die {@code Cache-Control}-Richtlinien der öffentlichen Lese-Endpunkte bereit und
+ * beantwortet bedingte Anfragen.
+ * <p>
+ * Passt der {@code If-None-Match}-Header zum ETag, wird direkt 304 geliefert, ohne den
+ * Antwortinhalt zu laden oder zu serialisieren. Die Laufzeiten sind über
+ * {@code http-cache.*} (in Sekunden) konfigurierbar.
+ * </p>
+ * <p>
+ * Die Quizliste ändert sich durch Bearbeitungen und Bewertungen jederzeit. Sie wird deshalb nur
+ * wenige Sekunden im Edge-Cache gehalten und danach im Hintergrund per ETag revalidiert
+ * ({@code stale-while-revalidate}); so enden die meisten Abrufe am Edge, ohne dass Änderungen
+ * lange unsichtbar bleiben. Quizdetails werden bei jeder Verwendung revalidiert
+ * ({@code no-cache}) und dürfen nur im Browser gespeichert werden.
+ * </p>
+ */
+@Component
+public class HttpCacheSupport {
+
+    private final CacheControl catalog;
+    private final CacheControl quiz;
+    private final CacheControl categories;
+    private final CacheControl categoryMetadata;
+    private final CacheControl leaderboard;
+
+    /**
+     * Konstruktor.
+     *
+     * @param catalogMaxAge     max-age der Quizliste
+     * @param catalogStaleWhileRevalidate Dauer, in der eine abgelaufene Quizliste während der Revalidierung ausgeliefert werden darf
+     * @param categoriesMaxAge  max-age der Kategorien
+     * @param categoryMetaMaxAge max-age der Kategorie-Metadaten mit Quiz-Anzahl
+     * @param leaderboardMaxAge max-age der Bestenliste
+     */
+    public HttpCacheSupport(@Value("${http-cache.catalog-max-age:5}") long catalogMaxAge,
+                            @Value("${http-cache.catalog-stale-while-revalidate:30}") long catalogStaleWhileRevalidate,
+                            @Value("${http-cache.categories-max-age:86400}") long categoriesMaxAge,
+                            @Value("${http-cache.category-meta-max-age:3600}") long categoryMetaMaxAge,
+                            @Value("${http-cache.leaderboard-max-age:30}") long leaderboardMaxAge) {
+        this.catalog = publicPolicy(catalogMaxAge).staleWhileRevalidate(Duration.ofSeconds(catalogStaleWhileRevalidate));
+        this.quiz = CacheControl.noCache().cachePrivate();
+        this.categories = publicPolicy(categoriesMaxAge);
+        this.categoryMetadata = publicPolicy(categoryMetaMaxAge);
+        this.leaderboard = publicPolicy(leaderboardMaxAge);
+    }
+
+    private static CacheControl publicPolicy(long maxAgeSeconds) {
+        return CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic();
+    }
+
+    public CacheControl catalog() {
+        return catalog;
+    }
+
+    public CacheControl quiz() {
+        return quiz;
+    }
+
+    public CacheControl categories() {
+        return categories;
+    }
+
+    public CacheControl categoryMetadata() {
+        return categoryMetadata;
+    }
+
+    public CacheControl leaderboard() {
+        return leaderboard;
+    }
+
+    /**
+     * Liefert 304, wenn der Client den ETag bereits kennt, sonst 200 mit dem erst jetzt erzeugten Inhalt.
+     *
+     * @param request Aktuelle Anfrage
+     * @param policy  Cache-Richtlinie des Endpunkts
+     * @param eTag    ETag der aktuellen Daten (in Anführungszeichen)
+     * @param body    Erzeugt den Antwortinhalt; wird bei 304 nicht aufgerufen
+     * @return Antwort mit {@code Cache-Control} und {@code ETag}
+     */
+    public <T> ResponseEntity<T> respond(WebRequest request, CacheControl policy, String eTag, Supplier<T> body) {
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(policy).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().cacheControl(policy).eTag(eTag).body(body.get());
+    }
+
+    /**
+     * Bildet einen ETag aus dem Hash der übergebenen Bestandteile.
+     *
+     * @param parts Werte, von denen der Inhalt abhängt
+     * @return ETag in Anführungszeichen
+     */
+    public static String contentETag(Object... parts) {
+        String source = Arrays.deepToString(parts);
+        return "\"" + DigestUtils.md5DigestAsHex(source.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Prüft, ob einer der (ggf. schwachen) ETags im {@code If-None-Match}-Header passt.
+     */
+    static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
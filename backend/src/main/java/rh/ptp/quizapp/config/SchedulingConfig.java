@@ -0,0 +1,39 @@
+package rh.ptp.quizapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Führt {@code @Scheduled}-Aufgaben auch im Modus mit virtuellen Threads
+ * ({@code spring.threads.virtual.enabled=true}) auf Plattform-Threads aus.
+ * <p>
+ * Der E-Mail-Ausgang und die Erinnerungs-Jobs versenden per Jakarta Mail, das während der
+ * SMTP-Socket-Ein-/Ausgabe Monitore hält und virtuelle Threads damit an ihren Träger bindet.
+ * Ohne diese Bean würde Spring Boot die Aufgaben auf einem {@code SimpleAsyncTaskScheduler} mit
+ * virtuellen Threads ausführen und einem langsamen Mailserver Träger-Threads der Servlet-Anfragen
+ * überlassen. Die Bean ersetzt den automatisch konfigurierten Scheduler; die Einstellungen unter
+ * {@code spring.task.scheduling} gelten weiterhin.
+ * </p>
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class SchedulingConfig {
+
+    /**
+     * Erstellt den Scheduler mit einem begrenzten Pool aus Plattform-Threads.
+     *
+     * @param builder  von Spring Boot vorkonfigurierter Builder
+     * @param poolSize Anzahl der Plattform-Threads
+     * @return der Scheduler für {@code @Scheduled}-Aufgaben
+     */
+    @Bean(name = "taskScheduler")
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder,
+                                                 @Value("${virtual-threads.scheduler-pool-size:4}") int poolSize) {
+        return builder.poolSize(poolSize).build();
+    }
+}
@@ -63,7 +63,7 @@ public class SecurityConfig {
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/verify-email/**").permitAll()
                         .requestMatchers("/api/users/**").permitAll()
-                        .requestMatchers("/api/quizzes", "/api/quizzes/my-quizzes", "/api/quizzes/daily").permitAll()
+                        .requestMatchers("/api/quizzes", "/api/quizzes/my-quizzes", "/api/quizzes/daily", "/api/quizzes/search", "/api/quizzes/suggest").permitAll()
                         .requestMatchers("/auth/**", "/error").permitAll()
                         .requestMatchers("/api/daily/completion-status").permitAll()
                         .requestMatchers("/api/quizzes/{id}").permitAll()
@@ -75,7 +75,9 @@ public class SecurityConfig {
                         .requestMatchers("/api/quiz-results/scores/top").permitAll()
                         .requestMatchers("/api/categories").permitAll()
                         .requestMatchers("/api/categories/values").permitAll()
+                        .requestMatchers("/api/categories/meta").permitAll()
                         .requestMatchers("/api/admin", "/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/metrics", "/actuator/metrics/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session
@@ -98,7 +100,7 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(Arrays.asList(frontendUrl));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
-        configuration.setExposedHeaders(Arrays.asList("Authorization"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "ETag"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
@@ -0,0 +1,124 @@
+package rh.ptp.quizapp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Überwacht im Modus mit virtuellen Threads ({@code spring.threads.virtual.enabled=true}), ob
+ * virtuelle Threads an ihren Träger-Thread gebunden werden.
+ * <p>
+ * Blockiert ein virtueller Thread innerhalb eines {@code synchronized}-Blocks, kann er seinen
+ * Träger-Thread nicht freigeben; unter Last stehen dann weniger Träger für alle übrigen Anfragen
+ * zur Verfügung. Die JFR-Ereignisse {@code jdk.VirtualThreadPinned} oberhalb der Schwelle werden
+ * als Zähler {@code jvm.threads.virtual.pinned} erfasst; je Codestelle wird das erste Ereignis
+ * mit der auslösenden Stelle protokolliert.
+ * </p>
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final String APP_PACKAGE = "rh.ptp.quizapp.";
+
+    private final Duration threshold;
+    private final Counter pinned;
+    private final Set<String> reportedFrames = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    /**
+     * Konstruktor.
+     *
+     * @param thresholdMs   Dauer, ab der eine Bindung erfasst wird
+     * @param meterRegistry Registry für die Metriken
+     */
+    public VirtualThreadPinningMonitor(@Value("${virtual-threads.pinning-threshold-ms:20}") long thresholdMs,
+                                       MeterRegistry meterRegistry) {
+        this.threshold = Duration.ofMillis(thresholdMs);
+        this.pinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtuelle Threads, die länger als die Schwelle an ihren Träger gebunden waren")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Startet die Aufzeichnung der JFR-Ereignisse.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (stream != null) {
+            return;
+        }
+        try {
+            stream = new RecordingStream();
+            stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            stream.onEvent(PINNED_EVENT, this::onPinned);
+            stream.startAsync();
+            log.info("Überwachung gebundener virtueller Threads aktiv (Schwelle {} ms)", threshold.toMillis());
+        } catch (Exception e) {
+            stream = null;
+            log.warn("Überwachung gebundener virtueller Threads nicht verfügbar: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Beendet die Aufzeichnung.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    void onPinned(RecordedEvent event) {
+        pinned.increment();
+        String frame = describe(event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames());
+        if (reportedFrames.add(frame)) {
+            log.warn("Virtueller Thread {} ms an Träger-Thread gebunden bei {}", event.getDuration().toMillis(), frame);
+        }
+    }
+
+    /**
+     * Beschreibt die auslösende Stelle: den obersten Frame aus der Anwendung, sonst den obersten Frame.
+     */
+    static String describe(List<RecordedFrame> frames) {
+        RecordedFrame first = null;
+        for (RecordedFrame frame : frames) {
+            if (!frame.isJavaFrame()) {
+                continue;
+            }
+            if (first == null) {
+                first = frame;
+            }
+            if (frame.getMethod().getType().getName().startsWith(APP_PACKAGE)) {
+                return format(frame);
+            }
+        }
+        return first == null ? "unbekannt" : format(first);
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -4,6 +4,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import rh.ptp.quizapp.dto.CategoryCount;
+import rh.ptp.quizapp.dto.DailyQuizBufferStatus;
+import rh.ptp.quizapp.dto.SimilarQuestion;
 import rh.ptp.quizapp.dto.UserDTO;
 import rh.ptp.quizapp.model.Quiz;
 import rh.ptp.quizapp.model.User;
@@ -12,6 +15,9 @@ import rh.ptp.quizapp.model.UserStatus;
 import rh.ptp.quizapp.repository.UserRepository;
 import rh.ptp.quizapp.service.AdminService;
 import rh.ptp.quizapp.service.CleanupRepositoryService;
+import rh.ptp.quizapp.service.DailyQuizBufferService;
+import rh.ptp.quizapp.service.QuestionPoolService;
+import rh.ptp.quizapp.service.QuestionSimilarityService;
 import rh.ptp.quizapp.service.QuizService;
 
 import java.util.List;
@@ -34,6 +40,12 @@ public class AdminController {
     private UserRepository userRepository;
     @Autowired
     private CleanupRepositoryService cleanupRepositoryService;
+    @Autowired
+    private DailyQuizBufferService dailyQuizBufferService;
+    @Autowired
+    private QuestionPoolService questionPoolService;
+    @Autowired
+    private QuestionSimilarityService questionSimilarityService;
 
     /**
      * Gibt eine Liste aller Quizzes inklusive Bewertungen zurück.
@@ -112,4 +124,51 @@ public class AdminController {
         return ResponseEntity.ok().build();
 
     }
+
+    /**
+     * Gibt den Füllstand des Vorrats an vorab generierten Tagesquizzes zurück.
+     */
+    @GetMapping("/daily-quiz/buffer")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<DailyQuizBufferStatus> getDailyQuizBufferAdmin() {
+        return ResponseEntity.ok(dailyQuizBufferService.getStatus());
+    }
+
+    /**
+     * Stößt das asynchrone Auffüllen des Vorrats an Tagesquizzes an.
+     */
+    @PostMapping("/daily-quiz/buffer/refill")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Void> refillDailyQuizBufferAdmin() {
+        dailyQuizBufferService.refill();
+        return ResponseEntity.accepted().build();
+    }
+
+    /**
+     * Gibt die Anzahl unbenutzter Fragen im Fragenpool je Kategorie zurück.
+     */
+    @GetMapping("/question-pool")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<List<CategoryCount>> getQuestionPoolAdmin() {
+        return ResponseEntity.ok(questionPoolService.getStatus());
+    }
+
+    /**
+     * Stößt das asynchrone Auffüllen des Fragenpools an.
+     */
+    @PostMapping("/question-pool/refill")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Void> refillQuestionPoolAdmin() {
+        questionPoolService.refill();
+        return ResponseEntity.accepted().build();
+    }
+
+    /**
+     * Sucht bestehende Quizfragen, die dem übergebenen Fragetext ähneln.
+     */
+    @GetMapping("/questions/similar")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<List<SimilarQuestion>> getSimilarQuestionsAdmin(@RequestParam String text) {
+        return ResponseEntity.ok(questionSimilarityService.findSimilar(text));
+    }
 }
@@ -1,13 +1,18 @@
 package rh.ptp.quizapp.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import rh.ptp.quizapp.config.HttpCacheSupport;
 import rh.ptp.quizapp.model.QuizCategory;
+import rh.ptp.quizapp.service.CategoryMetadataService;
 import rh.ptp.quizapp.service.QuizService;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -20,23 +25,52 @@ public class CategoryController {
     @Autowired
     private QuizService quizService;
 
+    @Autowired
+    private HttpCacheSupport httpCacheSupport;
+
+    @Autowired
+    private CategoryMetadataService categoryMetadataService;
+
+    /**
+     * Die Kategorien ändern sich nur mit einem neuen Release, daher genügt ein einmal berechneter ETag.
+     */
+    private static final String CATEGORIES_ETAG = HttpCacheSupport.contentETag(
+            Arrays.stream(QuizCategory.values()).map(c -> c.name() + "=" + c.getDisplayName()).toList());
+
     /**
      * Gibt alle verfügbaren Quiz-Kategorien als Enum zurück.
      *
+     * @param request Die aktuelle Anfrage (für {@code If-None-Match}).
      * @return Eine {@link ResponseEntity} mit einem Array aller {@link QuizCategory}-Enum-Werte.
      */
     @GetMapping
-    public ResponseEntity<QuizCategory[]> getCategories() {
-        return ResponseEntity.ok(QuizCategory.class.getEnumConstants());
+    public ResponseEntity<QuizCategory[]> getCategories(WebRequest request) {
+        return httpCacheSupport.respond(request, httpCacheSupport.categories(), CATEGORIES_ETAG,
+                QuizCategory.class::getEnumConstants);
     }
 
     /**
      * Gibt die Namen aller verfügbaren Quiz-Kategorien als Liste von Strings zurück.
      *
+     * @param request Die aktuelle Anfrage (für {@code If-None-Match}).
      * @return Eine {@link ResponseEntity} mit einer Liste der Kategorie-Namen.
      */
     @GetMapping("/values")
-    public ResponseEntity<List<String>> getCategoryValues() {
-        return ResponseEntity.ok(quizService.getCategoryValues());
+    public ResponseEntity<List<String>> getCategoryValues(WebRequest request) {
+        return httpCacheSupport.respond(request, httpCacheSupport.categories(), CATEGORIES_ETAG,
+                quizService::getCategoryValues);
+    }
+
+    /**
+     * Gibt Schlüssel, Anzeigenamen und Anzahl der Quizzes aller Kategorien zurück.
+     * Die Antwort ist vorberechnet und wird unverändert als Bytes geschrieben.
+     *
+     * @param request Die aktuelle Anfrage (für {@code If-None-Match}).
+     * @return JSON-Array von {@link rh.ptp.quizapp.dto.CategoryMetadata} oder 304.
+     */
+    @GetMapping(value = "/meta", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getCategoryMetadata(WebRequest request) {
+        CategoryMetadataService.Snapshot snapshot = categoryMetadataService.getSnapshot();
+        return httpCacheSupport.respond(request, httpCacheSupport.categoryMetadata(), snapshot.eTag(), snapshot::json);
     }
-}
\ No newline at end of file
+}
@@ -4,21 +4,25 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import rh.ptp.quizapp.config.HttpCacheSupport;
 import rh.ptp.quizapp.dto.*;
 import rh.ptp.quizapp.model.*;
-import rh.ptp.quizapp.repository.QuizRepository;
 import rh.ptp.quizapp.repository.UserRepository;
 import rh.ptp.quizapp.service.QuizService;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Dieser Controller verwaltet alle Operationen im Zusammenhang mit Quiz-Objekten.
@@ -37,19 +41,31 @@ public class QuizController {
     private UserRepository userRepository;
 
     @Autowired
-    private QuizRepository quizRepository;
+    private HttpCacheSupport httpCacheSupport;
 
     /**
      * Gibt alle Quizzes zurück, bei denen das tägliche Quiz von heute ausgefiltert wird.
+     * Optional kann nach Kategorien gefiltert werden, z. B. {@code ?category=SCIENCE&category=HISTORY}.
      *
-     * @return Eine Liste von {@link Quiz}-Objekten.
+     * @param category Kategorien, nach denen gefiltert wird (optional).
+     * @param matchAll true, wenn ein Quiz alle angegebenen Kategorien besitzen muss, sonst genügt eine.
+     * @param request  Die aktuelle Anfrage (für {@code If-None-Match}).
+     * @return Eine Liste von {@link Quiz}-Objekten oder 304, wenn sich der Katalog nicht geändert hat.
      */
     @GetMapping("/quizzes")
-    public ResponseEntity<List<Quiz>> getQuizzes() {
-        List<Quiz> quizze = quizService.findAllWithRatings();
+    public ResponseEntity<List<Quiz>> getQuizzes(@RequestParam(required = false) List<QuizCategory> category,
+                                                 @RequestParam(defaultValue = "false") boolean matchAll,
+                                                 WebRequest request) {
+        String eTag = HttpCacheSupport.contentETag(quizService.getCatalogVersion(), LocalDate.now(), category, matchAll);
+        return httpCacheSupport.respond(request, httpCacheSupport.catalog(), eTag,
+                () -> loadCatalog(category, matchAll));
+    }
+
+    private List<Quiz> loadCatalog(List<QuizCategory> category, boolean matchAll) {
+        List<Quiz> quizze = quizService.findAllWithRatings(category, matchAll);
         LocalDate today = LocalDate.now();
 
-        quizze.removeIf(quiz -> quiz.isDailyQuiz() && today.equals(quiz.getDate()));
+        quizze.removeIf(quiz -> quiz.isDailyQuiz() && (quiz.getDate() == null || today.equals(quiz.getDate())));
 
         for (Quiz quiz : quizze) {
             for (int i = 0; i < quiz.getQuestions().size(); i++) {
@@ -59,31 +75,94 @@ public class QuizController {
             quiz.getCreator().setPassword(null);
         }
         logger.debug(quizze.toString());
-        return ResponseEntity.ok(quizze);
+        return quizze;
+    }
+
+    /**
+     * Volltextsuche über Titel, Beschreibung und Fragen öffentlicher Quizzes.
+     *
+     * @param q    Suchbegriff.
+     * @param page Seitennummer, beginnend bei 0.
+     * @param size Seitengröße.
+     * @return Eine Liste von {@link QuizSearchResultDTO}-Objekten, absteigend nach Relevanz.
+     */
+    @GetMapping("/quizzes/search")
+    public ResponseEntity<List<QuizSearchResultDTO>> searchQuizzes(@RequestParam String q,
+                                                                   @RequestParam(defaultValue = "0") int page,
+                                                                   @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(quizService.searchQuizzes(q, page, size));
     }
 
     /**
-     * Gibt ein einzelnes Quiz anhand der ID zurück. Beim heutigen täglichen Quiz wird die {@link #getDailyQuiz()}-Methode aufgerufen.
+     * Liefert Vorschläge für die Suche während der Eingabe (Quiz-Titel und Ersteller).
+     *
+     * @param q     Bisherige Eingabe.
+     * @param limit Maximale Anzahl der Vorschläge.
+     * @return Eine Liste von {@link QuizSuggestion}-Objekten, beste zuerst.
+     */
+    @GetMapping("/quizzes/suggest")
+    public ResponseEntity<List<QuizSuggestion>> suggestQuizzes(@RequestParam String q,
+                                                               @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(quizService.suggestQuizzes(q, limit));
+    }
+
+    /**
+     * Stellt ein Übungsquiz aus Fragen öffentlicher Quizzes zusammen, ohne es zu speichern.
+     * Die richtige Antwort ist nicht enthalten; geprüft wird über {@link #checkPracticeAnswers}.
+     *
+     * @param category   Kategorie der Fragen.
+     * @param difficulty Ziel-Schwierigkeitsgrad (1–5); benachbarte Grade werden seltener gezogen.
+     * @param count      Anzahl der Fragen.
+     * @return Ein {@link QuizDTO} ohne ID mit bis zu {@code count} Fragen.
+     */
+    @GetMapping("/practice")
+    public ResponseEntity<QuizDTO> getPracticeQuiz(@RequestParam QuizCategory category,
+                                                   @RequestParam(defaultValue = "3") int difficulty,
+                                                   @RequestParam(defaultValue = "10") int count) {
+        return ResponseEntity.ok(quizService.buildPracticeQuiz(category, difficulty, count));
+    }
+
+    /**
+     * Prüft die Antworten eines Übungsquizzes. Es wird kein Ergebnis gespeichert.
+     *
+     * @param submission Die Antworten des Benutzers, nach Frage-ID.
+     * @return Das Feedback als {@link QuizFeedbackDTO}.
+     */
+    @PostMapping("/practice/check")
+    public ResponseEntity<QuizFeedbackDTO> checkPracticeAnswers(@RequestBody QuizSubmissionDTO submission) {
+        return ResponseEntity.ok(quizService.checkPracticeAnswers(submission.getAnswers()));
+    }
+
+    /**
+     * Gibt ein einzelnes Quiz anhand der ID zurück. Beim heutigen täglichen Quiz wird die {@link #getDailyQuiz()}-Methode aufgerufen,
+     * noch nicht veröffentlichte Tagesquizzes aus dem Vorrat werden nicht ausgeliefert.
+     * Der {@code If-None-Match}-Header wird gegen Version und Erstellername geprüft, bevor das Quiz mit
+     * seinen Fragen geladen wird.
      *
      * @param quizId Die ID des Quizzes.
-     * @return Das entsprechende {@link Quiz}-Objekt oder 404.
+     * @param request Die aktuelle Anfrage (für {@code If-None-Match}).
+     * @return Das entsprechende {@link Quiz}-Objekt, 304 bei unverändertem ETag oder 404.
      */
     @GetMapping("/{quizId}")
-    public ResponseEntity<Quiz> getQuiz(@PathVariable Long quizId) {
-        Quiz quiz = quizService.getQuizById(quizId);
-        if (quiz != null) {
-            if (quiz.isDailyQuiz() && quiz.getDate().equals(LocalDate.now())) {
-                getDailyQuiz();
-            }
+    public ResponseEntity<Quiz> getQuiz(@PathVariable Long quizId, WebRequest request) {
+        QuizVersionInfo info = quizService.getQuizVersionInfo(quizId).orElse(null);
+        if (info == null || info.isBufferedDailyQuiz()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (info.isDailyQuiz() && info.date().equals(LocalDate.now())) {
+            getDailyQuiz();
+        }
+        // Ändert sich das Quiz zwischen beiden Abfragen, trägt die Antwort den älteren ETag und wird beim nächsten Abruf neu geladen.
+        String eTag = quizETag(info.quizId(), info.version(), info.creatorName());
+        return httpCacheSupport.respond(request, httpCacheSupport.quiz(), eTag, () -> {
+            Quiz quiz = quizService.getQuizById(quizId);
             for (int i = 0; i < quiz.getQuestions().size(); i++) {
                 quiz.getQuestions().get(i).setCorrectAnswer("");
             }
             quiz.getCreator().setEmail(null);
             quiz.getCreator().setPassword(null);
-            return ResponseEntity.ok(quiz);
-        } else {
-            return ResponseEntity.notFound().build();
-        }
+            return quiz;
+        });
     }
 
     /**
@@ -116,7 +195,7 @@ public class QuizController {
         boolean isCreator = quiz.getCreator().getEmail().equals(userDetails.getUsername());
 
         if (isAdmin || isCreator) {
-            return ResponseEntity.ok(quiz);
+            return ResponseEntity.ok().eTag(quizETag(quiz)).body(quiz);
         }
 
         return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
@@ -137,18 +216,66 @@ public class QuizController {
     }
 
     /**
-     * Aktualisiert ein bestehendes Quiz.
+     * Aktualisiert ein bestehendes Quiz. Der {@code If-Match}-Header muss den ETag enthalten,
+     * auf dem die Änderung basiert; ist das Quiz inzwischen geändert worden, wird 412 geliefert.
      *
      * @param quizId       Die ID des Quizzes.
+     * @param ifMatch      ETag der bearbeiteten Version oder {@code *}.
      * @param quizDTO      Die aktualisierten Daten.
      * @param userDetails  Die Authentifizierungsdaten.
-     * @return Das aktualisierte {@link Quiz}-Objekt.
+     * @return Das aktualisierte {@link Quiz}-Objekt mit neuem ETag.
      */
     @PutMapping("/{quizId}")
-    public ResponseEntity<Quiz> updateQuiz(@PathVariable Long quizId, @Valid @RequestBody QuizDTO quizDTO, @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<Quiz> updateQuiz(@PathVariable Long quizId,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                           @Valid @RequestBody QuizDTO quizDTO, @AuthenticationPrincipal UserDetails userDetails) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_REQUIRED, "If-Match-Header fehlt");
+        }
         Long userId = userRepository.findByEmail(userDetails.getUsername()).get().getId();
         quizService.validateQuizDTO(quizDTO);
-        return ResponseEntity.ok(quizService.updateQuiz(quizId, quizDTO, userId));
+        Quiz quiz = quizService.updateQuiz(quizId, quizDTO, userId, expectedVersion(quizId, ifMatch));
+        return ResponseEntity.ok().eTag(quizETag(quiz)).body(quiz);
+    }
+
+    /**
+     * Bildet den ETag eines Quizzes aus ID, Version und dem Hash des Erstellernamens, der in der
+     * Antwort enthalten ist, aber die Version des Quizzes nicht ändert.
+     */
+    static String quizETag(Quiz quiz) {
+        return quizETag(quiz.getId(), quiz.getVersion(), quiz.getCreator() != null ? quiz.getCreator().getName() : null);
+    }
+
+    static String quizETag(long quizId, long version, String creatorName) {
+        return "\"" + quizId + "-" + version + "-" + Integer.toHexString(Objects.hashCode(creatorName)) + "\"";
+    }
+
+    /**
+     * Liest die erwartete Version aus dem {@code If-Match}-Header.
+     *
+     * @return Version oder {@code null} bei {@code *}
+     * @throws OptimisticLockingFailureException wenn der ETag nicht zu diesem Quiz gehört
+     */
+    static Long expectedVersion(Long quizId, String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.equals("*")) {
+            return null;
+        }
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        tag = tag.replace("\"", "");
+        String prefix = quizId + "-";
+        if (tag.startsWith(prefix)) {
+            String version = tag.substring(prefix.length());
+            int end = version.indexOf('-');
+            try {
+                return Long.parseLong(end >= 0 ? version.substring(0, end) : version);
+            } catch (NumberFormatException ignored) {
+                // fällt auf den Fehler unten zurück
+            }
+        }
+        throw new OptimisticLockingFailureException("ETag passt nicht zum Quiz");
     }
 
     /**
@@ -241,10 +368,8 @@ public class QuizController {
     public ResponseEntity<Integer> rateQuiz(
             @PathVariable Long quizId,
             @Valid @RequestBody QuizRatingDTO ratingDTO, @AuthenticationPrincipal UserDetails userDetails) {
-        Long userId = userRepository.findByEmail(userDetails.getUsername()).get().getId();
-        if (quizRepository.findByQuizId(quizId).getCreator().getId().equals(userId)) {
-            throw new RuntimeException("Du kannst dein eigenes Quiz nicht bewerten");
-        }
+        Long userId = userRepository.findIdByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Benutzer nicht gefunden"));
         return ResponseEntity.ok(quizService.rateQuiz(quizId, userId, ratingDTO.getRating()));
     }
 } 
@@ -3,6 +3,8 @@ package rh.ptp.quizapp.controller;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import rh.ptp.quizapp.config.HttpCacheSupport;
 import rh.ptp.quizapp.dto.QuizResultRequest;
 import rh.ptp.quizapp.dto.ScoreDTO;
 import rh.ptp.quizapp.model.QuizResult;
@@ -20,6 +22,9 @@ public class QuizResultController {
     @Autowired
     private QuizResultService quizResultService;
 
+    @Autowired
+    private HttpCacheSupport httpCacheSupport;
+
     /**
      * Speichert das Ergebnis eines abgeschlossenen Quiz.
      *
@@ -60,13 +65,17 @@ public class QuizResultController {
     }
 
     /**
-     * Gibt die Top-Benutzer nach Punktzahl zurück.
+     * Gibt die Top-Benutzer nach Punktzahl zurück. Der ETag wird aus dem Inhalt berechnet,
+     * sodass unveränderte Bestenlisten mit 304 beantwortet werden.
      *
+     * @param request Die aktuelle Anfrage (für {@code If-None-Match}).
      * @return Liste der besten Punktzahlen mit Rangliste.
      */
     @GetMapping("/scores/top")
-    public List<ScoreDTO> getTopScores() {
-        return quizResultService.getTopScores();
+    public ResponseEntity<List<ScoreDTO>> getTopScores(WebRequest request) {
+        List<ScoreDTO> topScores = quizResultService.getTopScores();
+        return httpCacheSupport.respond(request, httpCacheSupport.leaderboard(),
+                HttpCacheSupport.contentETag(topScores), () -> topScores);
     }
 
     /**
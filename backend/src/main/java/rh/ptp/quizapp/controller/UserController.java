@@ -2,21 +2,17 @@ package rh.ptp.quizapp.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import rh.ptp.quizapp.dto.*;
 import rh.ptp.quizapp.model.User;
-import rh.ptp.quizapp.model.UserStatus;
-import rh.ptp.quizapp.repository.QuizFavoriteRepository;
-import rh.ptp.quizapp.repository.UserRepository;
-import rh.ptp.quizapp.service.EmailService;
 import rh.ptp.quizapp.service.QuizService;
 import rh.ptp.quizapp.service.UserService;
 
-import java.util.HashMap;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -31,12 +27,6 @@ public class UserController {
 
     private final UserService userService;
     private final QuizService quizService;
-    private final QuizFavoriteRepository quizFavoriteRepository;
-    private final EmailService emailService;
-    private final UserRepository userRepository;
-
-    @Value("${frontend.url}")
-    private String frontendUrl;
 
     /**
      * Versendet einen Link zum Zurücksetzen des Passworts.
@@ -156,13 +146,7 @@ public class UserController {
     public ResponseEntity<?> deleteProfile(@AuthenticationPrincipal UserDetails userDetails) {
         try {
             User user = userService.getUserFromUserDetails(userDetails);
-            user.setUserStatus(UserStatus.PENDING_DELETE);
-            Map<String, Object> variables = new HashMap<>();
-            variables.put("logoUrl", frontendUrl + "/icons/logo512.png");
-            variables.put("username", user.getName());
-            variables.put("loginUrl", frontendUrl + "/login");
-            emailService.sendEmail(user.getEmail(), "Konto zur Löschung vorgemerkt", "account-delete-info", variables);
-            userRepository.save(user);
+            userService.requestDeletion(user);
             return ResponseEntity.ok().body(new MessageResponse("Account zur Löschung vorgemerkt"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new MessageResponse("Fehler beim Löschen des Accounts: " + e.getMessage()));
@@ -177,12 +161,51 @@ public class UserController {
      */
     @GetMapping("/favorites")
     public ResponseEntity<List<Long>> getFavoriteQuizIds(@AuthenticationPrincipal UserDetails userDetails) {
-        User user = userService.getUserFromUserDetails(userDetails);
-        List<Long> favoriteQuizIds = quizFavoriteRepository.findAllByUserId(user.getId())
-                .stream()
-                .map(fav -> fav.getQuiz().getId())
-                .toList();
-        return ResponseEntity.ok(favoriteQuizIds);
+        return ResponseEntity.ok(quizService.getFavoriteQuizIds(userDetails));
+    }
+
+    /**
+     * Gibt für eine Seite von Quizzes zurück, welche davon favorisiert sind.
+     *
+     * @param quizIds     IDs der Quizzes.
+     * @param userDetails Authentifizierte Benutzerdaten.
+     * @return Favoritenstatus je Quiz-ID.
+     */
+    @GetMapping("/favorites/status")
+    public ResponseEntity<Map<Long, Boolean>> getFavoriteStatus(
+            @RequestParam List<Long> quizIds,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(quizService.getFavoriteStatus(quizIds, userDetails));
+    }
+
+    /**
+     * Favorisiert ein Quiz. Wiederholte Aufrufe liefern dasselbe Ergebnis.
+     *
+     * @param quizId      Die ID des Quizzes.
+     * @param userDetails Authentifizierte Benutzerdaten.
+     * @return Favoritenstatus des Quizzes.
+     */
+    @PutMapping("/favorites/{quizId}")
+    public ResponseEntity<Map<String, Boolean>> addFavorite(
+            @PathVariable Long quizId,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        quizService.addFavorite(quizId, userDetails);
+        return ResponseEntity.ok(Map.of("favorited", true));
+    }
+
+    /**
+     * Entfernt ein Quiz aus den Favoriten. Wiederholte Aufrufe liefern dasselbe Ergebnis.
+     *
+     * @param quizId      Die ID des Quizzes.
+     * @param userDetails Authentifizierte Benutzerdaten.
+     * @return Favoritenstatus des Quizzes.
+     */
+    @DeleteMapping("/favorites/{quizId}")
+    public ResponseEntity<Map<String, Boolean>> removeFavorite(
+            @PathVariable Long quizId,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        quizService.removeFavorite(quizId, userDetails);
+        return ResponseEntity.ok(Map.of("favorited", false));
     }
 
     /**
@@ -213,14 +236,23 @@ public class UserController {
     }
 
     /**
-     * Gibt die Quiz-Historie des Benutzers zurück.
+     * Gibt die Quiz-Historie des Benutzers zurück, neueste Einträge zuerst.
+     * Für weitere Seiten werden {@code playedAt} und {@code id} des letzten Eintrags als
+     * {@code before} und {@code beforeId} übergeben.
      *
      * @param userDetails Authentifizierte Benutzerdaten.
+     * @param before      Zeitpunkt des letzten bereits geladenen Eintrags (optional).
+     * @param beforeId    ID des letzten bereits geladenen Eintrags (optional).
+     * @param size        Maximale Anzahl an Einträgen.
      * @return Liste der abgeschlossenen Quizzes.
      */
     @GetMapping("/quiz-history")
-    public ResponseEntity<List<QuizHistoryDTO>> getQuizHistory(@AuthenticationPrincipal UserDetails userDetails) {
-        List<QuizHistoryDTO> history = quizService.getQuizHistory(userDetails);
+    public ResponseEntity<List<QuizHistoryDTO>> getQuizHistory(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "" + QuizService.MAX_HISTORY_PAGE_SIZE) int size) {
+        List<QuizHistoryDTO> history = quizService.getQuizHistory(userDetails, before, beforeId, size);
         return ResponseEntity.ok(history);
     }
 
@@ -0,0 +1,12 @@
+package rh.ptp.quizapp.dto;
+
+import rh.ptp.quizapp.model.QuizCategory;
+
+/**
+ * Anzahl der Quizzes (bzw. Poolfragen) einer Kategorie, per JPQL-Konstruktorausdruck befüllt.
+ *
+ * @param category  Kategorie
+ * @param quizCount Anzahl der Quizzes bzw. Poolfragen mit dieser Kategorie
+ */
+public record CategoryCount(QuizCategory category, long quizCount) {
+}
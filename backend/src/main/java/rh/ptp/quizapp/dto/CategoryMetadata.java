@@ -0,0 +1,11 @@
+package rh.ptp.quizapp.dto;
+
+/**
+ * Metadaten einer Quiz-Kategorie für das Frontend.
+ *
+ * @param key         Enum-Name der Kategorie
+ * @param displayName Anzeigename
+ * @param quizCount   Anzahl der Quizzes mit dieser Kategorie
+ */
+public record CategoryMetadata(String key, String displayName, long quizCount) {
+}
@@ -0,0 +1,16 @@
+package rh.ptp.quizapp.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Zustand des Vorrats an vorab generierten Tagesquizzes für die Admin-Ansicht.
+ *
+ * @param depth         Anzahl der Tagesquizzes im Vorrat
+ * @param targetSize    angestrebte Anzahl
+ * @param refilling     true, während der Vorrat aufgefüllt wird
+ * @param lastRefill    Zeitpunkt des letzten abgeschlossenen Auffüllens oder {@code null}
+ * @param lastError     Fehlermeldung des letzten Auffüllens oder {@code null}
+ */
+public record DailyQuizBufferStatus(long depth, int targetSize, boolean refilling,
+                                    LocalDateTime lastRefill, String lastError) {
+}
@@ -0,0 +1,21 @@
+package rh.ptp.quizapp.dto;
+
+import java.util.List;
+
+/**
+ * Von der KI-API generierte und bereits validierte Multiple-Choice-Frage.
+ *
+ * @param question      Fragetext
+ * @param answers       2 bis 4 unterschiedliche Antwortmöglichkeiten
+ * @param correctAnswer richtige Antwort, exakt wie in {@code answers} enthalten
+ * @param difficulty    Schwierigkeitsgrad 1–5
+ */
+public record GeneratedQuestion(String question, List<String> answers, String correctAnswer, int difficulty) {
+
+    /**
+     * Frage mit dem niedrigsten Schwierigkeitsgrad.
+     */
+    public GeneratedQuestion(String question, List<String> answers, String correctAnswer) {
+        this(question, answers, correctAnswer, 1);
+    }
+}
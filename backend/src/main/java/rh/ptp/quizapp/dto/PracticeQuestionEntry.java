@@ -0,0 +1,27 @@
+package rh.ptp.quizapp.dto;
+
+import rh.ptp.quizapp.model.QuizCategory;
+
+import java.time.LocalDate;
+
+/**
+ * Schlanke Projektion einer Quizfrage für den Aufbau des Übungsindex.
+ * Wird per JPQL-Konstruktorausdruck in {@link rh.ptp.quizapp.repository.QuizQuestionRepository} befüllt.
+ *
+ * @param questionId     ID der Frage
+ * @param quizId         ID des Quizzes
+ * @param difficulty     Schwierigkeitsgrad der Frage
+ * @param categoryMaskLo untere Kategorie-Bitmaske des Quizzes
+ * @param categoryMaskHi obere Kategorie-Bitmaske des Quizzes
+ * @param date           Datum des Quizzes (nur bei täglichen Quizzes gesetzt)
+ */
+public record PracticeQuestionEntry(long questionId, long quizId, int difficulty, long categoryMaskLo,
+                                    long categoryMaskHi, LocalDate date) {
+
+    /**
+     * @return Datum des täglichen Quizzes oder {@code null}, wenn es kein tägliches Quiz ist
+     */
+    public LocalDate dailyQuizDate() {
+        return (categoryMaskLo & QuizCategory.DAILY_QUIZ.maskLo()) != 0 ? date : null;
+    }
+}
@@ -0,0 +1,12 @@
+package rh.ptp.quizapp.dto;
+
+/**
+ * Quizfrage mit MinHash-Signatur, per JPQL-Konstruktorausdruck befüllt.
+ *
+ * @param id       ID der Frage
+ * @param quizId   ID des Quizzes
+ * @param question Fragetext
+ * @param minHash  serialisierte Signatur
+ */
+public record QuestionSignatureRow(long id, long quizId, String question, byte[] minHash) {
+}
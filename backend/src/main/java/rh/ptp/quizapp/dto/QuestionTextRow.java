@@ -0,0 +1,10 @@
+package rh.ptp.quizapp.dto;
+
+/**
+ * ID und Text einer Quizfrage, per JPQL-Konstruktorausdruck befüllt.
+ *
+ * @param id       ID der Frage
+ * @param question Fragetext
+ */
+public record QuestionTextRow(long id, String question) {
+}
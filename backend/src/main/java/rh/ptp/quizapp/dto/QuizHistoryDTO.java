@@ -1,6 +1,8 @@
 package rh.ptp.quizapp.dto;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
+
 import java.time.LocalDateTime;
 
 /**
@@ -8,6 +10,7 @@ import java.time.LocalDateTime;
  * Enthält Informationen über das Quiz, die erreichte Punktzahl und den Zeitpunkt.
  */
 @Data
+@NoArgsConstructor
 public class QuizHistoryDTO {
 
     /**
@@ -54,4 +57,24 @@ public class QuizHistoryDTO {
      * Gibt an, ob es sich bei dem Quiz um das tägliche Quiz handelt.
      */
     private boolean isDailyQuiz;
+
+    /**
+     * Konstruktor für die Projektion in {@link rh.ptp.quizapp.repository.QuizResultRepository},
+     * damit die Historie ohne Laden der Quiz-Entitäten ermittelt werden kann.
+     *
+     * @param id               ID des Quizdurchlaufs
+     * @param quizId           ID des gespielten Quizzes
+     * @param quizTitle        Titel des gespielten Quizzes
+     * @param score            erzielte Punktzahl
+     * @param maxPossibleScore maximal erreichbare Punktzahl
+     * @param playedAt         Zeitpunkt des Durchlaufs
+     */
+    public QuizHistoryDTO(Long id, Long quizId, String quizTitle, int score, int maxPossibleScore, LocalDateTime playedAt) {
+        this.id = id;
+        this.quizId = quizId;
+        this.quizTitle = quizTitle;
+        this.score = score;
+        this.maxPossibleScore = maxPossibleScore;
+        this.playedAt = playedAt;
+    }
 }
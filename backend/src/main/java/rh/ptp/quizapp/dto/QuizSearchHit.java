@@ -0,0 +1,21 @@
+package rh.ptp.quizapp.dto;
+
+/**
+ * Projektion eines Treffers der Volltextsuche, wie er von
+ * {@link rh.ptp.quizapp.repository.QuizRepository#searchPublicQuizzes} geliefert wird.
+ * Die Hervorhebungen enthalten die Rohausgabe von {@code ts_headline}.
+ */
+public interface QuizSearchHit {
+
+    Long getQuizId();
+
+    String getTitle();
+
+    Double getRank();
+
+    String getTitleHighlight();
+
+    String getDescriptionHighlight();
+
+    String getQuestionHighlight();
+}
@@ -0,0 +1,41 @@
+package rh.ptp.quizapp.dto;
+
+import lombok.Data;
+
+/**
+ * Datenübertragungsobjekt für einen Treffer der Volltextsuche über Quizzes und Fragen.
+ * Die Hervorhebungen sind HTML-escaped, Treffer sind mit {@code <mark>} ausgezeichnet.
+ */
+@Data
+public class QuizSearchResultDTO {
+
+    /**
+     * ID des gefundenen Quizzes.
+     */
+    private Long quizId;
+
+    /**
+     * Titel des Quizzes.
+     */
+    private String title;
+
+    /**
+     * Relevanz des Treffers (höher ist besser).
+     */
+    private double rank;
+
+    /**
+     * Titel mit hervorgehobenen Suchbegriffen.
+     */
+    private String titleHighlight;
+
+    /**
+     * Ausschnitt der Beschreibung mit hervorgehobenen Suchbegriffen.
+     */
+    private String descriptionHighlight;
+
+    /**
+     * Ausschnitt der am besten passenden Frage oder {@code null}, wenn keine Frage passt.
+     */
+    private String questionHighlight;
+}
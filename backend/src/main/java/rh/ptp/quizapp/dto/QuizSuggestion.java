@@ -0,0 +1,11 @@
+package rh.ptp.quizapp.dto;
+
+/**
+ * Vorschlag der Typeahead-Suche.
+ *
+ * @param quizId      ID des Quizzes
+ * @param title       Titel des Quizzes
+ * @param creatorName Name des Erstellers
+ */
+public record QuizSuggestion(long quizId, String title, String creatorName) {
+}
@@ -0,0 +1,28 @@
+package rh.ptp.quizapp.dto;
+
+import rh.ptp.quizapp.model.QuizCategory;
+
+import java.time.LocalDate;
+
+/**
+ * Schlanke Projektion eines Quizzes für den Aufbau des Typeahead-Index.
+ * Wird per JPQL-Konstruktorausdruck in {@link rh.ptp.quizapp.repository.QuizRepository} befüllt.
+ *
+ * @param quizId         ID des Quizzes
+ * @param title          Titel des Quizzes
+ * @param creatorId      ID des Erstellers oder {@code null}, wenn das Quiz keinen Ersteller hat
+ * @param creatorName    Name des Erstellers
+ * @param isPublic       true, wenn das Quiz öffentlich ist
+ * @param categoryMaskLo untere Kategorie-Bitmaske
+ * @param date           Datum des Quizzes (nur bei täglichen Quizzes gesetzt)
+ */
+public record QuizTypeaheadEntry(long quizId, String title, Long creatorId, String creatorName, boolean isPublic,
+                                 long categoryMaskLo, LocalDate date) {
+
+    /**
+     * @return Datum des täglichen Quizzes oder {@code null}, wenn es kein tägliches Quiz ist
+     */
+    public LocalDate dailyQuizDate() {
+        return (categoryMaskLo & QuizCategory.DAILY_QUIZ.maskLo()) != 0 ? date : null;
+    }
+}
@@ -0,0 +1,32 @@
+package rh.ptp.quizapp.dto;
+
+import rh.ptp.quizapp.model.QuizCategory;
+
+import java.time.LocalDate;
+
+/**
+ * Schlanke Projektion eines Quizzes für die Prüfung bedingter Anfragen, ohne Fragen und Antworten zu laden.
+ * Wird per JPQL-Konstruktorausdruck in {@link rh.ptp.quizapp.repository.QuizRepository} befüllt.
+ *
+ * @param quizId         ID des Quizzes
+ * @param version        Version für optimistisches Sperren
+ * @param creatorName    Name des Erstellers
+ * @param categoryMaskLo untere Kategorie-Bitmaske
+ * @param date           Datum des Quizzes (nur bei veröffentlichten täglichen Quizzes gesetzt)
+ */
+public record QuizVersionInfo(long quizId, long version, String creatorName, long categoryMaskLo, LocalDate date) {
+
+    /**
+     * @return true, wenn es sich um ein tägliches Quiz handelt
+     */
+    public boolean isDailyQuiz() {
+        return (categoryMaskLo & QuizCategory.DAILY_QUIZ.maskLo()) != 0;
+    }
+
+    /**
+     * @return true bei einem vorab generierten, noch nicht veröffentlichten Tagesquiz
+     */
+    public boolean isBufferedDailyQuiz() {
+        return isDailyQuiz() && date == null;
+    }
+}
@@ -0,0 +1,12 @@
+package rh.ptp.quizapp.dto;
+
+/**
+ * Bestehende Quizfrage, die einem Fragetext ähnelt.
+ *
+ * @param questionId ID der Frage
+ * @param quizId     ID des Quizzes
+ * @param question   Fragetext
+ * @param similarity geschätzte Jaccard-Ähnlichkeit zwischen 0 und 1
+ */
+public record SimilarQuestion(long questionId, long quizId, String question, double similarity) {
+}
@@ -0,0 +1,12 @@
+package rh.ptp.quizapp.dto;
+
+/**
+ * Typisierte Projektion einer Zeile der Bestenliste.
+ * Wird direkt per JPQL-Konstruktorausdruck in {@link rh.ptp.quizapp.repository.QuizResultRepository} befüllt.
+ *
+ * @param userId   ID des Benutzers
+ * @param username Name des Benutzers
+ * @param score    Summe der gewerteten Punkte
+ */
+public record UserScore(long userId, String username, long score) {
+}
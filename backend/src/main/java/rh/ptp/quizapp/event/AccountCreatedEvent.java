@@ -0,0 +1,11 @@
+package rh.ptp.quizapp.event;
+
+/**
+ * Ein Admin hat ein Benutzerkonto angelegt.
+ *
+ * @param email    E-Mail-Adresse des Benutzers
+ * @param username Name des Benutzers
+ * @param password vom Admin vergebenes Passwort im Klartext
+ */
+public record AccountCreatedEvent(String email, String username, String password) {
+}
@@ -0,0 +1,10 @@
+package rh.ptp.quizapp.event;
+
+/**
+ * Ein Admin hat ein Benutzerkonto gelöscht.
+ *
+ * @param email    E-Mail-Adresse des Benutzers
+ * @param username Name des Benutzers
+ */
+public record AccountDeletedEvent(String email, String username) {
+}
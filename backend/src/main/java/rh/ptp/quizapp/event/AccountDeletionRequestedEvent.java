@@ -0,0 +1,10 @@
+package rh.ptp.quizapp.event;
+
+/**
+ * Ein Benutzer hat sein Konto zur Löschung vorgemerkt.
+ *
+ * @param email    E-Mail-Adresse des Benutzers
+ * @param username Name des Benutzers
+ */
+public record AccountDeletionRequestedEvent(String email, String username) {
+}
@@ -0,0 +1,10 @@
+package rh.ptp.quizapp.event;
+
+/**
+ * Ein zur Löschung vorgemerktes Konto wurde durch eine Anmeldung reaktiviert.
+ *
+ * @param email    E-Mail-Adresse des Benutzers
+ * @param username Name des Benutzers
+ */
+public record AccountReactivatedEvent(String email, String username) {
+}
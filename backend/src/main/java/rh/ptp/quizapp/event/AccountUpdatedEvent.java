@@ -0,0 +1,10 @@
+package rh.ptp.quizapp.event;
+
+/**
+ * Ein Admin hat Daten eines Benutzerkontos geändert, ohne dass eine speziellere Benachrichtigung greift.
+ *
+ * @param email    neue E-Mail-Adresse des Benutzers
+ * @param username neuer Name des Benutzers
+ */
+public record AccountUpdatedEvent(String email, String username) {
+}
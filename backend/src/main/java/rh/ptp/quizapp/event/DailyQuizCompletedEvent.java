@@ -0,0 +1,12 @@
+package rh.ptp.quizapp.event;
+
+import java.time.LocalDate;
+
+/**
+ * Ein Benutzer hat an einem Tag erstmals ein tägliches Quiz abgeschlossen.
+ *
+ * @param userId ID des Benutzers
+ * @param date   Tag des Abschlusses
+ */
+public record DailyQuizCompletedEvent(long userId, LocalDate date) {
+}
@@ -0,0 +1,12 @@
+package rh.ptp.quizapp.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Die Generierung eines Quizzes über die KI-API ist endgültig fehlgeschlagen.
+ *
+ * @param errorMessage letzte Fehlermeldung
+ * @param failedAt     Zeitpunkt des Fehlschlags
+ */
+public record DailyQuizGenerationFailedEvent(String errorMessage, LocalDateTime failedAt) {
+}
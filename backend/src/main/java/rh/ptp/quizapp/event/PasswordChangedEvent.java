@@ -0,0 +1,11 @@
+package rh.ptp.quizapp.event;
+
+/**
+ * Ein Admin hat das Passwort eines Benutzers geändert.
+ *
+ * @param email    E-Mail-Adresse des Benutzers
+ * @param username Name des Benutzers
+ * @param password neues Passwort im Klartext
+ */
+public record PasswordChangedEvent(String email, String username, String password) {
+}
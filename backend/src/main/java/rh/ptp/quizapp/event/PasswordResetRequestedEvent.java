@@ -0,0 +1,11 @@
+package rh.ptp.quizapp.event;
+
+/**
+ * Für einen Benutzer wurde ein Token zum Zurücksetzen des Passworts erstellt.
+ *
+ * @param email    E-Mail-Adresse des Benutzers
+ * @param username Name des Benutzers
+ * @param token    Token zum Zurücksetzen
+ */
+public record PasswordResetRequestedEvent(String email, String username, String token) {
+}
@@ -0,0 +1,18 @@
+package rh.ptp.quizapp.event;
+
+import rh.ptp.quizapp.model.QuizCategory;
+
+import java.util.List;
+
+/**
+ * Ein Quiz wurde gelöscht.
+ *
+ * @param quizId     ID des gelöschten Quizzes
+ * @param categories Kategorien, unter denen das Quiz öffentlich war; leer für private Quizzes
+ */
+public record QuizDeletedEvent(long quizId, List<QuizCategory> categories) {
+
+    public QuizDeletedEvent {
+        categories = List.copyOf(categories);
+    }
+}
@@ -0,0 +1,40 @@
+package rh.ptp.quizapp.event;
+
+import rh.ptp.quizapp.model.Quiz;
+import rh.ptp.quizapp.model.QuizCategory;
+
+import java.util.List;
+
+/**
+ * Ein Quiz wurde angelegt, geändert oder veröffentlicht.
+ *
+ * @param quiz               das gespeicherte Quiz
+ * @param previousCategories Kategorien, unter denen das Quiz vor der Änderung öffentlich war; leer für neue oder bisher private Quizzes
+ * @param categories         Kategorien, unter denen das Quiz jetzt öffentlich ist; leer für private Quizzes
+ */
+public record QuizSavedEvent(Quiz quiz, List<QuizCategory> previousCategories, List<QuizCategory> categories) {
+
+    public QuizSavedEvent {
+        previousCategories = List.copyOf(previousCategories);
+        categories = List.copyOf(categories);
+    }
+
+    /**
+     * Ereignis für ein Quiz, das vorher nicht öffentlich war.
+     *
+     * @param quiz das gespeicherte Quiz
+     */
+    public QuizSavedEvent(Quiz quiz) {
+        this(quiz, List.of(), publicCategories(quiz));
+    }
+
+    /**
+     * Liefert die Kategorien, unter denen ein Quiz öffentlich gezählt wird.
+     *
+     * @param quiz das Quiz
+     * @return Kategorien des Quizzes oder eine leere Liste, wenn es nicht öffentlich ist
+     */
+    public static List<QuizCategory> publicCategories(Quiz quiz) {
+        return quiz.isPublic() ? List.copyOf(quiz.getCategories()) : List.of();
+    }
+}
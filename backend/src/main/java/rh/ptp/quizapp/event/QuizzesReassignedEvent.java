@@ -0,0 +1,10 @@
+package rh.ptp.quizapp.event;
+
+/**
+ * Alle Quizzes eines Benutzers wurden einem anderen Benutzer übertragen.
+ *
+ * @param fromUserId ID des bisherigen Erstellers
+ * @param toUserId   ID des neuen Erstellers
+ */
+public record QuizzesReassignedEvent(long fromUserId, long toUserId) {
+}
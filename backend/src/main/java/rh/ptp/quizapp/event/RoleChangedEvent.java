@@ -0,0 +1,13 @@
+package rh.ptp.quizapp.event;
+
+import rh.ptp.quizapp.model.UserRole;
+
+/**
+ * Ein Admin hat die Rolle eines Benutzers geändert.
+ *
+ * @param email    E-Mail-Adresse des Benutzers
+ * @param username Name des Benutzers
+ * @param role     neue Rolle
+ */
+public record RoleChangedEvent(String email, String username, UserRole role) {
+}
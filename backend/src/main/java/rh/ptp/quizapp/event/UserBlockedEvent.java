@@ -0,0 +1,10 @@
+package rh.ptp.quizapp.event;
+
+/**
+ * Ein Admin hat einen Benutzer gesperrt.
+ *
+ * @param email    E-Mail-Adresse des Benutzers
+ * @param username Name des Benutzers
+ */
+public record UserBlockedEvent(String email, String username) {
+}
@@ -0,0 +1,10 @@
+package rh.ptp.quizapp.event;
+
+/**
+ * Der Name eines Benutzers hat sich geändert.
+ *
+ * @param userId ID des Benutzers
+ * @param name   neuer Name
+ */
+public record UserRenamedEvent(long userId, String name) {
+}
@@ -0,0 +1,10 @@
+package rh.ptp.quizapp.event;
+
+/**
+ * Ein Admin hat die Sperre eines Benutzers aufgehoben.
+ *
+ * @param email    E-Mail-Adresse des Benutzers
+ * @param username Name des Benutzers
+ */
+public record UserUnblockedEvent(String email, String username) {
+}
@@ -0,0 +1,11 @@
+package rh.ptp.quizapp.event;
+
+/**
+ * Für einen unbestätigten Benutzer wurde ein Verifizierungstoken erstellt.
+ *
+ * @param email    E-Mail-Adresse des Benutzers
+ * @param username Name des Benutzers
+ * @param token    Verifizierungstoken
+ */
+public record VerificationRequestedEvent(String email, String username, String token) {
+}
@@ -0,0 +1,47 @@
+package rh.ptp.quizapp.exception;
+
+/**
+ * Fehler bei einem Aufruf der KI-API über {@link rh.ptp.quizapp.util.AiGateway}.
+ * Gibt an, ob ein erneuter Versuch sinnvoll ist, und trägt die Ursache als kurzes Kennzeichen
+ * (z. B. {@code timeout}, {@code http_5xx}), das auch als Metrik-Tag verwendet wird.
+ */
+public class AiGatewayException extends RuntimeException {
+
+    private final boolean retryable;
+    private final String outcome;
+
+    /**
+     * Konstruktor.
+     *
+     * @param message   Fehlermeldung
+     * @param outcome   Kurzes Kennzeichen der Ursache
+     * @param retryable true, wenn ein erneuter Versuch sinnvoll ist
+     */
+    public AiGatewayException(String message, String outcome, boolean retryable) {
+        super(message);
+        this.outcome = outcome;
+        this.retryable = retryable;
+    }
+
+    /**
+     * Konstruktor mit Ursache.
+     *
+     * @param message   Fehlermeldung
+     * @param outcome   Kurzes Kennzeichen der Ursache
+     * @param retryable true, wenn ein erneuter Versuch sinnvoll ist
+     * @param cause     Ursprüngliche Exception
+     */
+    public AiGatewayException(String message, String outcome, boolean retryable, Throwable cause) {
+        super(message, cause);
+        this.outcome = outcome;
+        this.retryable = retryable;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+
+    public String getOutcome() {
+        return outcome;
+    }
+}
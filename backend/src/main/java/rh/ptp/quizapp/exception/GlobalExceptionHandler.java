@@ -44,6 +44,19 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(errorBody(errorMsg));
     }
 
+    /**
+     * Behandelt {@link org.springframework.dao.OptimisticLockingFailureException}, wenn eine Entität
+     * seit dem Laden durch den Client geändert wurde.
+     *
+     * @param ex Die geworfene OptimisticLockingFailureException
+     * @return ResponseEntity mit HTTP-Status 412 (Precondition Failed) und Fehlermeldung
+     */
+    @ExceptionHandler(org.springframework.dao.OptimisticLockingFailureException.class)
+    public ResponseEntity<?> handleOptimisticLocking(org.springframework.dao.OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(errorBody("Die Daten wurden zwischenzeitlich geändert. Bitte neu laden."));
+    }
+
     /**
      * Allgemeiner Fallback für alle anderen nicht speziell behandelten {@link RuntimeException}s.
      *
@@ -0,0 +1,111 @@
+package rh.ptp.quizapp.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persistierter Zustand der Löschung eines Benutzerkontos.
+ * <p>
+ * Für jeden zur Löschung vorgemerkten Benutzer wird ein Auftrag angelegt, der Warnung,
+ * schrittweise Löschung und Abschluss festhält. Nach einem Abbruch wird beim nächsten Lauf
+ * mit dem gespeicherten Schritt fortgefahren. Name und E-Mail-Adresse werden übernommen,
+ * damit die Benachrichtigungen auch nach dem Löschen des Benutzers verschickt werden können.
+ * </p>
+ */
+@Entity
+@Data
+@Table(name = "account_deletion_jobs", indexes = {
+        @Index(name = "idx_account_deletion_jobs_status_requested_at", columnList = "status, requested_at"),
+        @Index(name = "idx_account_deletion_jobs_user_id", columnList = "user_id")
+})
+public class AccountDeletionJob {
+
+    /**
+     * Eindeutige Kennung des Auftrags.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * ID des zu löschenden Benutzers; bewusst ohne Fremdschlüssel, da der Benutzer am Ende gelöscht wird.
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * E-Mail-Adresse des Benutzers zum Zeitpunkt der Anfrage.
+     */
+    @Column(nullable = false)
+    private String email;
+
+    /**
+     * Name des Benutzers zum Zeitpunkt der Anfrage.
+     */
+    private String username;
+
+    /**
+     * Aktueller Zustand des Auftrags.
+     */
+    @Column(nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private AccountDeletionStatus status;
+
+    /**
+     * Nächster auszuführender Löschschritt, solange der Auftrag im Zustand {@code DELETING} ist.
+     */
+    @Column(length = 20)
+    @Enumerated(EnumType.STRING)
+    private AccountDeletionStep step;
+
+    /**
+     * Zeitpunkt, ab dem die Fristen für Warnung und Löschung laufen.
+     */
+    @Column(name = "requested_at", nullable = false)
+    private LocalDateTime requestedAt;
+
+    /**
+     * Zeitpunkt, zu dem die Warnung eingeplant wurde.
+     */
+    private LocalDateTime warnedAt;
+
+    /**
+     * Zeitpunkt des Abschlusses oder Abbruchs.
+     */
+    private LocalDateTime finishedAt;
+
+    /**
+     * Anzahl der bisher gelöschten oder übertragenen Zeilen.
+     */
+    @Column(nullable = false)
+    private long rowsProcessed;
+
+    /**
+     * Anzahl fehlgeschlagener Läufe.
+     */
+    @Column(nullable = false)
+    private int attempts;
+
+    /**
+     * Meldung des letzten Fehlers.
+     */
+    @Column(length = 1000)
+    private String lastError;
+
+    /**
+     * Zeitpunkt der letzten Änderung.
+     */
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Wird vor jedem Speichern aufgerufen und setzt den Änderungszeitpunkt.
+     */
+    @PrePersist
+    @PreUpdate
+    protected void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+}
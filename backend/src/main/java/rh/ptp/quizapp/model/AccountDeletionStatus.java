@@ -0,0 +1,32 @@
+package rh.ptp.quizapp.model;
+
+/**
+ * Zustand eines {@link AccountDeletionJob}.
+ */
+public enum AccountDeletionStatus {
+
+    /**
+     * Löschanfrage erfasst, die Warnung wurde noch nicht verschickt.
+     */
+    SCHEDULED,
+
+    /**
+     * Warnung verschickt, die Löschung steht noch aus.
+     */
+    WARNED,
+
+    /**
+     * Die Daten des Benutzers werden schrittweise gelöscht.
+     */
+    DELETING,
+
+    /**
+     * Der Benutzer und seine Daten wurden gelöscht.
+     */
+    COMPLETED,
+
+    /**
+     * Der Benutzer hat sein Konto vor der Löschung reaktiviert.
+     */
+    CANCELLED
+}
@@ -0,0 +1,49 @@
+package rh.ptp.quizapp.model;
+
+/**
+ * Schritte der Kontolöschung in der Reihenfolge ihrer Ausführung.
+ * <p>
+ * Abhängige Datensätze werden vor dem Benutzer entfernt, Bewertungen vor der Übertragung
+ * der Quizzes an den Admin-Benutzer.
+ * </p>
+ */
+public enum AccountDeletionStep {
+
+    /**
+     * Quiz-Ergebnisse des Benutzers.
+     */
+    QUIZ_RESULTS,
+
+    /**
+     * Favoriten des Benutzers.
+     */
+    QUIZ_FAVORITES,
+
+    /**
+     * Bewertungen der vom Benutzer erstellten Quizzes.
+     */
+    QUIZ_RATINGS,
+
+    /**
+     * Übertragung der vom Benutzer erstellten Quizzes an den Admin-Benutzer.
+     */
+    QUIZZES,
+
+    /**
+     * Authentifizierungs-Token des Benutzers.
+     */
+    TOKEN,
+
+    /**
+     * Der Benutzer selbst.
+     */
+    USER;
+
+    /**
+     * @return der folgende Schritt oder {@code null} nach dem letzten Schritt
+     */
+    public AccountDeletionStep next() {
+        AccountDeletionStep[] steps = values();
+        return ordinal() + 1 < steps.length ? steps[ordinal() + 1] : null;
+    }
+}
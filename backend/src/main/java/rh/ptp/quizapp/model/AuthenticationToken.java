@@ -15,7 +15,11 @@ import java.util.UUID;
  * </p>
  */
 @Entity
-@Table(name = "authentication_token")
+@Table(name = "authentication_token", indexes = {
+        @Index(name = "idx_authentication_token_expiry_date", columnList = "expiry_date")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_authentication_token_token", columnNames = "Token")
+})
 @Data
 @NoArgsConstructor
 public class AuthenticationToken {
@@ -36,6 +40,7 @@ public class AuthenticationToken {
     /**
      * Ablaufzeitpunkt des Tokens. Nach Ablauf ist das Token ungültig.
      */
+    @Column(name = "expiry_date")
     private LocalDateTime expiryDate;
 
     /**
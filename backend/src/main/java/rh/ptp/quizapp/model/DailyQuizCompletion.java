@@ -0,0 +1,59 @@
+package rh.ptp.quizapp.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Vermerkt, dass ein Benutzer an einem Tag ein tägliches Quiz abgeschlossen hat.
+ * <p>
+ * Der Primärschlüssel (Benutzer, Datum) macht die Prüfung „heute schon gespielt?“ zu einem
+ * einzelnen Zugriff über den Schlüssel, ohne Join über die Kategorien der Quiz-Ergebnisse.
+ * </p>
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(DailyQuizCompletion.Key.class)
+@Table(name = "daily_quiz_completions", indexes = {
+        @Index(name = "idx_daily_quiz_completions_date", columnList = "completion_date")
+})
+public class DailyQuizCompletion {
+
+    /**
+     * ID des Benutzers.
+     */
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    /**
+     * Tag des Abschlusses.
+     */
+    @Id
+    @Column(name = "completion_date")
+    private LocalDate completionDate;
+
+    /**
+     * Zeitpunkt des ersten Abschlusses an diesem Tag.
+     */
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+
+    /**
+     * Zusammengesetzter Primärschlüssel.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private LocalDate completionDate;
+    }
+}
@@ -0,0 +1,94 @@
+package rh.ptp.quizapp.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Zu versendende E-Mail im Outbox-Muster.
+ * <p>
+ * Die Nachricht wird in derselben Transaktion gespeichert wie die Änderung, die sie auslöst,
+ * und erst nach deren Commit vom Versand abgeholt. Ein fehlgeschlagener Versand rollt damit
+ * keine Datenänderung zurück und wird später wiederholt.
+ * </p>
+ */
+@Entity
+@Data
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_pending", columnList = "sent_at, next_attempt_at")
+})
+public class EmailOutboxMessage {
+
+    /**
+     * Eindeutige Kennung der Nachricht.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Empfängeradresse.
+     */
+    @Column(nullable = false)
+    private String recipient;
+
+    /**
+     * Betreff der E-Mail.
+     */
+    @Column(nullable = false)
+    private String subject;
+
+    /**
+     * Name des Thymeleaf-Templates.
+     */
+    @Column(nullable = false, length = 100)
+    private String template;
+
+    /**
+     * Template-Variablen als JSON-Objekt.
+     */
+    @Column(nullable = false, length = 4000)
+    private String variables;
+
+    /**
+     * Zeitpunkt, zu dem die Nachricht eingeplant wurde.
+     */
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Frühester Zeitpunkt des nächsten Versandversuchs.
+     */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * Zeitpunkt des erfolgreichen Versands, sonst {@code null}.
+     */
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    /**
+     * Anzahl fehlgeschlagener Versandversuche.
+     */
+    @Column(nullable = false)
+    private int attempts;
+
+    /**
+     * Meldung des letzten Fehlers.
+     */
+    @Column(length = 1000)
+    private String lastError;
+
+    /**
+     * Wird vor dem Speichern aufgerufen und setzt Erstellungszeitpunkt und ersten Versandzeitpunkt.
+     */
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+}
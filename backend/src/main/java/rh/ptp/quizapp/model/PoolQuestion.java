@@ -0,0 +1,97 @@
+package rh.ptp.quizapp.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.ToString;
+import rh.ptp.quizapp.util.QuestionText;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Von der KI auf Vorrat generierte Frage einer Kategorie.
+ * <p>
+ * Aus dem Fragenpool werden Tagesquizzes und Übungsquizzes lokal zusammengestellt,
+ * ohne dafür die KI-API aufzurufen. Der Hash des normalisierten Fragetextes ist eindeutig
+ * und wird auch mit den Fragen bestehender Quizzes abgeglichen.
+ * </p>
+ */
+@Entity
+@Data
+@Table(name = "question_pool", indexes = {
+        @Index(name = "idx_question_pool_category_used", columnList = "category, used_at")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_question_pool_text_hash", columnNames = "text_hash")
+})
+public class PoolQuestion {
+
+    /**
+     * Eindeutige Kennung der Frage.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Kategorie, für die die Frage generiert wurde.
+     */
+    @Column(nullable = false, length = 50)
+    @Enumerated(EnumType.STRING)
+    private QuizCategory category;
+
+    /**
+     * Der Text der Frage.
+     */
+    @Column(nullable = false, length = 1000)
+    private String question;
+
+    /**
+     * Die möglichen Antworten.
+     */
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "question_pool_answers", joinColumns = @JoinColumn(name = "pool_question_id"),
+            indexes = @Index(name = "idx_question_pool_answers_question_id", columnList = "pool_question_id"))
+    @Column(name = "answer", length = 500)
+    private List<String> answers = new ArrayList<>();
+
+    /**
+     * Die richtige Antwort aus der Liste der möglichen Antworten.
+     */
+    @Column(nullable = false)
+    private String correctAnswer;
+
+    /**
+     * Schwierigkeitsgrad der Frage (1–5).
+     */
+    @Column(nullable = false)
+    private int difficulty;
+
+    /**
+     * Hash des normalisierten Fragetextes.
+     */
+    @ToString.Exclude
+    @Column(name = "text_hash", nullable = false)
+    private long textHash;
+
+    /**
+     * Zeitpunkt, zu dem die Frage in den Pool aufgenommen wurde.
+     */
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Zeitpunkt, zu dem die Frage in ein Tagesquiz übernommen wurde, sonst {@code null}.
+     */
+    @Column(name = "used_at")
+    private LocalDateTime usedAt;
+
+    /**
+     * Wird vor dem Speichern aufgerufen und setzt Erstellungszeitpunkt und Hash des Fragetextes.
+     */
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        textHash = QuestionText.hash(question);
+    }
+}
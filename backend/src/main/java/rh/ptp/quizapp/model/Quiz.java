@@ -1,8 +1,10 @@
 package rh.ptp.quizapp.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.Getter;
 import lombok.Setter;
@@ -21,14 +23,19 @@ import java.util.List;
  */
 @Data
 @Entity
-@Table(name = "quizzes")
+@Table(name = "quizzes", indexes = {
+        @Index(name = "idx_quizzes_creator_id", columnList = "creator_id"),
+        @Index(name = "idx_quizzes_quiz_date", columnList = "quiz_date")
+})
 public class Quiz {
 
     /**
      * Eindeutige ID des Quizzes (Primärschlüssel).
+     * Wird aus einer Sequenz in Blöcken vergeben, sodass Hibernate Inserts bündeln kann.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "quizzes_id")
+    @SequenceGenerator(name = "quizzes_id", sequenceName = "quizzes_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -67,10 +74,38 @@ public class Quiz {
      */
     @ElementCollection
     @Size(max = 3)
-    @CollectionTable(name = "quiz_categories", joinColumns = @JoinColumn(name = "quiz_id"))
+    @CollectionTable(name = "quiz_categories", joinColumns = @JoinColumn(name = "quiz_id"), indexes = {
+            @Index(name = "idx_quiz_categories_category_quiz", columnList = "category, quiz_id"),
+            @Index(name = "idx_quiz_categories_quiz_id", columnList = "quiz_id")
+    })
     @Column(name = "category")
     private List<QuizCategory> categories = new ArrayList<>();
 
+    /**
+     * Bitmaske der Kategorien mit Ordinalwert 0–63 (siehe {@link QuizCategory#maskLo()}).
+     * Wird beim Setzen der Kategorien gepflegt und erlaubt Kategorie-Filter ohne Join auf {@code quiz_categories}.
+     */
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = "category_mask_lo", nullable = false, columnDefinition = "bigint not null default 0")
+    private long categoryMaskLo;
+
+    /**
+     * Bitmaske der Kategorien mit Ordinalwert 64–127 (siehe {@link QuizCategory#maskHi()}).
+     */
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = "category_mask_hi", nullable = false, columnDefinition = "bigint not null default 0")
+    private long categoryMaskHi;
+
+    /**
+     * Version für optimistisches Sperren; wird nach außen als ETag bereitgestellt.
+     */
+    @JsonIgnore
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint not null default 0")
+    private long version;
+
     /**
      * Datum, an dem das Quiz zugewiesen oder veröffentlicht wurde.
      */
@@ -106,6 +141,45 @@ public class Quiz {
         return categories.contains(QuizCategory.DAILY_QUIZ);
     }
 
+    /**
+     * Prüft, ob es sich um ein vorab generiertes, noch nicht veröffentlichtes Tagesquiz handelt.
+     * Solche Quizzes sind privat und haben noch kein Datum; es wird erst bei der Veröffentlichung gesetzt.
+     *
+     * @return true, wenn DAILY_QUIZ enthalten ist und noch kein Datum gesetzt wurde
+     */
+    @JsonIgnore
+    public boolean isBufferedDailyQuiz() {
+        return isDailyQuiz() && date == null;
+    }
+
+    /**
+     * Setzt die Kategorien und aktualisiert die Kategorie-Bitmaske.
+     *
+     * @param categories neue Kategorien
+     */
+    public void setCategories(List<QuizCategory> categories) {
+        this.categories = categories;
+        updateCategoryMask();
+    }
+
+    /**
+     * Berechnet die Kategorie-Bitmaske aus der aktuellen Kategorienliste neu.
+     */
+    public void updateCategoryMask() {
+        long lo = 0L;
+        long hi = 0L;
+        if (categories != null) {
+            for (QuizCategory category : categories) {
+                if (category != null) {
+                    lo |= category.maskLo();
+                    hi |= category.maskHi();
+                }
+            }
+        }
+        categoryMaskLo = lo;
+        categoryMaskHi = hi;
+    }
+
     /**
      * Fügt die Kategorie DAILY_QUIZ hinzu oder entfernt sie je nach Status.
      *
@@ -118,23 +192,26 @@ public class Quiz {
             } else {
                 categories.remove(QuizCategory.DAILY_QUIZ);
             }
+            updateCategoryMask();
         }
     }
 
     /**
-     * Wird vor dem Speichern aufgerufen und setzt Erstellungs- und Änderungszeitpunkt.
+     * Wird vor dem Speichern aufgerufen und setzt Erstellungs- und Änderungszeitpunkt sowie die Kategorie-Bitmaske.
      */
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        updateCategoryMask();
     }
 
     /**
-     * Wird vor dem Update aufgerufen und aktualisiert den Änderungszeitpunkt.
+     * Wird vor dem Update aufgerufen und aktualisiert den Änderungszeitpunkt sowie die Kategorie-Bitmaske.
      */
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        updateCategoryMask();
     }
 }
\ No newline at end of file
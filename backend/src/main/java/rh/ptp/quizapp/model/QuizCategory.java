@@ -5,6 +5,10 @@ package rh.ptp.quizapp.model;
  * die für Quizfragen verwendet werden können. Jede Kategorie besitzt
  * einen Namen, der zur Anzeige in der
  * Benutzeroberfläche genutzt wird.
+ * <p>
+ * Kategorien werden über ihren Ordinalwert gespeichert und in der Kategorie-Bitmaske
+ * eines {@link Quiz} abgebildet. Neue Kategorien daher nur am Ende anfügen (max. 128).
+ * </p>
  */
 public enum QuizCategory {
     DAILY_QUIZ("Tägliches Quiz"),
@@ -108,6 +112,13 @@ public enum QuizCategory {
     OCEANOGRAPHY("Ozeanografie"),
     SPACE_EXPLORATION("Raumfahrt"),
     GASTRONOMY("Gastronomie");
+
+    static {
+        if (values().length > 128) {
+            throw new IllegalStateException("Die Kategorie-Bitmaske unterstützt maximal 128 Kategorien");
+        }
+    }
+
     private final String displayName;
 
     QuizCategory(String displayName) {
@@ -117,4 +128,22 @@ public enum QuizCategory {
     public String getDisplayName() {
         return displayName;
     }
+
+    /**
+     * Liefert das Bit dieser Kategorie im unteren Teil der Kategorie-Bitmaske (Ordinalwert 0–63).
+     *
+     * @return Bitmaske mit genau einem gesetzten Bit oder 0, wenn die Kategorie im oberen Teil liegt
+     */
+    public long maskLo() {
+        return ordinal() < 64 ? 1L << ordinal() : 0L;
+    }
+
+    /**
+     * Liefert das Bit dieser Kategorie im oberen Teil der Kategorie-Bitmaske (Ordinalwert 64–127).
+     *
+     * @return Bitmaske mit genau einem gesetzten Bit oder 0, wenn die Kategorie im unteren Teil liegt
+     */
+    public long maskHi() {
+        return ordinal() >= 64 ? 1L << (ordinal() - 64) : 0L;
+    }
 }
@@ -10,7 +10,11 @@ import java.time.LocalDateTime;
  */
 @Data
 @Entity
-@Table(name = "quiz_favorites")
+@Table(name = "quiz_favorites", indexes = {
+        @Index(name = "idx_quiz_favorites_quiz_id", columnList = "quiz_id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_quiz_favorites_user_quiz", columnNames = {"user_id", "quiz_id"})
+})
 public class QuizFavorite {
 
     /**
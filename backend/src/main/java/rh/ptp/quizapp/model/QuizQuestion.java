@@ -1,12 +1,19 @@
 package rh.ptp.quizapp.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import rh.ptp.quizapp.util.MinHash;
+import rh.ptp.quizapp.util.QuestionText;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Repräsentiert eine Frage innerhalb eines Quizzes, einschließlich Fragetext,
@@ -14,14 +21,18 @@ import java.util.List;
  */
 @Entity
 @Data
-@Table(name = "QUIZ_QUESTIONS")
+@Table(name = "QUIZ_QUESTIONS", indexes = {
+        @Index(name = "idx_quiz_questions_text_hash", columnList = "text_hash"),
+        @Index(name = "idx_quiz_questions_quiz_id", columnList = "quiz_id")
+})
 public class QuizQuestion {
 
     /**
      * Eindeutige Kennung der Quizfrage.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "quiz_questions_id")
+    @SequenceGenerator(name = "quiz_questions_id", sequenceName = "quiz_questions_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -34,7 +45,8 @@ public class QuizQuestion {
      * Eine Liste möglicher Antworten zur Frage.
      */
     @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "question_answers", joinColumns = @JoinColumn(name = "question_id"))
+    @CollectionTable(name = "question_answers", joinColumns = @JoinColumn(name = "question_id"),
+            indexes = @Index(name = "idx_question_answers_question_id", columnList = "question_id"))
     @Column(name = "answer", length = 500)
     private List<String> answers;
 
@@ -71,6 +83,60 @@ public class QuizQuestion {
     @Enumerated(EnumType.STRING)
     private QuestionType questionType = QuestionType.MULTIPLE_CHOICE;
 
+    /**
+     * Hash des normalisierten Fragetextes (siehe {@link QuestionText#hash(String)}) zur Erkennung identischer Fragen.
+     */
+    @JsonIgnore
+    @ToString.Exclude
+    @Column(name = "text_hash")
+    private Long textHash;
+
+    /**
+     * MinHash-Signatur des Fragetextes (siehe {@link MinHash}) zur Erkennung ähnlicher Fragen.
+     */
+    @JsonIgnore
+    @ToString.Exclude
+    @Column(name = "minhash", length = MinHash.SIGNATURE_BYTES)
+    private byte[] minHash;
+
+    /**
+     * LSH-Buckets der Signatur; Fragen mit gemeinsamem Bucket sind Kandidaten für Beinahe-Duplikate.
+     */
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ElementCollection
+    @CollectionTable(name = "quiz_question_lsh_buckets", joinColumns = @JoinColumn(name = "question_id"),
+            indexes = @Index(name = "idx_quiz_question_lsh_buckets_question_id", columnList = "question_id"))
+    @Column(name = "bucket", nullable = false)
+    private Set<Long> lshBuckets = new HashSet<>();
+
+    /**
+     * Setzt den Fragetext und berechnet bei einer Änderung Signatur und LSH-Buckets neu.
+     * Die Buckets werden an Ort und Stelle ersetzt, damit Hibernate nur geänderte Zeilen schreibt.
+     *
+     * @param question der neue Fragetext
+     */
+    public void setQuestion(String question) {
+        if (Objects.equals(this.question, question) && minHash != null) {
+            return;
+        }
+        this.question = question;
+        int[] signature = MinHash.signature(question);
+        minHash = MinHash.toBytes(signature);
+        lshBuckets.clear();
+        lshBuckets.addAll(MinHash.bandKeys(signature));
+    }
+
+    /**
+     * Wird vor dem Speichern und Aktualisieren aufgerufen und berechnet den Hash des Fragetextes.
+     */
+    @PrePersist
+    @PreUpdate
+    protected void updateTextHash() {
+        textHash = QuestionText.hash(question);
+    }
+
     /**
      * Stellt sicher, dass die Antwortliste initialisiert ist und nicht null zurückgibt.
      *
@@ -9,7 +9,9 @@ import java.time.LocalDateTime;
  */
 @Data
 @Entity
-@Table(name = "quiz_ratings")
+@Table(name = "quiz_ratings", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_quiz_ratings_quiz_user", columnNames = {"quiz_id", "user_id"})
+})
 public class QuizRating {
 
     /**
@@ -9,7 +9,10 @@ import java.time.LocalDateTime;
  * Repräsentiert das Ergebnis eines Benutzers nach Abschluss eines Quizzes.
  */
 @Entity
-@Table(name = "quiz_results")
+@Table(name = "quiz_results", indexes = {
+        @Index(name = "idx_quiz_results_user_played_at", columnList = "user_id, played_at"),
+        @Index(name = "idx_quiz_results_quiz_id", columnList = "quiz_id")
+})
 @Data
 public class QuizResult {
 
@@ -17,7 +20,8 @@ public class QuizResult {
      * Eindeutige ID des Quiz-Ergebnisses.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "quiz_results_id")
+    @SequenceGenerator(name = "quiz_results_id", sequenceName = "quiz_results_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -19,7 +19,9 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_status_created_at", columnList = "user_status, created_at")
+})
 @Accessors(chain = true)
 public class User implements UserDetails {
 
@@ -52,7 +54,7 @@ public class User implements UserDetails {
     /**
      * Aktueller Status des Benutzers (z.B. aktiv, blockiert).
      */
-    @Column(nullable = false)
+    @Column(nullable = false, name = "user_status")
     private UserStatus userStatus = UserStatus.PENDING_VERIFICATION;
 
     /**
@@ -83,6 +85,7 @@ public class User implements UserDetails {
     /**
      * Erstellungszeitpunkt des Benutzers.
      */
+    @Column(name = "created_at")
     private LocalDateTime createdAt;
 
     /**
@@ -0,0 +1,66 @@
+package rh.ptp.quizapp.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import rh.ptp.quizapp.model.AccountDeletionJob;
+import rh.ptp.quizapp.model.AccountDeletionStatus;
+import rh.ptp.quizapp.model.User;
+import rh.ptp.quizapp.model.UserStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository für die Aufträge der Kontolöschung ({@link AccountDeletionJob}).
+ */
+public interface AccountDeletionJobRepository extends JpaRepository<AccountDeletionJob, Long> {
+
+    /**
+     * Liefert Benutzer mit dem angegebenen Status, für die kein offener Auftrag existiert.
+     */
+    @Query("SELECT u FROM User u WHERE u.userStatus = :status AND NOT EXISTS " +
+            "(SELECT j.id FROM AccountDeletionJob j WHERE j.userId = u.id AND j.status IN :open) ORDER BY u.id")
+    List<User> findUsersWithoutOpenJob(@Param("status") UserStatus status,
+                                       @Param("open") Collection<AccountDeletionStatus> open,
+                                       Pageable pageable);
+
+    /**
+     * Liefert Aufträge eines Zustands, deren Anfrage vor dem angegebenen Zeitpunkt liegt, älteste zuerst.
+     */
+    List<AccountDeletionJob> findByStatusAndRequestedAtBeforeOrderById(AccountDeletionStatus status,
+                                                                       LocalDateTime requestedBefore,
+                                                                       Pageable pageable);
+
+    /**
+     * Liefert die IDs der Aufträge eines Zustands nach der angegebenen ID (Keyset-Paginierung).
+     */
+    @Query("SELECT j.id FROM AccountDeletionJob j WHERE j.status = :status AND j.id > :afterId ORDER BY j.id")
+    List<Long> findIdsByStatusAfter(@Param("status") AccountDeletionStatus status,
+                                    @Param("afterId") long afterId,
+                                    Pageable pageable);
+
+    /**
+     * Zählt die Aufträge eines Zustands.
+     */
+    long countByStatus(AccountDeletionStatus status);
+
+    /**
+     * Bricht offene Aufträge ab, deren Benutzer nicht mehr zur Löschung vorgemerkt ist.
+     *
+     * @return Anzahl abgebrochener Aufträge
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE AccountDeletionJob j SET j.status = rh.ptp.quizapp.model.AccountDeletionStatus.CANCELLED, " +
+            "j.step = NULL, j.finishedAt = :now, j.updatedAt = :now " +
+            "WHERE j.status IN :open AND NOT EXISTS " +
+            "(SELECT u.id FROM User u WHERE u.id = j.userId AND u.userStatus = :status)")
+    int cancelWhereUserStatusNot(@Param("status") UserStatus status,
+                                 @Param("open") Collection<AccountDeletionStatus> open,
+                                 @Param("now") LocalDateTime now);
+}
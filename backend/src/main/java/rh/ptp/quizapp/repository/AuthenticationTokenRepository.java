@@ -1,13 +1,14 @@
 package rh.ptp.quizapp.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import rh.ptp.quizapp.model.AuthenticationToken;
 import rh.ptp.quizapp.model.User;
 
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Optional;
 
 /**
@@ -22,16 +23,31 @@ public interface AuthenticationTokenRepository extends JpaRepository<Authenticat
 
     AuthenticationToken findByQuizUser(User user);
 
-    @Query("SELECT t.quizUser FROM AuthenticationToken t WHERE t.expiryDate < :expiryDate")
-    List<User> findQuizUserByExpiryDateBefore(@Param("expiryDate") LocalDateTime date);
-
     @Query("SELECT a.token FROM AuthenticationToken a WHERE a.quizUser = :user")
     String findTokenByQuizUser(@Param("user") User user);
 
     @Query("SELECT t.quizUser FROM AuthenticationToken t WHERE t.token = :token")
     Optional<User> findQuizUserByToken(@Param("token") String token);
 
-    void deleteAllByExpiryDateBefore(LocalDateTime date);
+    /**
+     * Löscht alle Tokens, die vor dem angegebenen Zeitpunkt abgelaufen sind, mit einer einzigen Anweisung.
+     *
+     * @return Anzahl der gelöschten Tokens
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM AuthenticationToken t WHERE t.expiryDate < :expiryDate")
+    int deleteExpiredTokens(@Param("expiryDate") LocalDateTime expiryDate);
 
     void deleteAllById(Long id);
+
+    /**
+     * Löscht das Token eines Benutzers.
+     *
+     * @return Anzahl der gelöschten Tokens
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM AuthenticationToken t WHERE t.quizUser.id = :userId")
+    int deleteByUserId(@Param("userId") long userId);
 }
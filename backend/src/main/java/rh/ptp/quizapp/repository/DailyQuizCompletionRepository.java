@@ -0,0 +1,49 @@
+package rh.ptp.quizapp.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import rh.ptp.quizapp.model.DailyQuizCompletion;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Repository für {@link DailyQuizCompletion}.
+ */
+@Repository
+public interface DailyQuizCompletionRepository extends JpaRepository<DailyQuizCompletion, DailyQuizCompletion.Key> {
+
+    /**
+     * Prüft über den Primärschlüssel, ob der Benutzer am Tag ein tägliches Quiz abgeschlossen hat.
+     */
+    boolean existsByUserIdAndCompletionDate(Long userId, LocalDate completionDate);
+
+    /**
+     * Vermerkt einen Abschluss; ein bereits vorhandener Eintrag für den Tag bleibt unverändert.
+     *
+     * @return 1, wenn der Abschluss neu ist, sonst 0
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO daily_quiz_completions (user_id, completion_date, completed_at)
+            VALUES (:userId, :date, :completedAt)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("userId") long userId, @Param("date") LocalDate date,
+                       @Param("completedAt") LocalDateTime completedAt);
+
+    /**
+     * Löscht alle Abschlüsse vor dem angegebenen Tag.
+     *
+     * @return Anzahl der gelöschten Einträge
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM DailyQuizCompletion c WHERE c.completionDate < :date")
+    int deleteByCompletionDateBefore(@Param("date") LocalDate date);
+}
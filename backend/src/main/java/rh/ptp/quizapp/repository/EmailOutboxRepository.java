@@ -0,0 +1,81 @@
+package rh.ptp.quizapp.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import rh.ptp.quizapp.model.EmailOutboxMessage;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository für die E-Mail-Outbox ({@link EmailOutboxMessage}).
+ */
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    /**
+     * Liefert fällige, noch nicht versendete Nachrichten, älteste zuerst.
+     */
+    @Query("SELECT m FROM EmailOutboxMessage m WHERE m.sentAt IS NULL AND m.nextAttemptAt <= :now " +
+            "AND m.attempts < :maxAttempts ORDER BY m.id")
+    List<EmailOutboxMessage> findDue(@Param("now") LocalDateTime now,
+                                     @Param("maxAttempts") int maxAttempts,
+                                     Pageable pageable);
+
+    /**
+     * Zählt die Nachrichten, deren Versand noch aussteht.
+     */
+    @Query("SELECT count(m) FROM EmailOutboxMessage m WHERE m.sentAt IS NULL AND m.attempts < :maxAttempts")
+    long countPending(@Param("maxAttempts") int maxAttempts);
+
+    /**
+     * Markiert eine Nachricht als versendet und leert ihre Template-Variablen, die Zugangsdaten
+     * enthalten können.
+     *
+     * @return Anzahl geänderter Nachrichten
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.sentAt = :sentAt, m.variables = '{}' WHERE m.id = :id AND m.sentAt IS NULL")
+    int markSent(@Param("id") long id, @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Hält einen fehlgeschlagenen Versuch fest und plant den nächsten ein.
+     *
+     * @return Anzahl geänderter Nachrichten
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.attempts = m.attempts + 1, m.lastError = :error, " +
+            "m.nextAttemptAt = :nextAttemptAt WHERE m.id = :id AND m.sentAt IS NULL")
+    int markFailed(@Param("id") long id, @Param("error") String error,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    /**
+     * Hält den letzten erlaubten Fehlversuch fest, gibt die Nachricht auf und leert ihre
+     * Template-Variablen, die Zugangsdaten enthalten können. {@code nextAttemptAt} trägt danach den
+     * Zeitpunkt der Aufgabe.
+     *
+     * @return Anzahl geänderter Nachrichten
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.attempts = m.attempts + 1, m.lastError = :error, " +
+            "m.nextAttemptAt = :abandonedAt, m.variables = '{}' WHERE m.id = :id AND m.sentAt IS NULL")
+    int markAbandoned(@Param("id") long id, @Param("error") String error,
+                      @Param("abandonedAt") LocalDateTime abandonedAt);
+
+    /**
+     * Löscht Nachrichten, die vor dem angegebenen Zeitpunkt versendet oder aufgegeben wurden.
+     *
+     * @return Anzahl gelöschter Nachrichten
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage m WHERE m.sentAt < :before " +
+            "OR (m.sentAt IS NULL AND m.attempts >= :maxAttempts AND m.nextAttemptAt < :before)")
+    int deleteFinishedBefore(@Param("before") LocalDateTime before, @Param("maxAttempts") int maxAttempts);
+}
@@ -0,0 +1,55 @@
+package rh.ptp.quizapp.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import rh.ptp.quizapp.dto.CategoryCount;
+import rh.ptp.quizapp.model.PoolQuestion;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository für den Fragenpool ({@link PoolQuestion}).
+ */
+public interface PoolQuestionRepository extends JpaRepository<PoolQuestion, Long> {
+
+    /**
+     * Zählt die noch nicht für ein Tagesquiz verwendeten Fragen je Kategorie.
+     */
+    @Query("SELECT new rh.ptp.quizapp.dto.CategoryCount(p.category, count(p)) FROM PoolQuestion p WHERE p.usedAt IS NULL GROUP BY p.category")
+    List<CategoryCount> countUnusedByCategory();
+
+    /**
+     * Sperrt bis zu {@code limit} unbenutzte Fragen einer Kategorie bis zum Ende der Transaktion und
+     * liefert ihre IDs, älteste zuerst. Von anderen Transaktionen gesperrte Fragen werden übersprungen,
+     * sodass gleichzeitige Entnahmen nie dieselben Fragen erhalten.
+     */
+    @Query(value = """
+            SELECT id FROM question_pool
+            WHERE category = :category AND used_at IS NULL
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Long> lockUnusedIds(@Param("category") String category, @Param("limit") int limit);
+
+    /**
+     * Liefert die bereits vorhandenen Hashes aus der übergebenen Menge.
+     */
+    @Query("SELECT p.textHash FROM PoolQuestion p WHERE p.textHash IN :hashes")
+    List<Long> findExistingTextHashes(@Param("hashes") Collection<Long> hashes);
+
+    /**
+     * Markiert Fragen als für ein Tagesquiz verwendet.
+     *
+     * @return Anzahl der markierten Fragen
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE PoolQuestion p SET p.usedAt = :usedAt WHERE p.id IN :ids AND p.usedAt IS NULL")
+    int markUsed(@Param("ids") Collection<Long> ids, @Param("usedAt") LocalDateTime usedAt);
+}
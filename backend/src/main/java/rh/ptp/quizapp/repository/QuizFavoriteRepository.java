@@ -7,16 +7,88 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import rh.ptp.quizapp.model.QuizFavorite;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 /**
  * Repository zur Verwaltung von {@link rh.ptp.quizapp.model.QuizFavorite} Einträgen.
  * Erlaubt die Suche, Löschung und Auflistung favorisierter Quizzes pro Benutzer.
+ * Favoriten werden über die E-Mail des Benutzers und die Quiz-ID mit je einer Anweisung gesetzt
+ * oder entfernt, ohne Benutzer oder Quiz zu laden.
  */
 @Repository
 public interface QuizFavoriteRepository extends JpaRepository<QuizFavorite, Long> {
-    Optional<QuizFavorite> findByUserIdAndQuizId(Long userId, Long quizId);
-    List<QuizFavorite> findAllByUserId(Long userId);
     void deleteByQuizId(Long quizId);
+
+    /**
+     * Liefert die IDs aller favorisierten Quizzes eines Benutzers.
+     */
+    @Query("SELECT f.quiz.id FROM QuizFavorite f WHERE f.user.email = :email ORDER BY f.id")
+    List<Long> findQuizIdsByUserEmail(@Param("email") String email);
+
+    /**
+     * Liefert die IDs der angegebenen Quizzes, die der Benutzer favorisiert hat.
+     */
+    @Query("SELECT f.quiz.id FROM QuizFavorite f WHERE f.user.email = :email AND f.quiz.id IN :quizIds")
+    List<Long> findQuizIdsByUserEmailAndQuizIdIn(@Param("email") String email, @Param("quizIds") Collection<Long> quizIds);
+
+    /**
+     * Favorisiert ein Quiz; ein bestehender Favorit bleibt unverändert.
+     *
+     * @return 1, wenn der Favorit neu ist, sonst 0
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO quiz_favorites (user_id, quiz_id, created_at)
+            SELECT u.id, :quizId, :now FROM users u WHERE u.email = :email
+            ON CONFLICT (user_id, quiz_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("email") String email, @Param("quizId") long quizId, @Param("now") LocalDateTime now);
+
+    /**
+     * Entfernt einen Favoriten.
+     *
+     * @return 1, wenn ein Favorit entfernt wurde, sonst 0
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM quiz_favorites f USING users u
+            WHERE f.user_id = u.id AND u.email = :email AND f.quiz_id = :quizId
+            """, nativeQuery = true)
+    int deleteByUserEmailAndQuizId(@Param("email") String email, @Param("quizId") long quizId);
+
+    /**
+     * Entfernt einen bestehenden Favoriten oder legt ihn an, wenn es keinen gibt.
+     *
+     * @return 1, wenn das Quiz danach favorisiert ist, sonst 0
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            WITH removed AS (
+                DELETE FROM quiz_favorites f USING users u
+                WHERE f.user_id = u.id AND u.email = :email AND f.quiz_id = :quizId
+                RETURNING f.id
+            )
+            INSERT INTO quiz_favorites (user_id, quiz_id, created_at)
+            SELECT u.id, :quizId, :now FROM users u
+            WHERE u.email = :email AND NOT EXISTS (SELECT 1 FROM removed)
+            ON CONFLICT (user_id, quiz_id) DO NOTHING
+            """, nativeQuery = true)
+    int toggle(@Param("email") String email, @Param("quizId") long quizId, @Param("now") LocalDateTime now);
+
+    /**
+     * Löscht höchstens {@code limit} Favoriten eines Benutzers.
+     *
+     * @return Anzahl der gelöschten Favoriten
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM quiz_favorites WHERE id IN (SELECT id FROM quiz_favorites WHERE user_id = :userId LIMIT :limit)",
+            nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") long userId, @Param("limit") int limit);
 }
\ No newline at end of file
@@ -1,11 +1,90 @@
 package rh.ptp.quizapp.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import rh.ptp.quizapp.dto.PracticeQuestionEntry;
+import rh.ptp.quizapp.dto.QuestionSignatureRow;
+import rh.ptp.quizapp.dto.QuestionTextRow;
 import rh.ptp.quizapp.model.QuizQuestion;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 /**
  * Repository für QuizQuestion-Entities.
  * Liefert out-of-the-box Methoden wie findById, findAll, save, deleteById, …
  */
 public interface QuizQuestionRepository extends JpaRepository<QuizQuestion, Long> {
-}
\ No newline at end of file
+
+    /**
+     * Liefert die bereits vorhandenen Hashes normalisierter Fragetexte aus der übergebenen Menge.
+     */
+    @Query("SELECT DISTINCT q.textHash FROM QuizQuestion q WHERE q.textHash IN :hashes")
+    List<Long> findExistingTextHashes(@Param("hashes") Collection<Long> hashes);
+
+    /**
+     * Liefert Fragen ohne Hash des Fragetextes (vor dessen Einführung angelegt).
+     */
+    @Query("SELECT new rh.ptp.quizapp.dto.QuestionTextRow(q.id, q.question) FROM QuizQuestion q WHERE q.textHash IS NULL ORDER BY q.id")
+    List<QuestionTextRow> findWithoutTextHash(Pageable pageable);
+
+    /**
+     * Setzt den Hash des Fragetextes, ohne die Frage zu laden.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE QuizQuestion q SET q.textHash = :textHash WHERE q.id = :id")
+    int updateTextHash(@Param("id") Long id, @Param("textHash") long textHash);
+
+    /**
+     * Liefert die Fragen, die mindestens einen der übergebenen LSH-Buckets belegen, samt Signatur.
+     */
+    @Query("SELECT DISTINCT new rh.ptp.quizapp.dto.QuestionSignatureRow(q.id, q.quiz.id, q.question, q.minHash) " +
+            "FROM QuizQuestion q JOIN q.lshBuckets b WHERE b IN :buckets")
+    List<QuestionSignatureRow> findByLshBuckets(@Param("buckets") Collection<Long> buckets, Pageable pageable);
+
+    /**
+     * Liefert Fragen ohne MinHash-Signatur (vor deren Einführung angelegt).
+     */
+    @Query("SELECT new rh.ptp.quizapp.dto.QuestionTextRow(q.id, q.question) FROM QuizQuestion q WHERE q.minHash IS NULL ORDER BY q.id")
+    List<QuestionTextRow> findWithoutMinHash(Pageable pageable);
+
+    /**
+     * Setzt die MinHash-Signatur, ohne die Frage zu laden.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE QuizQuestion q SET q.minHash = :minHash WHERE q.id = :id")
+    int updateMinHash(@Param("id") Long id, @Param("minHash") byte[] minHash);
+
+    /**
+     * Entfernt alle LSH-Buckets einer Frage.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM quiz_question_lsh_buckets WHERE question_id = :id", nativeQuery = true)
+    int deleteLshBuckets(@Param("id") Long id);
+
+    /**
+     * Trägt einen LSH-Bucket für eine Frage ein.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO quiz_question_lsh_buckets (question_id, bucket) VALUES (:id, :bucket)", nativeQuery = true)
+    int insertLshBucket(@Param("id") Long id, @Param("bucket") long bucket);
+
+    /**
+     * Liefert alle Fragen öffentlicher Quizzes für den Aufbau des Übungsindex.
+     */
+    @Query("""
+            SELECT new rh.ptp.quizapp.dto.PracticeQuestionEntry(qq.id, q.id, qq.difficulty, q.categoryMaskLo, q.categoryMaskHi, q.date)
+            FROM QuizQuestion qq JOIN qq.quiz q
+            WHERE q.isPublic = true
+            """)
+    Stream<PracticeQuestionEntry> streamPracticeEntries();
+}
@@ -7,7 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 import rh.ptp.quizapp.model.QuizRating;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
 
 /**
  * Repository für den Zugriff auf {@link rh.ptp.quizapp.model.QuizRating}.
@@ -25,5 +25,33 @@ public interface QuizRatingRepository extends JpaRepository<QuizRating, Long> {
     @Query("DELETE FROM QuizRating qr WHERE qr.quiz.id = :quizId")
     void deleteByQuizId(@Param("quizId") Long quizId);
 
-    Optional<QuizRating> findByQuizIdAndUserId(Long quizId, Long userId);
+    /**
+     * Legt die Bewertung eines Benutzers an oder überschreibt seine bestehende Bewertung
+     * (Unique-Constraint {@code uk_quiz_ratings_quiz_user}).
+     *
+     * @return Anzahl der geschriebenen Zeilen (1)
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO quiz_ratings (quiz_id, user_id, rating, created_at)
+            VALUES (:quizId, :userId, :rating, :now)
+            ON CONFLICT (quiz_id, user_id) DO UPDATE SET rating = EXCLUDED.rating
+            """, nativeQuery = true)
+    int upsert(@Param("quizId") long quizId, @Param("userId") long userId, @Param("rating") int rating,
+               @Param("now") LocalDateTime now);
+
+    /**
+     * Löscht höchstens {@code limit} Bewertungen von Quizzes, die der Benutzer erstellt hat.
+     *
+     * @return Anzahl der gelöschten Bewertungen
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            DELETE FROM quiz_ratings WHERE id IN (
+                SELECT r.id FROM quiz_ratings r JOIN quizzes q ON q.id = r.quiz_id
+                WHERE q.creator_id = :creatorId LIMIT :limit)
+            """, nativeQuery = true)
+    int deleteChunkByQuizCreator(@Param("creatorId") long creatorId, @Param("limit") int limit);
 }
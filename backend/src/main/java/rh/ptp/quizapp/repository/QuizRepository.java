@@ -1,16 +1,23 @@
 package rh.ptp.quizapp.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
+import rh.ptp.quizapp.dto.CategoryCount;
+import rh.ptp.quizapp.dto.QuizSearchHit;
+import rh.ptp.quizapp.dto.QuizTypeaheadEntry;
+import rh.ptp.quizapp.dto.QuizVersionInfo;
 import rh.ptp.quizapp.model.Quiz;
 import rh.ptp.quizapp.model.QuizCategory;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository zur Verwaltung von {@link rh.ptp.quizapp.model.Quiz} Entitäten.
@@ -18,12 +25,157 @@ import java.util.Optional;
  */
 public interface QuizRepository extends JpaRepository<Quiz, Long> {
     List<Quiz> findByCreatorId(Long creatorId);
+    /**
+     * Liefert die ID des Erstellers, ohne das Quiz zu laden.
+     */
+    @Query("SELECT q.creator.id FROM Quiz q WHERE q.id = :quizId")
+    Optional<Long> findCreatorIdById(@Param("quizId") long quizId);
+    @Query("""
+            SELECT q FROM Quiz q
+            WHERE q.date = :date
+              AND (bitand(q.categoryMaskLo, cast(:maskLo as Long)) <> 0 OR bitand(q.categoryMaskHi, cast(:maskHi as Long)) <> 0)
+            """)
+    List<Quiz> findByCategoryMaskAndDate(@Param("maskLo") long maskLo, @Param("maskHi") long maskHi, @Param("date") LocalDate date);
+
+    default List<Quiz> findByCategoriesAndDate(QuizCategory category, LocalDate date) {
+        return findByCategoryMaskAndDate(category.maskLo(), category.maskHi(), date);
+    }
+
+    /**
+     * Findet alle Quizzes, die mindestens eine der Kategorien der Bitmaske besitzen.
+     */
+    @Query("SELECT q FROM Quiz q WHERE bitand(q.categoryMaskLo, cast(:maskLo as Long)) <> 0 OR bitand(q.categoryMaskHi, cast(:maskHi as Long)) <> 0")
+    List<Quiz> findByAnyCategoryMask(@Param("maskLo") long maskLo, @Param("maskHi") long maskHi);
+
+    /**
+     * Findet alle Quizzes, die sämtliche Kategorien der Bitmaske besitzen.
+     */
+    @Query("SELECT q FROM Quiz q WHERE bitand(q.categoryMaskLo, cast(:maskLo as Long)) = cast(:maskLo as Long) AND bitand(q.categoryMaskHi, cast(:maskHi as Long)) = cast(:maskHi as Long)")
+    List<Quiz> findByAllCategoryMask(@Param("maskLo") long maskLo, @Param("maskHi") long maskHi);
+
+    /**
+     * Volltextsuche über Titel, Beschreibung und Fragetexte öffentlicher Quizzes (deutsche Stammformen).
+     * Treffer in Fragen werden pro Quiz aufsummiert; das heutige tägliche Quiz wird ausgeblendet.
+     * Die Hervorhebungen werden nur für die angeforderte Seite berechnet.
+     *
+     * @param text      Suchanfrage in Websuche-Syntax
+     * @param dailyMask Bitmaske der Kategorie {@link QuizCategory#DAILY_QUIZ}
+     * @param options   Optionen für {@code ts_headline}
+     * @param limit     Seitengröße
+     * @param offset    Anzahl übersprungener Treffer
+     * @return Treffer absteigend nach Relevanz
+     */
+    @Query(value = """
+            WITH query AS (SELECT websearch_to_tsquery('german', :text) AS tsq),
+            matches AS (
+                SELECT q.id AS quiz_id, ts_rank(q.search_vector, query.tsq) AS rank
+                FROM quizzes q, query
+                WHERE q.search_vector @@ query.tsq
+                UNION ALL
+                SELECT qq.quiz_id, ts_rank(qq.search_vector, query.tsq)
+                FROM quiz_questions qq, query
+                WHERE qq.search_vector @@ query.tsq
+            ),
+            ranked AS (
+                SELECT m.quiz_id, CAST(SUM(m.rank) AS double precision) AS rank
+                FROM matches m JOIN quizzes q ON q.id = m.quiz_id
+                WHERE q.is_public
+                  AND NOT ((q.category_mask_lo & :dailyMask) <> 0 AND q.quiz_date = CURRENT_DATE)
+                GROUP BY m.quiz_id
+                ORDER BY rank DESC, m.quiz_id
+                LIMIT :limit OFFSET :offset
+            )
+            SELECT r.quiz_id AS "quizId", q.title AS "title", r.rank AS "rank",
+                   ts_headline('german', q.title, query.tsq, :options) AS "titleHighlight",
+                   ts_headline('german', COALESCE(q.description, ''), query.tsq, :options) AS "descriptionHighlight",
+                   (SELECT ts_headline('german', qq.question, query.tsq, :options)
+                    FROM quiz_questions qq
+                    WHERE qq.quiz_id = r.quiz_id AND qq.search_vector @@ query.tsq
+                    ORDER BY ts_rank(qq.search_vector, query.tsq) DESC
+                    LIMIT 1) AS "questionHighlight"
+            FROM ranked r JOIN quizzes q ON q.id = r.quiz_id CROSS JOIN query
+            ORDER BY r.rank DESC, r.quiz_id
+            """, nativeQuery = true)
+    List<QuizSearchHit> searchPublicQuizzes(@Param("text") String text, @Param("dailyMask") long dailyMask,
+                                            @Param("options") String options,
+                                            @Param("limit") int limit, @Param("offset") long offset);
+
+    /**
+     * Zählt die öffentlichen Quizzes je Kategorie; private Quizzes und die noch nicht
+     * veröffentlichten Tagesquizzes aus dem Vorrat werden nicht gezählt.
+     */
+    @Query("""
+            SELECT new rh.ptp.quizapp.dto.CategoryCount(c, count(q)) FROM Quiz q JOIN q.categories c
+            WHERE q.isPublic = true
+            GROUP BY c
+            """)
+    List<CategoryCount> countPublicQuizzesByCategory();
+
+    /**
+     * Zählt die vorab generierten, noch nicht veröffentlichten Tagesquizzes.
+     */
+    @Query("SELECT count(q) FROM Quiz q WHERE q.date IS NULL AND bitand(q.categoryMaskLo, cast(:dailyMask as Long)) <> 0")
+    long countBufferedDailyQuizzes(@Param("dailyMask") long dailyMask);
+
+    /**
+     * Liefert die IDs der vorab generierten Tagesquizzes, älteste zuerst.
+     */
+    @Query("SELECT q.id FROM Quiz q WHERE q.date IS NULL AND bitand(q.categoryMaskLo, cast(:dailyMask as Long)) <> 0 ORDER BY q.id")
+    List<Long> findBufferedDailyQuizIds(@Param("dailyMask") long dailyMask, Pageable pageable);
+
+    /**
+     * Veröffentlicht ein vorab generiertes Tagesquiz mit einem einzigen Update.
+     * Die Bedingung auf das fehlende Datum verhindert, dass ein Quiz doppelt veröffentlicht wird.
+     *
+     * @return 1, wenn das Quiz veröffentlicht wurde, sonst 0
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE Quiz q SET q.date = :date, q.isPublic = true, q.title = :title,
+                q.updatedAt = :now, q.version = q.version + 1
+            WHERE q.id = :quizId AND q.date IS NULL
+            """)
+    int publishBufferedDailyQuiz(@Param("quizId") Long quizId, @Param("date") LocalDate date,
+                                 @Param("title") String title, @Param("now") LocalDateTime now);
+
+    /**
+     * Versionszähler des Katalogs für den Katalog-ETag. Trigger ziehen beim Commit jeder Änderung an
+     * Quizzes, Fragen, Kategorien und Bewertungen einen neuen Wert aus der Sequenz.
+     */
+    @Query(value = "SELECT last_value FROM catalog_version_seq", nativeQuery = true)
+    long findCatalogVersion();
+
+    /**
+     * Liefert Version, Erstellername und Tagesquiz-Merkmale eines Quizzes, ohne Fragen zu laden.
+     */
+    @Query("""
+            SELECT new rh.ptp.quizapp.dto.QuizVersionInfo(q.id, q.version, c.name, q.categoryMaskLo, q.date)
+            FROM Quiz q LEFT JOIN q.creator c WHERE q.id = :id
+            """)
+    Optional<QuizVersionInfo> findVersionInfoById(@Param("id") long id);
+
+    /**
+     * Liefert alle Quizzes als schlanke Projektion für den Typeahead-Index.
+     * Der Stream muss innerhalb einer Transaktion konsumiert und geschlossen werden.
+     */
+    @Query("""
+            SELECT new rh.ptp.quizapp.dto.QuizTypeaheadEntry(q.id, q.title, c.id, c.name, q.isPublic, q.categoryMaskLo, q.date)
+            FROM Quiz q LEFT JOIN q.creator c
+            """)
+    Stream<QuizTypeaheadEntry> streamTypeaheadEntries();
+
+    /**
+     * Überträgt höchstens {@code limit} Quizzes eines Erstellers auf einen anderen Benutzer.
+     *
+     * @return Anzahl der übertragenen Quizzes
+     */
     @Transactional
-    @Query("SELECT q from Quiz q where q.id = :quizId")
-    Quiz findByQuizId(@Param("quizId") Long quizId);
-    @Query("SELECT q FROM Quiz q WHERE :category member of q.categories AND q.date = :date")
-    List<Quiz> findByCategoriesAndDate(@Param("category") QuizCategory category, @Param("date") LocalDate date);    @Transactional
     @Modifying
-    @Query("delete from Quiz q where q.creator.id = :userId")
-    void deleteAllByCreatorId(@Param("userId") Long userId);
+    @Query(value = """
+            UPDATE quizzes SET creator_id = :newCreatorId, version = version + 1
+            WHERE id IN (SELECT id FROM quizzes WHERE creator_id = :creatorId LIMIT :limit)
+            """, nativeQuery = true)
+    int reassignChunk(@Param("creatorId") long creatorId, @Param("newCreatorId") long newCreatorId,
+                      @Param("limit") int limit);
 } 
\ No newline at end of file
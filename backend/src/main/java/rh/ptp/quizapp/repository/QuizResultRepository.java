@@ -6,7 +6,8 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
-import rh.ptp.quizapp.model.QuizCategory;
+import rh.ptp.quizapp.dto.QuizHistoryDTO;
+import rh.ptp.quizapp.dto.UserScore;
 import rh.ptp.quizapp.model.QuizResult;
 
 import java.time.LocalDateTime;
@@ -19,17 +20,54 @@ import java.util.List;
 public interface QuizResultRepository extends JpaRepository<QuizResult, Long> {
     List<QuizResult> findByUserId(Long userId);
 
-    List<QuizResult> findByQuizId(Long quizId);
+    /**
+     * Liefert die erste Seite der Quiz-Historie eines Benutzers (neueste zuerst),
+     * ohne die Quiz-Entitäten samt Fragen zu laden.
+     */
+    @Query("""
+            SELECT new rh.ptp.quizapp.dto.QuizHistoryDTO(r.id, q.id, q.title, r.score, r.maxPossibleScore, r.playedAt)
+            FROM QuizResult r JOIN r.quiz q
+            WHERE r.user.email = :email
+            ORDER BY r.playedAt DESC, r.id DESC
+            """)
+    List<QuizHistoryDTO> findHistoryByUserEmail(@Param("email") String email, Pageable pageable);
+
+    /**
+     * Liefert die nächste Seite der Quiz-Historie per Keyset auf (playedAt, id),
+     * d. h. alle Einträge, die vor dem zuletzt gelieferten Eintrag liegen.
+     */
+    @Query("""
+            SELECT new rh.ptp.quizapp.dto.QuizHistoryDTO(r.id, q.id, q.title, r.score, r.maxPossibleScore, r.playedAt)
+            FROM QuizResult r JOIN r.quiz q
+            WHERE r.user.email = :email
+              AND (r.playedAt < :before OR (r.playedAt = :before AND r.id < :beforeId))
+            ORDER BY r.playedAt DESC, r.id DESC
+            """)
+    List<QuizHistoryDTO> findHistoryByUserEmailBefore(@Param("email") String email,
+                                                      @Param("before") LocalDateTime before,
+                                                      @Param("beforeId") Long beforeId,
+                                                      Pageable pageable);
 
-    boolean existsByUserIdAndQuizCategoriesAndPlayedAtAfter(Long userId, QuizCategory category, LocalDateTime date);
+    List<QuizResult> findByQuizId(Long quizId);
 
     @Transactional
     @Modifying
     @Query("delete from QuizResult r where r.user.id = :userId")
     void deleteAllByUserId(Long userId);
 
+    /**
+     * Löscht höchstens {@code limit} Ergebnisse eines Benutzers.
+     *
+     * @return Anzahl der gelöschten Ergebnisse
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM quiz_results WHERE id IN (SELECT id FROM quiz_results WHERE user_id = :userId LIMIT :limit)",
+            nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") long userId, @Param("limit") int limit);
+
     @Query("""
-            SELECT qr.user.id, SUM(qr.score)
+            SELECT new rh.ptp.quizapp.dto.UserScore(qr.user.id, qr.user.name, SUM(qr.score))
             FROM QuizResult qr
             WHERE qr.id IN (
                 SELECT MIN(q.id)
@@ -37,14 +75,14 @@ public interface QuizResultRepository extends JpaRepository<QuizResult, Long> {
                 WHERE q.quiz.creator.id != q.user.id
                 GROUP BY q.user.id, q.quiz.id
             )
-            GROUP BY qr.user.id
+            GROUP BY qr.user.id, qr.user.name
             ORDER BY SUM(qr.score) DESC
             """)
-    List<Object[]> findTopUserScores(Pageable pageable);
+    List<UserScore> findTopUserScores(Pageable pageable);
 
 
     @Query("""
-            SELECT qr.user.id, SUM(qr.score)
+            SELECT new rh.ptp.quizapp.dto.UserScore(qr.user.id, qr.user.name, SUM(qr.score))
             FROM QuizResult qr
             WHERE qr.id IN (
                 SELECT MIN(q.id)
@@ -52,10 +90,10 @@ public interface QuizResultRepository extends JpaRepository<QuizResult, Long> {
                 WHERE q.quiz.creator.id != q.user.id
                 GROUP BY q.user.id, q.quiz.id
             )
-            GROUP BY qr.user.id
+            GROUP BY qr.user.id, qr.user.name
             ORDER BY SUM(qr.score) DESC
             """)
-    List<Object[]> findAllUserScoresOrdered();
+    List<UserScore> findAllUserScoresOrdered();
 
     @Modifying
     @Transactional
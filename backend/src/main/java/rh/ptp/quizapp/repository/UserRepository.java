@@ -1,6 +1,10 @@
 package rh.ptp.quizapp.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import rh.ptp.quizapp.model.User;
 import rh.ptp.quizapp.model.UserRole;
 import rh.ptp.quizapp.model.UserStatus;
@@ -19,6 +23,78 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     List<User> findByDailyQuizReminderIsTrue();
     boolean existsByName(String name);
-    List<User> findAllByUpdatedAtBeforeAndUserStatusIn(LocalDateTime warningTime, List<UserStatus> pendingDelete);
-    void deleteAllByUpdatedAtBeforeAndUserStatusIn(LocalDateTime expiryTime, List<UserStatus> pendingDelete);
+
+    /**
+     * Liefert die ID eines Benutzers, ohne die Entität zu laden.
+     */
+    @Query("SELECT u.id FROM User u WHERE u.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    /**
+     * Liefert den Status eines Benutzers, ohne die Entität zu laden.
+     */
+    @Query("SELECT u.userStatus FROM User u WHERE u.id = :id")
+    Optional<UserStatus> findStatusById(@Param("id") long id);
+
+    /**
+     * Liefert den Namen eines Benutzers, ohne die Entität zu laden.
+     */
+    @Query("SELECT u.name FROM User u WHERE u.id = :id")
+    Optional<String> findNameById(@Param("id") long id);
+
+    /**
+     * Erhöht die tägliche Serie um eins, sofern das tägliche Quiz seit {@code startOfDay} noch nicht
+     * gespielt wurde, und setzt den Zeitpunkt des letzten Spiels. Die Bedingung wird unter der
+     * Zeilensperre ausgewertet; eine parallele Anfrage sieht daher bereits den neuen Zeitpunkt
+     * und erhöht nicht ein zweites Mal.
+     *
+     * @return Serie nach der Aktualisierung, leer wenn es keinen Benutzer mit der E-Mail gibt
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE users
+            SET daily_streak = CASE
+                    WHEN last_daily_quiz_played IS NULL OR last_daily_quiz_played < :startOfDay
+                    THEN daily_streak + 1 ELSE daily_streak END,
+                last_daily_quiz_played = :now
+            WHERE email = :email
+            RETURNING daily_streak
+            """, nativeQuery = true)
+    Optional<Integer> incrementDailyStreak(@Param("email") String email, @Param("now") LocalDateTime now,
+                                           @Param("startOfDay") LocalDateTime startOfDay);
+
+    /**
+     * Löscht einen Benutzer, sofern er noch den angegebenen Status hat.
+     *
+     * @return 1, wenn der Benutzer gelöscht wurde, sonst 0
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id = :id AND u.userStatus = :status")
+    int deleteByIdAndStatus(@Param("id") long id, @Param("status") UserStatus status);
+
+    /**
+     * Löscht Benutzer mit dem angegebenen Status, die vor dem Zeitpunkt angelegt wurden und kein
+     * Token (mehr) besitzen, mit einer einzigen Anweisung.
+     *
+     * @return Anzahl der gelöschten Benutzer
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            DELETE FROM User u
+            WHERE u.userStatus = :status AND u.createdAt < :createdBefore
+              AND NOT EXISTS (SELECT t.id FROM AuthenticationToken t WHERE t.quizUser = u)
+            """)
+    int deleteWithoutTokenByStatus(@Param("status") UserStatus status, @Param("createdBefore") LocalDateTime createdBefore);
+
+    /**
+     * Löscht unbestätigte Benutzer, deren Verifizierungstoken bereits gelöscht wurde.
+     *
+     * @param createdBefore nur Benutzer, die vor diesem Zeitpunkt angelegt wurden
+     * @return Anzahl der gelöschten Benutzer
+     */
+    default int deleteUnverifiedWithoutToken(LocalDateTime createdBefore) {
+        return deleteWithoutTokenByStatus(UserStatus.PENDING_VERIFICATION, createdBefore);
+    }
 }
\ No newline at end of file
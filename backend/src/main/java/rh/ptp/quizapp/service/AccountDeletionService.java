@@ -0,0 +1,364 @@
+package rh.ptp.quizapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import rh.ptp.quizapp.event.QuizzesReassignedEvent;
+import rh.ptp.quizapp.model.AccountDeletionJob;
+import rh.ptp.quizapp.model.AccountDeletionStatus;
+import rh.ptp.quizapp.model.AccountDeletionStep;
+import rh.ptp.quizapp.model.User;
+import rh.ptp.quizapp.model.UserStatus;
+import rh.ptp.quizapp.repository.AccountDeletionJobRepository;
+import rh.ptp.quizapp.repository.AuthenticationTokenRepository;
+import rh.ptp.quizapp.repository.QuizFavoriteRepository;
+import rh.ptp.quizapp.repository.QuizRatingRepository;
+import rh.ptp.quizapp.repository.QuizRepository;
+import rh.ptp.quizapp.repository.QuizResultRepository;
+import rh.ptp.quizapp.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Schließt Löschanfragen von Benutzern als fortsetzbare Aufträge ab.
+ * <p>
+ * Für jeden Benutzer mit Status {@code PENDING_DELETE} wird ein {@link AccountDeletionJob} angelegt.
+ * Nach 6 Tagen wird eine Warnung eingeplant, nach 7 Tagen werden die Daten schrittweise gelöscht
+ * (siehe {@link AccountDeletionStep}). Jeder Schritt löscht höchstens {@code chunkSize} Zeilen in
+ * einer eigenen kurzen Transaktion und speichert den Fortschritt im Auftrag; nach einem Fehler oder
+ * Neustart wird am gespeicherten Schritt fortgesetzt. Pro Lauf werden höchstens {@code maxChunksPerRun}
+ * Transaktionen ausgeführt, sodass auch ein großer Rückstand gleichmäßig abgearbeitet wird.
+ * </p>
+ * <p>
+ * E-Mails werden über die {@link EmailOutboxService Outbox} in derselben Transaktion eingeplant wie die
+ * Zustandsänderung und erst nach dem Commit versendet; ein Fehler beim Versand rollt keine Löschung zurück.
+ * Reaktiviert ein Benutzer sein Konto, wird der Auftrag abgebrochen.
+ * </p>
+ */
+@Service
+public class AccountDeletionService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountDeletionService.class);
+
+    /**
+     * ID des Admin-Benutzers, dem die Quizzes gelöschter Benutzer übertragen werden.
+     */
+    static final long ADMIN_USER_ID = 1L;
+
+    private static final List<AccountDeletionStatus> OPEN = List.of(
+            AccountDeletionStatus.SCHEDULED, AccountDeletionStatus.WARNED, AccountDeletionStatus.DELETING);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final AccountDeletionJobRepository jobRepository;
+    private final UserRepository userRepository;
+    private final QuizResultRepository quizResultRepository;
+    private final QuizFavoriteRepository quizFavoriteRepository;
+    private final QuizRatingRepository quizRatingRepository;
+    private final QuizRepository quizRepository;
+    private final AuthenticationTokenRepository authenticationTokenRepository;
+    private final EmailOutboxService emailOutboxService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int chunkSize;
+    private final int batchSize;
+    private final int maxChunksPerRun;
+    private final String frontendUrl;
+    private final Map<AccountDeletionStatus, AtomicLong> openJobs = new EnumMap<>(AccountDeletionStatus.class);
+    private final Counter completed;
+    private final Counter cancelled;
+    private final Counter failures;
+
+    /**
+     * Konstruktor.
+     *
+     * @param jobRepository                 Repository der Löschaufträge
+     * @param userRepository                Repository der Benutzer
+     * @param quizResultRepository          Repository der Quiz-Ergebnisse
+     * @param quizFavoriteRepository        Repository der Favoriten
+     * @param quizRatingRepository          Repository der Bewertungen
+     * @param quizRepository                Repository der Quizzes
+     * @param authenticationTokenRepository Repository der Tokens
+     * @param emailOutboxService            Outbox für die Benachrichtigungen
+     * @param eventPublisher                Publisher für die Übertragung der Quizzes
+     * @param transactionManager            Transaktionsmanager für die einzelnen Abschnitte
+     * @param meterRegistry                 Registry für die Metriken
+     * @param chunkSize                     maximale Anzahl Zeilen pro Transaktion
+     * @param batchSize                     Anzahl der pro Abfrage geladenen Aufträge bzw. Benutzer
+     * @param maxChunksPerRun               maximale Anzahl Lösch-Transaktionen pro Lauf
+     * @param frontendUrl                   Basis-URL des Frontends für die E-Mails
+     */
+    public AccountDeletionService(AccountDeletionJobRepository jobRepository,
+                                  UserRepository userRepository,
+                                  QuizResultRepository quizResultRepository,
+                                  QuizFavoriteRepository quizFavoriteRepository,
+                                  QuizRatingRepository quizRatingRepository,
+                                  QuizRepository quizRepository,
+                                  AuthenticationTokenRepository authenticationTokenRepository,
+                                  EmailOutboxService emailOutboxService,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${account-deletion.chunk-size:500}") int chunkSize,
+                                  @Value("${account-deletion.batch-size:50}") int batchSize,
+                                  @Value("${account-deletion.max-chunks-per-run:200}") int maxChunksPerRun,
+                                  @Value("${frontend.url}") String frontendUrl) {
+        this.jobRepository = jobRepository;
+        this.userRepository = userRepository;
+        this.quizResultRepository = quizResultRepository;
+        this.quizFavoriteRepository = quizFavoriteRepository;
+        this.quizRatingRepository = quizRatingRepository;
+        this.quizRepository = quizRepository;
+        this.authenticationTokenRepository = authenticationTokenRepository;
+        this.emailOutboxService = emailOutboxService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.frontendUrl = frontendUrl;
+        for (AccountDeletionStatus status : OPEN) {
+            AtomicLong value = new AtomicLong();
+            openJobs.put(status, value);
+            Gauge.builder("account.deletion.jobs", value, AtomicLong::get)
+                    .description("Offene Löschaufträge je Zustand")
+                    .tag("status", status.name())
+                    .register(meterRegistry);
+        }
+        this.completed = Counter.builder("account.deletion.completed")
+                .description("Abgeschlossene Kontolöschungen")
+                .register(meterRegistry);
+        this.cancelled = Counter.builder("account.deletion.cancelled")
+                .description("Durch Reaktivierung abgebrochene Kontolöschungen")
+                .register(meterRegistry);
+        this.failures = Counter.builder("account.deletion.failures")
+                .description("Fehlgeschlagene Abschnitte von Kontolöschungen")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Führt einen Lauf der Kontolöschung aus: Abbruch reaktivierter Konten, Anlage neuer Aufträge,
+     * Warnungen, Start fälliger Löschungen und Abarbeitung laufender Löschungen.
+     * <p>
+     * Ausgeführt alle 5 Minuten.
+     * </p>
+     */
+    @Scheduled(cron = "0 */5 * * * *")
+    public void processDeletionRequests() {
+        LocalDateTime now = LocalDateTime.now();
+        cancelReactivated(now);
+        scheduleNewRequests();
+        sendWarnings(now, now.minusDays(6));
+        startDeletions(now.minusDays(7));
+        drainDeletions();
+        for (AccountDeletionStatus status : OPEN) {
+            openJobs.get(status).set(jobRepository.countByStatus(status));
+        }
+    }
+
+    /**
+     * Bricht offene Aufträge ab, deren Benutzer nicht mehr zur Löschung vorgemerkt ist.
+     */
+    void cancelReactivated(LocalDateTime now) {
+        int count = jobRepository.cancelWhereUserStatusNot(UserStatus.PENDING_DELETE, OPEN, now);
+        if (count > 0) {
+            cancelled.increment(count);
+            log.info("{} Löschaufträge nach Reaktivierung abgebrochen", count);
+        }
+    }
+
+    /**
+     * Legt für alle zur Löschung vorgemerkten Benutzer ohne offenen Auftrag einen Auftrag an.
+     */
+    void scheduleNewRequests() {
+        Integer created;
+        do {
+            created = transactionTemplate.execute(status -> {
+                List<User> users = jobRepository.findUsersWithoutOpenJob(
+                        UserStatus.PENDING_DELETE, OPEN, PageRequest.of(0, batchSize));
+                users.forEach(user -> jobRepository.save(newJob(user)));
+                return users.size();
+            });
+        } while (created != null && created == batchSize);
+    }
+
+    /**
+     * Plant die Warnung für Aufträge ein, deren Anfrage vor dem Zeitpunkt liegt.
+     */
+    void sendWarnings(LocalDateTime now, LocalDateTime requestedBefore) {
+        Integer warned;
+        do {
+            warned = transactionTemplate.execute(status -> {
+                List<AccountDeletionJob> jobs = jobRepository.findByStatusAndRequestedAtBeforeOrderById(
+                        AccountDeletionStatus.SCHEDULED, requestedBefore, PageRequest.of(0, batchSize));
+                for (AccountDeletionJob job : jobs) {
+                    Map<String, Object> variables = baseVariables(job);
+                    variables.put("loginUrl", frontendUrl + "/login");
+                    emailOutboxService.enqueue(job.getEmail(), "Erinnerung: Account-Löschung", "account-delete-warning", variables);
+                    job.setStatus(AccountDeletionStatus.WARNED);
+                    job.setWarnedAt(now);
+                }
+                return jobs.size();
+            });
+        } while (warned != null && warned == batchSize);
+    }
+
+    /**
+     * Startet die Löschung für gewarnte Aufträge, deren Anfrage vor dem Zeitpunkt liegt.
+     */
+    void startDeletions(LocalDateTime requestedBefore) {
+        Integer started;
+        do {
+            started = transactionTemplate.execute(status -> {
+                List<AccountDeletionJob> jobs = jobRepository.findByStatusAndRequestedAtBeforeOrderById(
+                        AccountDeletionStatus.WARNED, requestedBefore, PageRequest.of(0, batchSize));
+                for (AccountDeletionJob job : jobs) {
+                    job.setStatus(AccountDeletionStatus.DELETING);
+                    job.setStep(AccountDeletionStep.values()[0]);
+                }
+                return jobs.size();
+            });
+        } while (started != null && started == batchSize);
+    }
+
+    /**
+     * Arbeitet laufende Löschungen in ID-Reihenfolge ab, bis alle abgeschlossen sind oder das
+     * Budget an Transaktionen für diesen Lauf verbraucht ist. Ein fehlgeschlagener Auftrag wird
+     * übersprungen und im nächsten Lauf am gespeicherten Schritt fortgesetzt.
+     */
+    void drainDeletions() {
+        int budget = maxChunksPerRun;
+        long lastId = 0;
+        List<Long> ids;
+        do {
+            ids = jobRepository.findIdsByStatusAfter(AccountDeletionStatus.DELETING, lastId, PageRequest.of(0, batchSize));
+            for (Long id : ids) {
+                lastId = id;
+                budget = runJob(id, budget);
+                if (budget <= 0) {
+                    return;
+                }
+            }
+        } while (ids.size() == batchSize);
+    }
+
+    private int runJob(long jobId, int budget) {
+        try {
+            while (budget > 0) {
+                budget--;
+                if (!Boolean.TRUE.equals(transactionTemplate.execute(status -> processChunk(jobId)))) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.error("Fehler bei Löschauftrag {}: {}", jobId, e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> jobRepository.findById(jobId).ifPresent(job -> {
+                job.setAttempts(job.getAttempts() + 1);
+                job.setLastError(abbreviate(e.getMessage()));
+            }));
+        }
+        return budget;
+    }
+
+    /**
+     * Führt einen Abschnitt des aktuellen Schritts aus und speichert den Fortschritt.
+     *
+     * @return true, wenn der Auftrag noch weitere Abschnitte benötigt
+     */
+    boolean processChunk(long jobId) {
+        AccountDeletionJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() != AccountDeletionStatus.DELETING) {
+            return false;
+        }
+        Optional<UserStatus> userStatus = userRepository.findStatusById(job.getUserId());
+        if (userStatus.isPresent() && userStatus.get() != UserStatus.PENDING_DELETE) {
+            finish(job, AccountDeletionStatus.CANCELLED);
+            cancelled.increment();
+            return false;
+        }
+
+        AccountDeletionStep step = job.getStep();
+        int rows = executeStep(step, job.getUserId());
+        job.setRowsProcessed(job.getRowsProcessed() + rows);
+        meterRegistry.counter("account.deletion.rows", "step", step.name()).increment(rows);
+
+        if (step == AccountDeletionStep.USER) {
+            if (rows > 0) {
+                Map<String, Object> variables = baseVariables(job);
+                variables.put("loginUrl", frontendUrl + "/login");
+                variables.put("registerUrl", frontendUrl + "/register");
+                emailOutboxService.enqueue(job.getEmail(), "Deine Benutzerdaten wurden gelöscht!", "account-deleted", variables);
+            }
+            finish(job, AccountDeletionStatus.COMPLETED);
+            completed.increment();
+            log.info("Konto {} gelöscht ({} Zeilen)", job.getUserId(), job.getRowsProcessed());
+            return false;
+        }
+        if (rows < chunkSize) {
+            if (step == AccountDeletionStep.QUIZZES) {
+                eventPublisher.publishEvent(new QuizzesReassignedEvent(job.getUserId(), ADMIN_USER_ID));
+            }
+            job.setStep(step.next());
+        }
+        return true;
+    }
+
+    private int executeStep(AccountDeletionStep step, long userId) {
+        return switch (step) {
+            case QUIZ_RESULTS -> quizResultRepository.deleteChunkByUserId(userId, chunkSize);
+            case QUIZ_FAVORITES -> quizFavoriteRepository.deleteChunkByUserId(userId, chunkSize);
+            case QUIZ_RATINGS -> quizRatingRepository.deleteChunkByQuizCreator(userId, chunkSize);
+            case QUIZZES -> quizRepository.reassignChunk(userId, ADMIN_USER_ID, chunkSize);
+            case TOKEN -> authenticationTokenRepository.deleteByUserId(userId);
+            case USER -> userRepository.deleteByIdAndStatus(userId, UserStatus.PENDING_DELETE);
+        };
+    }
+
+    private static AccountDeletionJob newJob(User user) {
+        AccountDeletionJob job = new AccountDeletionJob();
+        job.setUserId(user.getId());
+        job.setEmail(user.getEmail());
+        job.setUsername(user.getName());
+        job.setStatus(AccountDeletionStatus.SCHEDULED);
+        job.setRequestedAt(user.getUpdatedAt() != null ? user.getUpdatedAt() : LocalDateTime.now());
+        return job;
+    }
+
+    private static void finish(AccountDeletionJob job, AccountDeletionStatus status) {
+        job.setStatus(status);
+        job.setStep(null);
+        job.setFinishedAt(LocalDateTime.now());
+    }
+
+    private Map<String, Object> baseVariables(AccountDeletionJob job) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("logoUrl", frontendUrl + "/icons/logo512.png");
+        variables.put("username", job.getUsername());
+        return variables;
+    }
+
+    private static String abbreviate(String text) {
+        if (text == null || text.length() <= MAX_ERROR_LENGTH) {
+            return text;
+        }
+        return text.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -1,23 +1,31 @@
 package rh.ptp.quizapp.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import rh.ptp.quizapp.event.AccountCreatedEvent;
+import rh.ptp.quizapp.event.AccountDeletedEvent;
+import rh.ptp.quizapp.event.AccountUpdatedEvent;
+import rh.ptp.quizapp.event.UserRenamedEvent;
+import rh.ptp.quizapp.event.PasswordChangedEvent;
+import rh.ptp.quizapp.event.RoleChangedEvent;
+import rh.ptp.quizapp.event.UserBlockedEvent;
+import rh.ptp.quizapp.event.UserUnblockedEvent;
 import rh.ptp.quizapp.model.User;
 import rh.ptp.quizapp.model.UserRole;
 import rh.ptp.quizapp.model.UserStatus;
 import rh.ptp.quizapp.repository.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Service für administrative Benutzerverwaltungsfunktionen.
  * Ermöglicht das Erstellen, Aktualisieren und Löschen von Benutzern durch Admins
- * sowie das Versenden von entsprechenden Benachrichtigungs-E-Mails.
+ * Benachrichtigungen werden als Ereignisse veröffentlicht und nach dem Commit versendet.
  */
 @Service
 public class AdminService {
@@ -28,20 +36,16 @@ public class AdminService {
     private UserRepository userRepository;
 
     @Autowired
-    private EmailService emailService;
-
-    @Value("${frontend.url}")
-    private String frontendUrl;
-
-    private boolean customEmailSend = false;
+    private ApplicationEventPublisher eventPublisher;
 
     /**
      * Erstellt einen neuen Benutzer mit verschlüsseltem Passwort und speichert ihn.
-     * Sendet eine E-Mail-Benachrichtigung an den neuen Benutzer.
+     * Nach dem Commit wird der neue Benutzer per E-Mail benachrichtigt.
      *
      * @param user Benutzerobjekt mit den zu speichernden Daten (inkl. Klartext-Passwort)
      * @return Gespeicherter Benutzer mit unverändertem Klartext-Passwort im Rückgabeobjekt
      */
+    @Transactional
     public User createUser(User user) {
         String password = user.getPassword();
         user.setPassword(passwordEncoder.encode(user.getPassword()));
@@ -49,23 +53,26 @@ public class AdminService {
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
         user.setPassword(password);
-        adminEmail(user, user, 0);
+        eventPublisher.publishEvent(new AccountCreatedEvent(user.getEmail(), user.getName(), password));
         return user;
     }
 
     /**
      * Aktualisiert einen existierenden Benutzer mit den neuen Daten.
-     * Sendet bei Änderungen entsprechende Benachrichtigungen.
+     * Nach dem Commit wird der Benutzer über Rollenwechsel, Sperre, Entsperrung oder Passwortänderung
+     * benachrichtigt, andernfalls allgemein über die Aktualisierung.
      *
      * @param id           ID des zu aktualisierenden Benutzers
      * @param userUpdated  Benutzerobjekt mit neuen Werten (kann teilweise leer sein)
      * @return Aktualisierter Benutzer
      * @throws RuntimeException wenn Benutzer nicht gefunden wird
      */
+    @Transactional
     public User updateUser(Long id, User userUpdated) {
         User user = userRepository.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
-        Map<String, Object> variables = adminEmail(user, userUpdated, 1);
         if(userUpdated.getId() == 1L) throw new RuntimeException("Der Admin-Benutzer kann nicht aktualisiert werden.");
+        List<Object> events = changeEvents(user, userUpdated);
+        boolean renamed = userUpdated.getName() != null && !userUpdated.getName().equals(user.getName());
 
         if (userUpdated.getName() != null) {
             user.setName(userUpdated.getName());
@@ -84,36 +91,38 @@ public class AdminService {
         }
         user.setDailyQuizReminder(userUpdated.isDailyQuizReminder());
 
-        if (userUpdated.getDailyStreak() != user.getDailyStreak()) {
-            user.setLastDailyQuizPlayed(LocalDateTime.now());
-            user.setDailyStreak(userUpdated.getDailyStreak());
-        }
+        // lastDailyQuizPlayed bleibt unverändert: Er entscheidet, ob der nächste Abschluss des
+        // täglichen Quizzes die Serie erhöht, und beschreibt nur tatsächliche Spiele.
+        user.setDailyStreak(userUpdated.getDailyStreak());
 
         user.setUpdatedAt(LocalDateTime.now());
 
         userRepository.save(user);
 
-        if (!customEmailSend) {
-            variables.replace("username", user.getName());
-            variables.replace("email", user.getEmail());
-            emailService.sendEmail(user.getEmail(), "Dein Benutzerkonto wurde durch einen Admin aktualisiert!", "account-updated", variables);
+        if (events.isEmpty()) {
+            events.add(new AccountUpdatedEvent(user.getEmail(), user.getName()));
+        }
+        events.forEach(eventPublisher::publishEvent);
+        if (renamed) {
+            eventPublisher.publishEvent(new UserRenamedEvent(user.getId(), user.getName()));
         }
         return user;
     }
 
     /**
      * Löscht einen Benutzer anhand seiner ID.
-     * Sendet eine Benachrichtigung über die Löschung.
+     * Nach dem Commit wird der Benutzer über die Löschung benachrichtigt.
      *
      * @param id ID des zu löschenden Benutzers
      * @throws RuntimeException bei Fehlern während der Löschung
      */
+    @Transactional
     public void deleteUser(Long id) {
         User user = userRepository.findById(id).get();
         if(id!= 1L) {
             try {
-                adminEmail(user, user, 2);
                 userRepository.deleteById(id);
+                eventPublisher.publishEvent(new AccountDeletedEvent(user.getEmail(), user.getName()));
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
@@ -123,47 +132,29 @@ public class AdminService {
     }
 
     /**
-     * Hilfsmethode zum Versenden von Admin-bezogenen E-Mails
-     * bei Erstellung, Aktualisierung oder Löschung eines Benutzers.
+     * Ermittelt die Ereignisse einer Aktualisierung durch einen Admin aus altem und neuem Zustand.
+     * Die Benachrichtigungen gehen an die bisherige E-Mail-Adresse.
      *
      * @param user        Alter Benutzerzustand
      * @param userUpdated Neuer Benutzerzustand
-     * @param action      Aktionstyp: 0=Erstellung, 1=Update, 2=Löschung
-     * @return Map mit Template-Variablen für die E-Mail
+     * @return veränderbare Liste der Ereignisse, leer wenn keine spezielle Benachrichtigung greift
      */
-    private Map<String, Object> adminEmail(User user, User userUpdated, int action) {
-        customEmailSend = false;
-        Map<String, Object> variables = new HashMap<>();
-        variables.put("logoUrl", frontendUrl + "/icons/logo512.png");
-        variables.put("username", userUpdated.getName());
-        variables.put("loginUrl", frontendUrl + "/login");
-        variables.put("password", userUpdated.getPassword());
-        variables.put("registerUrl", frontendUrl + "/register");
-
-        if (action == 0) {
-            emailService.sendEmail(user.getEmail(), "Dein Benutzerkonto wurde durch einen Admin erstellt!", "account-created", variables);
-        } else if (action == 1) {
-            if (userUpdated.getRole() != null && userUpdated.getRole().equals(UserRole.ROLE_ADMIN) && !user.getRole().equals(UserRole.ROLE_ADMIN)) {
-                emailService.sendEmail(user.getEmail(), "Du wurdest zum Admin ernannt!", "admin-promoted", variables);
-                customEmailSend = true;
-            } else if (userUpdated.getRole() != null && !userUpdated.getRole().equals(UserRole.ROLE_ADMIN) && user.getRole().equals(UserRole.ROLE_ADMIN)) {
-                emailService.sendEmail(user.getEmail(), "Du wurdest zum normalen Benutzer degradiert!", "admin-demoted", variables);
-                customEmailSend = true;
-            }
-            if (user.getUserStatus() != UserStatus.BLOCKED && userUpdated.getUserStatus() == UserStatus.BLOCKED) {
-                emailService.sendEmail(user.getEmail(), "Dein Benutzerkonto wurde durch einen Admin gesperrt!", "account-blocked", variables);
-                customEmailSend = true;
-            } else if (user.getUserStatus() == UserStatus.BLOCKED && userUpdated.getUserStatus() != UserStatus.BLOCKED) {
-                emailService.sendEmail(user.getEmail(), "Deine Benutzersperre wurde durch einen Admin aufgehoben!", "account-unblocked", variables);
-                customEmailSend = true;
-            }
-            if (userUpdated.getPassword() != null && !passwordEncoder.matches(userUpdated.getPassword(), user.getPassword())) {
-                emailService.sendEmail(user.getEmail(), "Dein Passwort wurde durch einen Admin geändert!", "password-changed", variables);
-                customEmailSend = true;
-            }
-        } else if (action == 2) {
-            emailService.sendEmail(user.getEmail(), "Dein Benutzerkonto wurde durch einen Admin gelöscht!", "account-deleted", variables);
+    private List<Object> changeEvents(User user, User userUpdated) {
+        List<Object> events = new ArrayList<>();
+        String email = user.getEmail();
+        String username = userUpdated.getName();
+        if (userUpdated.getRole() != null && userUpdated.getRole() != user.getRole()
+                && (userUpdated.getRole() == UserRole.ROLE_ADMIN || user.getRole() == UserRole.ROLE_ADMIN)) {
+            events.add(new RoleChangedEvent(email, username, userUpdated.getRole()));
+        }
+        if (user.getUserStatus() != UserStatus.BLOCKED && userUpdated.getUserStatus() == UserStatus.BLOCKED) {
+            events.add(new UserBlockedEvent(email, username));
+        } else if (user.getUserStatus() == UserStatus.BLOCKED && userUpdated.getUserStatus() != UserStatus.BLOCKED) {
+            events.add(new UserUnblockedEvent(email, username));
+        }
+        if (userUpdated.getPassword() != null && !passwordEncoder.matches(userUpdated.getPassword(), user.getPassword())) {
+            events.add(new PasswordChangedEvent(email, username, userUpdated.getPassword()));
         }
-        return variables;
+        return events;
     }
-}
\ No newline at end of file
+}
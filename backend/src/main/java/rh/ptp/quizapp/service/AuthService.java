@@ -3,15 +3,19 @@ package rh.ptp.quizapp.service;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import rh.ptp.quizapp.dto.AuthResponse;
 import rh.ptp.quizapp.dto.LoginRequest;
 import rh.ptp.quizapp.dto.RegisterRequest;
 import rh.ptp.quizapp.dto.UserDTO;
+import rh.ptp.quizapp.event.AccountReactivatedEvent;
+import rh.ptp.quizapp.event.PasswordResetRequestedEvent;
+import rh.ptp.quizapp.event.VerificationRequestedEvent;
 import rh.ptp.quizapp.model.AuthenticationToken;
 import rh.ptp.quizapp.model.User;
 import rh.ptp.quizapp.model.UserStatus;
@@ -20,8 +24,6 @@ import rh.ptp.quizapp.repository.UserRepository;
 import rh.ptp.quizapp.security.JwtService;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Service für Authentifizierung und Registrierung von Benutzern.
@@ -36,21 +38,19 @@ public class AuthService {
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
     private final AuthenticationTokenRepository authenticationTokenRepository;
-    private final EmailService emailService;
-
-    @Value("${frontend.url}")
-    private String frontendUrl;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Registriert einen neuen Benutzer.
      * Wenn Benutzername bereits existiert, wird eine Exception geworfen.
      * Falls E-Mail bereits existiert, wird ein Passwort-Zurücksetzen-Token generiert und E-Mail verschickt.
-     * Sendet Verifizierungs-E-Mail an neu registrierten Benutzer.
+     * Die E-Mails werden als Ereignisse veröffentlicht und erst nach dem Commit versendet.
      *
      * @param request RegisterRequest mit Benutzerdaten
      * @return Angelegter Benutzer mit verschlüsseltem Passwort und PENDING_VERIFICATION Status
      * @throws RuntimeException bei existierendem Benutzernamen
      */
+    @Transactional
     public String register(RegisterRequest request) {
         if (userRepository.existsByName(request.getName())) {
             throw new RuntimeException("Benutzername ist bereits vergeben");
@@ -58,13 +58,8 @@ public class AuthService {
         if (userRepository.existsByEmail(request.getEmail())) {
             User user = userRepository.findByEmail(request.getEmail())
                     .orElseThrow(() -> new RuntimeException("Benutzer nicht gefunden"));
-            createAuthenticationToken(user);
-            String token = authenticationTokenRepository.findTokenByQuizUser(user);
-            Map<String, Object> variables = new HashMap<>();
-            variables.put("logoUrl", frontendUrl+"/icons/logo512.png");
-            variables.put("username", user.getName());
-            variables.put("resetUrl", frontendUrl + "/reset-password/" + token);
-            emailService.sendEmail(user.getEmail(), "Passwort zurücksetzen", "password-reset-email", variables);
+            AuthenticationToken token = createAuthenticationToken(user);
+            eventPublisher.publishEvent(new PasswordResetRequestedEvent(user.getEmail(), user.getName(), token.getToken()));
             return "Ein Account mit dieser E-Mail existiert bereits. Bitte überprüfen Sie Ihre E-Mail-Adresse, um das Passwort zurückzusetzen.";
         }
 
@@ -83,7 +78,7 @@ public class AuthService {
     /**
      * Erstellt einen neuen Verifikations- oder Passwort-Zurücksetzen-Token für einen Benutzer.
      * Löscht ggf. vorhandene Token vorher.
-     * Sendet Verifizierungs-E-Mail wenn der Nutzer den Status PENDING_VERIFICATION hat.
+     * Veröffentlicht ein {@link VerificationRequestedEvent}, wenn der Nutzer den Status PENDING_VERIFICATION hat.
      *
      * @param user Benutzer, für den der Token erstellt wird
      * @return Erstellter AuthenticationToken
@@ -97,11 +92,7 @@ public class AuthService {
         }
         AuthenticationToken newToken = new AuthenticationToken(user);
         if(user.getUserStatus() == UserStatus.PENDING_VERIFICATION) {
-            Map<String, Object> variables = new HashMap<>();
-            variables.put("logoUrl", frontendUrl+"/icons/logo512.png");
-            variables.put("username", user.getName());
-            variables.put("verificationUrl", frontendUrl + "/verify-email/" + newToken.getToken());
-            emailService.sendEmail(user.getEmail(), "E-Mail-Adresse verifizieren", "verification-email", variables);
+            eventPublisher.publishEvent(new VerificationRequestedEvent(user.getEmail(), user.getName(), newToken.getToken()));
         }
         return authenticationTokenRepository.save(newToken);
     }
@@ -115,6 +106,7 @@ public class AuthService {
      * @return AuthResponse mit JWT Token und UserDTO
      * @throws RuntimeException bei fehlerhafter Anmeldung oder Statusproblemen
      */
+    @Transactional
     public AuthResponse login(LoginRequest request) {
         try {
             authenticationManager.authenticate(
@@ -131,11 +123,7 @@ public class AuthService {
             } else if (user.getUserStatus()==UserStatus.PENDING_DELETE) {
                 user.setUserStatus(UserStatus.ACTIVE);
                 userRepository.save(user);
-                Map<String, Object> variables = new HashMap<>();
-                variables.put("logoUrl", frontendUrl + "/icons/logo512.png");
-                variables.put("username", user.getName());
-                variables.put("quizUrl", frontendUrl + "/daily-quiz");
-                emailService.sendEmail(user.getEmail(), "Account reaktiviert", "account-reactivated", variables);
+                eventPublisher.publishEvent(new AccountReactivatedEvent(user.getEmail(), user.getName()));
             }
 
             String token = jwtService.generateToken(user);
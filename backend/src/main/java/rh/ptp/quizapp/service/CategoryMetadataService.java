@@ -0,0 +1,184 @@
+package rh.ptp.quizapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+import rh.ptp.quizapp.dto.CategoryCount;
+import rh.ptp.quizapp.dto.CategoryMetadata;
+import rh.ptp.quizapp.event.QuizDeletedEvent;
+import rh.ptp.quizapp.event.QuizSavedEvent;
+import rh.ptp.quizapp.model.QuizCategory;
+import rh.ptp.quizapp.repository.QuizRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hält die Kategorie-Metadaten (Schlüssel, Anzeigename, Anzahl öffentlicher Quizzes) als
+ * vorberechnete, unveränderliche JSON-Antwort samt ETag vor.
+ * <p>
+ * Die Zähler werden beim Start und stündlich aus der Datenbank geladen und dazwischen über
+ * {@link QuizSavedEvent} und {@link QuizDeletedEvent} nach dem Commit inkrementell angepasst;
+ * zurückgerollte Änderungen verändern sie daher nicht. Änderungen während des Ladens werden
+ * danach nachgeholt. Der regelmäßige Neuaufbau gleicht Abweichungen aus, etwa durch Änderungen
+ * direkt in der Datenbank. Nach jeder Änderung wird die Antwort einmal neu serialisiert;
+ * Anfragen schreiben nur noch Bytes.
+ * </p>
+ */
+@Service
+public class CategoryMetadataService {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryMetadataService.class);
+
+    private static final QuizCategory[] CATEGORIES = QuizCategory.values();
+
+    private final QuizRepository quizRepository;
+    private final ObjectMapper objectMapper;
+    private final long[] counts = new long[CATEGORIES.length];
+    private final Lock reloadLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+    /**
+     * Während des Ladens eingetroffene Änderungen, sonst {@code null}; Zugriff nur unter {@code counts}.
+     */
+    private List<Runnable> pendingChanges;
+
+    /**
+     * Vorberechnete Antwort.
+     *
+     * @param json Serialisierte Metadaten
+     * @param eTag ETag der Antwort
+     */
+    public record Snapshot(byte[] json, String eTag) {
+    }
+
+    /**
+     * Konstruktor.
+     *
+     * @param quizRepository Repository für das Zählen der Quizzes
+     * @param objectMapper   ObjectMapper für die Serialisierung
+     */
+    public CategoryMetadataService(QuizRepository quizRepository, ObjectMapper objectMapper) {
+        this.quizRepository = quizRepository;
+        this.objectMapper = objectMapper;
+        this.snapshot = render();
+    }
+
+    /**
+     * Lädt alle Zähler neu aus der Datenbank. Änderungen, die währenddessen eintreffen,
+     * werden danach nachgeholt.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${category-metadata.reload-cron:0 35 * * * *}")
+    public void reload() {
+        reloadLock.lock();
+        try {
+            synchronized (counts) {
+                pendingChanges = new ArrayList<>();
+            }
+            try {
+                List<CategoryCount> loaded = quizRepository.countPublicQuizzesByCategory();
+                synchronized (counts) {
+                    Arrays.fill(counts, 0);
+                    for (CategoryCount count : loaded) {
+                        if (count.category() != null) {
+                            counts[count.category().ordinal()] = count.quizCount();
+                        }
+                    }
+                    pendingChanges.forEach(Runnable::run);
+                    snapshot = render();
+                }
+            } finally {
+                synchronized (counts) {
+                    pendingChanges = null;
+                }
+            }
+            log.debug("Kategorie-Metadaten neu geladen");
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Passt die Zähler nach dem Commit an ein gespeichertes Quiz an.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(QuizSavedEvent event) {
+        quizChanged(event.previousCategories(), event.categories());
+    }
+
+    /**
+     * Passt die Zähler nach dem Commit an ein gelöschtes Quiz an.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(QuizDeletedEvent event) {
+        quizChanged(event.categories(), List.of());
+    }
+
+    /**
+     * Passt die Zähler an, nachdem sich die öffentlichen Kategorien eines Quizzes geändert haben.
+     * Für neue oder bisher private Quizzes ist {@code before} leer, für gelöschte oder private {@code after}.
+     *
+     * @param before Kategorien vor der Änderung
+     * @param after  Kategorien nach der Änderung
+     */
+    public void quizChanged(Collection<QuizCategory> before, Collection<QuizCategory> after) {
+        synchronized (counts) {
+            if (pendingChanges != null) {
+                pendingChanges.add(() -> {
+                    adjust(before, -1);
+                    adjust(after, 1);
+                });
+            }
+            boolean changed = adjust(before, -1);
+            changed |= adjust(after, 1);
+            if (changed) {
+                snapshot = render();
+            }
+        }
+    }
+
+    /**
+     * @return Aktuelle vorberechnete Antwort
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    private boolean adjust(Collection<QuizCategory> categories, int delta) {
+        if (categories == null) {
+            return false;
+        }
+        boolean changed = false;
+        for (QuizCategory category : categories.stream().distinct().toList()) {
+            if (category != null) {
+                counts[category.ordinal()] = Math.max(0, counts[category.ordinal()] + delta);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private Snapshot render() {
+        List<CategoryMetadata> metadata = new ArrayList<>(CATEGORIES.length);
+        for (QuizCategory category : CATEGORIES) {
+            metadata.add(new CategoryMetadata(category.name(), category.getDisplayName(), counts[category.ordinal()]));
+        }
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(List.copyOf(metadata));
+            return new Snapshot(json, "\"" + DigestUtils.md5DigestAsHex(json) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Kategorie-Metadaten konnten nicht serialisiert werden", e);
+        }
+    }
+}
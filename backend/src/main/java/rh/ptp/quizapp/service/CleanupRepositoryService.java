@@ -1,27 +1,24 @@
 package rh.ptp.quizapp.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import rh.ptp.quizapp.model.AuthenticationToken;
 import rh.ptp.quizapp.model.User;
-import rh.ptp.quizapp.model.UserStatus;
 import rh.ptp.quizapp.repository.AuthenticationTokenRepository;
 import rh.ptp.quizapp.repository.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 
 /**
  * Service zur Bereinigung und Löschung von Benutzerdaten und Tokens.
  * <p>
- * Führt geplante Aufgaben wie das Löschen alter Tokens und das Abschließen von Löschanfragen durch.
+ * Führt geplante Aufgaben wie das Löschen alter Tokens durch. Löschanfragen von Benutzern werden
+ * vom {@link AccountDeletionService} abgeschlossen.
  * </p>
  */
 @Service
@@ -39,10 +36,7 @@ public class CleanupRepositoryService {
     private AuthenticationTokenRepository authenticationTokenRepository;
 
     @Autowired
-    private EmailService emailService;
-
-    @Value("${frontend.url}")
-    private String frontendUrl;
+    private MeterRegistry meterRegistry;
 
     /**
      * Löscht alle Quiz-Ergebnisse eines Benutzers.
@@ -104,53 +98,17 @@ public class CleanupRepositoryService {
         if (token != null) {
             authenticationTokenRepository.delete(token);
         }
-        deleteOldTokens();
-    }
-
-    /**
-     * Führt geplante Aufgaben zum Abschluss von Löschanfragen aus.
-     * <ul>
-     *   <li>Warnung an Benutzer mit Löschanfragen älter als 6 Tage.</li>
-     *   <li>Endgültige Löschung von Benutzerdaten für Löschanfragen älter als 7 Tage.</li>
-     * </ul>
-     * <p>
-     * Ausgeführt jede Stunde (Cron: "0 0 * * * *").
-     * </p>
-     */
-    @Scheduled(cron = "0 0 * * * *")
-    @Transactional
-    public void completeDeletionRequests() {
-        LocalDateTime warningTime = LocalDateTime.now().minusDays(6);
-        List<User> requests = userRepository.findAllByUpdatedAtBeforeAndUserStatusIn(warningTime, List.of(UserStatus.PENDING_DELETE));
-
-        for (User request : requests) {
-            request.setUpdatedAt(warningTime);
-            Map<String, Object> variables = new HashMap<>();
-            variables.put("logoUrl", frontendUrl + "/icons/logo512.png");
-            variables.put("username", request.getName());
-            variables.put("verificationUrl", frontendUrl + "/verify-email/" + authenticationTokenRepository.findTokenByQuizUser(request));
-            variables.put("loginUrl", frontendUrl + "/login");
-            emailService.sendEmail(request.getEmail(), "Erinnerung: Account-Löschung", "account-delete-warning", variables);
-        }
-
-        LocalDateTime expiryTime = LocalDateTime.now().minusDays(7);
-        requests = userRepository.findAllByUpdatedAtBeforeAndUserStatusIn(expiryTime, List.of(UserStatus.PENDING_DELETE));
-        for (User request : requests) {
-            Map<String, Object> variables = new HashMap<>();
-            variables.put("logoUrl", frontendUrl + "/icons/logo512.png");
-            variables.put("username", request.getName());
-            variables.put("loginUrl", frontendUrl + "/login");
-            variables.put("registerUrl", frontendUrl + "/register");
-            emailService.sendEmail(request.getEmail(), "Deine Benutzerdaten wurden gelöscht!", "account-deleted", variables);
-            prepareDelete(request.getId());
-        }
-        userRepository.deleteAllByUpdatedAtBeforeAndUserStatusIn(expiryTime, List.of(UserStatus.PENDING_DELETE));
     }
 
     /**
      * Löscht alte Authentifizierungstoken, die älter als 1 Stunde sind.
      * <p>
      * Löscht auch Benutzer mit Status PENDING_VERIFICATION, wenn deren Token abgelaufen sind.
+     * Beides geschieht mit je einer Anweisung; der Aufwand hängt damit nur von der Anzahl
+     * abgelaufener Tokens ab. Da das Token auf den Benutzer verweist, werden zuerst die Tokens
+     * gelöscht und danach unbestätigte Benutzer ohne Token, die vor dem Ablaufzeitpunkt angelegt
+     * wurden (frisch registrierte Benutzer erhalten ihr Token erst nach dem Speichern). Die Anzahl
+     * gelöschter Zeilen wird als {@code cleanup.tokens.deleted} und {@code cleanup.users.deleted} erfasst.
      * </p>
      * <p>
      * Ausgeführt jede Minute (Cron: "0 * * * * *").
@@ -160,13 +118,12 @@ public class CleanupRepositoryService {
     @Transactional
     public void deleteOldTokens() {
         LocalDateTime expiryTime = LocalDateTime.now().minusHours(1);
-        List<User> users = authenticationTokenRepository.findQuizUserByExpiryDateBefore(expiryTime);
-        authenticationTokenRepository.deleteAllByExpiryDateBefore(expiryTime);
-        for (User user : users) {
-            if (user.getUserStatus() == UserStatus.PENDING_VERIFICATION) {
-                logger.info("Deleting user {} with status PENDING_VERIFICATION", user.getEmail());
-                userRepository.deleteById(user.getId());
-            }
+        int tokens = authenticationTokenRepository.deleteExpiredTokens(expiryTime);
+        int users = userRepository.deleteUnverifiedWithoutToken(expiryTime);
+        meterRegistry.counter("cleanup.tokens.deleted").increment(tokens);
+        meterRegistry.counter("cleanup.users.deleted").increment(users);
+        if (tokens > 0 || users > 0) {
+            logger.info("{} abgelaufene Tokens und {} unbestätigte Benutzer gelöscht", tokens, users);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,188 @@
+package rh.ptp.quizapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import rh.ptp.quizapp.event.DailyQuizCompletedEvent;
+import rh.ptp.quizapp.model.Quiz;
+import rh.ptp.quizapp.model.QuizCategory;
+import rh.ptp.quizapp.repository.DailyQuizCompletionRepository;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+
+/**
+ * Beantwortet, ob ein Benutzer das tägliche Quiz eines Tages abgeschlossen hat.
+ * <p>
+ * Abschlüsse werden beim Speichern eines Ergebnisses in {@code daily_quiz_completions} vermerkt;
+ * die Prüfung ist damit ein Zugriff über den Primärschlüssel. Zusätzlich hält der Service für den
+ * aktuellen Tag ein Bitset der Benutzer-IDs, deren Abschluss bereits bekannt ist. Ein gesetztes Bit
+ * beantwortet die Prüfung ohne Datenbank; ein fehlendes Bit bedeutet nur „unbekannt“, da ein
+ * Abschluss von einer anderen Instanz oder vor einem Neustart stammen kann. Bits werden erst nach
+ * dem Commit gesetzt, damit ein zurückgerollter Abschluss nicht im Speicher verbleibt.
+ * </p>
+ */
+@Service
+public class DailyCompletionService {
+
+    private static final Logger log = LoggerFactory.getLogger(DailyCompletionService.class);
+
+    /**
+     * Anzahl Tage, die Abschlüsse aufbewahrt werden.
+     */
+    static final int RETENTION_DAYS = 7;
+
+    private final DailyQuizCompletionRepository completionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private volatile Day day;
+
+    /**
+     * Bekannte Abschlüsse eines Tages.
+     */
+    private record Day(LocalDate date, BitSet completers) {
+    }
+
+    /**
+     * Konstruktor für Spring.
+     *
+     * @param completionRepository Repository der Abschlüsse
+     * @param eventPublisher       Publisher für {@link DailyQuizCompletedEvent}
+     * @param meterRegistry        Registry für die Metriken
+     */
+    @Autowired
+    public DailyCompletionService(DailyQuizCompletionRepository completionRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  MeterRegistry meterRegistry) {
+        this(completionRepository, eventPublisher, Clock.systemDefaultZone(), meterRegistry);
+    }
+
+    /**
+     * Konstruktor mit expliziter Uhr.
+     *
+     * @param completionRepository Repository der Abschlüsse
+     * @param eventPublisher       Publisher für {@link DailyQuizCompletedEvent}
+     * @param clock                Uhr für den aktuellen Tag
+     * @param meterRegistry        Registry für die Metriken
+     */
+    public DailyCompletionService(DailyQuizCompletionRepository completionRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  Clock clock,
+                                  MeterRegistry meterRegistry) {
+        this.completionRepository = completionRepository;
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+        this.day = new Day(LocalDate.now(clock), new BitSet());
+        this.cacheHits = Counter.builder("daily.completion.checks")
+                .description("Prüfungen auf den Abschluss des täglichen Quizzes")
+                .tag("source", "memory")
+                .register(meterRegistry);
+        this.cacheMisses = Counter.builder("daily.completion.checks")
+                .description("Prüfungen auf den Abschluss des täglichen Quizzes")
+                .tag("source", "database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Prüft, ob der Benutzer das heutige tägliche Quiz abgeschlossen hat.
+     *
+     * @param userId ID des Benutzers
+     * @return true, wenn heute bereits abgeschlossen
+     */
+    public boolean hasCompletedToday(long userId) {
+        LocalDate today = LocalDate.now(clock);
+        if (isKnown(userId, today)) {
+            cacheHits.increment();
+            return true;
+        }
+        cacheMisses.increment();
+        boolean completed = completionRepository.existsByUserIdAndCompletionDate(userId, today);
+        if (completed) {
+            remember(userId, today);
+        }
+        return completed;
+    }
+
+    /**
+     * Vermerkt den Abschluss, wenn das gespielte Quiz ein tägliches Quiz ist.
+     *
+     * @param userId   ID des Benutzers
+     * @param quiz     gespieltes Quiz
+     * @param playedAt Zeitpunkt des Ergebnisses
+     * @return true, wenn damit erstmals an diesem Tag ein tägliches Quiz abgeschlossen wurde
+     */
+    @Transactional
+    public boolean recordIfDaily(long userId, Quiz quiz, LocalDateTime playedAt) {
+        if (quiz.getCategories() == null || !quiz.getCategories().contains(QuizCategory.DAILY_QUIZ)) {
+            return false;
+        }
+        LocalDate date = playedAt.toLocalDate();
+        if (completionRepository.insertIfAbsent(userId, date, playedAt) == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(new DailyQuizCompletedEvent(userId, date));
+        return true;
+    }
+
+    /**
+     * Übernimmt einen Abschluss nach dem Commit in das Bitset.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(DailyQuizCompletedEvent event) {
+        remember(event.userId(), event.date());
+    }
+
+    /**
+     * Löscht Abschlüsse, die älter als {@value #RETENTION_DAYS} Tage sind.
+     */
+    @Scheduled(cron = "0 20 4 * * *")
+    public void purgeOld() {
+        int deleted = completionRepository.deleteByCompletionDateBefore(LocalDate.now(clock).minusDays(RETENTION_DAYS));
+        if (deleted > 0) {
+            log.info("{} alte Abschlüsse des täglichen Quizzes gelöscht", deleted);
+        }
+    }
+
+    private boolean isKnown(long userId, LocalDate date) {
+        Day current = day;
+        if (!current.date().equals(date) || userId < 0 || userId > Integer.MAX_VALUE) {
+            return false;
+        }
+        synchronized (current.completers()) {
+            return current.completers().get((int) userId);
+        }
+    }
+
+    private void remember(long userId, LocalDate date) {
+        if (userId < 0 || userId > Integer.MAX_VALUE) {
+            return;
+        }
+        Day current = day;
+        if (!current.date().equals(date)) {
+            if (!date.equals(LocalDate.now(clock))) {
+                return;
+            }
+            synchronized (this) {
+                current = day;
+                if (!current.date().equals(date)) {
+                    current = new Day(date, new BitSet());
+                    day = current;
+                }
+            }
+        }
+        synchronized (current.completers()) {
+            current.completers().set((int) userId);
+        }
+    }
+}
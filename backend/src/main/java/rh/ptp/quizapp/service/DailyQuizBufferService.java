@@ -0,0 +1,156 @@
+package rh.ptp.quizapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import rh.ptp.quizapp.dto.DailyQuizBufferStatus;
+import rh.ptp.quizapp.model.Quiz;
+import rh.ptp.quizapp.model.QuizCategory;
+import rh.ptp.quizapp.util.CreateAiRequest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verwaltet einen Vorrat an vorab generierten Tagesquizzes.
+ * <p>
+ * Die Quizzes werden außerhalb der Stoßzeiten aus dem Fragenpool oder, wenn dieser nicht
+ * ausreicht, über die KI-API erzeugt und als private
+ * Quizzes ohne Datum gespeichert. Um Mitternacht wird daraus mit einem einzigen Update
+ * das heutige Tagesquiz, ohne dass die KI-API erreichbar sein muss.
+ * Der Füllstand wird als Gauge {@code daily.quiz.buffer.depth} erfasst.
+ * </p>
+ */
+@Service
+public class DailyQuizBufferService {
+
+    private static final Logger log = LoggerFactory.getLogger(DailyQuizBufferService.class);
+
+    /**
+     * Kategorien, aus denen Tagesquizzes erzeugt werden.
+     */
+    private static final List<QuizCategory> DAILY_CATEGORIES = Arrays.stream(QuizCategory.values())
+            .filter(cat -> cat != QuizCategory.DAILY_QUIZ && cat != QuizCategory.GENERAL_KNOWLEDGE)
+            .toList();
+
+    /**
+     * Anzahl der Fragen eines Tagesquizzes.
+     */
+    public static final int DAILY_QUIZ_QUESTIONS = 10;
+
+    private final QuizService quizService;
+    private final CreateAiRequest createAiRequest;
+    private final int targetSize;
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private final AtomicLong depth = new AtomicLong();
+    private final Counter generated;
+    private final Counter failed;
+    private volatile LocalDateTime lastRefill;
+    private volatile String lastError;
+
+    /**
+     * Konstruktor.
+     *
+     * @param quizService         Service zum Speichern und Veröffentlichen der Quizzes, bevorzugt aus dem Fragenpool
+     * @param createAiRequest     Zugriff auf die KI-API, falls der Pool nicht ausreicht
+     * @param targetSize          Anzahl der Tagesquizzes, die vorrätig gehalten werden
+     * @param meterRegistry       Registry für die Metriken
+     */
+    public DailyQuizBufferService(QuizService quizService, CreateAiRequest createAiRequest,
+                                  @Value("${daily-quiz.buffer.size:3}") int targetSize,
+                                  MeterRegistry meterRegistry) {
+        this.quizService = quizService;
+        this.createAiRequest = createAiRequest;
+        this.targetSize = targetSize;
+        Gauge.builder("daily.quiz.buffer.depth", depth, AtomicLong::get)
+                .description("Anzahl der vorab generierten Tagesquizzes")
+                .register(meterRegistry);
+        this.generated = Counter.builder("daily.quiz.buffer.refill")
+                .description("Für den Vorrat generierte Tagesquizzes")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.failed = Counter.builder("daily.quiz.buffer.refill")
+                .description("Für den Vorrat generierte Tagesquizzes")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Füllt den Vorrat asynchron bis zur Zielgröße auf. Läuft bereits ein Auffüllen,
+     * kehrt der Aufruf sofort zurück. Schlägt die Generierung fehl, wird abgebrochen
+     * und beim nächsten Lauf erneut versucht.
+     */
+    @Async
+    public void refill() {
+        if (!refilling.compareAndSet(false, true)) {
+            log.info("Vorrat an Tagesquizzes wird bereits aufgefüllt");
+            return;
+        }
+        try {
+            long current = refreshDepth();
+            log.info("Fülle Vorrat an Tagesquizzes auf: {}/{}", current, targetSize);
+            for (long i = current; i < targetSize; i++) {
+                QuizCategory category = randomCategory();
+                if (quizService.bufferDailyQuizFromPool(category, DAILY_QUIZ_QUESTIONS).isEmpty()) {
+                    quizService.bufferDailyQuiz(createAiRequest.fetchQuizFromAPI(category.getDisplayName()), category);
+                }
+                generated.increment();
+                refreshDepth();
+            }
+            lastError = null;
+        } catch (Exception e) {
+            failed.increment();
+            lastError = e.getMessage();
+            log.error("Fehler beim Auffüllen des Vorrats an Tagesquizzes: {}", e.getMessage());
+        } finally {
+            lastRefill = LocalDateTime.now();
+            refreshDepth();
+            refilling.set(false);
+        }
+    }
+
+    /**
+     * Veröffentlicht ein Tagesquiz aus dem Vorrat.
+     *
+     * @param date Datum des Tagesquizzes
+     * @return Das veröffentlichte Quiz oder leer, wenn der Vorrat leer ist
+     */
+    public Optional<Quiz> publish(LocalDate date) {
+        Optional<Quiz> published = quizService.publishBufferedDailyQuiz(date);
+        refreshDepth();
+        return published;
+    }
+
+    /**
+     * @return aktueller Zustand des Vorrats
+     */
+    public DailyQuizBufferStatus getStatus() {
+        return new DailyQuizBufferStatus(refreshDepth(), targetSize, refilling.get(), lastRefill, lastError);
+    }
+
+    /**
+     * Wählt eine zufällige Kategorie für ein Tagesquiz.
+     *
+     * @return Kategorie außer {@link QuizCategory#DAILY_QUIZ} und {@link QuizCategory#GENERAL_KNOWLEDGE}
+     */
+    public static QuizCategory randomCategory() {
+        return DAILY_CATEGORIES.get(ThreadLocalRandom.current().nextInt(DAILY_CATEGORIES.size()));
+    }
+
+    private long refreshDepth() {
+        long current = quizService.countBufferedDailyQuizzes();
+        depth.set(current);
+        return current;
+    }
+}
@@ -3,12 +3,15 @@ package rh.ptp.quizapp.service;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.json.JSONArray;
 import org.json.JSONException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import rh.ptp.quizapp.dto.GeneratedQuestion;
+import rh.ptp.quizapp.model.Quiz;
 import rh.ptp.quizapp.model.User;
 import rh.ptp.quizapp.model.QuizCategory;
 import rh.ptp.quizapp.repository.QuizRepository;
@@ -20,6 +23,7 @@ import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Service zur automatischen Erstellung und Speicherung eines täglichen Quiz.
@@ -41,6 +45,12 @@ public class DailyQuizSchedulerService {
     private final QuizRepository quizRepository;
     private final QuizService quizService;
 
+    @Autowired
+    private DailyQuizBufferService dailyQuizBufferService;
+
+    @Autowired
+    private QuestionPoolService questionPoolService;
+
     @Autowired
     private EmailService emailService;
 
@@ -59,10 +69,41 @@ public class DailyQuizSchedulerService {
         generateDailyQuiz();
     }
 
+    /**
+     * Füllt nach dem Start den Vorrat an Tagesquizzes asynchron auf.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void refillDailyQuizBufferOnStart() {
+        dailyQuizBufferService.refill();
+    }
+
+    /**
+     * Füllt den Fragenpool außerhalb der Stoßzeiten asynchron auf.
+     * <p>
+     * Cron-Ausdruck: {@code question-pool.refill-cron}, standardmäßig täglich um 3:00 Uhr
+     * </p>
+     */
+    @Scheduled(cron = "${question-pool.refill-cron:0 0 3 * * *}")
+    public void refillQuestionPool() {
+        questionPoolService.refill();
+    }
+
+    /**
+     * Füllt den Vorrat an Tagesquizzes außerhalb der Stoßzeiten asynchron auf.
+     * <p>
+     * Cron-Ausdruck: {@code daily-quiz.buffer.refill-cron}, standardmäßig täglich um 4:00 Uhr
+     * </p>
+     */
+    @Scheduled(cron = "${daily-quiz.buffer.refill-cron:0 0 4 * * *}")
+    public void refillDailyQuizBuffer() {
+        dailyQuizBufferService.refill();
+    }
+
     /**
      * Tägliche Aufgabe, die automatisch um 0:00 Uhr ausgeführt wird.
      * <p>
-     * Diese Methode generiert 10 Quizfragen über eine API-Abfrage und speichert sie.
+     * Diese Methode veröffentlicht ein vorab generiertes Quiz aus dem Vorrat. Ist der Vorrat leer,
+     * werden 10 Quizfragen aus dem Fragenpool oder über eine API-Abfrage generiert und gespeichert.
      * Im Fehlerfall wird ein Logeintrag erzeugt.
      * </p>
      * <p>
@@ -80,13 +121,17 @@ public class DailyQuizSchedulerService {
                 return;
             }
 
-            QuizCategory[] categories = java.util.Arrays.stream(QuizCategory.values())
-                    .filter(cat -> cat != QuizCategory.DAILY_QUIZ && cat != QuizCategory.GENERAL_KNOWLEDGE)
-                    .toArray(QuizCategory[]::new);
-            QuizCategory randomCategory = categories[(int) (Math.random() * categories.length)];
-            JSONArray fragen = createAiRequest.fetchQuizFromAPI(randomCategory.getDisplayName());
-
-            quizService.updateDailyQuiz(fragen, randomCategory);
+            Optional<Quiz> published = dailyQuizBufferService.publish(today);
+            if (published.isPresent()) {
+                log.info("Tägliches Quiz aus dem Vorrat veröffentlicht: ID={}", published.get().getId());
+            } else {
+                log.warn("Kein Tagesquiz im Vorrat, stelle es direkt zusammen");
+                QuizCategory randomCategory = DailyQuizBufferService.randomCategory();
+                if (!quizService.updateDailyQuizFromPool(randomCategory, DailyQuizBufferService.DAILY_QUIZ_QUESTIONS)) {
+                    List<GeneratedQuestion> fragen = createAiRequest.fetchQuizFromAPI(randomCategory.getDisplayName());
+                    quizService.updateDailyQuiz(fragen, randomCategory);
+                }
+            }
 
             log.info("Tägliches Quiz wurde aktualisiert");
 
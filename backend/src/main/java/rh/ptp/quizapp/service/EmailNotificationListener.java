@@ -0,0 +1,187 @@
+package rh.ptp.quizapp.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import rh.ptp.quizapp.event.*;
+import rh.ptp.quizapp.model.User;
+import rh.ptp.quizapp.model.UserRole;
+import rh.ptp.quizapp.repository.UserRepository;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Plant die E-Mails zu Domänenereignissen in der {@link EmailOutboxService Outbox} ein.
+ * <p>
+ * Die Ereignisse werden unmittelbar vor dem Commit der auslösenden Transaktion verarbeitet, die
+ * Nachricht wird also zusammen mit der Änderung gespeichert oder mit ihr verworfen. Wird außerhalb
+ * einer Transaktion veröffentlicht, wird die Nachricht sofort in einer eigenen Transaktion
+ * gespeichert. Der Versand selbst, samt Wiederholung bei Fehlern, ist Aufgabe der Outbox.
+ * </p>
+ */
+@Component
+public class EmailNotificationListener {
+
+    private final EmailOutboxService emailOutboxService;
+    private final UserRepository userRepository;
+    private final String frontendUrl;
+    private final String adminEmail;
+
+    /**
+     * Konstruktor.
+     *
+     * @param emailOutboxService Outbox, in die die E-Mails eingeplant werden
+     * @param userRepository     Repository der Benutzer (für die Admin-Benachrichtigung)
+     * @param frontendUrl        Basis-URL des Frontends
+     * @param adminEmail         Empfängeradresse für Admin-Benachrichtigungen
+     */
+    public EmailNotificationListener(EmailOutboxService emailOutboxService,
+                                     UserRepository userRepository,
+                                     @Value("${frontend.url}") String frontendUrl,
+                                     @Value("${spring.mail.from}") String adminEmail) {
+        this.emailOutboxService = emailOutboxService;
+        this.userRepository = userRepository;
+        this.frontendUrl = frontendUrl;
+        this.adminEmail = adminEmail;
+    }
+
+    /**
+     * Sendet dem vom Admin angelegten Benutzer seine Zugangsdaten.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void on(AccountCreatedEvent event) {
+        Map<String, Object> variables = variables(event.username());
+        variables.put("loginUrl", frontendUrl + "/login");
+        variables.put("password", event.password());
+        emailOutboxService.enqueue(event.email(), "Dein Benutzerkonto wurde durch einen Admin erstellt!", "account-created", variables);
+    }
+
+    /**
+     * Informiert über eine Änderung des Kontos durch einen Admin.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void on(AccountUpdatedEvent event) {
+        Map<String, Object> variables = variables(event.username());
+        variables.put("email", event.email());
+        emailOutboxService.enqueue(event.email(), "Dein Benutzerkonto wurde durch einen Admin aktualisiert!", "account-updated", variables);
+    }
+
+    /**
+     * Informiert über eine Ernennung zum Admin oder die Rückstufung.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void on(RoleChangedEvent event) {
+        Map<String, Object> variables = variables(event.username());
+        variables.put("loginUrl", frontendUrl + "/login");
+        if (event.role() == UserRole.ROLE_ADMIN) {
+            emailOutboxService.enqueue(event.email(), "Du wurdest zum Admin ernannt!", "admin-promoted", variables);
+        } else {
+            emailOutboxService.enqueue(event.email(), "Du wurdest zum normalen Benutzer degradiert!", "admin-demoted", variables);
+        }
+    }
+
+    /**
+     * Informiert über eine Sperre.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void on(UserBlockedEvent event) {
+        emailOutboxService.enqueue(event.email(), "Dein Benutzerkonto wurde durch einen Admin gesperrt!", "account-blocked",
+                variables(event.username()));
+    }
+
+    /**
+     * Informiert über die Aufhebung einer Sperre.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void on(UserUnblockedEvent event) {
+        Map<String, Object> variables = variables(event.username());
+        variables.put("loginUrl", frontendUrl + "/login");
+        emailOutboxService.enqueue(event.email(), "Deine Benutzersperre wurde durch einen Admin aufgehoben!", "account-unblocked", variables);
+    }
+
+    /**
+     * Informiert über ein vom Admin geändertes Passwort.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void on(PasswordChangedEvent event) {
+        Map<String, Object> variables = variables(event.username());
+        variables.put("loginUrl", frontendUrl + "/login");
+        variables.put("password", event.password());
+        emailOutboxService.enqueue(event.email(), "Dein Passwort wurde durch einen Admin geändert!", "password-changed", variables);
+    }
+
+    /**
+     * Bestätigt die Löschung des Kontos durch einen Admin.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void on(AccountDeletedEvent event) {
+        Map<String, Object> variables = variables(event.username());
+        variables.put("registerUrl", frontendUrl + "/register");
+        emailOutboxService.enqueue(event.email(), "Dein Benutzerkonto wurde durch einen Admin gelöscht!", "account-deleted", variables);
+    }
+
+    /**
+     * Bestätigt die Reaktivierung eines zur Löschung vorgemerkten Kontos.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void on(AccountReactivatedEvent event) {
+        Map<String, Object> variables = variables(event.username());
+        variables.put("quizUrl", frontendUrl + "/daily-quiz");
+        emailOutboxService.enqueue(event.email(), "Account reaktiviert", "account-reactivated", variables);
+    }
+
+    /**
+     * Bestätigt die Vormerkung des Kontos zur Löschung.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void on(AccountDeletionRequestedEvent event) {
+        Map<String, Object> variables = variables(event.username());
+        variables.put("loginUrl", frontendUrl + "/login");
+        emailOutboxService.enqueue(event.email(), "Konto zur Löschung vorgemerkt", "account-delete-info", variables);
+    }
+
+    /**
+     * Sendet den Link zur Verifizierung der E-Mail-Adresse.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void on(VerificationRequestedEvent event) {
+        Map<String, Object> variables = variables(event.username());
+        variables.put("verificationUrl", frontendUrl + "/verify-email/" + event.token());
+        emailOutboxService.enqueue(event.email(), "E-Mail-Adresse verifizieren", "verification-email", variables);
+    }
+
+    /**
+     * Sendet den Link zum Zurücksetzen des Passworts.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void on(PasswordResetRequestedEvent event) {
+        Map<String, Object> variables = variables(event.username());
+        variables.put("resetUrl", frontendUrl + "/reset-password/" + event.token());
+        emailOutboxService.enqueue(event.email(), "Passwort zurücksetzen", "password-reset-email", variables);
+    }
+
+    /**
+     * Benachrichtigt alle Administratoren über eine fehlgeschlagene Generierung.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void on(DailyQuizGenerationFailedEvent event) {
+        for (User admin : userRepository.findAllByRole(UserRole.ROLE_ADMIN)) {
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("logoUrl", frontendUrl + "/icons/logo512.png");
+            variables.put("adminName", admin.getUsername());
+            variables.put("generationDate", event.failedAt().toString());
+            variables.put("errorMessage", event.errorMessage());
+            variables.put("response", "[]");
+            emailOutboxService.enqueue(adminEmail, "Fehler bei der Generierung des täglichen Quizzes!", "failed-generation-daily", variables);
+        }
+    }
+
+    private Map<String, Object> variables(String username) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("logoUrl", frontendUrl + "/icons/logo512.png");
+        variables.put("username", username);
+        return variables;
+    }
+}
@@ -0,0 +1,172 @@
+package rh.ptp.quizapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import rh.ptp.quizapp.model.EmailOutboxMessage;
+import rh.ptp.quizapp.repository.EmailOutboxRepository;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versendet E-Mails über eine Outbox-Tabelle.
+ * <p>
+ * {@link #enqueue} speichert die Nachricht in der laufenden Transaktion; erst nach deren Commit
+ * holt {@link #dispatch()} sie ab und versendet sie außerhalb jeder Transaktion. Jede Nachricht
+ * wird einzeln als versendet markiert, fehlgeschlagene Versuche werden mit wachsendem Abstand
+ * wiederholt. Die Metriken {@code email.outbox.sent}, {@code email.outbox.failed} und
+ * {@code email.outbox.pending} zeigen den Zustand der Outbox.
+ * </p>
+ */
+@Service
+public class EmailOutboxService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxService.class);
+
+    private static final TypeReference<HashMap<String, Object>> VARIABLES_TYPE = new TypeReference<>() {
+    };
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailService emailService;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryDelaySeconds;
+    private final Counter sent;
+    private final Counter failed;
+    private final AtomicLong pending = new AtomicLong();
+
+    /**
+     * Konstruktor.
+     *
+     * @param outboxRepository  Repository der Outbox
+     * @param emailService      Service für den eigentlichen Versand
+     * @param objectMapper      ObjectMapper für die Template-Variablen
+     * @param batchSize         Anzahl der pro Abfrage geladenen Nachrichten
+     * @param maxAttempts       maximale Anzahl an Versandversuchen pro Nachricht
+     * @param retryDelaySeconds Wartezeit vor dem ersten erneuten Versuch; verdoppelt sich mit jedem Versuch
+     * @param meterRegistry     Registry für die Metriken
+     */
+    public EmailOutboxService(EmailOutboxRepository outboxRepository,
+                              EmailService emailService,
+                              ObjectMapper objectMapper,
+                              @Value("${email-outbox.batch-size:50}") int batchSize,
+                              @Value("${email-outbox.max-attempts:5}") int maxAttempts,
+                              @Value("${email-outbox.retry-delay-seconds:60}") long retryDelaySeconds,
+                              MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.emailService = emailService;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryDelaySeconds = retryDelaySeconds;
+        this.sent = Counter.builder("email.outbox.sent")
+                .description("Aus der Outbox versendete E-Mails")
+                .register(meterRegistry);
+        this.failed = Counter.builder("email.outbox.failed")
+                .description("Fehlgeschlagene Versandversuche aus der Outbox")
+                .register(meterRegistry);
+        Gauge.builder("email.outbox.pending", pending, AtomicLong::get)
+                .description("Noch nicht versendete E-Mails in der Outbox")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Plant eine E-Mail in der laufenden Transaktion ein. Sie wird erst nach deren Commit versendet;
+     * ohne laufende Transaktion wird sie in einer eigenen gespeichert.
+     *
+     * @param to        Empfänger-E-Mail-Adresse
+     * @param subject   Betreff der E-Mail
+     * @param template  Name des Thymeleaf-Templates
+     * @param variables Variablen zur Template-Verarbeitung
+     * @throws IllegalArgumentException wenn sich die Variablen nicht serialisieren lassen
+     */
+    @Transactional
+    public void enqueue(String to, String subject, String template, Map<String, Object> variables) {
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setRecipient(to);
+        message.setSubject(subject);
+        message.setTemplate(template);
+        try {
+            message.setVariables(objectMapper.writeValueAsString(variables));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Template-Variablen nicht serialisierbar: " + e.getMessage(), e);
+        }
+        outboxRepository.save(message);
+    }
+
+    /**
+     * Versendet alle fälligen Nachrichten der Outbox.
+     * <p>
+     * Ausgeführt alle 15 Sekunden nach Ende des vorherigen Laufs.
+     * </p>
+     */
+    @Scheduled(fixedDelayString = "${email-outbox.poll-interval-ms:15000}")
+    public void dispatch() {
+        List<EmailOutboxMessage> messages;
+        do {
+            messages = outboxRepository.findDue(LocalDateTime.now(), maxAttempts, PageRequest.of(0, batchSize));
+            messages.forEach(this::send);
+        } while (messages.size() == batchSize);
+        pending.set(outboxRepository.countPending(maxAttempts));
+    }
+
+    /**
+     * Löscht versendete und aufgegebene Nachrichten, die älter als 30 Tage sind.
+     * <p>
+     * Ausgeführt täglich um 04:30 Uhr (Cron: "0 30 4 * * *").
+     * </p>
+     */
+    @Scheduled(cron = "0 30 4 * * *")
+    public void purgeSent() {
+        int deleted = outboxRepository.deleteFinishedBefore(LocalDateTime.now().minusDays(30), maxAttempts);
+        if (deleted > 0) {
+            log.info("{} versendete oder aufgegebene E-Mails aus der Outbox gelöscht", deleted);
+        }
+    }
+
+    private void send(EmailOutboxMessage message) {
+        try {
+            Map<String, Object> variables = objectMapper.readValue(message.getVariables(), VARIABLES_TYPE);
+            emailService.sendEmail(message.getRecipient(), message.getSubject(), message.getTemplate(), variables);
+            outboxRepository.markSent(message.getId(), LocalDateTime.now());
+            sent.increment();
+        } catch (Exception e) {
+            int attempt = message.getAttempts() + 1;
+            failed.increment();
+            if (attempt >= maxAttempts) {
+                outboxRepository.markAbandoned(message.getId(), abbreviate(e.getMessage()), LocalDateTime.now());
+                log.error("E-Mail {} an {} nach {} Versuchen endgültig nicht versendet: {}",
+                        message.getId(), message.getRecipient(), attempt, e.getMessage());
+            } else {
+                LocalDateTime next = LocalDateTime.now().plusSeconds(retryDelaySeconds << Math.min(attempt - 1, 20));
+                outboxRepository.markFailed(message.getId(), abbreviate(e.getMessage()), next);
+                log.warn("Versand der E-Mail {} fehlgeschlagen (Versuch {}/{}): {}",
+                        message.getId(), attempt, maxAttempts, e.getMessage());
+            }
+        }
+    }
+
+    private static String abbreviate(String text) {
+        if (text == null || text.length() <= MAX_ERROR_LENGTH) {
+            return text;
+        }
+        return text.substring(0, MAX_ERROR_LENGTH);
+    }
+}
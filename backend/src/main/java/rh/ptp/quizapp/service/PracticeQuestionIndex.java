@@ -0,0 +1,438 @@
+package rh.ptp.quizapp.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import rh.ptp.quizapp.dto.PracticeQuestionEntry;
+import rh.ptp.quizapp.event.QuizDeletedEvent;
+import rh.ptp.quizapp.event.QuizSavedEvent;
+import rh.ptp.quizapp.model.Quiz;
+import rh.ptp.quizapp.model.QuizCategory;
+import rh.ptp.quizapp.model.QuizQuestion;
+import rh.ptp.quizapp.repository.QuizQuestionRepository;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-Memory-Index der Fragen öffentlicher Quizzes für Übungsquizzes, nach Kategorie und
+ * Schwierigkeitsgrad in Buckets aufgeteilt.
+ * <p>
+ * Eine Ziehung wählt zunächst über eine Alias-Tabelle einen Schwierigkeitsgrad (gewichtet nach
+ * Abstand zum Zielwert und Anzahl der Fragen) und dann gleichverteilt eine Frage aus dessen Bucket.
+ * Beides benötigt konstante Zeit, unabhängig von der Größe des Fragenbestands. Wie beim
+ * {@link QuizTypeaheadIndex} werden entfernte Fragen nur markiert, bei Bedarf kompaktiert und der
+ * Index beim Start und nächtlich neu aufgebaut; dazwischen wird er über {@link QuizSavedEvent} und
+ * {@link QuizDeletedEvent} nach dem Commit gepflegt, und Änderungen während eines Neuaufbaus
+ * werden vor dem Austausch nachgeholt.
+ * </p>
+ */
+@Component
+public class PracticeQuestionIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PracticeQuestionIndex.class);
+
+    /**
+     * Niedrigster Schwierigkeitsgrad; kleinere Werte werden diesem Bucket zugeordnet.
+     */
+    public static final int MIN_DIFFICULTY = 1;
+
+    /**
+     * Höchster Schwierigkeitsgrad; größere Werte werden diesem Bucket zugeordnet.
+     */
+    public static final int MAX_DIFFICULTY = 5;
+
+    private static final int LEVELS = MAX_DIFFICULTY - MIN_DIFFICULTY + 1;
+    private static final int MIN_COMPACTION_TOMBSTONES = 1024;
+
+    /**
+     * Versuche pro gewünschter Frage, bevor die Ziehung mit weniger Fragen endet.
+     */
+    private static final int ATTEMPTS_PER_QUESTION = 16;
+
+    private final QuizQuestionRepository quizQuestionRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock rebuildLock = new ReentrantLock();
+    private Index index = new Index();
+    /**
+     * Während eines Neuaufbaus eingetroffene Änderungen, sonst {@code null}; Zugriff nur unter dem Schreib-Lock.
+     */
+    private List<Consumer<Index>> pendingUpdates;
+
+    /**
+     * Konstruktor.
+     *
+     * @param quizQuestionRepository Repository für den vollständigen Aufbau
+     * @param meterRegistry          Registry für die Größe des Index
+     */
+    public PracticeQuestionIndex(QuizQuestionRepository quizQuestionRepository, MeterRegistry meterRegistry) {
+        this.quizQuestionRepository = quizQuestionRepository;
+        Gauge.builder("quiz.practice.questions", this, PracticeQuestionIndex::size)
+                .description("Anzahl indizierter Fragen für Übungsquizzes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Baut den Index vollständig aus der Datenbank neu auf und tauscht ihn atomar aus.
+     * Änderungen, die währenddessen eintreffen, werden vor dem Austausch nachgeholt.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 45 3 * * *")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.nanoTime();
+            Index fresh = new Index();
+            withWriteLock(() -> pendingUpdates = new ArrayList<>());
+            try {
+                try (Stream<PracticeQuestionEntry> entries = quizQuestionRepository.streamPracticeEntries()) {
+                    entries.forEach(e -> fresh.add(e.quizId(), e.questionId(), e.difficulty(),
+                            e.categoryMaskLo(), e.categoryMaskHi(), e.dailyQuizDate()));
+                }
+                withWriteLock(() -> {
+                    pendingUpdates.forEach(update -> update.accept(fresh));
+                    index = fresh;
+                    compactIfNeeded();
+                });
+            } finally {
+                withWriteLock(() -> pendingUpdates = null);
+            }
+            log.info("Übungsindex mit {} Fragen in {} ms aufgebaut", fresh.liveCount(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Übernimmt die Fragen eines gespeicherten Quizzes nach dem Commit.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(QuizSavedEvent event) {
+        put(event.quiz());
+    }
+
+    /**
+     * Entfernt die Fragen eines gelöschten Quizzes nach dem Commit.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(QuizDeletedEvent event) {
+        remove(event.quizId());
+    }
+
+    /**
+     * Übernimmt die Fragen eines Quizzes oder ersetzt die bestehenden. Nicht öffentliche Quizzes werden entfernt.
+     *
+     * @param quiz gespeichertes Quiz
+     */
+    public void put(Quiz quiz) {
+        if (quiz == null || quiz.getId() == null) {
+            return;
+        }
+        if (!quiz.isPublic()) {
+            remove(quiz.getId());
+            return;
+        }
+        long quizId = quiz.getId();
+        long maskLo = quiz.getCategoryMaskLo();
+        long maskHi = quiz.getCategoryMaskHi();
+        LocalDate dailyDate = quiz.isDailyQuiz() ? quiz.getDate() : null;
+        List<QuestionRef> questions = new ArrayList<>();
+        for (QuizQuestion question : quiz.getQuestions()) {
+            if (question.getId() != null) {
+                questions.add(new QuestionRef(question.getId(), question.getDifficulty()));
+            }
+        }
+        apply(target -> {
+            target.removeQuiz(quizId);
+            for (QuestionRef question : questions) {
+                target.add(quizId, question.id(), question.difficulty(), maskLo, maskHi, dailyDate);
+            }
+        });
+    }
+
+    /**
+     * Entfernt alle Fragen eines Quizzes aus dem Index.
+     *
+     * @param quizId ID des Quizzes
+     */
+    public void remove(Long quizId) {
+        if (quizId == null) {
+            return;
+        }
+        apply(target -> target.removeQuiz(quizId));
+    }
+
+    /**
+     * Zieht bis zu {@code count} verschiedene Fragen einer Kategorie, bevorzugt mit dem
+     * Ziel-Schwierigkeitsgrad. Tagesquizzes werden erst ab dem Folgetag berücksichtigt.
+     *
+     * @param category   Kategorie
+     * @param difficulty Ziel-Schwierigkeitsgrad
+     * @param count      Anzahl der Fragen
+     * @param today      aktuelles Datum
+     * @return IDs der gezogenen Fragen; weniger als {@code count}, wenn der Bestand nicht ausreicht
+     */
+    public List<Long> sample(QuizCategory category, int difficulty, int count, LocalDate today) {
+        lock.readLock().lock();
+        try {
+            return index.sample(category, clampDifficulty(difficulty), count, today);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Anzahl der indizierten Fragen
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.liveCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Wendet eine Änderung auf den aktuellen Index an und merkt sie während eines Neuaufbaus vor.
+     */
+    private void apply(Consumer<Index> update) {
+        withWriteLock(() -> {
+            update.accept(index);
+            if (pendingUpdates != null) {
+                pendingUpdates.add(update);
+            }
+            compactIfNeeded();
+        });
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (index.tombstones() >= MIN_COMPACTION_TOMBSTONES && index.tombstones() > index.liveCount()) {
+            index = index.compacted();
+        }
+    }
+
+    private static int clampDifficulty(int difficulty) {
+        return Math.clamp(difficulty, MIN_DIFFICULTY, MAX_DIFFICULTY);
+    }
+
+    /**
+     * Gewicht eines Schwierigkeitsgrades pro Frage: 8 für den Zielwert, halbiert je Stufe Abstand, mindestens 1.
+     */
+    static int levelWeight(int level, int target) {
+        return 1 << Math.max(0, 3 - Math.abs(level - target));
+    }
+
+    private record QuestionRef(long id, int difficulty) {
+    }
+
+    /**
+     * Liste von Slots ohne Boxing, nur mit Anhängen.
+     */
+    private static final class SlotList {
+        private int[] slots = new int[8];
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+
+    /**
+     * Alias-Tabelle nach Vose für eine diskrete Verteilung; Ziehung in konstanter Zeit.
+     */
+    static final class AliasTable {
+        private final double[] probability;
+        private final int[] alias;
+
+        AliasTable(long[] weights) {
+            int n = weights.length;
+            probability = new double[n];
+            alias = new int[n];
+            double total = Arrays.stream(weights).sum();
+            double[] scaled = new double[n];
+            Deque<Integer> small = new ArrayDeque<>();
+            Deque<Integer> large = new ArrayDeque<>();
+            for (int i = 0; i < n; i++) {
+                scaled[i] = weights[i] * n / total;
+                (scaled[i] < 1 ? small : large).push(i);
+            }
+            while (!small.isEmpty() && !large.isEmpty()) {
+                int s = small.pop();
+                int l = large.pop();
+                probability[s] = scaled[s];
+                alias[s] = l;
+                scaled[l] = scaled[l] + scaled[s] - 1;
+                (scaled[l] < 1 ? small : large).push(l);
+            }
+            while (!large.isEmpty()) {
+                probability[large.pop()] = 1;
+            }
+            // Rundungsreste
+            while (!small.isEmpty()) {
+                probability[small.pop()] = 1;
+            }
+        }
+
+        int next(Random random) {
+            int column = random.nextInt(probability.length);
+            return random.nextDouble() < probability[column] ? column : alias[column];
+        }
+    }
+
+    /**
+     * Eigentliche Indexdaten; Zugriff nur unter dem Lock der umgebenden Klasse.
+     */
+    private static final class Index {
+        private long[] questionIds = new long[256];
+        private long[] quizIds = new long[256];
+        private long[] masksLo = new long[256];
+        private long[] masksHi = new long[256];
+        private byte[] levels = new byte[256];
+        private LocalDate[] dailyDates = new LocalDate[256];
+        private int slotCount;
+        private final BitSet removed = new BitSet();
+        private final Map<Long, SlotList> slotsByQuizId = new HashMap<>();
+        private final SlotList[][] buckets = new SlotList[QuizCategory.values().length][LEVELS];
+        private final int[][] liveCounts = new int[QuizCategory.values().length][LEVELS];
+        private int liveCount;
+
+        void add(long quizId, long questionId, int difficulty, long maskLo, long maskHi, LocalDate dailyDate) {
+            if (slotCount == questionIds.length) {
+                grow();
+            }
+            int slot = slotCount++;
+            int level = clampDifficulty(difficulty) - MIN_DIFFICULTY;
+            questionIds[slot] = questionId;
+            quizIds[slot] = quizId;
+            masksLo[slot] = maskLo;
+            masksHi[slot] = maskHi;
+            levels[slot] = (byte) level;
+            dailyDates[slot] = dailyDate;
+            slotsByQuizId.computeIfAbsent(quizId, id -> new SlotList()).add(slot);
+            for (QuizCategory category : QuizCategory.values()) {
+                if (hasCategory(slot, category)) {
+                    SlotList bucket = buckets[category.ordinal()][level];
+                    if (bucket == null) {
+                        bucket = buckets[category.ordinal()][level] = new SlotList();
+                    }
+                    bucket.add(slot);
+                    liveCounts[category.ordinal()][level]++;
+                }
+            }
+            liveCount++;
+        }
+
+        void removeQuiz(long quizId) {
+            SlotList slots = slotsByQuizId.remove(quizId);
+            if (slots == null) {
+                return;
+            }
+            for (int i = 0; i < slots.size; i++) {
+                int slot = slots.slots[i];
+                removed.set(slot);
+                liveCount--;
+                for (QuizCategory category : QuizCategory.values()) {
+                    if (hasCategory(slot, category)) {
+                        liveCounts[category.ordinal()][levels[slot]]--;
+                    }
+                }
+            }
+        }
+
+        private boolean hasCategory(int slot, QuizCategory category) {
+            return (masksLo[slot] & category.maskLo()) != 0 || (masksHi[slot] & category.maskHi()) != 0;
+        }
+
+        private void grow() {
+            int capacity = slotCount * 2;
+            questionIds = Arrays.copyOf(questionIds, capacity);
+            quizIds = Arrays.copyOf(quizIds, capacity);
+            masksLo = Arrays.copyOf(masksLo, capacity);
+            masksHi = Arrays.copyOf(masksHi, capacity);
+            levels = Arrays.copyOf(levels, capacity);
+            dailyDates = Arrays.copyOf(dailyDates, capacity);
+        }
+
+        List<Long> sample(QuizCategory category, int difficulty, int count, LocalDate today) {
+            int c = category.ordinal();
+            long[] weights = new long[LEVELS];
+            long total = 0;
+            for (int level = 0; level < LEVELS; level++) {
+                weights[level] = (long) liveCounts[c][level] * levelWeight(level + MIN_DIFFICULTY, difficulty);
+                total += weights[level];
+            }
+            if (total == 0 || count <= 0) {
+                return List.of();
+            }
+            AliasTable table = new AliasTable(weights);
+            Random random = ThreadLocalRandom.current();
+            Set<Integer> chosen = new LinkedHashSet<>();
+            for (int attempt = 0; attempt < count * ATTEMPTS_PER_QUESTION && chosen.size() < count; attempt++) {
+                SlotList bucket = buckets[c][table.next(random)];
+                if (bucket == null) {
+                    continue;
+                }
+                int slot = bucket.slots[random.nextInt(bucket.size)];
+                LocalDate dailyDate = dailyDates[slot];
+                if (removed.get(slot) || (dailyDate != null && !dailyDate.isBefore(today))) {
+                    continue;
+                }
+                chosen.add(slot);
+            }
+            List<Long> ids = new ArrayList<>(chosen.size());
+            for (int slot : chosen) {
+                ids.add(questionIds[slot]);
+            }
+            return ids;
+        }
+
+        Index compacted() {
+            Index copy = new Index();
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (!removed.get(slot)) {
+                    copy.add(quizIds[slot], questionIds[slot], levels[slot] + MIN_DIFFICULTY,
+                            masksLo[slot], masksHi[slot], dailyDates[slot]);
+                }
+            }
+            return copy;
+        }
+
+        int liveCount() {
+            return liveCount;
+        }
+
+        int tombstones() {
+            return removed.cardinality();
+        }
+    }
+}
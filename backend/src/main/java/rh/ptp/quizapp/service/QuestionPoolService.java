@@ -0,0 +1,246 @@
+package rh.ptp.quizapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import rh.ptp.quizapp.dto.CategoryCount;
+import rh.ptp.quizapp.dto.GeneratedQuestion;
+import rh.ptp.quizapp.dto.QuestionTextRow;
+import rh.ptp.quizapp.model.PoolQuestion;
+import rh.ptp.quizapp.model.QuizCategory;
+import rh.ptp.quizapp.repository.PoolQuestionRepository;
+import rh.ptp.quizapp.repository.QuizQuestionRepository;
+import rh.ptp.quizapp.util.CreateAiRequest;
+import rh.ptp.quizapp.util.QuestionText;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Verwaltet den Fragenpool je Kategorie.
+ * <p>
+ * Der Pool wird außerhalb der Stoßzeiten mit großen Fragensätzen der KI-API aufgefüllt.
+ * Neue Fragen werden über den Hash ihres normalisierten Textes gegen den Pool und gegen die
+ * Fragen bestehender Quizzes abgeglichen. Tagesquizzes werden anschließend
+ * lokal aus dem Pool zusammengestellt; die Zahl der KI-Aufrufe hängt damit nur noch vom
+ * Auffüllen des Pools ab.
+ * </p>
+ */
+@Service
+public class QuestionPoolService {
+
+    private static final Logger log = LoggerFactory.getLogger(QuestionPoolService.class);
+
+    /**
+     * Kategorien, für die Fragen auf Vorrat generiert werden.
+     */
+    private static final List<QuizCategory> POOL_CATEGORIES = Arrays.stream(QuizCategory.values())
+            .filter(cat -> cat != QuizCategory.DAILY_QUIZ)
+            .toList();
+
+    private static final int BACKFILL_PAGE_SIZE = 500;
+
+    private final PoolQuestionRepository poolQuestionRepository;
+    private final QuizQuestionRepository quizQuestionRepository;
+    private final CreateAiRequest createAiRequest;
+    private final QuestionSimilarityService questionSimilarityService;
+    private final int batchSize;
+    private final int minUnused;
+    private final int maxBatchesPerRun;
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private final Counter added;
+    private final Counter duplicates;
+
+    /**
+     * Konstruktor.
+     *
+     * @param poolQuestionRepository    Repository des Fragenpools
+     * @param quizQuestionRepository    Repository der Quizfragen (für den Abgleich)
+     * @param createAiRequest           Zugriff auf die KI-API
+     * @param questionSimilarityService Erkennung von Beinahe-Duplikaten
+     * @param batchSize                 Anzahl der Fragen pro KI-Aufruf
+     * @param minUnused                 Mindestanzahl unbenutzter Fragen je Kategorie
+     * @param maxBatchesPerRun          maximale Anzahl an KI-Aufrufen pro Auffüllen
+     * @param meterRegistry             Registry für die Metriken
+     */
+    public QuestionPoolService(PoolQuestionRepository poolQuestionRepository,
+                               QuizQuestionRepository quizQuestionRepository,
+                               CreateAiRequest createAiRequest,
+                               QuestionSimilarityService questionSimilarityService,
+                               @Value("${question-pool.batch-size:50}") int batchSize,
+                               @Value("${question-pool.min-unused:30}") int minUnused,
+                               @Value("${question-pool.max-batches-per-run:10}") int maxBatchesPerRun,
+                               MeterRegistry meterRegistry) {
+        this.poolQuestionRepository = poolQuestionRepository;
+        this.quizQuestionRepository = quizQuestionRepository;
+        this.createAiRequest = createAiRequest;
+        this.questionSimilarityService = questionSimilarityService;
+        this.batchSize = batchSize;
+        this.minUnused = minUnused;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.added = Counter.builder("question.pool.added")
+                .description("In den Fragenpool aufgenommene Fragen")
+                .register(meterRegistry);
+        this.duplicates = Counter.builder("question.pool.duplicates")
+                .description("Beim Auffüllen des Fragenpools verworfene Duplikate")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Füllt asynchron die Kategorien mit den wenigsten unbenutzten Fragen auf, höchstens
+     * {@code question-pool.max-batches-per-run} KI-Aufrufe pro Lauf. Schlägt ein Aufruf fehl,
+     * wird abgebrochen und beim nächsten Lauf fortgesetzt.
+     */
+    @Async
+    public void refill() {
+        if (!refilling.compareAndSet(false, true)) {
+            log.info("Fragenpool wird bereits aufgefüllt");
+            return;
+        }
+        try {
+            Map<QuizCategory, Long> unused = countUnused();
+            List<QuizCategory> needy = POOL_CATEGORIES.stream()
+                    .filter(category -> unused.get(category) < minUnused)
+                    .sorted(Comparator.comparing(unused::get))
+                    .limit(maxBatchesPerRun)
+                    .toList();
+            for (QuizCategory category : needy) {
+                List<GeneratedQuestion> batch = createAiRequest.fetchQuestionBatch(category.getDisplayName(), batchSize);
+                int stored = addToPool(category, batch);
+                log.info("Fragenpool {}: {} von {} Fragen aufgenommen", category.getDisplayName(), stored, batch.size());
+            }
+        } catch (Exception e) {
+            log.error("Fehler beim Auffüllen des Fragenpools: {}", e.getMessage());
+        } finally {
+            refilling.set(false);
+        }
+    }
+
+    /**
+     * Nimmt neue Fragen in den Pool auf. Fragen, deren normalisierter Text bereits im Pool oder
+     * in einem Quiz vorkommt oder die einer Quizfrage ähneln, werden verworfen.
+     *
+     * @param category  Kategorie der Fragen
+     * @param questions neue Fragen
+     * @return Anzahl der aufgenommenen Fragen
+     */
+    @Transactional
+    public int addToPool(QuizCategory category, List<GeneratedQuestion> questions) {
+        Map<Long, GeneratedQuestion> byHash = new LinkedHashMap<>();
+        for (GeneratedQuestion question : questions) {
+            byHash.putIfAbsent(QuestionText.hash(question.question()), question);
+        }
+        if (!byHash.isEmpty()) {
+            poolQuestionRepository.findExistingTextHashes(byHash.keySet()).forEach(byHash::remove);
+        }
+        if (!byHash.isEmpty()) {
+            quizQuestionRepository.findExistingTextHashes(byHash.keySet()).forEach(byHash::remove);
+        }
+        List<GeneratedQuestion> unique = byHash.isEmpty()
+                ? List.of()
+                : questionSimilarityService.filterNearDuplicates(new ArrayList<>(byHash.values()));
+        duplicates.increment(questions.size() - unique.size());
+
+        List<PoolQuestion> entities = new ArrayList<>(unique.size());
+        for (GeneratedQuestion question : unique) {
+            PoolQuestion entity = new PoolQuestion();
+            entity.setCategory(category);
+            entity.setQuestion(question.question());
+            entity.setAnswers(new ArrayList<>(question.answers()));
+            entity.setCorrectAnswer(question.correctAnswer());
+            entity.setDifficulty(question.difficulty());
+            entities.add(entity);
+        }
+        poolQuestionRepository.saveAll(entities);
+        added.increment(entities.size());
+        return entities.size();
+    }
+
+    /**
+     * Entnimmt unbenutzte Fragen einer Kategorie für ein Tagesquiz und markiert sie als verwendet.
+     * <p>
+     * Läuft in der Transaktion, die das Tagesquiz speichert: Scheitert das Speichern, werden die
+     * Fragen nicht verbraucht. Enthält der Pool zu wenige Fragen, wird nichts markiert.
+     * </p>
+     *
+     * @param category Kategorie
+     * @param count    Anzahl der Fragen
+     * @return die Fragen nach Schwierigkeitsgrad sortiert oder leer, wenn der Pool nicht genügend unbenutzte Fragen enthält
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<List<GeneratedQuestion>> takeForDailyQuiz(QuizCategory category, int count) {
+        List<Long> ids = poolQuestionRepository.lockUnusedIds(category.name(), count);
+        if (ids.size() < count) {
+            return Optional.empty();
+        }
+        if (poolQuestionRepository.markUsed(ids, LocalDateTime.now()) < count) {
+            // Die Fragen sind gesperrt und unbenutzt; die Transaktion wird zurückgerollt
+            throw new IllegalStateException("Fragen aus dem Pool konnten nicht markiert werden");
+        }
+        // Wie bei der direkten Generierung mit ansteigendem Schwierigkeitsgrad
+        return Optional.of(poolQuestionRepository.findAllById(ids).stream()
+                .sorted(Comparator.comparingInt(PoolQuestion::getDifficulty).thenComparing(PoolQuestion::getId))
+                .map(p -> new GeneratedQuestion(p.getQuestion(), p.getAnswers(), p.getCorrectAnswer(), p.getDifficulty()))
+                .toList());
+    }
+
+    /**
+     * @return Anzahl unbenutzter Fragen je Kategorie
+     */
+    public List<CategoryCount> getStatus() {
+        Map<QuizCategory, Long> unused = countUnused();
+        return POOL_CATEGORIES.stream()
+                .map(category -> new CategoryCount(category, unused.get(category)))
+                .toList();
+    }
+
+    /**
+     * Berechnet beim Start den Hash des Fragetextes für Quizfragen, die noch keinen besitzen.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillTextHashes() {
+        try {
+            int updated = 0;
+            List<QuestionTextRow> rows;
+            do {
+                rows = quizQuestionRepository.findWithoutTextHash(PageRequest.of(0, BACKFILL_PAGE_SIZE));
+                for (QuestionTextRow row : rows) {
+                    updated += quizQuestionRepository.updateTextHash(row.id(), QuestionText.hash(row.question()));
+                }
+            } while (rows.size() == BACKFILL_PAGE_SIZE);
+            if (updated > 0) {
+                log.info("Hash des Fragetextes für {} Quizfragen nachgetragen", updated);
+            }
+        } catch (Exception e) {
+            log.error("Fehler beim Nachtragen der Fragetext-Hashes: {}", e.getMessage());
+        }
+    }
+
+    private Map<QuizCategory, Long> countUnused() {
+        Map<QuizCategory, Long> unused = new EnumMap<>(QuizCategory.class);
+        for (QuizCategory category : POOL_CATEGORIES) {
+            unused.put(category, 0L);
+        }
+        for (CategoryCount count : poolQuestionRepository.countUnusedByCategory()) {
+            unused.put(count.category(), count.quizCount());
+        }
+        return unused;
+    }
+}
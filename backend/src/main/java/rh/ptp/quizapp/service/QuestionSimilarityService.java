@@ -0,0 +1,176 @@
+package rh.ptp.quizapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import rh.ptp.quizapp.dto.GeneratedQuestion;
+import rh.ptp.quizapp.dto.QuestionSignatureRow;
+import rh.ptp.quizapp.dto.QuestionTextRow;
+import rh.ptp.quizapp.dto.SimilarQuestion;
+import rh.ptp.quizapp.repository.QuizQuestionRepository;
+import rh.ptp.quizapp.util.MinHash;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Erkennt Beinahe-Duplikate von Quizfragen über MinHash-Signaturen und LSH-Buckets.
+ * <p>
+ * Für einen Fragetext werden nur die Fragen geladen, die mindestens einen seiner Buckets
+ * belegen; die Signaturen dieser Kandidaten werden anschließend im Speicher verglichen.
+ * Der Aufwand hängt damit von der Zahl der Kandidaten ab, nicht von der Gesamtzahl der Fragen.
+ * </p>
+ */
+@Service
+public class QuestionSimilarityService {
+
+    private static final Logger log = LoggerFactory.getLogger(QuestionSimilarityService.class);
+
+    private static final int BACKFILL_PAGE_SIZE = 500;
+
+    private final QuizQuestionRepository quizQuestionRepository;
+    private final double threshold;
+    private final int maxCandidates;
+    private final Counter nearDuplicates;
+
+    /**
+     * Konstruktor.
+     *
+     * @param quizQuestionRepository Repository der Quizfragen
+     * @param threshold              geschätzte Ähnlichkeit, ab der eine Frage als Beinahe-Duplikat gilt
+     * @param maxCandidates          maximale Anzahl geladener Kandidaten pro Abfrage
+     * @param meterRegistry          Registry für die Metriken
+     */
+    public QuestionSimilarityService(QuizQuestionRepository quizQuestionRepository,
+                                     @Value("${question-similarity.threshold:0.7}") double threshold,
+                                     @Value("${question-similarity.max-candidates:1000}") int maxCandidates,
+                                     MeterRegistry meterRegistry) {
+        this.quizQuestionRepository = quizQuestionRepository;
+        this.threshold = threshold;
+        this.maxCandidates = maxCandidates;
+        this.nearDuplicates = Counter.builder("question.near_duplicates")
+                .description("Als Beinahe-Duplikat verworfene generierte Fragen")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sucht bestehende Quizfragen, die dem Text ähneln.
+     *
+     * @param text Fragetext
+     * @return ähnliche Fragen, absteigend nach Ähnlichkeit
+     */
+    public List<SimilarQuestion> findSimilar(String text) {
+        int[] signature = MinHash.signature(text);
+        if (signature == null) {
+            return List.of();
+        }
+        List<SimilarQuestion> similar = new ArrayList<>();
+        for (QuestionSignatureRow row : findCandidates(MinHash.bandKeys(signature))) {
+            double similarity = MinHash.similarity(signature, MinHash.fromBytes(row.minHash()));
+            if (similarity >= threshold) {
+                similar.add(new SimilarQuestion(row.id(), row.quizId(), row.question(), similarity));
+            }
+        }
+        similar.sort(Comparator.comparingDouble(SimilarQuestion::similarity).reversed());
+        return similar;
+    }
+
+    /**
+     * Entfernt generierte Fragen, die einer bestehenden Quizfrage oder einer früheren Frage
+     * derselben Liste ähneln. Die Kandidaten aller Fragen werden mit einer Abfrage geladen.
+     *
+     * @param questions generierte Fragen
+     * @return die verbleibenden Fragen in ursprünglicher Reihenfolge
+     */
+    public List<GeneratedQuestion> filterNearDuplicates(List<GeneratedQuestion> questions) {
+        List<int[]> signatures = questions.stream()
+                .map(q -> MinHash.signature(q.question()))
+                .toList();
+
+        Map<Long, List<int[]>> buckets = new HashMap<>();
+        for (QuestionSignatureRow row : findCandidates(MinHash.bandKeys(signatures))) {
+            index(buckets, MinHash.fromBytes(row.minHash()));
+        }
+
+        List<GeneratedQuestion> unique = new ArrayList<>(questions.size());
+        for (int i = 0; i < questions.size(); i++) {
+            int[] signature = signatures.get(i);
+            if (isNearDuplicate(buckets, signature)) {
+                nearDuplicates.increment();
+                log.info("Beinahe-Duplikat verworfen: {}", questions.get(i).question());
+                continue;
+            }
+            index(buckets, signature);
+            unique.add(questions.get(i));
+        }
+        return unique;
+    }
+
+    /**
+     * Berechnet beim Start Signatur und LSH-Buckets für Quizfragen, die noch keine besitzen.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillSignatures() {
+        try {
+            int updated = 0;
+            List<QuestionTextRow> rows;
+            do {
+                rows = quizQuestionRepository.findWithoutMinHash(PageRequest.of(0, BACKFILL_PAGE_SIZE));
+                for (QuestionTextRow row : rows) {
+                    int[] signature = MinHash.signature(row.question());
+                    if (signature == null) {
+                        continue;
+                    }
+                    // Buckets zuerst, damit ein abgebrochener Lauf beim nächsten Start wiederholt wird
+                    quizQuestionRepository.deleteLshBuckets(row.id());
+                    for (long bucket : MinHash.bandKeys(signature)) {
+                        quizQuestionRepository.insertLshBucket(row.id(), bucket);
+                    }
+                    updated += quizQuestionRepository.updateMinHash(row.id(), MinHash.toBytes(signature));
+                }
+            } while (rows.size() == BACKFILL_PAGE_SIZE);
+            if (updated > 0) {
+                log.info("MinHash-Signatur für {} Quizfragen nachgetragen", updated);
+            }
+        } catch (Exception e) {
+            log.error("Fehler beim Nachtragen der MinHash-Signaturen: {}", e.getMessage());
+        }
+    }
+
+    private List<QuestionSignatureRow> findCandidates(Set<Long> buckets) {
+        if (buckets.isEmpty()) {
+            return List.of();
+        }
+        return quizQuestionRepository.findByLshBuckets(buckets, PageRequest.of(0, maxCandidates));
+    }
+
+    private boolean isNearDuplicate(Map<Long, List<int[]>> buckets, int[] signature) {
+        if (signature == null) {
+            return false;
+        }
+        for (long key : MinHash.bandKeys(signature)) {
+            for (int[] candidate : buckets.getOrDefault(key, List.of())) {
+                if (MinHash.similarity(signature, candidate) >= threshold) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void index(Map<Long, List<int[]>> buckets, int[] signature) {
+        for (long key : MinHash.bandKeys(signature)) {
+            buckets.computeIfAbsent(key, k -> new ArrayList<>()).add(signature);
+        }
+    }
+}
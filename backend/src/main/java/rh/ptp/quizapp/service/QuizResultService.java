@@ -36,6 +36,9 @@ public class QuizResultService {
     @Autowired
     private QuizRepository quizRepository;
 
+    @Autowired
+    private DailyCompletionService dailyCompletionService;
+
     private final Logger log = LoggerFactory.getLogger(QuizResultService.class);
 
     /**
@@ -67,6 +70,7 @@ public class QuizResultService {
         result.setPlayedAt(LocalDateTime.now());
 
         QuizResult saved = quizResultRepository.save(result);
+        dailyCompletionService.recordIfDaily(userId, quiz, saved.getPlayedAt());
         log.info("QuizResult gespeichert, ID: " + saved.getId());
         return saved;
     }
@@ -97,17 +101,8 @@ public class QuizResultService {
      * @return Liste von ScoreDTO mit Benutzername, Score und Platzierung (-1 als Platzhalter)
      */
     public List<ScoreDTO> getTopScores() {
-        List<Object[]> rawResults = quizResultRepository.findTopUserScores(PageRequest.of(0, 10));
-
-        return rawResults.stream()
-                .map(entry -> {
-                    Long userId = (Long) entry[0];
-                    Integer score = ((Number) entry[1]).intValue();
-                    String username = userRepository.findById(userId)
-                            .map(User::getName)
-                            .orElse("Unbekannt");
-                    return new ScoreDTO(username, score, -1);
-                })
+        return quizResultRepository.findTopUserScores(PageRequest.of(0, 10)).stream()
+                .map(entry -> new ScoreDTO(usernameOrDefault(entry.username()), (int) entry.score(), -1))
                 .toList();
     }
 
@@ -118,21 +113,19 @@ public class QuizResultService {
      * @return ScoreDTO mit Benutzername, Score und Rang, oder Platz -1 wenn nicht gefunden
      */
     public ScoreDTO getUserScoreAndRank(Long userId) {
-        List<Object[]> ordered = quizResultRepository.findAllUserScoresOrdered();
-        int rank = 1;
-        for (Object[] entry : ordered) {
-            Long id = (Long) entry[0];
-            Long score = (Long) entry[1];
-            log.info(">> RankingEntry: userId=" + id + " | score=" + score);
-
-            if (id != null && id.equals(userId)) {
-                int s = score.intValue();
-                String username = userRepository.findById(userId).map(User::getName).orElse("Unbekannt");
-                return new ScoreDTO(username, s, rank);
-            }
-            rank++;
+        if (userId == null) {
+            return new ScoreDTO("Unbekannt", 0, -1);
         }
+        ScoreRanking ranking = ScoreRanking.of(quizResultRepository.findAllUserScoresOrdered());
+        int index = ranking.indexOf(userId);
+        if (index < 0) {
+            return new ScoreDTO("Unbekannt", 0, -1);
+        }
+        log.debug("RankingEntry: userId={} | score={} | rank={}", userId, ranking.scoreAt(index), index + 1);
+        return new ScoreDTO(usernameOrDefault(ranking.usernameAt(index)), (int) ranking.scoreAt(index), index + 1);
+    }
 
-        return new ScoreDTO("Unbekannt", 0, -1);
+    private static String usernameOrDefault(String username) {
+        return username != null ? username : "Unbekannt";
     }
-}
\ No newline at end of file
+}
@@ -2,25 +2,41 @@ package rh.ptp.quizapp.service;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
-import org.json.JSONArray;
-import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.util.HtmlUtils;
 import rh.ptp.quizapp.dto.*;
+import rh.ptp.quizapp.event.QuizDeletedEvent;
+import rh.ptp.quizapp.event.QuizSavedEvent;
 import rh.ptp.quizapp.model.*;
 import rh.ptp.quizapp.repository.*;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.IntSupplier;
 import java.util.stream.Collectors;
 
 /**
@@ -55,6 +71,61 @@ public class QuizService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private QuizTypeaheadIndex quizTypeaheadIndex;
+
+    @Autowired
+    private QuestionSimilarityService questionSimilarityService;
+
+    @Autowired
+    private PracticeQuestionIndex practiceQuestionIndex;
+
+    @Autowired
+    private QuestionPoolService questionPoolService;
+
+    @Autowired
+    private DailyCompletionService dailyCompletionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Anzeigenamen aller Kategorien in Enum-Reihenfolge.
+     */
+    private static final List<String> CATEGORY_VALUES = Arrays.stream(QuizCategory.values())
+            .map(QuizCategory::getDisplayName)
+            .toList();
+
+    /**
+     * Maximale Seitengröße für die Quiz-Historie.
+     */
+    public static final int MAX_HISTORY_PAGE_SIZE = 1000;
+
+    /**
+     * Maximale Anzahl an Quiz-IDs für die Abfrage des Favoritenstatus.
+     */
+    public static final int MAX_FAVORITE_STATUS_IDS = 200;
+
+    /**
+     * Maximale Seitengröße für die Volltextsuche.
+     */
+    public static final int MAX_SEARCH_PAGE_SIZE = 50;
+
+    /**
+     * Maximale Länge einer Suchanfrage.
+     */
+    public static final int MAX_SEARCH_QUERY_LENGTH = 200;
+
+    /**
+     * Maximale Anzahl an Fragen eines Übungsquizzes.
+     */
+    public static final int MAX_PRACTICE_QUESTIONS = 50;
+
+    private static final String HIGHLIGHT_START = "\u0001";
+    private static final String HIGHLIGHT_STOP = "\u0002";
+    private static final String HIGHLIGHT_OPTIONS = "StartSel=\"" + HIGHLIGHT_START + "\", StopSel=\"" + HIGHLIGHT_STOP
+            + "\", MaxWords=25, MinWords=8, MaxFragments=2, FragmentDelimiter=\" … \"";
+
     @Value("${spring.mail.username}")
     private String mailUser;
 
@@ -72,6 +143,16 @@ public class QuizService {
                 .orElseThrow(() -> new RuntimeException("Quiz nicht gefunden"));
     }
 
+    /**
+     * Liefert Version und Erstellername eines Quizzes für die Prüfung bedingter Anfragen.
+     *
+     * @param quizId Die ID des Quizzes.
+     * @return Die Versionsdaten oder leer, wenn das Quiz nicht existiert.
+     */
+    public Optional<QuizVersionInfo> getQuizVersionInfo(Long quizId) {
+        return quizRepository.findVersionInfoById(quizId);
+    }
+
     /**
      * Erstellt ein neues Quiz basierend auf den übergebenen Daten.
      *
@@ -108,51 +189,129 @@ public class QuizService {
                 .collect(Collectors.toList());
 
         quiz.setQuestions(questions);
-        return quizRepository.save(quiz);
+        Quiz saved = quizRepository.save(quiz);
+        eventPublisher.publishEvent(new QuizSavedEvent(saved));
+        return saved;
     }
 
     /**
-     * Aktualisiert ein bestehendes Quiz.
+     * Aktualisiert ein bestehendes Quiz ohne Versionsprüfung.
      *
      * @param quizId  Die ID des zu aktualisierenden Quizzes.
      * @param quizDTO Neue Daten.
      * @param userId  ID des Bearbeitenden.
      * @return Das aktualisierte Quiz.
      */
+    @Transactional
     public Quiz updateQuiz(Long quizId, QuizDTO quizDTO, Long userId) {
+        return updateQuiz(quizId, quizDTO, userId, null);
+    }
+
+    /**
+     * Aktualisiert ein bestehendes Quiz, sofern es noch die erwartete Version hat.
+     *
+     * @param quizId          Die ID des zu aktualisierenden Quizzes.
+     * @param quizDTO         Neue Daten.
+     * @param userId          ID des Bearbeitenden.
+     * @param expectedVersion Version, auf der die Änderung basiert, oder {@code null} ohne Prüfung.
+     * @return Das aktualisierte Quiz mit neuer Version.
+     * @throws OptimisticLockingFailureException wenn das Quiz zwischenzeitlich geändert wurde.
+     */
+    @Transactional
+    public Quiz updateQuiz(Long quizId, QuizDTO quizDTO, Long userId, Long expectedVersion) {
         Quiz quiz = quizRepository.findById(quizId)
                 .orElseThrow(() -> new RuntimeException("Quiz nicht gefunden"));
 
         if (!quiz.getCreator().getId().equals(userId) && !bypassProtection(userId, quiz)) {
             throw new RuntimeException("Nur der Ersteller kann das Quiz bearbeiten");
         }
+        if (expectedVersion != null && expectedVersion != quiz.getVersion()) {
+            throw new OptimisticLockingFailureException("Quiz wurde zwischenzeitlich geändert");
+        }
 
+        List<QuizCategory> previousCategories = QuizSavedEvent.publicCategories(quiz);
         quiz.setTitle(quizDTO.getTitle());
         quiz.setDescription(quizDTO.getDescription());
-        List<QuizCategory> newCategories = quizDTO.getCategories();
+        Set<QuizCategory> newCategories = new LinkedHashSet<>(quizDTO.getCategories());
         if (quiz.getCategories().contains(QuizCategory.DAILY_QUIZ)) {
             newCategories.add(QuizCategory.DAILY_QUIZ);
         }
-        quiz.setCategories(newCategories);
-        quiz.setPublic(quizDTO.isPublic());
-        List<QuizQuestion> questions = quizDTO.getQuestions().stream()
-                .map(q -> {
-                    QuizQuestion question = new QuizQuestion();
-                    question.setQuestion(q.getQuestion());
-                    question.setAnswers(q.getAnswers());
-                    question.setCorrectAnswer(q.getCorrectAnswer());
-                    question.setQuestionType(q.getQuestionType());
-                    question.setDifficulty(q.getDifficulty());
-                    question.setSource(q.getSource());
-                    question.setSource(q.getSource());
-                    question.setQuiz(quiz);
-                    return question;
-                })
-                .toList();
+        applyCategoryChanges(quiz, newCategories);
+        // Tagesquizzes im Vorrat bleiben bis zur Veröffentlichung privat
+        quiz.setPublic(quizDTO.isPublic() && !quiz.isBufferedDailyQuiz());
+        applyQuestionChanges(quiz, quizDTO.getQuestions());
+        // Auch reine Fragenänderungen sollen die Version des Quizzes erhöhen
+        quiz.setUpdatedAt(LocalDateTime.now());
+        Quiz saved = quizRepository.save(quiz);
+        eventPublisher.publishEvent(new QuizSavedEvent(saved, previousCategories, QuizSavedEvent.publicCategories(saved)));
+        return saved;
+    }
 
-        quiz.getQuestions().clear();
-        quiz.getQuestions().addAll(questions);
-        return quizRepository.save(quiz);
+    /**
+     * Gleicht die Kategorien eines Quizzes mit den übergebenen ab.
+     * <p>
+     * Die bestehende Sammlung wird nur verändert, wenn sich die Kategorien unterscheiden, und dann
+     * an Ort und Stelle angepasst. Eine neue Liste würde Hibernate dazu bringen, alle Zeilen in
+     * {@code quiz_categories} zu löschen und neu einzufügen, auch wenn sich nichts geändert hat.
+     * </p>
+     *
+     * @param quiz       Das zu aktualisierende Quiz.
+     * @param categories Die neuen Kategorien.
+     */
+    private void applyCategoryChanges(Quiz quiz, Set<QuizCategory> categories) {
+        List<QuizCategory> current = quiz.getCategories();
+        if (new HashSet<>(current).equals(categories)) {
+            return;
+        }
+        current.retainAll(categories);
+        for (QuizCategory category : categories) {
+            if (!current.contains(category)) {
+                current.add(category);
+            }
+        }
+        quiz.updateCategoryMask();
+    }
+
+    /**
+     * Gleicht die Fragen eines Quizzes anhand ihrer IDs mit den übergebenen DTOs ab.
+     * <p>
+     * Bestehende Fragen werden an Ort und Stelle aktualisiert, Fragen ohne (passende) ID neu angelegt
+     * und nicht mehr enthaltene Fragen entfernt. Die Antwortliste wird nur ersetzt, wenn sie sich
+     * unterscheidet, da Hibernate sie sonst vollständig löscht und neu einfügt.
+     * </p>
+     *
+     * @param quiz      Das zu aktualisierende Quiz.
+     * @param questions Die neuen Fragen.
+     */
+    private void applyQuestionChanges(Quiz quiz, List<QuizQuestionDTO> questions) {
+        Set<Long> incomingIds = questions.stream()
+                .map(QuizQuestionDTO::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        quiz.getQuestions().removeIf(q -> !incomingIds.contains(q.getId()));
+
+        Map<Long, QuizQuestion> existing = new HashMap<>();
+        for (QuizQuestion question : quiz.getQuestions()) {
+            existing.put(question.getId(), question);
+        }
+
+        for (QuizQuestionDTO dto : questions) {
+            QuizQuestion question = dto.getId() != null ? existing.remove(dto.getId()) : null;
+            if (question == null) {
+                question = new QuizQuestion();
+                question.setQuiz(quiz);
+                quiz.getQuestions().add(question);
+            }
+            question.setQuestion(dto.getQuestion());
+            question.setCorrectAnswer(dto.getCorrectAnswer());
+            question.setQuestionType(dto.getQuestionType());
+            question.setDifficulty(dto.getDifficulty());
+            question.setSource(dto.getSource());
+            // Reihenfolge ist relevant; dto-Liste zuerst, da PersistentBag#equals nur Identität vergleicht
+            if (dto.getAnswers() == null || !dto.getAnswers().equals(question.getAnswers())) {
+                question.setAnswers(dto.getAnswers() != null ? new ArrayList<>(dto.getAnswers()) : null);
+            }
+        }
     }
 
     /**
@@ -174,6 +333,7 @@ public class QuizService {
         quizRatingRepository.deleteByQuizId(quizId);
         quizResultRepository.deleteByQuizId(quizId);
         quizRepository.delete(quiz);
+        eventPublisher.publishEvent(new QuizDeletedEvent(quizId, QuizSavedEvent.publicCategories(quiz)));
     }
 
     /**
@@ -236,55 +396,14 @@ public class QuizService {
     /**
      * Erstellt oder ersetzt das tägliche Quiz.
      *
-     * @param questions JSON-Fragenarray.
+     * @param questions Validierte Fragen der KI-API.
      * @param category  Kategorie des täglichen Quizzes.
      */
-    public void updateDailyQuiz(JSONArray questions, QuizCategory category) {
+    public void updateDailyQuiz(List<GeneratedQuestion> questions, QuizCategory category) {
         try {
-            Quiz dailyQuiz = new Quiz();
-            dailyQuiz.setTitle("Tägliches Quiz vom " + LocalDate.now() + ", Kategorie: " + category.getDisplayName());
-            dailyQuiz.setDescription("Teste dein Wissen mit unserem täglichen Quiz!");
-            dailyQuiz.setCategories(List.of(QuizCategory.DAILY_QUIZ, category));
-            dailyQuiz.setDate(LocalDate.now());
-            dailyQuiz.setPublic(true);
-
-            // Admin-Creator
-            User adminUser = userRepository.findByEmail(mailUser)
-                    .orElseGet(() -> {
-                        User newAdmin = new User();
-                        newAdmin.setName("Admin");
-                        newAdmin.setEmail(mailUser);
-                        newAdmin.setRole(UserRole.ROLE_ADMIN);
-                        newAdmin.setPassword(passwordEncoder.encode(adminpassword));
-                        newAdmin.setUserStatus(UserStatus.ACTIVE);
-                        return userRepository.save(newAdmin);
-                    });
-            dailyQuiz.setCreator(adminUser);
-
-            // Fragen umwandeln
-            List<QuizQuestion> quizQuestions = new ArrayList<>();
-            for (int i = 0; i < questions.length(); i++) {
-                JSONObject questionObj = questions.getJSONObject(i);
-                QuizQuestion question = new QuizQuestion();
-                question.setQuestion(questionObj.getString("Frage"));
-                question.setQuestionType(QuestionType.MULTIPLE_CHOICE);
-                JSONArray answers = questionObj.getJSONArray("Antworten");
-                List<String> answerList = new ArrayList<>();
-                for (int j = 0; j < answers.length(); j++) {
-                    answerList.add(answers.getString(j));
-                }
-                question.setAnswers(answerList);
-
-                question.setCorrectAnswer(questionObj.getString("RichtigeAntwort"));
-                question.setDifficulty(1);
-                question.setSource("Tägliches Quiz");
-                question.setQuiz(dailyQuiz);
-
-                quizQuestions.add(question);
-            }
-
-            dailyQuiz.setQuestions(quizQuestions);
-            quizRepository.save(dailyQuiz);
+            Quiz dailyQuiz = buildDailyQuiz(questions, category, LocalDate.now());
+            Quiz saved = quizRepository.save(dailyQuiz);
+            eventPublisher.publishEvent(new QuizSavedEvent(saved));
             log.info("Tägliches Quiz erfolgreich gespeichert");
 
         } catch (Exception e) {
@@ -293,6 +412,154 @@ public class QuizService {
         }
     }
 
+    /**
+     * Erstellt das tägliche Quiz aus dem Fragenpool. Die Fragen werden in derselben Transaktion
+     * entnommen, in der das Quiz gespeichert wird, und bleiben im Pool, wenn das Speichern scheitert.
+     *
+     * @param category Kategorie des täglichen Quizzes.
+     * @param count    Anzahl der Fragen.
+     * @return true, wenn der Pool genügend Fragen enthielt und das Quiz gespeichert wurde.
+     */
+    @Transactional
+    public boolean updateDailyQuizFromPool(QuizCategory category, int count) {
+        Optional<List<GeneratedQuestion>> questions = questionPoolService.takeForDailyQuiz(category, count);
+        questions.ifPresent(q -> updateDailyQuiz(q, category));
+        return questions.isPresent();
+    }
+
+    /**
+     * Legt ein Tagesquiz aus dem Fragenpool im Vorrat an. Die Fragen werden in derselben Transaktion
+     * entnommen, in der das Quiz gespeichert wird, und bleiben im Pool, wenn das Speichern scheitert.
+     *
+     * @param category Kategorie des Tagesquizzes.
+     * @param count    Anzahl der Fragen.
+     * @return Das gespeicherte Quiz oder leer, wenn der Pool nicht genügend Fragen enthält.
+     */
+    @Transactional
+    public Optional<Quiz> bufferDailyQuizFromPool(QuizCategory category, int count) {
+        return questionPoolService.takeForDailyQuiz(category, count)
+                .map(questions -> bufferDailyQuiz(questions, category));
+    }
+
+    /**
+     * Legt ein Tagesquiz im Vorrat an. Es bleibt privat und ohne Datum, bis es mit
+     * {@link #publishBufferedDailyQuiz(LocalDate)} veröffentlicht wird, und erscheint
+     * bis dahin weder im Katalog noch in Suche, Vorschlägen oder Kategoriezählern.
+     *
+     * @param questions Validierte Fragen der KI-API.
+     * @param category  Kategorie des Tagesquizzes.
+     * @return Das gespeicherte Quiz.
+     */
+    public Quiz bufferDailyQuiz(List<GeneratedQuestion> questions, QuizCategory category) {
+        Quiz quiz = buildDailyQuiz(questions, category, null);
+        quiz.setPublic(false);
+        Quiz saved = quizRepository.save(quiz);
+        log.info("Tagesquiz für den Vorrat gespeichert: ID={}, Kategorie={}", saved.getId(), category.getDisplayName());
+        return saved;
+    }
+
+    /**
+     * Veröffentlicht das älteste Tagesquiz aus dem Vorrat für das angegebene Datum.
+     * Die Veröffentlichung ist ein einzelnes Update ohne Aufruf der KI-API.
+     *
+     * @param date Datum des Tagesquizzes.
+     * @return Das veröffentlichte Quiz oder leer, wenn der Vorrat leer ist.
+     */
+    @Transactional
+    public Optional<Quiz> publishBufferedDailyQuiz(LocalDate date) {
+        List<Long> candidates = quizRepository.findBufferedDailyQuizIds(QuizCategory.DAILY_QUIZ.maskLo(), PageRequest.of(0, 3));
+        for (Long quizId : candidates) {
+            Optional<Quiz> buffered = quizRepository.findById(quizId);
+            if (buffered.isEmpty()) {
+                continue;
+            }
+            QuizCategory category = buffered.get().getCategories().stream()
+                    .filter(c -> c != QuizCategory.DAILY_QUIZ)
+                    .findFirst()
+                    .orElse(QuizCategory.GENERAL_KNOWLEDGE);
+            if (quizRepository.publishBufferedDailyQuiz(quizId, date, dailyQuizTitle(date, category), LocalDateTime.now()) == 0) {
+                continue;
+            }
+            Quiz published = quizRepository.findById(quizId).orElseThrow();
+            eventPublisher.publishEvent(new QuizSavedEvent(published));
+            return Optional.of(published);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Zählt die Tagesquizzes im Vorrat.
+     *
+     * @return Anzahl der noch nicht veröffentlichten Tagesquizzes.
+     */
+    public long countBufferedDailyQuizzes() {
+        return quizRepository.countBufferedDailyQuizzes(QuizCategory.DAILY_QUIZ.maskLo());
+    }
+
+    /**
+     * Baut ein Tagesquiz aus den Fragen der KI-API auf.
+     * Fragen, die bestehenden Quizfragen ähneln, werden vorher verworfen.
+     *
+     * @param generatedQuestions Validierte Fragen der KI-API.
+     * @param category           Kategorie des Tagesquizzes.
+     * @param date               Datum des Tagesquizzes oder {@code null} für den Vorrat.
+     * @return Das noch nicht gespeicherte Quiz.
+     * @throws IllegalStateException wenn alle Fragen Beinahe-Duplikate sind.
+     */
+    private Quiz buildDailyQuiz(List<GeneratedQuestion> generatedQuestions, QuizCategory category, LocalDate date) {
+        List<GeneratedQuestion> questions = questionSimilarityService.filterNearDuplicates(generatedQuestions);
+        if (questions.isEmpty()) {
+            throw new IllegalStateException("Alle Fragen des Tagesquizzes ähneln bestehenden Fragen");
+        }
+        if (questions.size() < generatedQuestions.size()) {
+            log.info("{} von {} Fragen des Tagesquizzes als Beinahe-Duplikat verworfen",
+                    generatedQuestions.size() - questions.size(), generatedQuestions.size());
+        }
+
+        Quiz dailyQuiz = new Quiz();
+        dailyQuiz.setTitle(dailyQuizTitle(date, category));
+        dailyQuiz.setDescription("Teste dein Wissen mit unserem täglichen Quiz!");
+        dailyQuiz.setCategories(List.of(QuizCategory.DAILY_QUIZ, category));
+        dailyQuiz.setDate(date);
+        dailyQuiz.setPublic(true);
+
+        // Admin-Creator
+        User adminUser = userRepository.findByEmail(mailUser)
+                .orElseGet(() -> {
+                    User newAdmin = new User();
+                    newAdmin.setName("Admin");
+                    newAdmin.setEmail(mailUser);
+                    newAdmin.setRole(UserRole.ROLE_ADMIN);
+                    newAdmin.setPassword(passwordEncoder.encode(adminpassword));
+                    newAdmin.setUserStatus(UserStatus.ACTIVE);
+                    return userRepository.save(newAdmin);
+                });
+        dailyQuiz.setCreator(adminUser);
+
+        // Fragen umwandeln
+        List<QuizQuestion> quizQuestions = new ArrayList<>();
+        for (GeneratedQuestion generated : questions) {
+            QuizQuestion question = new QuizQuestion();
+            question.setQuestion(generated.question());
+            question.setQuestionType(QuestionType.MULTIPLE_CHOICE);
+            question.setAnswers(new ArrayList<>(generated.answers()));
+            question.setCorrectAnswer(generated.correctAnswer());
+            question.setDifficulty(generated.difficulty());
+            question.setSource("Tägliches Quiz");
+            question.setQuiz(dailyQuiz);
+
+            quizQuestions.add(question);
+        }
+
+        dailyQuiz.setQuestions(quizQuestions);
+        return dailyQuiz;
+    }
+
+    private static String dailyQuizTitle(LocalDate date, QuizCategory category) {
+        String prefix = date != null ? "Tägliches Quiz vom " + date : "Tägliches Quiz (Vorrat)";
+        return prefix + ", Kategorie: " + category.getDisplayName();
+    }
+
     /**
      * Prüft, ob ein Benutzer das heutige tägliche Quiz bereits absolviert hat.
      *
@@ -300,8 +567,7 @@ public class QuizService {
      * @return true, wenn bereits gespielt, sonst false.
      */
     public boolean hasCompletedDailyQuiz(Long userId) {
-        LocalDateTime today = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0).withNano(0);
-        return quizResultRepository.existsByUserIdAndQuizCategoriesAndPlayedAtAfter(userId, QuizCategory.DAILY_QUIZ, today);
+        return dailyCompletionService.hasCompletedToday(userId);
     }
 
     /**
@@ -356,7 +622,8 @@ public class QuizService {
     }
 
     /**
-     * Bewertet ein Quiz durch den Benutzer.
+     * Bewertet ein Quiz durch den Benutzer. Eine bestehende Bewertung wird überschrieben.
+     * Geprüft wird nur die Ersteller-ID; die Bewertung wird mit einem Upsert geschrieben.
      *
      * @param quizId ID des Quizzes.
      * @param userId ID des Benutzers, der bewertet.
@@ -364,27 +631,14 @@ public class QuizService {
      * @return Die Bewertung des Quizzes.
      */
     public Integer rateQuiz(Long quizId, Long userId, int rating) {
-        Quiz quiz = quizRepository.findById(quizId)
+        Long creatorId = quizRepository.findCreatorIdById(quizId)
                 .orElseThrow(() -> new RuntimeException("Quiz nicht gefunden"));
 
-        if (quiz.getCreator().getId().equals(userId)) {
+        if (creatorId.equals(userId)) {
             throw new RuntimeException("Du kannst dein eigenes Quiz nicht bewerten");
         }
 
-        Optional<QuizRating> existing = quizRatingRepository.findByQuizIdAndUserId(quizId, userId);
-
-        if (existing.isPresent()) {
-            QuizRating r = existing.get();
-            r.setRating(rating);
-            quizRatingRepository.save(r);
-        } else {
-            QuizRating newRating = new QuizRating();
-            newRating.setQuiz(quiz);
-            newRating.setUserId(userRepository.findById(userId).get().getId());
-            newRating.setRating(rating);
-            newRating.setCreatedAt(LocalDateTime.now());
-            quizRatingRepository.save(newRating);
-        }
+        quizRatingRepository.upsert(quizId, userId, rating, LocalDateTime.now());
         return rating;
     }
 
@@ -396,47 +650,254 @@ public class QuizService {
      * @return true, wenn neu hinzugefügt, false, wenn entfernt.
      */
     public boolean toggleFavorite(Long quizId, UserDetails userDetails) {
-        User user = userService.getUserFromUserDetails(userDetails);
-        Quiz quiz = getQuizById(quizId);
+        return favoriteStatement(quizId,
+                () -> quizFavoriteRepository.toggle(userDetails.getUsername(), quizId, LocalDateTime.now())) > 0;
+    }
 
-        Optional<QuizFavorite> existingFavorite = quizFavoriteRepository
-                .findByUserIdAndQuizId(user.getId(), quizId);
+    /**
+     * Favorisiert ein Quiz. Wiederholte Aufrufe ändern nichts.
+     *
+     * @param quizId      ID des Quizzes.
+     * @param userDetails Benutzer-Details.
+     * @return true, wenn der Favorit neu angelegt wurde.
+     */
+    public boolean addFavorite(Long quizId, UserDetails userDetails) {
+        return favoriteStatement(quizId,
+                () -> quizFavoriteRepository.insertIfAbsent(userDetails.getUsername(), quizId, LocalDateTime.now())) > 0;
+    }
 
-        if (existingFavorite.isPresent()) {
-            quizFavoriteRepository.delete(existingFavorite.get());
-            return false;
-        } else {
-            QuizFavorite favorite = new QuizFavorite();
-            favorite.setUser(user);
-            favorite.setQuiz(quiz);
-            quizFavoriteRepository.save(favorite);
-            return true;
+    /**
+     * Entfernt ein Quiz aus den Favoriten. Wiederholte Aufrufe ändern nichts.
+     *
+     * @param quizId      ID des Quizzes.
+     * @param userDetails Benutzer-Details.
+     * @return true, wenn ein Favorit entfernt wurde.
+     */
+    public boolean removeFavorite(Long quizId, UserDetails userDetails) {
+        return quizFavoriteRepository.deleteByUserEmailAndQuizId(userDetails.getUsername(), quizId) > 0;
+    }
+
+    /**
+     * Holt die IDs aller favorisierten Quizzes des Benutzers.
+     *
+     * @param userDetails Benutzer-Details.
+     * @return Liste von Quiz-IDs.
+     */
+    public List<Long> getFavoriteQuizIds(UserDetails userDetails) {
+        return quizFavoriteRepository.findQuizIdsByUserEmail(userDetails.getUsername());
+    }
+
+    /**
+     * Ermittelt für eine Seite von Quizzes, welche davon der Benutzer favorisiert hat.
+     *
+     * @param quizIds     IDs der Quizzes (höchstens {@value #MAX_FAVORITE_STATUS_IDS}).
+     * @param userDetails Benutzer-Details.
+     * @return Favoritenstatus je Quiz-ID in der Reihenfolge der Anfrage.
+     * @throws IllegalArgumentException wenn zu viele IDs angefragt werden.
+     */
+    public Map<Long, Boolean> getFavoriteStatus(List<Long> quizIds, UserDetails userDetails) {
+        if (quizIds.size() > MAX_FAVORITE_STATUS_IDS) {
+            throw new IllegalArgumentException("Höchstens " + MAX_FAVORITE_STATUS_IDS + " Quiz-IDs pro Anfrage");
+        }
+        Map<Long, Boolean> status = new LinkedHashMap<>();
+        if (quizIds.isEmpty()) {
+            return status;
+        }
+        Set<Long> favorites = new HashSet<>(
+                quizFavoriteRepository.findQuizIdsByUserEmailAndQuizIdIn(userDetails.getUsername(), quizIds));
+        for (Long quizId : quizIds) {
+            status.put(quizId, favorites.contains(quizId));
+        }
+        return status;
+    }
+
+    /**
+     * Führt eine Favoriten-Anweisung aus; ein unbekanntes Quiz verletzt den Fremdschlüssel.
+     */
+    private int favoriteStatement(Long quizId, IntSupplier statement) {
+        try {
+            return statement.getAsInt();
+        } catch (DataIntegrityViolationException e) {
+            throw new NoSuchElementException("Quiz " + quizId);
         }
     }
 
     /**
-     * Holt die Quiz-Historie eines Benutzers.
+     * Holt eine Seite der Quiz-Historie eines Benutzers, neueste Einträge zuerst.
+     * <p>
+     * Die Seiten werden per Keyset auf ({@code playedAt}, {@code id}) gebildet: Für die
+     * Folgeseite werden {@code playedAt} und {@code id} des letzten gelieferten Eintrags übergeben.
+     * </p>
      *
      * @param userDetails Authentifizierungsdetails des Benutzers.
+     * @param before      Zeitpunkt des letzten bereits geladenen Eintrags oder {@code null} für die erste Seite.
+     * @param beforeId    ID des letzten bereits geladenen Eintrags (nur zusammen mit {@code before}).
+     * @param size        Maximale Anzahl an Einträgen (1 bis {@value #MAX_HISTORY_PAGE_SIZE}).
      * @return Liste von QuizHistoryDTOs, die die Historie des Benutzers enthalten.
      */
-    public List<QuizHistoryDTO> getQuizHistory(UserDetails userDetails) {
-        User user = userService.getUserFromUserDetails(userDetails);
+    public List<QuizHistoryDTO> getQuizHistory(UserDetails userDetails, LocalDateTime before, Long beforeId, int size) {
+        if (userDetails == null) {
+            throw new IllegalArgumentException("UserDetails cannot be null");
+        }
+        Pageable page = PageRequest.of(0, Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE)));
+
+        if (before == null) {
+            return quizResultRepository.findHistoryByUserEmail(userDetails.getUsername(), page);
+        }
+        return quizResultRepository.findHistoryByUserEmailBefore(userDetails.getUsername(), before,
+                beforeId != null ? beforeId : Long.MAX_VALUE, page);
+    }
+
+    /**
+     * Durchsucht Titel, Beschreibung und Fragen aller öffentlichen Quizzes.
+     *
+     * @param text Suchanfrage, unterstützt Websuche-Syntax (z. B. {@code "exakte phrase"} oder {@code -ausschluss}).
+     * @param page Seitennummer, beginnend bei 0.
+     * @param size Seitengröße (1 bis {@value #MAX_SEARCH_PAGE_SIZE}).
+     * @return Treffer absteigend nach Relevanz, mit hervorgehobenen Suchbegriffen.
+     */
+    public List<QuizSearchResultDTO> searchQuizzes(String text, int page, int size) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Suchbegriff darf nicht leer sein");
+        }
+        if (text.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Suchbegriff ist zu lang");
+        }
+        int limit = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        long offset = (long) Math.max(0, page) * limit;
+
+        return quizRepository.searchPublicQuizzes(text.strip(), QuizCategory.DAILY_QUIZ.maskLo(),
+                        HIGHLIGHT_OPTIONS, limit, offset).stream()
+                .map(this::toSearchResult)
+                .toList();
+    }
+
+    private QuizSearchResultDTO toSearchResult(QuizSearchHit hit) {
+        QuizSearchResultDTO dto = new QuizSearchResultDTO();
+        dto.setQuizId(hit.getQuizId());
+        dto.setTitle(hit.getTitle());
+        dto.setRank(hit.getRank() != null ? hit.getRank() : 0);
+        dto.setTitleHighlight(highlight(hit.getTitleHighlight()));
+        dto.setDescriptionHighlight(highlight(hit.getDescriptionHighlight()));
+        dto.setQuestionHighlight(highlight(hit.getQuestionHighlight()));
+        return dto;
+    }
+
+    /**
+     * Escaped den Text für HTML und ersetzt die Trefferzeichen von {@code ts_headline} durch {@code <mark>}.
+     */
+    static String highlight(String headline) {
+        if (headline == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(headline)
+                .replace(HIGHLIGHT_START, "<mark>")
+                .replace(HIGHLIGHT_STOP, "</mark>");
+    }
+
+    /**
+     * Liefert Vorschläge für die Suche während der Eingabe aus dem In-Memory-Index.
+     *
+     * @param text  Bisherige Eingabe.
+     * @param limit Anzahl der Vorschläge.
+     * @return Vorschläge passend zu Quiz-Titel oder Ersteller, beste zuerst.
+     */
+    public List<QuizSuggestion> suggestQuizzes(String text, int limit) {
+        return quizTypeaheadIndex.suggest(text, limit, LocalDate.now());
+    }
 
-        List<QuizResult> quizResults = quizResultRepository.findByUserId(user.getId());
+    /**
+     * Stellt ein Übungsquiz aus zufälligen Fragen öffentlicher Quizzes zusammen, ohne es zu speichern.
+     * Die Fragen werden aus dem {@link PracticeQuestionIndex} gezogen, bevorzugt mit dem gewünschten
+     * Schwierigkeitsgrad; geladen werden nur die gezogenen Fragen. Die richtige Antwort wird nicht
+     * ausgeliefert, die Antworten prüft {@link #checkPracticeAnswers(Map)}.
+     *
+     * @param category   Kategorie der Fragen.
+     * @param difficulty Ziel-Schwierigkeitsgrad (1–5).
+     * @param count      Gewünschte Anzahl an Fragen (höchstens {@value #MAX_PRACTICE_QUESTIONS}).
+     * @return Ein {@link QuizDTO} ohne ID mit bis zu {@code count} Fragen, nach Schwierigkeitsgrad sortiert.
+     */
+    public QuizDTO buildPracticeQuiz(QuizCategory category, int difficulty, int count) {
+        List<Long> ids = practiceQuestionIndex.sample(category, difficulty,
+                Math.clamp(count, 1, MAX_PRACTICE_QUESTIONS), LocalDate.now());
 
-        return quizResults.stream()
-                .map(result -> {
-                    QuizHistoryDTO dto = new QuizHistoryDTO();
-                    dto.setId(result.getId());
-                    dto.setQuizId(result.getQuiz().getId());
-                    dto.setQuizTitle(result.getQuiz().getTitle());
-                    dto.setScore(result.getScore());
-                    dto.setMaxPossibleScore(result.getMaxPossibleScore());
-                    dto.setPlayedAt(result.getPlayedAt());
+        QuizDTO quizDTO = new QuizDTO();
+        quizDTO.setTitle("Übung: " + category.getDisplayName());
+        quizDTO.setDescription("Zufällig zusammengestellte Übungsfragen");
+        quizDTO.setCategories(new ArrayList<>(List.of(category)));
+        quizDTO.setPublic(false);
+        quizDTO.setQuestions(ids.isEmpty() ? new ArrayList<>() : quizQuestionRepository.findAllById(ids).stream()
+                .sorted(Comparator.comparingInt(QuizQuestion::getDifficulty).thenComparing(QuizQuestion::getId))
+                .map(q -> {
+                    QuizQuestionDTO dto = new QuizQuestionDTO();
+                    dto.setId(q.getId());
+                    dto.setQuestion(q.getQuestion());
+                    dto.setAnswers(q.getAnswers());
+                    dto.setDifficulty(q.getDifficulty());
+                    dto.setSource(q.getSource());
+                    dto.setQuestionType(q.getQuestionType());
                     return dto;
                 })
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+        return quizDTO;
+    }
+
+    /**
+     * Prüft die Antworten eines Übungsquizzes, ohne ein Ergebnis zu speichern. Bewertet werden nur
+     * Fragen, die auch gezogen werden können (öffentliche Quizzes, Tagesquizzes erst ab dem Folgetag);
+     * andere IDs werden ignoriert und zählen nicht zur Höchstpunktzahl.
+     *
+     * @param answers Map von Frage-ID zu Benutzerantwort (höchstens {@value #MAX_PRACTICE_QUESTIONS}).
+     * @return Punktzahl und die falsch beantworteten Fragen mit richtiger Antwort.
+     * @throws IllegalArgumentException wenn mehr Antworten übergeben werden als ein Übungsquiz Fragen hat.
+     */
+    @Transactional
+    public QuizFeedbackDTO checkPracticeAnswers(Map<Long, String> answers) {
+        if (answers != null && answers.size() > MAX_PRACTICE_QUESTIONS) {
+            throw new IllegalArgumentException("Höchstens " + MAX_PRACTICE_QUESTIONS + " Antworten erlaubt");
+        }
+        LocalDate today = LocalDate.now();
+        int maxScore = 0;
+        int correctCount = 0;
+        List<WrongAnswerDTO> wrongs = new ArrayList<>();
+        if (answers != null && !answers.isEmpty()) {
+            for (QuizQuestion q : quizQuestionRepository.findAllById(answers.keySet())) {
+                if (!isPracticeQuestion(q.getQuiz(), today)) {
+                    continue;
+                }
+                maxScore++;
+                String ua = answers.get(q.getId());
+                if (checkAnswer(ua, q.getCorrectAnswer())) {
+                    correctCount++;
+                } else {
+                    wrongs.add(new WrongAnswerDTO(q.getQuestion(), ua, q.getCorrectAnswer()));
+                }
+            }
+        }
+
+        QuizFeedbackDTO dto = new QuizFeedbackDTO();
+        dto.setScore(correctCount);
+        dto.setMaxScore(maxScore);
+        dto.setWrongAnswers(wrongs);
+        return dto;
+    }
+
+    /**
+     * Entspricht der Auswahl des {@link PracticeQuestionIndex}: öffentlich und kein Tagesquiz von heute oder später.
+     */
+    private static boolean isPracticeQuestion(Quiz quiz, LocalDate today) {
+        return quiz.isPublic()
+                && (!quiz.isDailyQuiz() || (quiz.getDate() != null && quiz.getDate().isBefore(today)));
+    }
+
+    /**
+     * Liefert den Änderungsstand des Quizkatalogs. Er steigt mit jedem neuen, geänderten
+     * oder gelöschten Quiz sowie jeder Bewertung und dient als Grundlage für den Katalog-ETag.
+     *
+     * @return Versionszähler des Katalogs.
+     */
+    public long getCatalogVersion() {
+        return quizRepository.findCatalogVersion();
     }
 
     /**
@@ -445,7 +906,39 @@ public class QuizService {
      * @return Liste von Quizzes mit Durchschnittsbewertung und Anzahl der Bewertungen.
      */
     public List<Quiz> findAllWithRatings() {
-        List<Quiz> quizzes = quizRepository.findAll();
+        return withRatings(quizRepository.findAll());
+    }
+
+    /**
+     * Holt alle Quizzes der angegebenen Kategorien mit ihren Bewertungen.
+     * Die Filterung erfolgt über die Kategorie-Bitmaske der Quizzes.
+     *
+     * @param categories Kategorien, nach denen gefiltert wird; leer oder {@code null} für alle Quizzes.
+     * @param matchAll   true, wenn ein Quiz alle Kategorien besitzen muss, sonst genügt eine.
+     * @return Liste von Quizzes mit Durchschnittsbewertung und Anzahl der Bewertungen.
+     */
+    public List<Quiz> findAllWithRatings(List<QuizCategory> categories, boolean matchAll) {
+        if (categories == null || categories.isEmpty()) {
+            return findAllWithRatings();
+        }
+        long maskLo = 0L;
+        long maskHi = 0L;
+        for (QuizCategory category : categories) {
+            maskLo |= category.maskLo();
+            maskHi |= category.maskHi();
+        }
+        return withRatings(matchAll
+                ? quizRepository.findByAllCategoryMask(maskLo, maskHi)
+                : quizRepository.findByAnyCategoryMask(maskLo, maskHi));
+    }
+
+    /**
+     * Ergänzt die übergebenen Quizzes um Durchschnittsbewertung und Anzahl der Bewertungen.
+     *
+     * @param quizzes Die Quizzes.
+     * @return Veränderbare Liste der Quizzes mit Bewertungen.
+     */
+    private List<Quiz> withRatings(List<Quiz> quizzes) {
         return quizzes.stream()
                 .map(q -> {
                     Double avg = quizRatingRepository.findAverageByQuizId(q.getId());
@@ -460,14 +953,10 @@ public class QuizService {
     /**
      * Gibt alle verfügbaren Quiz-Kategorien (als Text) zurück.
      *
-     * @return Liste von Kategorienamen.
+     * @return Unveränderliche Liste von Kategorienamen.
      */
     public List<String> getCategoryValues() {
-        List<String> values = new ArrayList<>();
-        for (QuizCategory category : QuizCategory.values()) {
-            values.add(category.getDisplayName());
-        }
-        return values;
+        return CATEGORY_VALUES;
     }
 
     /**
@@ -571,6 +1060,7 @@ public class QuizService {
             result.setMaxPossibleScore(quiz.getQuestions().size());
             result.setPlayedAt(LocalDateTime.now());
             quizResultRepository.save(result);
+            dailyCompletionService.recordIfDaily(userId, quiz, result.getPlayedAt());
         }
 
         QuizFeedbackDTO dto = new QuizFeedbackDTO();
@@ -0,0 +1,535 @@
+package rh.ptp.quizapp.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import rh.ptp.quizapp.dto.QuizSuggestion;
+import rh.ptp.quizapp.dto.QuizTypeaheadEntry;
+import rh.ptp.quizapp.event.QuizDeletedEvent;
+import rh.ptp.quizapp.event.QuizSavedEvent;
+import rh.ptp.quizapp.event.QuizzesReassignedEvent;
+import rh.ptp.quizapp.event.UserRenamedEvent;
+import rh.ptp.quizapp.model.Quiz;
+import rh.ptp.quizapp.repository.QuizRepository;
+import rh.ptp.quizapp.repository.UserRepository;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-Memory-Trigrammindex über Quiz-Titel und Erstellernamen für die Suche während der Eingabe.
+ * <p>
+ * Jedes Wort wird mit zwei führenden Leerzeichen in Trigramme zerlegt, sodass auch Präfixe
+ * mit ein oder zwei Zeichen über den Index gefunden werden. Die Postinglisten sind aufsteigend
+ * sortierte {@code int}-Arrays von Slots; gelöschte Slots werden nur markiert und bei Bedarf
+ * kompaktiert. Der Index wird beim Start und nächtlich neu aufgebaut und dazwischen über
+ * {@link QuizSavedEvent} und {@link QuizDeletedEvent} nach dem Commit inkrementell gepflegt;
+ * {@link UserRenamedEvent} und {@link QuizzesReassignedEvent} aktualisieren den Erstellernamen
+ * aller Quizzes eines Erstellers.
+ * Änderungen, die während eines Neuaufbaus eintreffen, werden auch vorgemerkt und nach dem
+ * Aufbau auf den neuen Index angewendet, bevor er den alten ersetzt.
+ * </p>
+ */
+@Component
+public class QuizTypeaheadIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(QuizTypeaheadIndex.class);
+
+    /**
+     * Maximale Anzahl an Vorschlägen pro Anfrage.
+     */
+    public static final int MAX_SUGGESTIONS = 20;
+
+    private static final int MIN_COMPACTION_TOMBSTONES = 1024;
+
+    private static final long NO_CREATOR = 0L;
+
+    private final QuizRepository quizRepository;
+    private final UserRepository userRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock rebuildLock = new ReentrantLock();
+    private Index index = new Index();
+    /**
+     * Während eines Neuaufbaus eingetroffene Änderungen, sonst {@code null}; Zugriff nur unter dem Schreib-Lock.
+     */
+    private List<Consumer<Index>> pendingUpdates;
+    private volatile long lastBuildMillis;
+
+    /**
+     * Konstruktor.
+     *
+     * @param quizRepository Repository für den vollständigen Aufbau
+     * @param userRepository Repository für den Namen eines neuen Erstellers
+     * @param meterRegistry  Registry für Größe, Speicherbedarf und Aufbauzeit
+     */
+    public QuizTypeaheadIndex(QuizRepository quizRepository, UserRepository userRepository,
+                              MeterRegistry meterRegistry) {
+        this.quizRepository = quizRepository;
+        this.userRepository = userRepository;
+        Gauge.builder("quiz.typeahead.entries", this, QuizTypeaheadIndex::size)
+                .description("Anzahl indizierter Quizzes")
+                .register(meterRegistry);
+        Gauge.builder("quiz.typeahead.memory", this, QuizTypeaheadIndex::estimatedMemoryBytes)
+                .description("Geschätzter Speicherbedarf des Typeahead-Index")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+        TimeGauge.builder("quiz.typeahead.build.time", this, TimeUnit.MILLISECONDS, i -> i.lastBuildMillis)
+                .description("Dauer des letzten vollständigen Aufbaus")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Baut den Index vollständig aus der Datenbank neu auf und tauscht ihn atomar aus.
+     * Änderungen, die währenddessen eintreffen, werden vor dem Austausch nachgeholt.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 30 3 * * *")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.nanoTime();
+            Index fresh = new Index();
+            withWriteLock(() -> pendingUpdates = new ArrayList<>());
+            try {
+                try (Stream<QuizTypeaheadEntry> entries = quizRepository.streamTypeaheadEntries()) {
+                    entries.filter(QuizTypeaheadEntry::isPublic)
+                            .forEach(e -> fresh.add(e.quizId(), e.title(), creatorId(e.creatorId()),
+                                    e.creatorName(), e.dailyQuizDate()));
+                }
+                withWriteLock(() -> {
+                    pendingUpdates.forEach(update -> update.accept(fresh));
+                    index = fresh;
+                    compactIfNeeded();
+                });
+            } finally {
+                withWriteLock(() -> pendingUpdates = null);
+            }
+            lastBuildMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            log.info("Typeahead-Index mit {} Quizzes in {} ms aufgebaut", fresh.liveCount(), lastBuildMillis);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Übernimmt ein gespeichertes Quiz nach dem Commit.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(QuizSavedEvent event) {
+        put(event.quiz());
+    }
+
+    /**
+     * Entfernt ein gelöschtes Quiz nach dem Commit.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(QuizDeletedEvent event) {
+        remove(event.quizId());
+    }
+
+    /**
+     * Übernimmt den neuen Namen eines Benutzers für alle seine Quizzes nach dem Commit.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(UserRenamedEvent event) {
+        changeCreator(event.userId(), event.userId(), event.name());
+    }
+
+    /**
+     * Überträgt die Quizzes eines Benutzers nach dem Commit auf den neuen Ersteller.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(QuizzesReassignedEvent event) {
+        String name = userRepository.findNameById(event.toUserId()).orElse(null);
+        changeCreator(event.fromUserId(), event.toUserId(), name);
+    }
+
+    /**
+     * Fügt ein Quiz hinzu oder ersetzt den bestehenden Eintrag. Nicht öffentliche Quizzes werden entfernt.
+     *
+     * @param quiz gespeichertes Quiz
+     */
+    public void put(Quiz quiz) {
+        if (quiz == null || quiz.getId() == null) {
+            return;
+        }
+        if (!quiz.isPublic()) {
+            remove(quiz.getId());
+            return;
+        }
+        long quizId = quiz.getId();
+        String title = quiz.getTitle();
+        long creatorId = quiz.getCreator() != null ? creatorId(quiz.getCreator().getId()) : NO_CREATOR;
+        String creatorName = quiz.getCreator() != null ? quiz.getCreator().getName() : null;
+        LocalDate dailyDate = quiz.isDailyQuiz() ? quiz.getDate() : null;
+        apply(target -> target.add(quizId, title, creatorId, creatorName, dailyDate));
+    }
+
+    /**
+     * Ordnet alle Quizzes eines Erstellers einem Ersteller mit dem angegebenen Namen zu.
+     *
+     * @param fromUserId  ID des bisherigen Erstellers
+     * @param toUserId    ID des neuen Erstellers; gleich {@code fromUserId} bei einer Umbenennung
+     * @param creatorName Name des neuen Erstellers
+     */
+    public void changeCreator(long fromUserId, long toUserId, String creatorName) {
+        apply(target -> target.changeCreator(fromUserId, toUserId, creatorName));
+    }
+
+    /**
+     * Entfernt ein Quiz aus dem Index.
+     *
+     * @param quizId ID des Quizzes
+     */
+    public void remove(Long quizId) {
+        if (quizId == null) {
+            return;
+        }
+        apply(target -> target.remove(quizId));
+    }
+
+    /**
+     * Liefert die besten Vervollständigungen für die Eingabe, ohne die Datenbank abzufragen.
+     * Jedes Wort der Eingabe muss Präfix eines Wortes im Titel oder im Erstellernamen sein;
+     * das tägliche Quiz von {@code today} wird ausgeblendet.
+     *
+     * @param query Eingabe des Benutzers
+     * @param limit Anzahl der Vorschläge (1 bis {@value #MAX_SUGGESTIONS})
+     * @param today aktuelles Datum
+     * @return Vorschläge, beste zuerst
+     */
+    public List<QuizSuggestion> suggest(String query, int limit, LocalDate today) {
+        String[] words = words(query);
+        if (words.length == 0) {
+            return List.of();
+        }
+        int k = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        lock.readLock().lock();
+        try {
+            return index.topK(words, k, today);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Anzahl der indizierten Quizzes
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.liveCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return grob geschätzter Speicherbedarf des Index in Bytes
+     */
+    public long estimatedMemoryBytes() {
+        lock.readLock().lock();
+        try {
+            return index.estimatedBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Wendet eine Änderung auf den aktuellen Index an und merkt sie während eines Neuaufbaus vor.
+     */
+    private void apply(Consumer<Index> update) {
+        withWriteLock(() -> {
+            update.accept(index);
+            if (pendingUpdates != null) {
+                pendingUpdates.add(update);
+            }
+            compactIfNeeded();
+        });
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (index.tombstones() >= MIN_COMPACTION_TOMBSTONES && index.tombstones() > index.liveCount()) {
+            index = index.compacted();
+        }
+    }
+
+    /**
+     * Normalisiert den Text (Kleinschreibung, ohne diakritische Zeichen) und zerlegt ihn in Wörter.
+     */
+    static String[] words(String text) {
+        if (text == null || text.isBlank()) {
+            return new String[0];
+        }
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            sb.append(Character.isLetterOrDigit(c) ? c : ' ');
+        }
+        String normalized = sb.toString().strip();
+        return normalized.isEmpty() ? new String[0] : normalized.split(" +");
+    }
+
+    private static long creatorId(Long id) {
+        return id != null ? id : NO_CREATOR;
+    }
+
+    private static String joined(String[] words) {
+        return words.length == 0 ? "" : " " + String.join(" ", words);
+    }
+
+    private static long trigram(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    /**
+     * Erzeugt die Trigramme eines Wortes, mit zwei führenden Leerzeichen als Wortanfang.
+     */
+    private static void trigrams(String word, Collection<Long> target) {
+        String padded = "  " + word;
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            target.add(trigram(padded.charAt(i), padded.charAt(i + 1), padded.charAt(i + 2)));
+        }
+    }
+
+    /**
+     * Aufsteigend sortierte Liste von Slots ohne Boxing.
+     */
+    private static final class PostingList {
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        boolean contains(int slot) {
+            return Arrays.binarySearch(slots, 0, size, slot) >= 0;
+        }
+    }
+
+    private record Candidate(int slot, int score, int titleLength) {
+    }
+
+    /**
+     * Eigentliche Indexdaten; Zugriff nur unter dem Lock der umgebenden Klasse.
+     */
+    private static final class Index {
+        private long[] quizIds = new long[64];
+        private long[] creatorIds = new long[64];
+        private String[] titles = new String[64];
+        private String[] creatorNames = new String[64];
+        private String[] normalizedTitles = new String[64];
+        private String[] normalizedCreators = new String[64];
+        private LocalDate[] dailyDates = new LocalDate[64];
+        private int slotCount;
+        private final BitSet removed = new BitSet();
+        private final Map<Long, Integer> slotByQuizId = new HashMap<>();
+        private final Map<Long, PostingList> postings = new HashMap<>();
+
+        void add(long quizId, String title, long creatorId, String creatorName, LocalDate dailyDate) {
+            remove(quizId);
+            if (slotCount == quizIds.length) {
+                grow();
+            }
+            int slot = slotCount++;
+            String[] titleWords = words(title);
+            String[] creatorWords = words(creatorName);
+            quizIds[slot] = quizId;
+            creatorIds[slot] = creatorId;
+            titles[slot] = title;
+            creatorNames[slot] = creatorName;
+            normalizedTitles[slot] = joined(titleWords);
+            normalizedCreators[slot] = joined(creatorWords);
+            dailyDates[slot] = dailyDate;
+            slotByQuizId.put(quizId, slot);
+
+            Set<Long> grams = new HashSet<>();
+            for (String word : titleWords) {
+                trigrams(word, grams);
+            }
+            for (String word : creatorWords) {
+                trigrams(word, grams);
+            }
+            for (Long gram : grams) {
+                postings.computeIfAbsent(gram, g -> new PostingList()).add(slot);
+            }
+        }
+
+        void remove(long quizId) {
+            Integer slot = slotByQuizId.remove(quizId);
+            if (slot != null) {
+                removed.set(slot);
+                titles[slot] = null;
+                creatorNames[slot] = null;
+                normalizedTitles[slot] = null;
+                normalizedCreators[slot] = null;
+            }
+        }
+
+        /**
+         * Fügt alle Quizzes von {@code fromId} mit neuem Ersteller erneut ein; die alten Slots werden verworfen.
+         */
+        void changeCreator(long fromId, long toId, String creatorName) {
+            int end = slotCount;
+            for (int slot = 0; slot < end; slot++) {
+                if (!removed.get(slot) && creatorIds[slot] == fromId) {
+                    add(quizIds[slot], titles[slot], toId, creatorName, dailyDates[slot]);
+                }
+            }
+        }
+
+        List<QuizSuggestion> topK(String[] words, int k, LocalDate today) {
+            Set<Long> grams = new HashSet<>();
+            for (String word : words) {
+                trigrams(word, grams);
+            }
+            List<PostingList> lists = new ArrayList<>(grams.size());
+            for (Long gram : grams) {
+                PostingList list = postings.get(gram);
+                if (list == null) {
+                    return List.of();
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(l -> l.size));
+
+            String phrase = joined(words);
+            Comparator<Candidate> worstFirst = Comparator.comparingInt(Candidate::score)
+                    .thenComparing(Comparator.comparingInt(Candidate::titleLength).reversed());
+            PriorityQueue<Candidate> best = new PriorityQueue<>(k + 1, worstFirst);
+
+            PostingList smallest = lists.get(0);
+            candidates:
+            for (int i = 0; i < smallest.size; i++) {
+                int slot = smallest.slots[i];
+                if (removed.get(slot) || (dailyDates[slot] != null && dailyDates[slot].equals(today))) {
+                    continue;
+                }
+                for (int j = 1; j < lists.size(); j++) {
+                    if (!lists.get(j).contains(slot)) {
+                        continue candidates;
+                    }
+                }
+                int score = score(slot, words, phrase);
+                if (score < 0) {
+                    continue;
+                }
+                best.add(new Candidate(slot, score, titles[slot] != null ? titles[slot].length() : 0));
+                if (best.size() > k) {
+                    best.poll();
+                }
+            }
+
+            List<QuizSuggestion> result = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                int slot = best.poll().slot();
+                result.add(new QuizSuggestion(quizIds[slot], titles[slot], creatorNames[slot]));
+            }
+            Collections.reverse(result);
+            return result;
+        }
+
+        /**
+         * Bewertet einen Kandidaten; -1, wenn ein Wort weder im Titel noch im Erstellernamen als Präfix vorkommt.
+         */
+        private int score(int slot, String[] words, String phrase) {
+            String title = normalizedTitles[slot];
+            String creator = normalizedCreators[slot];
+            int score = title.startsWith(phrase) ? 1000 : title.contains(phrase) ? 500 : 0;
+            for (String word : words) {
+                String prefix = " " + word;
+                if (title.contains(prefix)) {
+                    score += 100;
+                } else if (creator.contains(prefix)) {
+                    score += 40;
+                } else {
+                    return -1;
+                }
+            }
+            return score;
+        }
+
+        Index compacted() {
+            Index copy = new Index();
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (!removed.get(slot)) {
+                    copy.add(quizIds[slot], titles[slot], creatorIds[slot], creatorNames[slot], dailyDates[slot]);
+                }
+            }
+            return copy;
+        }
+
+        int liveCount() {
+            return slotByQuizId.size();
+        }
+
+        int tombstones() {
+            return removed.cardinality();
+        }
+
+        long estimatedBytes() {
+            // Objekt-Header, Referenzen und HashMap-Einträge grob pauschal angesetzt
+            long bytes = (long) quizIds.length * (2 * 8 + 5 * 4);
+            for (PostingList list : postings.values()) {
+                bytes += 64 + 16 + 4L * list.slots.length;
+            }
+            bytes += 64L * slotByQuizId.size();
+            for (int slot = 0; slot < slotCount; slot++) {
+                bytes += stringBytes(titles[slot]) + stringBytes(creatorNames[slot])
+                        + stringBytes(normalizedTitles[slot]) + stringBytes(normalizedCreators[slot]);
+            }
+            return bytes + removed.size() / 8;
+        }
+
+        private static long stringBytes(String s) {
+            return s == null ? 0 : 40 + s.length();
+        }
+
+        private void grow() {
+            int capacity = quizIds.length * 2;
+            quizIds = Arrays.copyOf(quizIds, capacity);
+            creatorIds = Arrays.copyOf(creatorIds, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+            creatorNames = Arrays.copyOf(creatorNames, capacity);
+            normalizedTitles = Arrays.copyOf(normalizedTitles, capacity);
+            normalizedCreators = Arrays.copyOf(normalizedCreators, capacity);
+            dailyDates = Arrays.copyOf(dailyDates, capacity);
+        }
+    }
+}
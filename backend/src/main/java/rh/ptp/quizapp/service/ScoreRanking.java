@@ -0,0 +1,83 @@
+package rh.ptp.quizapp.service;
+
+import rh.ptp.quizapp.dto.UserScore;
+
+import java.util.List;
+
+/**
+ * Unveränderliche Momentaufnahme der Rangliste aller Benutzer.
+ * <p>
+ * Benutzer-IDs und Punktzahlen werden in parallelen primitiven Arrays gehalten,
+ * absteigend nach Punktzahl sortiert. Position {@code i} entspricht Rang {@code i + 1}.
+ * </p>
+ */
+public final class ScoreRanking {
+
+    private final long[] userIds;
+    private final long[] scores;
+    private final String[] usernames;
+
+    private ScoreRanking(long[] userIds, long[] scores, String[] usernames) {
+        this.userIds = userIds;
+        this.scores = scores;
+        this.usernames = usernames;
+    }
+
+    /**
+     * Erstellt eine Rangliste aus bereits absteigend sortierten Zeilen.
+     *
+     * @param ordered Zeilen der Bestenliste, höchste Punktzahl zuerst
+     * @return die Rangliste
+     */
+    public static ScoreRanking of(List<UserScore> ordered) {
+        int size = ordered.size();
+        long[] userIds = new long[size];
+        long[] scores = new long[size];
+        String[] usernames = new String[size];
+        for (int i = 0; i < size; i++) {
+            UserScore row = ordered.get(i);
+            userIds[i] = row.userId();
+            scores[i] = row.score();
+            usernames[i] = row.username();
+        }
+        return new ScoreRanking(userIds, scores, usernames);
+    }
+
+    /**
+     * @return Anzahl der Benutzer in der Rangliste
+     */
+    public int size() {
+        return userIds.length;
+    }
+
+    /**
+     * Sucht die Position eines Benutzers.
+     *
+     * @param userId ID des Benutzers
+     * @return Index in der Rangliste oder -1, wenn der Benutzer nicht enthalten ist
+     */
+    public int indexOf(long userId) {
+        for (int i = 0; i < userIds.length; i++) {
+            if (userIds[i] == userId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param index Position in der Rangliste
+     * @return Punktzahl an dieser Position
+     */
+    public long scoreAt(int index) {
+        return scores[index];
+    }
+
+    /**
+     * @param index Position in der Rangliste
+     * @return Benutzername an dieser Position
+     */
+    public String usernameAt(int index) {
+        return usernames[index];
+    }
+}
@@ -2,19 +2,21 @@ package rh.ptp.quizapp.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import rh.ptp.quizapp.dto.UserDTO;
-import rh.ptp.quizapp.model.QuizCategory;
+import rh.ptp.quizapp.event.AccountDeletionRequestedEvent;
+import rh.ptp.quizapp.event.PasswordResetRequestedEvent;
+import rh.ptp.quizapp.event.UserRenamedEvent;
+import rh.ptp.quizapp.model.AuthenticationToken;
 import rh.ptp.quizapp.model.User;
 import rh.ptp.quizapp.model.UserStatus;
 import rh.ptp.quizapp.repository.*;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -30,15 +32,11 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
     private final Logger log = LoggerFactory.getLogger(UserService.class);
-    private final QuizResultRepository quizResultRepository;
     private final AuthenticationTokenRepository authenticationTokenRepository;
     private final AuthService authService;
 
-    @Value("${frontend.url}")
-    private String frontendUrl;
-
     /**
      * Sendet eine Passwort-Zurücksetzen-Mail an den Benutzer.
      *
@@ -48,14 +46,19 @@ public class UserService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Benutzer nicht gefunden"));
 
-        authService.createAuthenticationToken(user);
-        String token = authenticationTokenRepository.findTokenByQuizUser(user);
-        Map<String, Object> variables = new HashMap<>();
-        variables.put("logoUrl", frontendUrl + "/icons/logo512.png");
-        variables.put("username", user.getName());
-        variables.put("resetUrl", frontendUrl + "/reset-password/" + token);
+        AuthenticationToken token = authService.createAuthenticationToken(user);
+        eventPublisher.publishEvent(new PasswordResetRequestedEvent(user.getEmail(), user.getName(), token.getToken()));
+    }
 
-        emailService.sendEmail(user.getEmail(), "Passwort zurücksetzen", "password-reset-email", variables);
+    /**
+     * Merkt das Konto eines Benutzers zur Löschung vor. Die Info-Mail wird nach dem Commit versendet.
+     *
+     * @param user Benutzer.
+     */
+    public void requestDeletion(User user) {
+        user.setUserStatus(UserStatus.PENDING_DELETE);
+        userRepository.save(user);
+        eventPublisher.publishEvent(new AccountDeletionRequestedEvent(user.getEmail(), user.getName()));
     }
 
     /**
@@ -108,13 +111,18 @@ public class UserService {
     public User updateProfile(String email, UserDTO userDTO) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Benutzer nicht gefunden"));
+        boolean renamed = !Objects.equals(user.getName(), userDTO.getName());
 
         user.setName(userDTO.getName());
         user.setEmail(userDTO.getEmail());
         user.setDailyQuizReminder(userDTO.isDailyQuizReminder());
         user.setUpdatedAt(LocalDateTime.now());
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        if (renamed) {
+            eventPublisher.publishEvent(new UserRenamedEvent(user.getId(), user.getName()));
+        }
+        return saved;
     }
 
     /**
@@ -138,28 +146,19 @@ public class UserService {
     }
 
     /**
-     * Erhöht die tägliche Quiz-Serie für einen Benutzer um eins, wenn er das tägliche Quiz noch nicht gespielt hat.
+     * Erhöht die tägliche Quiz-Serie für einen Benutzer um eins, wenn er das tägliche Quiz heute noch nicht gespielt hat.
+     * Prüfung und Erhöhung erfolgen in einer einzigen Anweisung, sodass parallele Anfragen desselben
+     * Benutzers die Serie höchstens einmal pro Tag erhöhen.
      *
      * @param email E-Mail-Adresse des Benutzers.
      * @return Neue Streak-Länge.
      */
     public int incrementDailyQuizStreak(String email) {
-        LocalDate today = LocalDate.now();
-        User user = userRepository.findByEmail(email)
+        LocalDateTime now = LocalDateTime.now();
+        int streak = userRepository.incrementDailyStreak(email, now, now.toLocalDate().atStartOfDay())
                 .orElseThrow(() -> new UsernameNotFoundException("Benutzer nicht gefunden"));
-        log.info("Incrementing daily quiz streak for user: {}", user.getEmail());
-        boolean alreadyPlayedToday = quizResultRepository
-                .existsByUserIdAndQuizCategoriesAndPlayedAtAfter(user.getId(), QuizCategory.DAILY_QUIZ, today.atStartOfDay());
-        user.setLastDailyQuizPlayed(LocalDateTime.now());
-
-        if (alreadyPlayedToday) {
-            userRepository.save(user);
-            return user.getDailyStreak();
-        }
-        user.setDailyStreak(user.getDailyStreak() + 1);
-        log.info("New daily quiz streak: {}", user.getDailyStreak());
-        userRepository.save(user);
-        return user.getDailyStreak();
+        log.info("Daily quiz streak for user {}: {}", email, streak);
+        return streak;
     }
 
     /**
@@ -0,0 +1,286 @@
+package rh.ptp.quizapp.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import rh.ptp.quizapp.exception.AiGatewayException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Zentraler Zugang zur KI-API.
+ * <p>
+ * Verwendet einen gemeinsamen {@link HttpClient} (Verbindungen werden wiederverwendet),
+ * wiederholt fehlgeschlagene Versuche mit exponentiellem Backoff und Jitter und schützt die
+ * API mit einem Circuit Breaker: Nach mehreren Fehlschlägen in Folge werden Aufrufe für eine
+ * Wartezeit sofort abgelehnt. Antworten werden auf eine Maximalgröße begrenzt. Jeder Versuch
+ * wird als Timer {@code ai.gateway.attempt} mit dem Tag {@code outcome} erfasst.
+ * </p>
+ */
+@Component
+public class AiGateway {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiGateway.class);
+
+    /**
+     * Einstellungen des Gateways.
+     *
+     * @param maxAttempts      maximale Anzahl an Versuchen pro Aufruf
+     * @param initialBackoff   Wartezeit vor dem zweiten Versuch (Obergrenze des Jitters)
+     * @param maxBackoff       maximale Wartezeit zwischen zwei Versuchen
+     * @param requestTimeout   Timeout eines einzelnen Versuchs
+     * @param maxResponseBytes maximale Größe der Antwort
+     * @param failureThreshold Fehlschläge in Folge, nach denen der Circuit Breaker öffnet
+     * @param openDuration     Dauer, für die der Circuit Breaker offen bleibt
+     */
+    public record Settings(int maxAttempts, Duration initialBackoff, Duration maxBackoff, Duration requestTimeout,
+                           int maxResponseBytes, int failureThreshold, Duration openDuration) {
+        public Settings {
+            if (maxAttempts < 1 || failureThreshold < 1 || maxResponseBytes < 1) {
+                throw new IllegalArgumentException("Ungültige Einstellungen für das KI-Gateway");
+            }
+        }
+    }
+
+    private final URI endpoint;
+    private final Settings settings;
+    private final HttpClient httpClient;
+    private final CircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+
+    /**
+     * Konstruktor für Spring; die Werte stammen aus {@code ai.api.*} und {@code ai.gateway.*}.
+     */
+    @Autowired
+    public AiGateway(@Value("${ai.api.base-url}") String apiUrl,
+                     @Value("${ai.api.key}") String apiKey,
+                     @Value("${ai.gateway.max-attempts:4}") int maxAttempts,
+                     @Value("${ai.gateway.initial-backoff-ms:1000}") long initialBackoffMs,
+                     @Value("${ai.gateway.max-backoff-ms:15000}") long maxBackoffMs,
+                     @Value("${ai.gateway.request-timeout-seconds:60}") long requestTimeoutSeconds,
+                     @Value("${ai.gateway.max-response-bytes:1048576}") int maxResponseBytes,
+                     @Value("${ai.gateway.failure-threshold:5}") int failureThreshold,
+                     @Value("${ai.gateway.open-seconds:300}") long openSeconds,
+                     MeterRegistry meterRegistry) {
+        this(URI.create(apiUrl + apiKey),
+                new Settings(maxAttempts, Duration.ofMillis(initialBackoffMs), Duration.ofMillis(maxBackoffMs),
+                        Duration.ofSeconds(requestTimeoutSeconds), maxResponseBytes, failureThreshold,
+                        Duration.ofSeconds(openSeconds)),
+                HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build(),
+                Clock.systemUTC(),
+                meterRegistry);
+    }
+
+    /**
+     * Konstruktor mit expliziten Abhängigkeiten.
+     *
+     * @param endpoint      vollständige URL der KI-API
+     * @param settings      Einstellungen
+     * @param httpClient    gemeinsamer HTTP-Client
+     * @param clock         Uhr für den Circuit Breaker
+     * @param meterRegistry Registry für die Metriken
+     */
+    public AiGateway(URI endpoint, Settings settings, HttpClient httpClient, Clock clock, MeterRegistry meterRegistry) {
+        this.endpoint = endpoint;
+        this.settings = settings;
+        this.httpClient = httpClient;
+        this.circuitBreaker = new CircuitBreaker(settings.failureThreshold(), settings.openDuration(), clock);
+        this.meterRegistry = meterRegistry;
+        this.rejected = Counter.builder("ai.gateway.rejected")
+                .description("Vom offenen Circuit Breaker abgelehnte Aufrufe")
+                .register(meterRegistry);
+        Gauge.builder("ai.gateway.circuit.open", circuitBreaker, cb -> cb.isOpen() ? 1 : 0)
+                .description("1, wenn der Circuit Breaker offen ist")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sendet den Prompt an die KI-API und liefert die rohe Antwort.
+     *
+     * @param prompt Eingabeaufforderung
+     * @return Antwort der API (höchstens {@link Settings#maxResponseBytes()} Bytes)
+     * @throws AiGatewayException wenn alle Versuche fehlschlagen, der Fehler nicht wiederholbar ist
+     *                            oder der Circuit Breaker offen ist
+     */
+    public byte[] generate(String prompt) {
+        String requestBody = new JSONObject()
+                .put("contents", new JSONArray()
+                        .put(new JSONObject()
+                                .put("role", "user")
+                                .put("parts", new JSONArray()
+                                        .put(new JSONObject()
+                                                .put("text", prompt)))))
+                .toString();
+
+        AiGatewayException lastError = null;
+        for (int attempt = 1; attempt <= settings.maxAttempts(); attempt++) {
+            if (!circuitBreaker.tryAcquire()) {
+                rejected.increment();
+                throw new AiGatewayException("KI-API vorübergehend gesperrt (Circuit Breaker offen)", "circuit_open", false);
+            }
+            long start = System.nanoTime();
+            try {
+                byte[] body = send(requestBody);
+                circuitBreaker.onSuccess();
+                long millis = record(start, "success");
+                logger.info("KI-Antwort erhalten: Versuch {}, {} Bytes, {} ms", attempt, body.length, millis);
+                return body;
+            } catch (AiGatewayException e) {
+                circuitBreaker.onFailure();
+                long millis = record(start, e.getOutcome());
+                logger.warn("KI-Anfrage fehlgeschlagen: Versuch {}/{}, {} nach {} ms: {}",
+                        attempt, settings.maxAttempts(), e.getOutcome(), millis, e.getMessage());
+                lastError = e;
+                if (!e.isRetryable()) {
+                    throw e;
+                }
+            }
+            if (attempt < settings.maxAttempts()) {
+                sleep(backoff(attempt));
+            }
+        }
+        throw lastError;
+    }
+
+    /**
+     * @return true, wenn der Circuit Breaker aktuell offen ist
+     */
+    public boolean isCircuitOpen() {
+        return circuitBreaker.isOpen();
+    }
+
+    private byte[] send(String requestBody) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(endpoint)
+                .timeout(settings.requestTimeout())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(requestBody))
+                .build();
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream in = response.body()) {
+                int status = response.statusCode();
+                if (status >= 400) {
+                    boolean retryable = status == 429 || status >= 500;
+                    throw new AiGatewayException("HTTP-Status " + status, "http_" + status / 100 + "xx", retryable);
+                }
+                long declaredLength = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+                if (declaredLength > settings.maxResponseBytes()) {
+                    throw tooLarge();
+                }
+                byte[] body = in.readNBytes(settings.maxResponseBytes() + 1);
+                if (body.length > settings.maxResponseBytes()) {
+                    throw tooLarge();
+                }
+                return body;
+            }
+        } catch (HttpTimeoutException e) {
+            throw new AiGatewayException("Zeitüberschreitung", "timeout", true, e);
+        } catch (IOException e) {
+            throw new AiGatewayException("Netzwerkfehler: " + e.getMessage(), "io_error", true, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AiGatewayException("Unterbrochen", "interrupted", false, e);
+        }
+    }
+
+    private AiGatewayException tooLarge() {
+        return new AiGatewayException("Antwort größer als " + settings.maxResponseBytes() + " Bytes", "too_large", false);
+    }
+
+    private long record(long start, String outcome) {
+        long nanos = System.nanoTime() - start;
+        Timer.builder("ai.gateway.attempt")
+                .description("Dauer einzelner Versuche gegen die KI-API")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * Exponentieller Backoff mit vollem Jitter: zufällig zwischen 0 und min(max, initial * 2^(versuch-1)).
+     */
+    Duration backoff(int attempt) {
+        long cap = settings.initialBackoff().toMillis() << Math.min(attempt - 1, 20);
+        long bound = Math.min(settings.maxBackoff().toMillis(), cap);
+        return Duration.ofMillis(bound <= 0 ? 0 : ThreadLocalRandom.current().nextLong(bound + 1));
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AiGatewayException("Unterbrochen", "interrupted", false, e);
+        }
+    }
+
+    /**
+     * Einfacher Circuit Breaker mit den Zuständen geschlossen, offen und halb offen.
+     * Im halb offenen Zustand wird genau ein Probeaufruf durchgelassen.
+     */
+    static final class CircuitBreaker {
+        private final int failureThreshold;
+        private final Duration openDuration;
+        private final Clock clock;
+        private int consecutiveFailures;
+        private Instant openedAt;
+        private boolean trialInFlight;
+
+        CircuitBreaker(int failureThreshold, Duration openDuration, Clock clock) {
+            this.failureThreshold = failureThreshold;
+            this.openDuration = openDuration;
+            this.clock = clock;
+        }
+
+        synchronized boolean tryAcquire() {
+            if (openedAt == null) {
+                return true;
+            }
+            if (clock.instant().isBefore(openedAt.plus(openDuration)) || trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+            return true;
+        }
+
+        synchronized void onSuccess() {
+            consecutiveFailures = 0;
+            openedAt = null;
+            trialInFlight = false;
+        }
+
+        synchronized void onFailure() {
+            consecutiveFailures++;
+            if (trialInFlight || consecutiveFailures >= failureThreshold) {
+                openedAt = clock.instant();
+            }
+            trialInFlight = false;
+        }
+
+        synchronized boolean isOpen() {
+            return openedAt != null;
+        }
+    }
+}
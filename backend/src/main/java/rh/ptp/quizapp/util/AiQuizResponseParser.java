@@ -0,0 +1,260 @@
+package rh.ptp.quizapp.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import rh.ptp.quizapp.dto.GeneratedQuestion;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Liest die Antwort der KI-API mit dem Streaming-Parser von Jackson.
+ * <p>
+ * Aus der Hülle der API wird nur der generierte Text gelesen; dessen Fragen-Array wird
+ * anschließend Element für Element dekodiert und validiert. Ungültige Fragen werden
+ * einzeln verworfen, statt die ganze Antwort zu verwerfen. Bricht das Array mittendrin
+ * ab, bleiben die bis dahin gelesenen Fragen erhalten.
+ * </p>
+ */
+@Component
+public class AiQuizResponseParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiQuizResponseParser.class);
+
+    /**
+     * Minimale Anzahl an Antworten pro Frage.
+     */
+    public static final int MIN_ANSWERS = 2;
+
+    /**
+     * Maximale Anzahl an Antworten pro Frage.
+     */
+    public static final int MAX_ANSWERS = 4;
+
+    /**
+     * Schwierigkeitsgrad, wenn die KI keinen angibt; Werte außerhalb von 1–5 werden begrenzt.
+     */
+    public static final int MIN_DIFFICULTY = 1;
+
+    /**
+     * Höchster Schwierigkeitsgrad.
+     */
+    public static final int MAX_DIFFICULTY = 5;
+
+    private final JsonFactory jsonFactory;
+
+    /**
+     * Ergebnis des Parsens.
+     *
+     * @param questions gültige Fragen in der Reihenfolge der Antwort
+     * @param rejected  Anzahl verworfener Elemente
+     */
+    public record Result(List<GeneratedQuestion> questions, int rejected) {
+    }
+
+    /**
+     * Konstruktor.
+     *
+     * @param objectMapper ObjectMapper, dessen {@link JsonFactory} verwendet wird
+     */
+    public AiQuizResponseParser(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Liest die Fragen aus einer rohen Antwort der KI-API.
+     *
+     * @param response Antwort im Format {@code candidates[0].content.parts[0].text}
+     * @return gültige Fragen und Anzahl verworfener Elemente
+     * @throws IllegalArgumentException wenn die Antwort keinen Text oder kein Fragen-Array enthält
+     */
+    public Result parse(byte[] response) {
+        return parseQuestions(extractText(response));
+    }
+
+    /**
+     * Liest den generierten Text aus der Hülle der API, ohne den Rest der Antwort zu dekodieren.
+     */
+    String extractText(byte[] response) {
+        try (JsonParser parser = jsonFactory.createParser(response)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT
+                    && moveToField(parser, "candidates") && parser.currentToken() == JsonToken.START_ARRAY
+                    && parser.nextToken() == JsonToken.START_OBJECT
+                    && moveToField(parser, "content") && parser.currentToken() == JsonToken.START_OBJECT
+                    && moveToField(parser, "parts") && parser.currentToken() == JsonToken.START_ARRAY
+                    && parser.nextToken() == JsonToken.START_OBJECT
+                    && moveToField(parser, "text") && parser.currentToken() == JsonToken.VALUE_STRING) {
+                return parser.getText();
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Antwort der KI-API ist kein valides JSON: " + e.getMessage(), e);
+        }
+        throw new IllegalArgumentException("Antwort der KI-API enthält keinen generierten Text");
+    }
+
+    /**
+     * Dekodiert das Fragen-Array aus dem generierten Text. Markdown-Blöcke oder Text vor dem
+     * Array werden übersprungen, ohne den Text zu kopieren.
+     */
+    Result parseQuestions(String text) {
+        int start = text.indexOf('[');
+        if (start < 0) {
+            throw new IllegalArgumentException("JSON content does not start with '[': " + abbreviate(text));
+        }
+
+        List<GeneratedQuestion> questions = new ArrayList<>();
+        Set<String> seenQuestions = new HashSet<>();
+        int rejected = 0;
+        StringReader reader = new StringReader(text);
+        try (JsonParser parser = jsonFactory.createParser(reader)) {
+            reader.skip(start);
+            parser.nextToken();
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new JsonParseEndException();
+                }
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    rejected++;
+                    logger.warn("Frage verworfen: kein JSON-Objekt");
+                    continue;
+                }
+                GeneratedQuestion question = readQuestion(parser);
+                String reason = question.question() == null ? "Frage fehlt" : validate(question);
+                if (reason == null && !seenQuestions.add(QuestionText.normalize(question.question()))) {
+                    reason = "doppelte Frage";
+                }
+                if (reason != null) {
+                    rejected++;
+                    logger.warn("Frage verworfen ({}): {}", reason, abbreviate(question.question()));
+                } else {
+                    questions.add(question);
+                }
+            }
+        } catch (JsonProcessingException | JsonParseEndException e) {
+            if (questions.isEmpty()) {
+                throw new IllegalArgumentException("Fragen-Array der KI-API ist kein valides JSON: " + e.getMessage(), e);
+            }
+            logger.warn("Fragen-Array der KI-API unvollständig, verwende {} bis dahin gelesene Fragen", questions.size());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        logger.debug("{} Fragen gelesen, {} verworfen", questions.size(), rejected);
+        return new Result(questions, rejected);
+    }
+
+    /**
+     * Springt im aktuellen Objekt zum Wert des angegebenen Feldes und überspringt alle anderen Felder.
+     *
+     * @return true, wenn das Feld gefunden wurde; der Parser steht dann auf dessen Wert
+     */
+    private static boolean moveToField(JsonParser parser, String field) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            parser.nextToken();
+            if (field.equals(name)) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    /**
+     * Liest ein Fragen-Objekt; der Parser steht danach auf dessen {@code END_OBJECT}.
+     * Unbekannte Felder und Werte mit falschem Typ werden übersprungen.
+     */
+    private static GeneratedQuestion readQuestion(JsonParser parser) throws IOException {
+        String question = null;
+        String correctAnswer = null;
+        List<String> answers = null;
+        int difficulty = MIN_DIFFICULTY;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "Frage" -> question = value == JsonToken.VALUE_STRING ? parser.getText().strip() : null;
+                case "RichtigeAntwort" -> correctAnswer = value.isScalarValue() ? parser.getText().strip() : null;
+                case "Antworten" -> answers = value == JsonToken.START_ARRAY ? readAnswers(parser) : null;
+                case "Schwierigkeit" -> difficulty = value == JsonToken.VALUE_NUMBER_INT
+                        ? Math.clamp(parser.getIntValue(), MIN_DIFFICULTY, MAX_DIFFICULTY) : MIN_DIFFICULTY;
+                default -> {
+                }
+            }
+            parser.skipChildren();
+        }
+        return new GeneratedQuestion(question, answers, correctAnswer, difficulty);
+    }
+
+    private static List<String> readAnswers(JsonParser parser) throws IOException {
+        List<String> answers = new ArrayList<>(MAX_ANSWERS);
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new JsonParseEndException();
+            }
+            // Verschachtelte Werte werden als leere Antwort gewertet und führen zum Verwerfen
+            answers.add(token.isScalarValue() ? parser.getText().strip() : "");
+            parser.skipChildren();
+        }
+        return answers;
+    }
+
+    /**
+     * Prüft eine Frage gegen das erwartete Schema.
+     *
+     * @return Grund für das Verwerfen oder {@code null}, wenn die Frage gültig ist
+     */
+    private static String validate(GeneratedQuestion question) {
+        if (question.question().isEmpty()) {
+            return "Frage fehlt";
+        }
+        List<String> answers = question.answers();
+        if (answers == null) {
+            return "Antworten fehlen";
+        }
+        if (answers.size() < MIN_ANSWERS || answers.size() > MAX_ANSWERS) {
+            return answers.size() + " statt " + MIN_ANSWERS + " bis " + MAX_ANSWERS + " Antworten";
+        }
+        Set<String> distinct = new HashSet<>();
+        for (String answer : answers) {
+            if (answer.isEmpty()) {
+                return "leere Antwort";
+            }
+            if (!distinct.add(QuestionText.normalize(answer))) {
+                return "doppelte Antworten";
+            }
+        }
+        if (question.correctAnswer() == null || !answers.contains(question.correctAnswer())) {
+            return "richtige Antwort nicht unter den Antworten";
+        }
+        return null;
+    }
+
+    private static String abbreviate(String text) {
+        if (text == null || text.length() <= 200) {
+            return text;
+        }
+        return text.substring(0, 200) + "…";
+    }
+
+    /**
+     * Signalisiert ein vorzeitiges Ende des Fragen-Arrays.
+     */
+    private static final class JsonParseEndException extends IOException {
+        JsonParseEndException() {
+            super("Unerwartetes Ende des Fragen-Arrays");
+        }
+    }
+}
@@ -1,172 +1,190 @@
 package rh.ptp.quizapp.util;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
-import rh.ptp.quizapp.model.User;
-import rh.ptp.quizapp.model.UserRole;
-import rh.ptp.quizapp.repository.UserRepository;
-import rh.ptp.quizapp.service.EmailService;
-
-import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
+import rh.ptp.quizapp.dto.GeneratedQuestion;
+import rh.ptp.quizapp.event.DailyQuizGenerationFailedEvent;
+import rh.ptp.quizapp.exception.AiGatewayException;
+
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Dienstklasse zur Erstellung von KI-gestützten Quizfragen über eine externe API.
- * Sie versucht, bis zu fünfmal ein valides JSON-Array mit Quizfragen abzurufen.
- * Im Fehlerfall wird eine E-Mail an Administratoren gesendet.
+ * Netzwerkfehler, Backoff und Circuit Breaker behandelt {@link AiGateway}; hier wird eine
+ * unbrauchbare Antwort bis zu {@value #MAX_GENERATION_ATTEMPTS}-mal neu angefordert.
+ * Im Fehlerfall wird ein {@link DailyQuizGenerationFailedEvent} veröffentlicht, auf das hin die
+ * Administratoren benachrichtigt werden.
  */
 @Component
 public class CreateAiRequest {
 
-    @Autowired
-    private EmailService emailService;
-
-    @Value("${spring.mail.from}")
-    private String adminEmail;
+    /**
+     * Maximale Anzahl an Generierungen, wenn die KI kein valides Fragen-Array liefert.
+     */
+    static final int MAX_GENERATION_ATTEMPTS = 3;
 
-    @Value("${ai.api.key}")
-    private String apiKey;
+    /**
+     * Minimale Anzahl gültiger Fragen, damit eine Antwort verwendet wird.
+     */
+    static final int MIN_VALID_QUESTIONS = 5;
 
-    @Value("${ai.api.base-url}")
-    private String apiUrl;
+    /**
+     * Maximale Länge der Antwort im Debug-Log.
+     */
+    private static final int MAX_LOGGED_CHARS = 500;
 
-    @Value("${frontend.url}")
-    private String frontendUrl;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
-    private static final Logger logger = LoggerFactory.getLogger(CreateAiRequest.class);
+    @Autowired
+    private AiGateway aiGateway;
 
     @Autowired
-    private UserRepository userRepository;
+    private AiQuizResponseParser aiQuizResponseParser;
+
+    private static final Logger logger = LoggerFactory.getLogger(CreateAiRequest.class);
 
     /**
-     * Fordert von der KI-API ein Quiz im JSON-Format an. Es wird ein Retry-Mechanismus mit bis zu 5 Versuchen implementiert.
+     * Fordert von der KI-API ein Quiz im JSON-Format an.
      * Im Fehlerfall wird eine E-Mail an alle Administratoren gesendet.
      *
      * @param category Die gewünschte Quiz-Kategorie (z.B. "Allgemeinwissen").
-     * @return Ein JSONArray mit generierten Quizfragen.
-     * @throws RuntimeException Wenn nach 5 Versuchen kein valides Ergebnis empfangen werden konnte.
+     * @return Die generierten und validierten Quizfragen.
+     * @throws RuntimeException Wenn kein valides Ergebnis empfangen werden konnte.
      */
-    public JSONArray fetchQuizFromAPI(String category) {
-        int invalidRetrys = 0;
-        String errorMessage = "";
-        JSONArray quizList = new JSONArray();
+    public List<GeneratedQuestion> fetchQuizFromAPI(String category) {
+        String prompt = "Generiere 10 abwechslungsreiche Quizfragen der Kategorie " + category + ", Allgemeinwissen " +
+                """
+                in folgendem JSON-Format:
+                [
+                  {
+                    "Frage": "Beispiel-Frage",
+                    "Antworten": ["A", "B", "C", "D"],
+                    "RichtigeAntwort": "A"
+                  }
+                ]
+                Die Antworten:
+                - sollen nicht mit Labels, wie A, B, C, D oder ähnliches beginnen
+                - die korrekte Antwort soll exakt so in Liste der Antworten enthalten sein
+                
+                Die Fragen sollen:
+                - aus unterschiedlichen Kategorien stammen (z.B. Geschichte, Natur, Popkultur, Wissenschaft)
+                - einen ansteigenden Schwierigkeitsgrad haben
+                - verständlich formuliert sein
+                - keine Wiederholungen oder identische Antworten enthalten
+                - realistisch & aktuell sein
+                
+                Gib **nur** das JSON-Array zurück – ohne Markdown, Erläuterungen oder zusätzliche Zeichen.
+                """;
+
+        try {
+            return generate(prompt, MIN_VALID_QUESTIONS);
+        } catch (RuntimeException e) {
+            eventPublisher.publishEvent(new DailyQuizGenerationFailedEvent(abbreviate(e.getMessage()), LocalDateTime.now()));
+            throw new RuntimeException("Fehler beim Abrufen des Quiz von der API");
+        }
+    }
 
-        while (invalidRetrys < 5) {
+    /**
+     * Fordert von der KI-API einen größeren Satz Fragen einer Kategorie für den Fragenpool an.
+     * Anders als bei {@link #fetchQuizFromAPI(String)} werden keine E-Mails versendet; der Pool
+     * wird beim nächsten Lauf erneut aufgefüllt.
+     *
+     * @param category Anzeigename der Kategorie.
+     * @param count    Anzahl der gewünschten Fragen.
+     * @return Die generierten und validierten Fragen, jeweils mit Schwierigkeitsgrad.
+     * @throws RuntimeException Wenn kein valides Ergebnis empfangen werden konnte.
+     */
+    public List<GeneratedQuestion> fetchQuestionBatch(String category, int count) {
+        String prompt = "Generiere " + count + " unterschiedliche Quizfragen ausschließlich zur Kategorie " + category +
+                """
+                 in folgendem JSON-Format:
+                [
+                  {
+                    "Frage": "Beispiel-Frage",
+                    "Antworten": ["A", "B", "C", "D"],
+                    "RichtigeAntwort": "A",
+                    "Schwierigkeit": 3
+                  }
+                ]
+                Die Antworten:
+                - sollen nicht mit Labels, wie A, B, C, D oder ähnliches beginnen
+                - die korrekte Antwort soll exakt so in Liste der Antworten enthalten sein
+
+                Die Fragen sollen:
+                - gleichmäßig auf die Schwierigkeitsgrade 1 (leicht) bis 5 (schwer) verteilt sein
+                - verständlich formuliert sein
+                - keine Wiederholungen oder identische Antworten enthalten
+                - realistisch & aktuell sein
+
+                Gib **nur** das JSON-Array zurück – ohne Markdown, Erläuterungen oder zusätzliche Zeichen.
+                """;
+        return generate(prompt, Math.max(1, count / 2));
+    }
+
+    /**
+     * Sendet den Prompt an die KI-API und liest die Fragen aus der Antwort. Unbrauchbare
+     * Antworten werden bis zu {@value #MAX_GENERATION_ATTEMPTS}-mal neu angefordert.
+     *
+     * @param prompt   Eingabeaufforderung.
+     * @param minValid minimale Anzahl gültiger Fragen.
+     * @return Die gültigen Fragen.
+     * @throws RuntimeException Mit der letzten Fehlermeldung, wenn kein Versuch erfolgreich war.
+     */
+    private List<GeneratedQuestion> generate(String prompt, int minValid) {
+        String errorMessage = "";
+        for (int attempt = 1; attempt <= MAX_GENERATION_ATTEMPTS; attempt++) {
             try {
-                String prompt = "Generiere 10 abwechslungsreiche Quizfragen der Kategorie " + category + ", Allgemeinwissen " +
-                        """
-                        in folgendem JSON-Format:
-                        [
-                          {
-                            "Frage": "Beispiel-Frage",
-                            "Antworten": ["A", "B", "C", "D"],
-                            "RichtigeAntwort": "A"
-                          }
-                        ]
-                        Die Antworten:
-                        - sollen nicht mit Labels, wie A, B, C, D oder ähnliches beginnen
-                        - die korrekte Antwort soll exakt so in Liste der Antworten enthalten sein
-                        
-                        Die Fragen sollen:
-                        - aus unterschiedlichen Kategorien stammen (z.B. Geschichte, Natur, Popkultur, Wissenschaft)
-                        - einen ansteigenden Schwierigkeitsgrad haben
-                        - verständlich formuliert sein
-                        - keine Wiederholungen oder identische Antworten enthalten
-                        - realistisch & aktuell sein
-                        
-                        Gib **nur** das JSON-Array zurück – ohne Markdown, Erläuterungen oder zusätzliche Zeichen.
-                        """;
-
-                HttpClient httpClient = HttpClient.newBuilder()
-                        .connectTimeout(Duration.ofSeconds(30))
-                        .build();
-
-                quizList = fetchQuizFromAPI(httpClient, prompt);
-                return quizList;
+                return parseQuizResponse(aiGateway.generate(prompt), minValid);
+            } catch (AiGatewayException e) {
+                // Wiederholungen hat bereits das Gateway übernommen
+                errorMessage = e.getMessage();
+                logger.error("KI-API nicht erreichbar: {}", errorMessage);
+                break;
             } catch (Exception e) {
-                invalidRetrys++;
                 errorMessage = e.getMessage();
-                logger.error("Fehler beim Versuch #" + invalidRetrys + ": " + errorMessage);
+                logger.error("Unbrauchbare KI-Antwort bei Versuch #{}: {}", attempt, abbreviate(errorMessage));
             }
         }
-
-        List<User> admins = userRepository.findAllByRole(UserRole.ROLE_ADMIN);
-        Map<String, Object> variables = new HashMap<>();
-        variables.put("logoUrl", frontendUrl + "/icons/logo512.png");
-        variables.put("adminName", "Admin");
-        variables.put("generationDate", LocalDateTime.now());
-        variables.put("errorMessage", errorMessage);
-
-        for (User admin : admins) {
-            variables.replace("adminName", admin.getUsername());
-            variables.put("response", quizList.toString());
-            emailService.sendEmail(adminEmail, "Fehler bei der Generierung des täglichen Quizzes!", "failed-generation-daily", variables);
-        }
-
-        throw new RuntimeException("Fehler beim Abrufen des Quiz von der API nach 5 Versuchen");
+        throw new RuntimeException(errorMessage);
     }
 
     /**
-     * Führt den eigentlichen HTTP-Request an die KI-API aus und verarbeitet die Antwort.
+     * Liest die Quizfragen aus der Antwort der KI-API. Ungültige Fragen werden einzeln verworfen.
      *
-     * @param httpClient Der HTTP-Client zum Senden der Anfrage.
-     * @param prompt     Der Text, der als Eingabeaufforderung an die KI gesendet wird.
-     * @return Ein JSONArray mit den Quizfragen im erwarteten Format.
-     * @throws IOException              Falls beim Netzwerkzugriff ein Fehler auftritt.
-     * @throws InterruptedException     Falls die Anfrage unterbrochen wird.
-     * @throws RuntimeException         Falls die API-Antwort kein valides JSON enthält.
+     * @param response Rohe Antwort der KI-API.
+     * @return Die gültigen Quizfragen.
+     * @throws RuntimeException Falls die Antwort kein Fragen-Array oder zu wenige gültige Fragen enthält.
      */
-    public JSONArray fetchQuizFromAPI(HttpClient httpClient, String prompt) throws IOException, InterruptedException {
-        JSONObject requestBody = new JSONObject()
-                .put("contents", new JSONArray()
-                        .put(new JSONObject()
-                                .put("role", "user")
-                                .put("parts", new JSONArray()
-                                        .put(new JSONObject()
-                                                .put("text", prompt)))));
-
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(apiUrl + apiKey))
-                .timeout(Duration.ofSeconds(60))
-                .header("Content-Type", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(requestBody.toString()))
-                .build();
-
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        String responseBody = response.body();
-        logger.info("Antwort von der API: {}", responseBody);
-
-        JSONObject responseJson = new JSONObject(responseBody);
-        JSONArray candidates = responseJson.getJSONArray("candidates");
-        JSONObject contentObj = candidates.getJSONObject(0).getJSONObject("content");
-        JSONArray parts = contentObj.getJSONArray("parts");
-        String content = parts.getJSONObject(0).getString("text");
-
-        // Bereinigung der Antwort
-        content = content.replaceAll("(?s)```json|```", "")
-                .replace("\\n", "")
-                .replace("\\\"", "\"")
-                .replaceAll("\\\\", "")
-                .trim();
-
-        if (!content.startsWith("[")) {
-            throw new RuntimeException("JSON content does not start with '[' nach Bereinigung: " + content);
+    public List<GeneratedQuestion> parseQuizResponse(byte[] response) {
+        return parseQuizResponse(response, MIN_VALID_QUESTIONS);
+    }
+
+    private List<GeneratedQuestion> parseQuizResponse(byte[] response, int minValid) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Antwort von der API: {}", abbreviate(new String(response, StandardCharsets.UTF_8)));
         }
 
-        logger.info("Bereinigte Antwort vom KI-Service: {}", content);
-        return new JSONArray(content);
+        AiQuizResponseParser.Result result = aiQuizResponseParser.parse(response);
+        if (result.questions().size() < minValid) {
+            throw new RuntimeException("Nur " + result.questions().size() + " gültige Fragen, "
+                    + result.rejected() + " verworfen");
+        }
+        if (result.rejected() > 0) {
+            logger.info("{} gültige Fragen, {} verworfen", result.questions().size(), result.rejected());
+        }
+        return result.questions();
+    }
+
+    private static String abbreviate(String text) {
+        if (text == null || text.length() <= MAX_LOGGED_CHARS) {
+            return text;
+        }
+        return text.substring(0, MAX_LOGGED_CHARS) + "…";
     }
 }
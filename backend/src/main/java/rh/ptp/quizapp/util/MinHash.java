@@ -0,0 +1,173 @@
+package rh.ptp.quizapp.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash-Signaturen und LSH-Buckets für die Erkennung ähnlicher Fragetexte.
+ * <p>
+ * Der normalisierte Text (siehe {@link QuestionText#normalize(String)}) wird in Zeichen-Shingles
+ * der Länge {@value #SHINGLE_LENGTH} zerlegt. Die Signatur besteht aus {@value #NUM_HASHES}
+ * Minima unabhängiger Hashfunktionen; der Anteil übereinstimmender Positionen zweier Signaturen
+ * schätzt die Jaccard-Ähnlichkeit der Shingle-Mengen. Für die Suche wird die Signatur in
+ * {@value #BANDS} Bänder zu je {@value #ROWS_PER_BAND} Werten geteilt und jedes Band zu einem
+ * Bucket-Schlüssel gehasht. Ähnliche Texte teilen mit hoher Wahrscheinlichkeit mindestens einen
+ * Bucket, sodass nur Fragen mit gemeinsamem Bucket verglichen werden müssen.
+ * </p>
+ */
+public final class MinHash {
+
+    /**
+     * Länge der Zeichen-Shingles.
+     */
+    public static final int SHINGLE_LENGTH = 4;
+
+    /**
+     * Anzahl der Hashfunktionen bzw. Werte einer Signatur.
+     */
+    public static final int NUM_HASHES = 64;
+
+    /**
+     * Anzahl der LSH-Bänder.
+     */
+    public static final int BANDS = 16;
+
+    /**
+     * Werte pro Band; bei 16 × 4 liegt die Schwelle, ab der Texte meist einen Bucket teilen, bei etwa 0,5.
+     */
+    public static final int ROWS_PER_BAND = NUM_HASHES / BANDS;
+
+    /**
+     * Größe einer serialisierten Signatur in Bytes.
+     */
+    public static final int SIGNATURE_BYTES = NUM_HASHES * Integer.BYTES;
+
+    private static final long[] SEEDS = new SplittableRandom(0x5EED_2F1A_9C3BL).longs(NUM_HASHES).toArray();
+
+    private MinHash() {
+    }
+
+    /**
+     * Berechnet die Signatur eines Fragetextes.
+     *
+     * @param text Fragetext
+     * @return Signatur oder {@code null}, wenn der normalisierte Text leer ist
+     */
+    public static int[] signature(String text) {
+        String normalized = QuestionText.normalize(text);
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        int shingles = Math.max(1, normalized.length() - SHINGLE_LENGTH + 1);
+        for (int start = 0; start < shingles; start++) {
+            long shingle = shingleHash(normalized, start, Math.min(normalized.length(), start + SHINGLE_LENGTH));
+            for (int i = 0; i < NUM_HASHES; i++) {
+                int value = (int) (mix(shingle ^ SEEDS[i]) >>> 33);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Berechnet die Bucket-Schlüssel einer Signatur, einen je Band. Die Nummer des Bandes geht
+     * in den Schlüssel ein, sodass alle Bänder in einer gemeinsamen Tabelle liegen können.
+     *
+     * @param signature Signatur
+     * @return Bucket-Schlüssel (leer bei {@code null})
+     */
+    public static Set<Long> bandKeys(int[] signature) {
+        Set<Long> keys = new HashSet<>(BANDS * 2);
+        if (signature == null) {
+            return keys;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            long key = mix(band + 1L);
+            for (int row = 0; row < ROWS_PER_BAND; row++) {
+                key = mix(key ^ signature[band * ROWS_PER_BAND + row]);
+            }
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    /**
+     * Schätzt die Jaccard-Ähnlichkeit zweier Texte anhand ihrer Signaturen.
+     *
+     * @return Anteil übereinstimmender Positionen zwischen 0 und 1
+     */
+    public static double similarity(int[] a, int[] b) {
+        if (a == null || b == null || a.length != b.length) {
+            return 0;
+        }
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+
+    /**
+     * Serialisiert eine Signatur für die Datenbank.
+     */
+    public static byte[] toBytes(int[] signature) {
+        if (signature == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(SIGNATURE_BYTES);
+        buffer.asIntBuffer().put(signature);
+        return buffer.array();
+    }
+
+    /**
+     * Liest eine serialisierte Signatur.
+     *
+     * @return Signatur oder {@code null} bei fehlender oder ungültiger Eingabe
+     */
+    public static int[] fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != SIGNATURE_BYTES) {
+            return null;
+        }
+        int[] signature = new int[NUM_HASHES];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(signature);
+        return signature;
+    }
+
+    /**
+     * Berechnet die Bucket-Schlüssel mehrerer Signaturen.
+     */
+    public static Set<Long> bandKeys(List<int[]> signatures) {
+        Set<Long> keys = new HashSet<>();
+        for (int[] signature : signatures) {
+            keys.addAll(bandKeys(signature));
+        }
+        return keys;
+    }
+
+    private static long shingleHash(String text, int start, int end) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ text.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Finalisierer von SplitMix64.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
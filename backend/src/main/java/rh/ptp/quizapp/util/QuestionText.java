@@ -0,0 +1,61 @@
+package rh.ptp.quizapp.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalisierung und Hashing von Fragetexten für die Erkennung identischer Fragen.
+ * <p>
+ * Groß-/Kleinschreibung, Satzzeichen und Leerraum werden ignoriert, sodass z. B.
+ * {@code "Was ist 2+2?"} und {@code "was ist 2 + 2"} denselben Hash erhalten.
+ * </p>
+ */
+public final class QuestionText {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private QuestionText() {
+    }
+
+    /**
+     * Normalisiert einen Text: Unicode-NFKC, Kleinschreibung, Satzzeichen und Leerraum
+     * werden zu einzelnen Leerzeichen zusammengefasst.
+     *
+     * @param text Fragetext
+     * @return normalisierter Text, leer bei {@code null}
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        return NON_WORD.matcher(folded).replaceAll(" ").strip();
+    }
+
+    /**
+     * Berechnet einen 64-Bit-Hash (die ersten 8 Bytes von SHA-256) des normalisierten Textes.
+     *
+     * @param text Fragetext
+     * @return Hash des normalisierten Textes
+     */
+    public static long hash(String text) {
+        byte[] digest = sha256().digest(normalize(text).getBytes(StandardCharsets.UTF_8));
+        long hash = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = (hash << 8) | (digest[i] & 0xFF);
+        }
+        return hash;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nicht verfügbar", e);
+        }
+    }
+}
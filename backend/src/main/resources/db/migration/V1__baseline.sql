@@ -0,0 +1,142 @@
+-- Ausgangsschema vor Einführung von Flyway: genau die Tabellen, Spalten und Constraints, die
+-- ddl-auto=update aus den damaligen Entitäten angelegt hat (einschließlich der von Hibernate
+-- vergebenen Constraint-Namen). Bestehende Datenbanken werden auf Version 1 gesetzt und
+-- erhalten nur die folgenden Migrationen.
+
+CREATE TABLE authentication_token
+(
+    id bigint generated by default as identity,
+    expiry_date timestamp(6),
+    users_id bigint not null,
+    token varchar(255),
+    primary key (id),
+    constraint uklnklf0g7lljllqfr7ie3mbytp unique (users_id)
+);
+
+CREATE TABLE question_answers
+(
+    question_id bigint not null,
+    answer varchar(500),
+    antwort varchar(255)
+);
+
+CREATE TABLE questions
+(
+    id bigint generated by default as identity,
+    schwierigkeit integer,
+    frage varchar(255),
+    quelle varchar(255),
+    richtige_antwort varchar(255),
+    primary key (id)
+);
+
+CREATE TABLE quiz_categories
+(
+    category smallint check (category between 0 and 100),
+    quiz_id bigint not null
+);
+
+CREATE TABLE quiz_favorites
+(
+    id bigint generated by default as identity,
+    created_at timestamp(6) not null,
+    quiz_id bigint not null,
+    user_id bigint not null,
+    primary key (id)
+);
+
+CREATE TABLE quiz_questions
+(
+    id bigint generated by default as identity,
+    difficulty integer not null,
+    quiz_id bigint not null,
+    question varchar(1000) not null,
+    correct_answer varchar(255) not null,
+    question_type varchar(255) not null check (question_type in ('MULTIPLE_CHOICE','TEXT_INPUT','TRUE_FALSE')),
+    source varchar(255),
+    primary key (id)
+);
+
+CREATE TABLE quiz_ratings
+(
+    id bigint generated by default as identity,
+    rating integer not null,
+    created_at timestamp(6) not null,
+    quiz_id bigint not null,
+    user_id bigint not null,
+    comment varchar(1000),
+    primary key (id)
+);
+
+CREATE TABLE quiz_results
+(
+    id bigint generated by default as identity,
+    max_possible_score integer not null,
+    score integer not null,
+    played_at timestamp(6) not null,
+    quiz_id bigint not null,
+    user_id bigint not null,
+    primary key (id)
+);
+
+CREATE TABLE quizzes
+(
+    id bigint generated by default as identity,
+    avg_rating float(53),
+    is_public boolean not null,
+    quiz_date date,
+    created_at timestamp(6),
+    creator_id bigint not null,
+    rating_count bigint,
+    updated_at timestamp(6),
+    description varchar(1000),
+    title varchar(255) not null,
+    primary key (id)
+);
+
+CREATE TABLE users
+(
+    id bigint generated by default as identity,
+    daily_quiz_reminder boolean not null,
+    daily_streak integer not null,
+    user_status smallint not null check (user_status between 0 and 3),
+    created_at timestamp(6),
+    last_daily_quiz_played timestamp(6),
+    updated_at timestamp(6),
+    email varchar(255) not null,
+    name varchar(255) not null,
+    password varchar(255) not null,
+    role varchar(255) not null check (role in ('ROLE_USER','ROLE_ADMIN')),
+    primary key (id),
+    constraint uk6dotkott2kjsp8vw4d0m25fb7 unique (email)
+);
+
+ALTER TABLE authentication_token
+    ADD CONSTRAINT fk7bsx6tmma2v3fxmyu9gcbhc85 FOREIGN KEY (users_id) REFERENCES users;
+
+ALTER TABLE question_answers
+    ADD CONSTRAINT fk7nj0c5eua0wvqckaa5ovgsl8q FOREIGN KEY (question_id) REFERENCES quiz_questions;
+
+ALTER TABLE quiz_categories
+    ADD CONSTRAINT fk288kwjlm6s8m9xqugrr55v8v5 FOREIGN KEY (quiz_id) REFERENCES quizzes;
+
+ALTER TABLE quiz_favorites
+    ADD CONSTRAINT fkqd308escc8qrqgjlukjugttfl FOREIGN KEY (quiz_id) REFERENCES quizzes;
+
+ALTER TABLE quiz_favorites
+    ADD CONSTRAINT fk78nyjvsng23b7rgs4jpx0ddru FOREIGN KEY (user_id) REFERENCES users;
+
+ALTER TABLE quiz_questions
+    ADD CONSTRAINT fkanfmgf6ksbdnv7ojb0pfve54q FOREIGN KEY (quiz_id) REFERENCES quizzes;
+
+ALTER TABLE quiz_ratings
+    ADD CONSTRAINT fkr6hvptujcflqaxt46cn8chgtr FOREIGN KEY (quiz_id) REFERENCES quizzes;
+
+ALTER TABLE quiz_results
+    ADD CONSTRAINT fkmmvfwhutqbn5u6n25e4405pw9 FOREIGN KEY (quiz_id) REFERENCES quizzes;
+
+ALTER TABLE quiz_results
+    ADD CONSTRAINT fkc31xkn83q9v6yf9gh2spkvxrc FOREIGN KEY (user_id) REFERENCES users;
+
+ALTER TABLE quizzes
+    ADD CONSTRAINT fkplhvx7t0bggerxe3oycaam5f2 FOREIGN KEY (creator_id) REFERENCES users;
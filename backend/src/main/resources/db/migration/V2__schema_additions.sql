@@ -0,0 +1,109 @@
+-- Tabellen und Spalten, die seit dem Ausgangsschema hinzugekommen sind: Kategorie-Bitmasken,
+-- optimistisches Sperren, Fragen-Pool, Ähnlichkeitssignaturen, Kontolöschung, E-Mail-Outbox
+-- sowie ID-Sequenzen für gebündelte Inserts.
+
+-- Kategorie-Bitmasken (Bit = Ordinalwert der Kategorie) und Version für optimistisches Sperren
+ALTER TABLE quizzes
+    ADD COLUMN category_mask_lo bigint not null default 0,
+    ADD COLUMN category_mask_hi bigint not null default 0,
+    ADD COLUMN version bigint not null default 0;
+
+UPDATE quizzes q
+SET category_mask_lo = COALESCE((SELECT bit_or(CAST(1 AS bigint) << c.category) FROM quiz_categories c
+                                 WHERE c.quiz_id = q.id AND c.category < 64), 0),
+    category_mask_hi = COALESCE((SELECT bit_or(CAST(1 AS bigint) << (c.category - 64)) FROM quiz_categories c
+                                 WHERE c.quiz_id = q.id AND c.category >= 64), 0)
+WHERE EXISTS (SELECT 1 FROM quiz_categories c WHERE c.quiz_id = q.id);
+
+-- Normalisierter Text-Hash und MinHash-Signatur der Quizfragen; werden beim Start nachgetragen
+ALTER TABLE quiz_questions
+    ADD COLUMN text_hash bigint,
+    ADD COLUMN minhash bytea;
+CREATE INDEX idx_quiz_questions_text_hash ON quiz_questions (text_hash);
+
+CREATE TABLE quiz_question_lsh_buckets
+(
+    bucket bigint not null,
+    question_id bigint not null,
+    primary key (bucket, question_id),
+    constraint fk54nh97hmfcbn7opvme6trvtab foreign key (question_id) references quiz_questions
+);
+
+-- Vorab generierte Fragen je Kategorie
+CREATE TABLE question_pool
+(
+    id bigint generated by default as identity,
+    difficulty integer not null,
+    created_at timestamp(6) not null,
+    text_hash bigint not null,
+    used_at timestamp(6),
+    category varchar(50) not null,
+    question varchar(1000) not null,
+    correct_answer varchar(255) not null,
+    primary key (id),
+    constraint uk_question_pool_text_hash unique (text_hash)
+);
+CREATE INDEX idx_question_pool_category_used ON question_pool (category, used_at);
+
+CREATE TABLE question_pool_answers
+(
+    pool_question_id bigint not null,
+    answer varchar(500),
+    constraint fkbq01flfnrtib0stkxfkn8g0sa foreign key (pool_question_id) references question_pool
+);
+
+-- Kontolöschung in Schritten und E-Mail-Outbox
+CREATE TABLE account_deletion_jobs
+(
+    id bigint generated by default as identity,
+    attempts integer not null,
+    finished_at timestamp(6),
+    requested_at timestamp(6) not null,
+    rows_processed bigint not null,
+    updated_at timestamp(6) not null,
+    user_id bigint not null,
+    warned_at timestamp(6),
+    status varchar(20) not null check (status in ('SCHEDULED','WARNED','DELETING','COMPLETED','CANCELLED')),
+    step varchar(20) check (step in ('QUIZ_RESULTS','QUIZ_FAVORITES','QUIZ_RATINGS','QUIZZES','TOKEN','USER')),
+    last_error varchar(1000),
+    email varchar(255) not null,
+    username varchar(255),
+    primary key (id)
+);
+CREATE INDEX idx_account_deletion_jobs_status_requested_at ON account_deletion_jobs (status, requested_at);
+CREATE INDEX idx_account_deletion_jobs_user_id ON account_deletion_jobs (user_id);
+
+CREATE TABLE email_outbox
+(
+    id bigint generated by default as identity,
+    attempts integer not null,
+    created_at timestamp(6) not null,
+    next_attempt_at timestamp(6) not null,
+    sent_at timestamp(6),
+    template varchar(100) not null,
+    last_error varchar(1000),
+    variables varchar(4000) not null,
+    recipient varchar(255) not null,
+    subject varchar(255) not null,
+    primary key (id)
+);
+CREATE INDEX idx_email_outbox_pending ON email_outbox (sent_at, next_attempt_at);
+
+-- Indizes für Historie, Token-Bereinigung und Löschung unbestätigter Benutzer
+CREATE INDEX idx_quiz_results_user_played_at ON quiz_results (user_id, played_at);
+CREATE INDEX idx_authentication_token_expiry_date ON authentication_token (expiry_date);
+CREATE INDEX idx_users_status_created_at ON users (user_status, created_at);
+
+-- Quizzes, Fragen und Ergebnisse erhalten ihre IDs in Blöcken aus Sequenzen statt aus
+-- Identity-Spalten; die Sequenzen setzen hinter der höchsten vorhandenen ID fort.
+ALTER TABLE quizzes ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE quiz_questions ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE quiz_results ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE quizzes_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE quiz_questions_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE quiz_results_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('quizzes_seq', MAX(id)) FROM quizzes HAVING MAX(id) IS NOT NULL;
+SELECT setval('quiz_questions_seq', MAX(id)) FROM quiz_questions HAVING MAX(id) IS NOT NULL;
+SELECT setval('quiz_results_seq', MAX(id)) FROM quiz_results HAVING MAX(id) IS NOT NULL;
@@ -0,0 +1,52 @@
+-- Indizes für die häufigsten Abfragen und Eindeutigkeit, von der die Services ausgehen.
+
+-- Doppelte Bewertungen und Favoriten entfernen; erhalten bleibt jeweils der neueste Eintrag.
+DELETE FROM quiz_ratings a
+    USING quiz_ratings b
+WHERE a.quiz_id = b.quiz_id
+  AND a.user_id = b.user_id
+  AND a.id < b.id;
+
+DELETE FROM quiz_favorites a
+    USING quiz_favorites b
+WHERE a.quiz_id = b.quiz_id
+  AND a.user_id = b.user_id
+  AND a.id < b.id;
+
+DELETE FROM authentication_token a
+    USING authentication_token b
+WHERE a.token = b.token
+  AND a.id < b.id;
+
+-- Gespeicherte Durchschnittswerte an die bereinigten Bewertungen angleichen
+UPDATE quizzes q
+SET avg_rating   = r.avg_rating,
+    rating_count = r.rating_count
+FROM (SELECT quiz_id, AVG(rating) AS avg_rating, COUNT(*) AS rating_count
+      FROM quiz_ratings
+      GROUP BY quiz_id) r
+WHERE q.id = r.quiz_id
+  AND q.rating_count IS DISTINCT FROM r.rating_count;
+
+-- Eine Bewertung und ein Favorit je Benutzer und Quiz, eindeutige Tokens
+ALTER TABLE quiz_ratings
+    ADD CONSTRAINT uk_quiz_ratings_quiz_user UNIQUE (quiz_id, user_id);
+ALTER TABLE quiz_favorites
+    ADD CONSTRAINT uk_quiz_favorites_user_quiz UNIQUE (user_id, quiz_id);
+ALTER TABLE authentication_token
+    ADD CONSTRAINT uk_authentication_token_token UNIQUE (token);
+
+-- Filter der häufigsten Abfragen. quiz_results(user_id) wird von idx_quiz_results_user_played_at
+-- abgedeckt, quiz_ratings(quiz_id) von uk_quiz_ratings_quiz_user.
+CREATE INDEX idx_quiz_results_quiz_id ON quiz_results (quiz_id);
+CREATE INDEX idx_quizzes_creator_id ON quizzes (creator_id);
+CREATE INDEX idx_quizzes_quiz_date ON quizzes (quiz_date);
+CREATE INDEX idx_quiz_categories_category_quiz ON quiz_categories (category, quiz_id);
+
+-- Fremdschlüssel, über die Sammlungen geladen und beim Löschen abhängige Zeilen gesucht werden
+CREATE INDEX idx_quiz_questions_quiz_id ON quiz_questions (quiz_id);
+CREATE INDEX idx_question_answers_question_id ON question_answers (question_id);
+CREATE INDEX idx_quiz_categories_quiz_id ON quiz_categories (quiz_id);
+CREATE INDEX idx_quiz_favorites_quiz_id ON quiz_favorites (quiz_id);
+CREATE INDEX idx_quiz_question_lsh_buckets_question_id ON quiz_question_lsh_buckets (question_id);
+CREATE INDEX idx_question_pool_answers_question_id ON question_pool_answers (pool_question_id);
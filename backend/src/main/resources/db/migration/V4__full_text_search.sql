@@ -0,0 +1,13 @@
+-- Suchspalten (tsvector) und GIN-Indizes für die Volltextsuche. Die Spalten werden von PostgreSQL
+-- beim Schreiben gepflegt und sind nicht in den Entitäten gemappt.
+
+ALTER TABLE quizzes
+    ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('german', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('german', coalesce(description, '')), 'B')) STORED;
+CREATE INDEX IF NOT EXISTS idx_quizzes_search_vector ON quizzes USING GIN (search_vector);
+
+ALTER TABLE quiz_questions
+    ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('german', coalesce(question, '')), 'C')) STORED;
+CREATE INDEX IF NOT EXISTS idx_quiz_questions_search_vector ON quiz_questions USING GIN (search_vector);
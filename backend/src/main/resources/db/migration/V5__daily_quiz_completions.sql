@@ -0,0 +1,22 @@
+-- Abschlüsse des täglichen Quizzes je Benutzer und Tag; die Prüfung „heute schon gespielt?“
+-- wird damit zu einem Zugriff über den Primärschlüssel.
+
+CREATE TABLE daily_quiz_completions
+(
+    user_id         bigint       not null,
+    completion_date date         not null,
+    completed_at    timestamp(6) not null,
+    primary key (user_id, completion_date),
+    constraint fk_daily_quiz_completions_user foreign key (user_id) references users on delete cascade
+);
+
+CREATE INDEX idx_daily_quiz_completions_date ON daily_quiz_completions (completion_date);
+
+-- Abschlüsse der letzten Tage aus den gespeicherten Ergebnissen übernehmen (Bit 0 = DAILY_QUIZ)
+INSERT INTO daily_quiz_completions (user_id, completion_date, completed_at)
+SELECT r.user_id, CAST(r.played_at AS date), MIN(r.played_at)
+FROM quiz_results r
+         JOIN quizzes q ON q.id = r.quiz_id
+WHERE (q.category_mask_lo & 1) <> 0
+  AND r.played_at >= current_date - 7
+GROUP BY r.user_id, CAST(r.played_at AS date);
@@ -0,0 +1,58 @@
+-- Versionszähler des öffentlichen Quiz-Katalogs, aus dem der Katalog-ETag abgeleitet wird.
+-- Die Trigger ziehen beim Commit einen neuen Wert aus einer Sequenz. Sequenzen sind nicht
+-- transaktional und sperren keine Zeile: gleichzeitige Schreibzugriffe warten nicht aufeinander,
+-- und der Zähler steigt streng monoton. Auch Massenlöschungen und Kaskaden werden erfasst.
+-- Gelesen wird der zuletzt vergebene Wert (last_value).
+
+CREATE SEQUENCE catalog_version_seq;
+-- Als vergeben markieren, damit schon die erste Änderung last_value erhöht
+SELECT setval('catalog_version_seq', 1);
+
+CREATE FUNCTION bump_catalog_version() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    PERFORM nextval('catalog_version_seq');
+    RETURN NULL;
+END;
+$$;
+
+-- Aufgeschoben bis zum Commit, damit zwischen neuer Version und sichtbaren Daten möglichst
+-- wenig Zeit vergeht; ein Wert je geänderter Zeile ist bei einer Sequenz unkritisch.
+CREATE CONSTRAINT TRIGGER trg_quizzes_catalog_version
+    AFTER INSERT OR UPDATE OR DELETE
+    ON quizzes
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW
+EXECUTE FUNCTION bump_catalog_version();
+
+CREATE CONSTRAINT TRIGGER trg_quiz_questions_catalog_version
+    AFTER INSERT OR UPDATE OR DELETE
+    ON quiz_questions
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW
+EXECUTE FUNCTION bump_catalog_version();
+
+CREATE CONSTRAINT TRIGGER trg_quiz_categories_catalog_version
+    AFTER INSERT OR UPDATE OR DELETE
+    ON quiz_categories
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW
+EXECUTE FUNCTION bump_catalog_version();
+
+CREATE CONSTRAINT TRIGGER trg_quiz_ratings_catalog_version
+    AFTER INSERT OR UPDATE OR DELETE
+    ON quiz_ratings
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW
+EXECUTE FUNCTION bump_catalog_version();
+
+-- Der Katalog zeigt den Namen des Erstellers; andere Benutzeränderungen (Streaks,
+-- Anmeldungen) erhöhen den Zähler nicht.
+CREATE CONSTRAINT TRIGGER trg_users_catalog_version
+    AFTER UPDATE OF name
+    ON users
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW
+    WHEN (OLD.name IS DISTINCT FROM NEW.name)
+EXECUTE FUNCTION bump_catalog_version();
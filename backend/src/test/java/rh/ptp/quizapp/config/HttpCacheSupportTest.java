@@ -0,0 +1,60 @@
+package rh.ptp.quizapp.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpCacheSupportTest {
+
+    private final HttpCacheSupport httpCacheSupport = new HttpCacheSupport(5, 30, 86400, 3600, 30);
+
+    @Test
+    void respond_NoConditionalHeader_ReturnsBodyWithHeaders() {
+        String eTag = HttpCacheSupport.contentETag("a", 1);
+
+        ResponseEntity<List<String>> response = httpCacheSupport.respond(
+                new ServletWebRequest(new MockHttpServletRequest()), httpCacheSupport.catalog(), eTag, () -> List.of("x"));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(eTag, response.getHeaders().getETag());
+        assertEquals("max-age=5, public, stale-while-revalidate=30", response.getHeaders().getCacheControl());
+        assertEquals(List.of("x"), response.getBody());
+    }
+
+    @Test
+    void respond_MatchingETag_ReturnsNotModifiedWithoutBuildingBody() {
+        String eTag = HttpCacheSupport.contentETag("a", 1);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("If-None-Match", "\"other\", W/" + eTag);
+        AtomicBoolean built = new AtomicBoolean();
+
+        ResponseEntity<String> response = httpCacheSupport.respond(new ServletWebRequest(request),
+                httpCacheSupport.categories(), eTag, () -> {
+                    built.set(true);
+                    return "x";
+                });
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("max-age=86400, public", response.getHeaders().getCacheControl());
+        assertNull(response.getBody());
+        assertFalse(built.get());
+    }
+
+    @Test
+    void quiz_IsRevalidatedAndNotStoredBySharedCaches() {
+        assertEquals("no-cache, private", httpCacheSupport.quiz().getHeaderValue());
+    }
+
+    @Test
+    void contentETag_DependsOnContent() {
+        assertEquals(HttpCacheSupport.contentETag("a", List.of(1)), HttpCacheSupport.contentETag("a", List.of(1)));
+        assertNotEquals(HttpCacheSupport.contentETag("a", List.of(1)), HttpCacheSupport.contentETag("a", List.of(2)));
+    }
+}
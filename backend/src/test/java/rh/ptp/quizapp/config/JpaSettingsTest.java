@@ -0,0 +1,41 @@
+package rh.ptp.quizapp.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import rh.ptp.quizapp.repository.TestDatabase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lädt die Konfiguration aus {@code application-template.yml} und prüft, dass die
+ * Hibernate-Einstellungen für gebündelte Schreibzugriffe in der EntityManagerFactory ankommen.
+ * Falsch eingerückte Schlüssel werden von Spring ohne Fehler ignoriert.
+ */
+@DataJpaTest(properties = "spring.config.name=application-template")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TestDatabase.class)
+class JpaSettingsTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void templateSettings_ReachEntityManagerFactory() {
+        assertEquals("50", entityManagerFactory.getProperties().get("hibernate.jdbc.batch_size"));
+
+        SessionFactoryOptions options = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getSessionFactoryOptions();
+        assertEquals(50, options.getJdbcBatchSize());
+        assertTrue(options.isJdbcBatchVersionedData());
+        assertTrue(options.isOrderInsertsEnabled());
+        assertTrue(options.isOrderUpdatesEnabled());
+        assertEquals(32, options.getDefaultBatchFetchSize());
+        assertTrue(options.inClauseParameterPaddingEnabled());
+    }
+}
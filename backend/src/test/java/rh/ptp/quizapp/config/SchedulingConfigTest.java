@@ -0,0 +1,48 @@
+package rh.ptp.quizapp.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskSchedulingAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchedulingConfigTest {
+
+    @EnableScheduling
+    static class SchedulingEnabled {
+    }
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(TaskSchedulingAutoConfiguration.class))
+            .withUserConfiguration(SchedulingEnabled.class, SchedulingConfig.class);
+
+    @Test
+    void virtualMode_ScheduledTasksRunOnPlatformThreads() throws Exception {
+        runner.withPropertyValues("spring.threads.virtual.enabled=true", "virtual-threads.scheduler-pool-size=2")
+                .run(context -> {
+                    TaskScheduler scheduler = context.getBean(TaskScheduler.class);
+                    assertThat(scheduler).isInstanceOf(ThreadPoolTaskScheduler.class);
+                    assertThat(((ThreadPoolTaskScheduler) scheduler).getScheduledThreadPoolExecutor().getCorePoolSize()).isEqualTo(2);
+
+                    CompletableFuture<Boolean> virtual = new CompletableFuture<>();
+                    scheduler.schedule(() -> virtual.complete(Thread.currentThread().isVirtual()), Instant.now());
+                    assertThat(virtual.get(5, TimeUnit.SECONDS)).isFalse();
+                });
+    }
+
+    @Test
+    void platformMode_LeavesAutoConfiguredScheduler() {
+        runner.run(context -> {
+            assertThat(context).doesNotHaveBean(SchedulingConfig.class);
+            assertThat(context).hasSingleBean(TaskScheduler.class);
+        });
+    }
+}
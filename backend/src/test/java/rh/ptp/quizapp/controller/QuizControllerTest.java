@@ -0,0 +1,104 @@
+package rh.ptp.quizapp.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import rh.ptp.quizapp.config.HttpCacheSupport;
+import rh.ptp.quizapp.dto.QuizVersionInfo;
+import rh.ptp.quizapp.model.Quiz;
+import rh.ptp.quizapp.model.QuizCategory;
+import rh.ptp.quizapp.model.User;
+import rh.ptp.quizapp.service.QuizService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QuizControllerTest {
+
+    @Mock
+    private QuizService quizService;
+
+    @Spy
+    private HttpCacheSupport httpCacheSupport = new HttpCacheSupport(5, 30, 86400, 3600, 30);
+
+    @InjectMocks
+    private QuizController quizController;
+
+    private static ServletWebRequest request(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request);
+    }
+
+    private static Quiz quiz(String creatorName) {
+        User creator = new User();
+        creator.setName(creatorName);
+        creator.setEmail("anna@example.com");
+        Quiz quiz = new Quiz();
+        quiz.setId(1L);
+        quiz.setVersion(3L);
+        quiz.setTitle("Geschichte");
+        quiz.setCreator(creator);
+        quiz.setCategories(new ArrayList<>(List.of(QuizCategory.HISTORY)));
+        quiz.setQuestions(new ArrayList<>());
+        return quiz;
+    }
+
+    @Test
+    void getQuiz_MatchingETag_Returns304WithoutLoadingQuiz() {
+        when(quizService.getQuizVersionInfo(1L)).thenReturn(Optional.of(new QuizVersionInfo(1L, 3L, "Anna", 0L, null)));
+
+        ResponseEntity<Quiz> response = quizController.getQuiz(1L, request(QuizController.quizETag(1L, 3L, "Anna")));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        verify(quizService, never()).getQuizById(any());
+    }
+
+    @Test
+    void getQuiz_CreatorRenamed_LoadsQuizWithNewETag() {
+        when(quizService.getQuizVersionInfo(1L)).thenReturn(Optional.of(new QuizVersionInfo(1L, 3L, "Annika", 0L, null)));
+        when(quizService.getQuizById(1L)).thenReturn(quiz("Annika"));
+
+        ResponseEntity<Quiz> response = quizController.getQuiz(1L, request(QuizController.quizETag(1L, 3L, "Anna")));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(QuizController.quizETag(quiz("Annika")), response.getHeaders().getETag());
+        assertNull(response.getBody().getCreator().getEmail());
+    }
+
+    @Test
+    void getQuiz_BufferedDailyQuizOrMissing_Returns404() {
+        when(quizService.getQuizVersionInfo(1L))
+                .thenReturn(Optional.of(new QuizVersionInfo(1L, 0L, "Admin", QuizCategory.DAILY_QUIZ.maskLo(), null)));
+        when(quizService.getQuizVersionInfo(2L)).thenReturn(Optional.empty());
+
+        assertEquals(HttpStatus.NOT_FOUND, quizController.getQuiz(1L, request(null)).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, quizController.getQuiz(2L, request(null)).getStatusCode());
+        verify(quizService, never()).getQuizById(any());
+    }
+
+    @Test
+    void expectedVersion_ReadsVersionFromCurrentAndOlderETags() {
+        assertEquals(3L, QuizController.expectedVersion(1L, QuizController.quizETag(1L, 3L, "Anna")));
+        assertEquals(3L, QuizController.expectedVersion(1L, "W/\"1-3\""));
+        assertNull(QuizController.expectedVersion(1L, "*"));
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> QuizController.expectedVersion(2L, QuizController.quizETag(1L, 3L, "Anna")));
+    }
+}
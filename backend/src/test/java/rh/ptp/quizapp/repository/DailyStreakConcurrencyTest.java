@@ -0,0 +1,91 @@
+package rh.ptp.quizapp.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prüft {@link UserRepository#incrementDailyStreak} mit parallelen Anfragen gegen PostgreSQL.
+ * Die Anfragen laufen in eigenen Transaktionen gegen die eingebettete Datenbank ({@link TestDatabase}).
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(TestDatabase.class)
+class DailyStreakConcurrencyTest {
+
+    private static final String EMAIL = "streak@example.com";
+    private static final int REQUESTS = 16;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO users (name, email, password, role, user_status, daily_streak, daily_quiz_reminder, "
+                + "last_daily_quiz_played) VALUES ('s', ?, 'p', 'ROLE_USER', 1, 5, false, ?)", EMAIL, LocalDateTime.now().minusDays(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM users WHERE email = ?", EMAIL);
+    }
+
+    @Test
+    void incrementDailyStreak_ParallelRequests_IncrementOnce() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime startOfDay = now.toLocalDate().atStartOfDay();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<Integer>>> results = new ArrayList<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+        try {
+            for (int i = 0; i < REQUESTS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return userRepository.incrementDailyStreak(EMAIL, now, startOfDay);
+                }));
+            }
+            start.countDown();
+            for (Future<Optional<Integer>> result : results) {
+                assertEquals(Optional.of(6), result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(6, jdbcTemplate.queryForObject("SELECT daily_streak FROM users WHERE email = ?", Integer.class, EMAIL));
+    }
+
+    @Test
+    void incrementDailyStreak_SecondCallSameDay_KeepsStreak() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime startOfDay = now.toLocalDate().atStartOfDay();
+
+        assertEquals(Optional.of(6), userRepository.incrementDailyStreak(EMAIL, now, startOfDay));
+        assertEquals(Optional.of(6), userRepository.incrementDailyStreak(EMAIL, now.plusMinutes(1), startOfDay));
+        assertTrue(userRepository.incrementDailyStreak("unknown@example.com", now, startOfDay).isEmpty());
+    }
+}
@@ -0,0 +1,75 @@
+package rh.ptp.quizapp.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Prüft gegen PostgreSQL, dass aufgegebene Nachrichten keine Zugangsdaten behalten und wie
+ * versendete Nachrichten gelöscht werden.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TestDatabase.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmailOutboxRepositoryTest {
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM email_outbox");
+    }
+
+    @Test
+    void markAbandoned_ClearsVariables() {
+        long id = insert(4, LocalDateTime.now(), null);
+
+        outboxRepository.markAbandoned(id, "SMTP down", LocalDateTime.now());
+
+        assertEquals("{}", jdbcTemplate.queryForObject("SELECT variables FROM email_outbox WHERE id = ?", String.class, id));
+        assertEquals(5, jdbcTemplate.queryForObject("SELECT attempts FROM email_outbox WHERE id = ?", Integer.class, id));
+    }
+
+    @Test
+    void deleteFinishedBefore_DeletesOldSentAndAbandonedMessages() {
+        LocalDateTime old = LocalDateTime.now().minusDays(40);
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(30);
+        insert(0, old, old);
+        insert(5, old, null);
+        long pending = insert(2, old, null);
+        long recentlyAbandoned = insert(5, LocalDateTime.now(), null);
+        long recentlySent = insert(0, old, LocalDateTime.now());
+
+        int deleted = outboxRepository.deleteFinishedBefore(cutoff, 5);
+
+        assertEquals(2, deleted);
+        assertEquals(List.of(pending, recentlyAbandoned, recentlySent),
+                jdbcTemplate.queryForList("SELECT id FROM email_outbox ORDER BY id", Long.class));
+    }
+
+    private long insert(int attempts, LocalDateTime nextAttemptAt, LocalDateTime sentAt) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO email_outbox (attempts, created_at, next_attempt_at, sent_at, template, variables, recipient, subject)
+                VALUES (?, now(), ?, ?, 'password-reset', '{"token":"geheim"}', 'test@example.com', 'Betreff')
+                RETURNING id
+                """, Long.class, attempts, Timestamp.valueOf(nextAttemptAt),
+                sentAt == null ? null : Timestamp.valueOf(sentAt));
+    }
+}
@@ -0,0 +1,72 @@
+package rh.ptp.quizapp.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Prüft die Entnahme aus dem Fragenpool gegen PostgreSQL: zwei gleichzeitige Transaktionen
+ * erhalten nie dieselben Fragen.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TestDatabase.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PoolQuestionRepositoryTest {
+
+    @Autowired
+    private PoolQuestionRepository poolQuestionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM question_pool");
+    }
+
+    @Test
+    void lockUnusedIds_SkipsQuestionsLockedByOtherTransaction() {
+        long first = insert("SCIENCE", 1, false);
+        long second = insert("SCIENCE", 2, false);
+        insert("SCIENCE", 3, true);
+        insert("HISTORY", 4, false);
+        long third = insert("SCIENCE", 5, false);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        List<Long> other = transaction.execute(status -> {
+            assertEquals(List.of(first, second), poolQuestionRepository.lockUnusedIds("SCIENCE", 2));
+            return CompletableFuture.supplyAsync(() -> transaction.execute(
+                            s -> poolQuestionRepository.lockUnusedIds("SCIENCE", 2)))
+                    .orTimeout(10, TimeUnit.SECONDS)
+                    .join();
+        });
+
+        assertEquals(List.of(third), other);
+    }
+
+    private long insert(String category, long textHash, boolean used) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO question_pool (difficulty, created_at, text_hash, used_at, category, question, correct_answer)
+                VALUES (1, now(), ?, CASE WHEN ? THEN now() END, ?, 'Frage?', 'Ja')
+                RETURNING id
+                """, Long.class, textHash, used, category);
+    }
+}
@@ -0,0 +1,233 @@
+package rh.ptp.quizapp.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Führt die Flyway-Migrationen gegen PostgreSQL aus, prüft das Ergebnis gegen das Mapping der
+ * Entitäten ({@code ddl-auto=validate}) und stellt sicher, dass die häufigsten Abfragen ihre
+ * Indizes verwenden. Zusätzlich wird eine bestehende Datenbank im Ausgangsschema samt Daten
+ * auf Version 1 gesetzt und migriert, wie es {@code baseline-on-migrate} im Betrieb tut.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TestDatabase.class)
+class SchemaMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Leere Tabellen würde der Planer sonst immer sequenziell lesen
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    @Test
+    void migrate_AppliesAllVersions() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "SELECT version FROM flyway_schema_history WHERE success ORDER BY installed_rank", String.class);
+
+        assertEquals(List.of("1", "2", "3", "4", "5", "6"), versions);
+    }
+
+    @Test
+    void migrate_FromBaselinedDatabase_MatchesFreshSchemaAndKeepsData() {
+        DataSource legacy = TestDatabase.create();
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline.sql")).execute(legacy);
+        JdbcTemplate db = new JdbcTemplate(legacy);
+        db.update("INSERT INTO users (name, email, password, role, user_status, daily_streak, daily_quiz_reminder) "
+                + "VALUES ('u', 'u@example.com', 'p', 'ROLE_USER', 1, 3, false)");
+        Long userId = db.queryForObject("SELECT id FROM users", Long.class);
+        db.update("INSERT INTO quizzes (title, creator_id, is_public, quiz_date, avg_rating, rating_count) "
+                + "VALUES ('Tagesquiz', ?, true, current_date, 3.0, 2)", userId);
+        Long quizId = db.queryForObject("SELECT id FROM quizzes", Long.class);
+        // Ordinalwerte: 0 = DAILY_QUIZ, 70 liegt in der oberen Maske
+        db.update("INSERT INTO quiz_categories (quiz_id, category) VALUES (?, 0), (?, 5), (?, 70)", quizId, quizId, quizId);
+        db.update("INSERT INTO quiz_questions (quiz_id, question, correct_answer, question_type, difficulty) "
+                + "VALUES (?, 'Frage?', 'A', 'MULTIPLE_CHOICE', 1)", quizId);
+        db.update("INSERT INTO quiz_ratings (quiz_id, user_id, rating, created_at) VALUES (?, ?, 2, now()), (?, ?, 4, now())",
+                quizId, userId, quizId, userId);
+        db.update("INSERT INTO quiz_results (quiz_id, user_id, score, max_possible_score, played_at) VALUES (?, ?, 1, 1, now())",
+                quizId, userId);
+
+        Flyway.configure()
+                .dataSource(legacy)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        assertEquals(describeSchema(jdbcTemplate), describeSchema(db));
+        assertEquals(1L + (1L << 5), db.queryForObject("SELECT category_mask_lo FROM quizzes", Long.class));
+        assertEquals(1L << 6, db.queryForObject("SELECT category_mask_hi FROM quizzes", Long.class));
+        assertEquals(0L, db.queryForObject("SELECT version FROM quizzes", Long.class));
+        assertEquals(4.0, db.queryForObject("SELECT avg_rating FROM quizzes", Double.class));
+        assertEquals(1, db.queryForObject("SELECT count(*) FROM quiz_ratings", Integer.class));
+        assertEquals(1, db.queryForObject("SELECT count(*) FROM daily_quiz_completions WHERE user_id = ?", Integer.class, userId));
+        assertTrue(db.queryForObject("SELECT nextval('quizzes_seq')", Long.class) > quizId);
+        assertTrue(db.queryForObject("SELECT nextval('quiz_questions_seq')", Long.class)
+                > db.queryForObject("SELECT max(id) FROM quiz_questions", Long.class));
+        assertTrue(db.queryForObject("SELECT nextval('quiz_results_seq')", Long.class)
+                > db.queryForObject("SELECT max(id) FROM quiz_results", Long.class));
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "idx_quiz_results_quiz_id               | SELECT * FROM quiz_results WHERE quiz_id = 1",
+            "idx_quiz_results_user_played_at        | SELECT * FROM quiz_results WHERE user_id = 1 ORDER BY played_at DESC",
+            "uk_quiz_ratings_quiz_user              | SELECT * FROM quiz_ratings WHERE quiz_id = 1 AND user_id = 2",
+            "uk_quiz_favorites_user_quiz            | SELECT * FROM quiz_favorites WHERE user_id = 1 AND quiz_id = 2",
+            "uk_authentication_token_token          | SELECT * FROM authentication_token WHERE token = 'abc'",
+            "idx_authentication_token_expiry_date   | SELECT id FROM authentication_token WHERE expiry_date < now()",
+            "idx_quizzes_creator_id                 | SELECT * FROM quizzes WHERE creator_id = 1",
+            "idx_quizzes_quiz_date                  | SELECT * FROM quizzes WHERE quiz_date = current_date",
+            "idx_quiz_categories_category_quiz      | SELECT quiz_id FROM quiz_categories WHERE category = 3",
+            "idx_quiz_questions_quiz_id             | SELECT * FROM quiz_questions WHERE quiz_id = 1",
+            "quiz_question_lsh_buckets_pkey         | SELECT question_id FROM quiz_question_lsh_buckets WHERE bucket IN (1, 2)",
+            "idx_quiz_question_lsh_buckets_question_id | SELECT bucket FROM quiz_question_lsh_buckets WHERE question_id = 1",
+            "idx_users_status_created_at            | SELECT id FROM users WHERE user_status = 1 AND created_at < now()",
+            "daily_quiz_completions_pkey            | SELECT 1 FROM daily_quiz_completions WHERE user_id = 1 AND completion_date = current_date"
+    })
+    void explain_UsesIndex(String index, String query) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + query, String.class));
+
+        assertTrue(plan.contains(index), () -> "Index " + index + " nicht verwendet:\n" + plan);
+    }
+
+    @Test
+    void uniqueConstraint_RejectsSecondRating() {
+        jdbcTemplate.update("INSERT INTO users (name, email, password, role, user_status, daily_streak, daily_quiz_reminder) "
+                + "VALUES ('u', 'u@example.com', 'p', 'ROLE_USER', 1, 0, false)");
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users", Long.class);
+        jdbcTemplate.update("INSERT INTO quizzes (id, title, creator_id, is_public) VALUES (nextval('quizzes_seq'), 'q', ?, true)", userId);
+        Long quizId = jdbcTemplate.queryForObject("SELECT id FROM quizzes", Long.class);
+        String insertRating = "INSERT INTO quiz_ratings (quiz_id, user_id, rating, created_at) VALUES (?, ?, 5, now())";
+        jdbcTemplate.update(insertRating, quizId, userId);
+
+        assertThrows(Exception.class, () -> jdbcTemplate.update(insertRating, quizId, userId));
+    }
+
+    @Test
+    void catalogVersion_IncreasesOnEveryCatalogChange() {
+        jdbcTemplate.update("INSERT INTO users (name, email, password, role, user_status, daily_streak, daily_quiz_reminder) "
+                + "VALUES ('u', 'u@example.com', 'p', 'ROLE_USER', 1, 0, false)");
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users", Long.class);
+        // Die Trigger laufen sonst erst beim Commit, den der Test nie erreicht
+        jdbcTemplate.execute("SET CONSTRAINTS ALL IMMEDIATE");
+        long before = catalogVersion();
+
+        jdbcTemplate.update("INSERT INTO quizzes (id, title, creator_id, is_public) VALUES (nextval('quizzes_seq'), 'q', ?, true)", userId);
+        Long quizId = jdbcTemplate.queryForObject("SELECT id FROM quizzes", Long.class);
+        long afterInsert = catalogVersion();
+        jdbcTemplate.update("INSERT INTO quiz_ratings (quiz_id, user_id, rating, created_at) VALUES (?, ?, 2, now())", quizId, userId);
+        long afterRating = catalogVersion();
+        // Ein Upsert ändert die Bewertung an Ort und Stelle; Anzahl und höchste ID bleiben gleich
+        jdbcTemplate.update("UPDATE quiz_ratings SET rating = 4 WHERE quiz_id = ?", quizId);
+        long afterRatingUpdate = catalogVersion();
+        jdbcTemplate.update("UPDATE users SET daily_streak = 3 WHERE id = ?", userId);
+        long afterStreak = catalogVersion();
+        jdbcTemplate.update("DELETE FROM quiz_ratings WHERE quiz_id = ?", quizId);
+        long afterBulkDelete = catalogVersion();
+
+        assertTrue(before < afterInsert);
+        assertTrue(afterInsert < afterRating);
+        assertTrue(afterRating < afterRatingUpdate);
+        assertEquals(afterRatingUpdate, afterStreak);
+        assertTrue(afterStreak < afterBulkDelete);
+    }
+
+    @Test
+    void catalogVersion_ConcurrentWritesDoNotWaitForEachOther() throws Exception {
+        DataSource dataSource = TestDatabase.create();
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        JdbcTemplate db = new JdbcTemplate(dataSource);
+        db.update("INSERT INTO users (name, email, password, role, user_status, daily_streak, daily_quiz_reminder) "
+                + "VALUES ('u', 'u@example.com', 'p', 'ROLE_USER', 1, 0, false)");
+        Long userId = db.queryForObject("SELECT id FROM users", Long.class);
+        db.update("INSERT INTO quizzes (id, title, creator_id, is_public) VALUES (1, 'a', ?, true), (2, 'b', ?, true)",
+                userId, userId);
+        long before = db.queryForObject("SELECT last_value FROM catalog_version_seq", Long.class);
+        String insertRating = "INSERT INTO quiz_ratings (quiz_id, user_id, rating, created_at) VALUES (?, ?, 3, now())";
+
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            first.setAutoCommit(false);
+            second.setAutoCommit(false);
+            try (PreparedStatement open = first.prepareStatement(insertRating)) {
+                open.setLong(1, 1);
+                open.setLong(2, userId);
+                open.executeUpdate();
+            }
+            // Die erste Transaktion bleibt offen; die zweite darf nicht auf sie warten
+            try (Statement timeout = second.createStatement();
+                 PreparedStatement insert = second.prepareStatement(insertRating)) {
+                timeout.execute("SET LOCAL lock_timeout = '2s'");
+                insert.setLong(1, 2);
+                insert.setLong(2, userId);
+                insert.executeUpdate();
+            }
+            second.commit();
+            first.commit();
+        }
+
+        assertEquals(before + 2, db.queryForObject("SELECT last_value FROM catalog_version_seq", Long.class));
+    }
+
+    private long catalogVersion() {
+        return jdbcTemplate.queryForObject("SELECT last_value FROM catalog_version_seq", Long.class);
+    }
+
+    /**
+     * Spalten, Constraints, Indizes, Sequenzen und Trigger des Schemas ohne die Flyway-Historie, sortiert.
+     */
+    private static List<String> describeSchema(JdbcTemplate db) {
+        List<String> schema = new ArrayList<>();
+        schema.addAll(db.queryForList("""
+                SELECT table_name || '.' || column_name || ' ' || data_type || ' ' || is_nullable
+                       || ' ' || is_identity || ' ' || COALESCE(column_default, '')
+                FROM information_schema.columns
+                WHERE table_schema = 'public' AND table_name <> 'flyway_schema_history'
+                """, String.class));
+        schema.addAll(db.queryForList("""
+                SELECT conrelid::regclass || ' ' || conname || ' ' || pg_get_constraintdef(oid)
+                FROM pg_constraint
+                WHERE connamespace = 'public'::regnamespace AND conrelid::regclass::text <> 'flyway_schema_history'
+                """, String.class));
+        schema.addAll(db.queryForList("""
+                SELECT indexdef FROM pg_indexes
+                WHERE schemaname = 'public' AND tablename <> 'flyway_schema_history'
+                """, String.class));
+        schema.addAll(db.queryForList("""
+                SELECT sequence_name || ' ' || increment FROM information_schema.sequences
+                WHERE sequence_schema = 'public'
+                """, String.class));
+        schema.addAll(db.queryForList("""
+                SELECT event_object_table || ' ' || trigger_name || ' ' || event_manipulation || ' ' || action_timing
+                FROM information_schema.triggers
+                WHERE trigger_schema = 'public'
+                """, String.class));
+        schema.sort(null);
+        return schema;
+    }
+}
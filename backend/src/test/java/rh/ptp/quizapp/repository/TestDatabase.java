@@ -0,0 +1,63 @@
+package rh.ptp.quizapp.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Eingebettete PostgreSQL-Instanz für Tests gegen eine echte Datenbank; benötigt weder Docker
+ * noch eine installierte Datenbank. Der Server wird einmal je Testlauf gestartet, jeder
+ * Spring-Kontext erhält eine eigene, leere Datenbank.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class TestDatabase {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private static EmbeddedPostgres server;
+
+    /**
+     * DataSource des Testkontexts; Flyway migriert sie beim Start.
+     */
+    @Bean
+    DataSource dataSource() {
+        return create();
+    }
+
+    /**
+     * Legt eine neue, leere Datenbank an.
+     *
+     * @return DataSource der neuen Datenbank
+     */
+    public static DataSource create() {
+        EmbeddedPostgres postgres = server();
+        String name = "test_" + DATABASES.incrementAndGet();
+        new JdbcTemplate(postgres.getPostgresDatabase()).execute("CREATE DATABASE " + name);
+        return postgres.getDatabase("postgres", name);
+    }
+
+    private static synchronized EmbeddedPostgres server() {
+        if (server == null) {
+            try {
+                server = EmbeddedPostgres.builder().start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Eingebettete PostgreSQL-Instanz nicht gestartet", e);
+            }
+            EmbeddedPostgres started = server;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    started.close();
+                } catch (IOException ignored) {
+                    // Der Testlauf endet ohnehin
+                }
+            }));
+        }
+        return server;
+    }
+}
@@ -0,0 +1,215 @@
+package rh.ptp.quizapp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import rh.ptp.quizapp.event.QuizzesReassignedEvent;
+import rh.ptp.quizapp.model.AccountDeletionJob;
+import rh.ptp.quizapp.model.AccountDeletionStatus;
+import rh.ptp.quizapp.model.AccountDeletionStep;
+import rh.ptp.quizapp.model.User;
+import rh.ptp.quizapp.model.UserStatus;
+import rh.ptp.quizapp.repository.AccountDeletionJobRepository;
+import rh.ptp.quizapp.repository.AuthenticationTokenRepository;
+import rh.ptp.quizapp.repository.QuizFavoriteRepository;
+import rh.ptp.quizapp.repository.QuizRatingRepository;
+import rh.ptp.quizapp.repository.QuizRepository;
+import rh.ptp.quizapp.repository.QuizResultRepository;
+import rh.ptp.quizapp.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountDeletionServiceTest {
+
+    @Mock private AccountDeletionJobRepository jobRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private QuizResultRepository quizResultRepository;
+    @Mock private QuizFavoriteRepository quizFavoriteRepository;
+    @Mock private QuizRatingRepository quizRatingRepository;
+    @Mock private QuizRepository quizRepository;
+    @Mock private AuthenticationTokenRepository authenticationTokenRepository;
+    @Mock private EmailOutboxService emailOutboxService;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AccountDeletionService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new AccountDeletionService(jobRepository, userRepository, quizResultRepository,
+                quizFavoriteRepository, quizRatingRepository, quizRepository, authenticationTokenRepository,
+                emailOutboxService, eventPublisher, transactionManager, meterRegistry, 100, 10, 5, "http://frontend");
+    }
+
+    private static AccountDeletionJob job(long id, AccountDeletionStatus status, AccountDeletionStep step) {
+        AccountDeletionJob job = new AccountDeletionJob();
+        job.setId(id);
+        job.setUserId(id + 100);
+        job.setEmail("user" + id + "@example.com");
+        job.setUsername("User" + id);
+        job.setStatus(status);
+        job.setStep(step);
+        job.setRequestedAt(LocalDateTime.now().minusDays(8));
+        return job;
+    }
+
+    @Test
+    void scheduleNewRequests_CreatesJobWithUserSnapshot() {
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("test@example.com");
+        user.setName("Tester");
+        LocalDateTime updatedAt = LocalDateTime.now().minusDays(3);
+        user.setUpdatedAt(updatedAt);
+        when(jobRepository.findUsersWithoutOpenJob(eq(UserStatus.PENDING_DELETE), anyCollection(), any()))
+                .thenReturn(List.of(user));
+
+        service.scheduleNewRequests();
+
+        ArgumentCaptor<AccountDeletionJob> captor = ArgumentCaptor.forClass(AccountDeletionJob.class);
+        verify(jobRepository).save(captor.capture());
+        AccountDeletionJob job = captor.getValue();
+        assertEquals(7L, job.getUserId());
+        assertEquals("test@example.com", job.getEmail());
+        assertEquals("Tester", job.getUsername());
+        assertEquals(AccountDeletionStatus.SCHEDULED, job.getStatus());
+        assertEquals(updatedAt, job.getRequestedAt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendWarnings_EnqueuesWarningAndMarksJobWarned() {
+        AccountDeletionJob job = job(1L, AccountDeletionStatus.SCHEDULED, null);
+        LocalDateTime now = LocalDateTime.now();
+        when(jobRepository.findByStatusAndRequestedAtBeforeOrderById(eq(AccountDeletionStatus.SCHEDULED), any(), any()))
+                .thenReturn(List.of(job));
+
+        service.sendWarnings(now, now.minusDays(6));
+
+        ArgumentCaptor<Map<String, Object>> variables = ArgumentCaptor.forClass(Map.class);
+        verify(emailOutboxService).enqueue(eq("user1@example.com"), eq("Erinnerung: Account-Löschung"),
+                eq("account-delete-warning"), variables.capture());
+        assertEquals("User1", variables.getValue().get("username"));
+        assertEquals(AccountDeletionStatus.WARNED, job.getStatus());
+        assertEquals(now, job.getWarnedAt());
+        verifyNoInteractions(quizResultRepository, userRepository);
+    }
+
+    @Test
+    void processChunk_FullChunkKeepsStepAndPartialChunkAdvances() {
+        AccountDeletionJob job = job(1L, AccountDeletionStatus.DELETING, AccountDeletionStep.QUIZ_RESULTS);
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+        when(userRepository.findStatusById(101L)).thenReturn(Optional.of(UserStatus.PENDING_DELETE));
+        when(quizResultRepository.deleteChunkByUserId(101L, 100)).thenReturn(100, 40);
+
+        assertTrue(service.processChunk(1L));
+        assertEquals(AccountDeletionStep.QUIZ_RESULTS, job.getStep());
+        assertTrue(service.processChunk(1L));
+        assertEquals(AccountDeletionStep.QUIZ_FAVORITES, job.getStep());
+        assertEquals(140, job.getRowsProcessed());
+        assertEquals(140.0, meterRegistry.get("account.deletion.rows").tag("step", "QUIZ_RESULTS").counter().count());
+    }
+
+    @Test
+    void processChunk_ReassignsQuizzesToAdmin() {
+        AccountDeletionJob job = job(1L, AccountDeletionStatus.DELETING, AccountDeletionStep.QUIZZES);
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+        when(userRepository.findStatusById(101L)).thenReturn(Optional.of(UserStatus.PENDING_DELETE));
+
+        assertTrue(service.processChunk(1L));
+
+        verify(quizRepository).reassignChunk(101L, AccountDeletionService.ADMIN_USER_ID, 100);
+        verify(eventPublisher).publishEvent(new QuizzesReassignedEvent(101L, AccountDeletionService.ADMIN_USER_ID));
+        assertEquals(AccountDeletionStep.TOKEN, job.getStep());
+    }
+
+    @Test
+    void processChunk_LastStepDeletesUserAndEnqueuesNotification() {
+        AccountDeletionJob job = job(1L, AccountDeletionStatus.DELETING, AccountDeletionStep.USER);
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+        when(userRepository.findStatusById(101L)).thenReturn(Optional.of(UserStatus.PENDING_DELETE));
+        when(userRepository.deleteByIdAndStatus(101L, UserStatus.PENDING_DELETE)).thenReturn(1);
+
+        assertFalse(service.processChunk(1L));
+
+        verify(emailOutboxService).enqueue(eq("user1@example.com"), eq("Deine Benutzerdaten wurden gelöscht!"),
+                eq("account-deleted"), anyMap());
+        assertEquals(AccountDeletionStatus.COMPLETED, job.getStatus());
+        assertNull(job.getStep());
+        assertNotNull(job.getFinishedAt());
+        assertEquals(1.0, meterRegistry.get("account.deletion.completed").counter().count());
+    }
+
+    @Test
+    void processChunk_ReactivatedUserCancelsJob() {
+        AccountDeletionJob job = job(1L, AccountDeletionStatus.DELETING, AccountDeletionStep.QUIZ_RATINGS);
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+        when(userRepository.findStatusById(101L)).thenReturn(Optional.of(UserStatus.ACTIVE));
+
+        assertFalse(service.processChunk(1L));
+
+        assertEquals(AccountDeletionStatus.CANCELLED, job.getStatus());
+        verifyNoInteractions(quizRatingRepository, emailOutboxService);
+    }
+
+    @Test
+    void drainDeletions_RecordsFailureAndContinuesWithNextJob() {
+        AccountDeletionJob failing = job(1L, AccountDeletionStatus.DELETING, AccountDeletionStep.QUIZ_RESULTS);
+        AccountDeletionJob next = job(2L, AccountDeletionStatus.DELETING, AccountDeletionStep.TOKEN);
+        when(jobRepository.findIdsByStatusAfter(eq(AccountDeletionStatus.DELETING), eq(0L), any()))
+                .thenReturn(List.of(1L, 2L));
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(failing));
+        when(jobRepository.findById(2L)).thenReturn(Optional.of(next));
+        when(userRepository.findStatusById(anyLong())).thenReturn(Optional.of(UserStatus.PENDING_DELETE));
+        when(quizResultRepository.deleteChunkByUserId(101L, 100)).thenThrow(new IllegalStateException("DB weg"));
+        when(userRepository.deleteByIdAndStatus(102L, UserStatus.PENDING_DELETE)).thenReturn(1);
+
+        service.drainDeletions();
+
+        assertEquals(1, failing.getAttempts());
+        assertEquals("DB weg", failing.getLastError());
+        assertEquals(AccountDeletionStep.QUIZ_RESULTS, failing.getStep());
+        assertEquals(AccountDeletionStatus.COMPLETED, next.getStatus());
+        assertEquals(1.0, meterRegistry.get("account.deletion.failures").counter().count());
+    }
+
+    @Test
+    void drainDeletions_StopsWhenChunkBudgetIsExhausted() {
+        AccountDeletionJob job = job(1L, AccountDeletionStatus.DELETING, AccountDeletionStep.QUIZ_RESULTS);
+        when(jobRepository.findIdsByStatusAfter(eq(AccountDeletionStatus.DELETING), eq(0L), any()))
+                .thenReturn(List.of(1L, 2L));
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+        when(userRepository.findStatusById(101L)).thenReturn(Optional.of(UserStatus.PENDING_DELETE));
+        when(quizResultRepository.deleteChunkByUserId(101L, 100)).thenReturn(100);
+
+        service.drainDeletions();
+
+        verify(quizResultRepository, times(5)).deleteChunkByUserId(101L, 100);
+        verify(jobRepository, never()).findById(2L);
+    }
+
+    @Test
+    void cancelReactivated_CountsCancelledJobs() {
+        when(jobRepository.cancelWhereUserStatusNot(eq(UserStatus.PENDING_DELETE), anyCollection(), any())).thenReturn(2);
+
+        service.cancelReactivated(LocalDateTime.now());
+
+        assertEquals(2.0, meterRegistry.get("account.deletion.cancelled").counter().count());
+    }
+}
@@ -5,11 +5,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import rh.ptp.quizapp.event.*;
 import rh.ptp.quizapp.model.User;
 import rh.ptp.quizapp.model.UserRole;
+import rh.ptp.quizapp.model.UserStatus;
 import rh.ptp.quizapp.repository.UserRepository;
 
+import java.time.LocalDateTime;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
@@ -23,7 +28,7 @@ class AdminServiceTest {
     @Mock
     private UserRepository userRepository;
     @Mock
-    private EmailService emailService;
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private AdminService adminService;
@@ -38,12 +43,7 @@ class AdminServiceTest {
 
         verify(passwordEncoder).encode("plainPassword");
         verify(userRepository).save(newUser);
-        verify(emailService).sendEmail(
-                any(),
-                eq("Dein Benutzerkonto wurde durch einen Admin erstellt!"),
-                eq("account-created"),
-                any()
-        );
+        verify(eventPublisher).publishEvent(new AccountCreatedEvent(null, null, "plainPassword"));
     }
 
     @Test
@@ -90,18 +90,29 @@ class AdminServiceTest {
 
         adminService.updateUser(2L, updatedUser);
 
-        verify(emailService).sendEmail(
-                any(),
-                eq("Du wurdest zum Admin ernannt!"),
-                eq("admin-promoted"),
-                any()
-        );
-        verify(emailService, never()).sendEmail(
-                any(),
-                eq("Dein Benutzerkonto wurde durch einen Admin aktualisiert!"),
-                eq("account-updated"),
-                any()
-        );
+        verify(eventPublisher).publishEvent(new RoleChangedEvent("email", "name", UserRole.ROLE_ADMIN));
+        verify(eventPublisher, never()).publishEvent(any(AccountUpdatedEvent.class));
+        verify(eventPublisher, never()).publishEvent(any(UserRenamedEvent.class));
+    }
+
+    @Test
+    void updateUser_PublishesRenameForNewName() {
+        User existingUser = new User();
+        existingUser.setEmail("email");
+        existingUser.setName("name");
+        existingUser.setId(2L);
+
+        User updatedUser = new User();
+        updatedUser.setEmail("email");
+        updatedUser.setName("neuer Name");
+        updatedUser.setId(2L);
+
+        when(userRepository.findById(any())).thenReturn(java.util.Optional.of(existingUser));
+
+        adminService.updateUser(2L, updatedUser);
+
+        verify(eventPublisher).publishEvent(new UserRenamedEvent(2L, "neuer Name"));
+        verify(eventPublisher).publishEvent(new AccountUpdatedEvent("email", "neuer Name"));
     }
 
     @Test
@@ -128,12 +139,7 @@ class AdminServiceTest {
 
         adminService.updateUser(2L, updatedUser);
 
-        verify(emailService).sendEmail(
-                any(),
-                eq("Dein Passwort wurde durch einen Admin geändert!"),
-                eq("password-changed"),
-                any()
-        );
+        verify(eventPublisher).publishEvent(new PasswordChangedEvent("email", "name", "newPassword"));
     }
 
     @Test
@@ -157,13 +163,8 @@ class AdminServiceTest {
 
         adminService.deleteUser(2L);
 
-        verify(emailService).sendEmail(
-                any(),
-                eq("Dein Benutzerkonto wurde durch einen Admin gelöscht!"),
-                eq("account-deleted"),
-                any()
-        );
         verify(userRepository).deleteById(2L);
+        verify(eventPublisher).publishEvent(any(AccountDeletedEvent.class));
     }
 
     @Test
@@ -176,5 +177,87 @@ class AdminServiceTest {
         assertThatThrownBy(() -> adminService.deleteUser(3L))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("DB Error");
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void updateUser_PublishesBlockedEventToPreviousAddress() {
+        User existingUser = new User();
+        existingUser.setPassword("oldHash");
+        existingUser.setEmail("old@example.com");
+        existingUser.setName("name");
+        existingUser.setId(2L);
+        existingUser.setRole(UserRole.ROLE_USER);
+        existingUser.setUserStatus(UserStatus.ACTIVE);
+
+        User updatedUser = new User();
+        updatedUser.setEmail("new@example.com");
+        updatedUser.setName("name");
+        updatedUser.setId(2L);
+        updatedUser.setUserStatus(UserStatus.BLOCKED);
+
+        when(userRepository.findById(any())).thenReturn(java.util.Optional.of(existingUser));
+
+        adminService.updateUser(2L, updatedUser);
+
+        verify(eventPublisher).publishEvent(new UserBlockedEvent("old@example.com", "name"));
+        verify(eventPublisher, never()).publishEvent(any(AccountUpdatedEvent.class));
+    }
+
+    @Test
+    void updateUser_WithoutSpecialChange_PublishesUpdatedEventWithNewData() {
+        User existingUser = new User();
+        existingUser.setEmail("old@example.com");
+        existingUser.setName("old");
+        existingUser.setId(2L);
+        existingUser.setRole(UserRole.ROLE_USER);
+
+        User updatedUser = new User();
+        updatedUser.setEmail("new@example.com");
+        updatedUser.setName("new");
+        updatedUser.setId(2L);
+
+        when(userRepository.findById(any())).thenReturn(java.util.Optional.of(existingUser));
+
+        adminService.updateUser(2L, updatedUser);
+
+        verify(eventPublisher).publishEvent(new AccountUpdatedEvent("new@example.com", "new"));
+    }
+
+    @Test
+    void updateUser_ChangedStreak_KeepsLastDailyQuizPlayed() {
+        LocalDateTime lastPlayed = LocalDateTime.now().minusDays(1);
+        User existingUser = new User();
+        existingUser.setEmail("email");
+        existingUser.setName("name");
+        existingUser.setId(2L);
+        existingUser.setRole(UserRole.ROLE_USER);
+        existingUser.setDailyStreak(3);
+        existingUser.setLastDailyQuizPlayed(lastPlayed);
+
+        User updatedUser = new User();
+        updatedUser.setId(2L);
+        updatedUser.setDailyStreak(7);
+
+        when(userRepository.findById(any())).thenReturn(java.util.Optional.of(existingUser));
+
+        adminService.updateUser(2L, updatedUser);
+
+        assertThat(existingUser.getDailyStreak()).isEqualTo(7);
+        assertThat(existingUser.getLastDailyQuizPlayed()).isEqualTo(lastPlayed);
+    }
+
+    @Test
+    void updateUser_AdminAccount_ThrowsWithoutPublishing() {
+        User existingUser = new User();
+        existingUser.setId(1L);
+        User updatedUser = new User();
+        updatedUser.setId(1L);
+        updatedUser.setRole(UserRole.ROLE_USER);
+        when(userRepository.findById(1L)).thenReturn(java.util.Optional.of(existingUser));
+
+        assertThatThrownBy(() -> adminService.updateUser(1L, updatedUser))
+                .isInstanceOf(RuntimeException.class);
+        verifyNoInteractions(eventPublisher);
     }
 }
\ No newline at end of file
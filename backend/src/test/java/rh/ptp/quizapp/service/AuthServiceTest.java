@@ -5,12 +5,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import rh.ptp.quizapp.dto.AuthResponse;
 import rh.ptp.quizapp.dto.LoginRequest;
 import rh.ptp.quizapp.dto.RegisterRequest;
+import rh.ptp.quizapp.event.PasswordResetRequestedEvent;
+import rh.ptp.quizapp.event.VerificationRequestedEvent;
 import rh.ptp.quizapp.model.AuthenticationToken;
 import rh.ptp.quizapp.model.User;
 import rh.ptp.quizapp.model.UserStatus;
@@ -34,7 +37,7 @@ class AuthServiceTest {
     @Mock private JwtService jwtService;
     @Mock private AuthenticationManager authenticationManager;
     @Mock private AuthenticationTokenRepository authenticationTokenRepository;
-    @Mock private EmailService emailService;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks private AuthService authService;
 
@@ -66,7 +69,7 @@ class AuthServiceTest {
         String result = authService.register(request);
 
         assertEquals("Bitte überprüfen Sie Ihre E-Mail-Adresse, um Ihre Registrierung abzuschließen.", result);
-        verify(emailService).sendEmail(eq(testEmail), anyString(), anyString(), anyMap());
+        verify(eventPublisher).publishEvent(any(VerificationRequestedEvent.class));
     }
 
     @Test
@@ -106,7 +109,8 @@ class AuthServiceTest {
         String result = authService.register(request);
 
         assertEquals("Ein Account mit dieser E-Mail existiert bereits. Bitte überprüfen Sie Ihre E-Mail-Adresse, um das Passwort zurückzusetzen.", result);
-        verify(emailService).sendEmail(eq(testEmail), anyString(), eq("password-reset-email"), anyMap());
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof PasswordResetRequestedEvent reset
+                && reset.email().equals(testEmail) && reset.token() != null));
     }
 
     @Test
@@ -118,7 +122,7 @@ class AuthServiceTest {
         AuthenticationToken token = authService.createAuthenticationToken(user);
 
         assertNotNull(token.getToken());
-        verify(emailService).sendEmail(any(), eq("E-Mail-Adresse verifizieren"), any(), anyMap());
+        verify(eventPublisher).publishEvent(new VerificationRequestedEvent(null, null, token.getToken()));
     }
 
     @Test
@@ -0,0 +1,106 @@
+package rh.ptp.quizapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rh.ptp.quizapp.dto.CategoryCount;
+import rh.ptp.quizapp.event.QuizDeletedEvent;
+import rh.ptp.quizapp.event.QuizSavedEvent;
+import rh.ptp.quizapp.model.Quiz;
+import rh.ptp.quizapp.model.QuizCategory;
+import rh.ptp.quizapp.repository.QuizRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CategoryMetadataServiceTest {
+
+    @Mock
+    private QuizRepository quizRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CategoryMetadataService categoryMetadataService;
+
+    @BeforeEach
+    void setUp() {
+        categoryMetadataService = new CategoryMetadataService(quizRepository, objectMapper);
+        when(quizRepository.countPublicQuizzesByCategory()).thenReturn(List.of(
+                new CategoryCount(QuizCategory.SCIENCE, 3),
+                new CategoryCount(QuizCategory.HISTORY, 1)));
+        categoryMetadataService.reload();
+    }
+
+    private long countOf(QuizCategory category) throws Exception {
+        JsonNode json = objectMapper.readTree(categoryMetadataService.getSnapshot().json());
+        JsonNode entry = json.get(category.ordinal());
+        assertEquals(category.name(), entry.get("key").asText());
+        assertEquals(category.getDisplayName(), entry.get("displayName").asText());
+        return entry.get("quizCount").asLong();
+    }
+
+    @Test
+    void reload_RendersAllCategoriesWithCounts() throws Exception {
+        JsonNode json = objectMapper.readTree(categoryMetadataService.getSnapshot().json());
+
+        assertEquals(QuizCategory.values().length, json.size());
+        assertEquals(3, countOf(QuizCategory.SCIENCE));
+        assertEquals(0, countOf(QuizCategory.GEOGRAPHY));
+    }
+
+    @Test
+    void quizChanged_AdjustsCountsAndETag() throws Exception {
+        String eTag = categoryMetadataService.getSnapshot().eTag();
+
+        categoryMetadataService.quizChanged(List.of(QuizCategory.HISTORY), List.of(QuizCategory.SCIENCE, QuizCategory.SCIENCE));
+
+        assertEquals(4, countOf(QuizCategory.SCIENCE));
+        assertEquals(0, countOf(QuizCategory.HISTORY));
+        assertNotEquals(eTag, categoryMetadataService.getSnapshot().eTag());
+    }
+
+    @Test
+    void events_CountOnlyPublicCategories() throws Exception {
+        Quiz quiz = new Quiz();
+        quiz.setCategories(List.of(QuizCategory.GEOGRAPHY));
+        quiz.setPublic(false);
+
+        categoryMetadataService.on(new QuizSavedEvent(quiz));
+        assertEquals(0, countOf(QuizCategory.GEOGRAPHY));
+
+        quiz.setPublic(true);
+        categoryMetadataService.on(new QuizSavedEvent(quiz, List.of(), QuizSavedEvent.publicCategories(quiz)));
+        assertEquals(1, countOf(QuizCategory.GEOGRAPHY));
+
+        categoryMetadataService.on(new QuizDeletedEvent(1L, List.of(QuizCategory.GEOGRAPHY)));
+        assertEquals(0, countOf(QuizCategory.GEOGRAPHY));
+    }
+
+    @Test
+    void reload_ReplaysChangesArrivingDuringLoad() throws Exception {
+        when(quizRepository.countPublicQuizzesByCategory()).thenAnswer(inv -> {
+            categoryMetadataService.quizChanged(List.of(), List.of(QuizCategory.HISTORY));
+            return List.of(new CategoryCount(QuizCategory.HISTORY, 5));
+        });
+
+        categoryMetadataService.reload();
+
+        assertEquals(6, countOf(QuizCategory.HISTORY));
+        assertEquals(0, countOf(QuizCategory.SCIENCE));
+    }
+
+    @Test
+    void quizChanged_NoCategories_KeepsSnapshot() {
+        CategoryMetadataService.Snapshot before = categoryMetadataService.getSnapshot();
+
+        categoryMetadataService.quizChanged(List.of(), List.of());
+
+        assertSame(before, categoryMetadataService.getSnapshot());
+    }
+}
@@ -1,24 +1,25 @@
 package rh.ptp.quizapp.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import rh.ptp.quizapp.model.AuthenticationToken;
 import rh.ptp.quizapp.model.User;
-import rh.ptp.quizapp.model.UserStatus;
 import rh.ptp.quizapp.repository.AuthenticationTokenRepository;
 import rh.ptp.quizapp.repository.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
-import java.util.List;
 import java.util.Optional;
 
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -28,8 +29,8 @@ class CleanupRepositoryServiceTest {
     @Mock private EntityManager em;
     @Mock private UserRepository userRepository;
     @Mock private AuthenticationTokenRepository authTokenRepository;
-    @Mock private EmailService emailService;
     @Mock private Query query;
+    @Spy private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks private CleanupRepositoryService cleanupService;
 
@@ -84,93 +85,30 @@ class CleanupRepositoryServiceTest {
     }
 
     @Test
-    void completeDeletion_SendsWarningForPendingDeletes() {
-        User user = new User();
-        user.setId(1L);
-        user.setEmail("test@example.com");
-        user.setName("User");
-        user.setUserStatus(UserStatus.PENDING_DELETE);
-        user.setUpdatedAt(LocalDateTime.now().minusDays(7));
-
-        when(userRepository.findAllByUpdatedAtBeforeAndUserStatusIn(
-                any(LocalDateTime.class),
-                anyList()
-        )).thenReturn(List.of(user)).thenReturn(Collections.emptyList());
-        when(authTokenRepository.findTokenByQuizUser(user)).thenReturn("token123");
-
-        cleanupService.completeDeletionRequests();
-
-        verify(emailService).sendEmail(
-                eq("test@example.com"),
-                eq("Erinnerung: Account-Löschung"),
-                eq("account-delete-warning"),
-                anyMap()
-        );
-    }
-
-    @Test
-    void completeDeletion_DeletesExpiredRequests() {
-        when(em.createNativeQuery(anyString())).thenReturn(query);
-        when(query.setParameter(anyString(), any())).thenReturn(query);
-        User user = new User();
-        user.setId(1L);
-        user.setEmail("test@example.com");
-        user.setName("User");
-        user.setUserStatus(UserStatus.PENDING_DELETE);
-        user.setUpdatedAt(LocalDateTime.now().minusDays(8));
-
-        when(userRepository.findAllByUpdatedAtBeforeAndUserStatusIn(
-                any(LocalDateTime.class),
-                anyList()
-        )).thenReturn(Collections.emptyList())
-                .thenReturn(List.of(user));
-
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-
-        when(authTokenRepository.findByQuizUser(user)).thenReturn(null);
-
-        doNothing().when(authTokenRepository).deleteAllByExpiryDateBefore(any());
-
-        cleanupService.completeDeletionRequests();
-
-        verify(emailService).sendEmail(
-                eq("test@example.com"),
-                eq("Deine Benutzerdaten wurden gelöscht!"),
-                eq("account-deleted"),
-                anyMap()
-        );
-
-        verify(userRepository).deleteAllByUpdatedAtBeforeAndUserStatusIn(any(), anyList());
-    }
-
-
-    @Test
-    void deleteTokens_DeletesExpiredTokensAndUsers() {
-        User unverifiedUser = new User();
-        unverifiedUser.setId(1L);
-        unverifiedUser.setUserStatus(UserStatus.PENDING_VERIFICATION);
-
-        when(authTokenRepository.findQuizUserByExpiryDateBefore(any()))
-                .thenReturn(List.of(unverifiedUser));
+    void deleteTokens_DeletesExpiredTokensAndUsersInBulk() {
+        when(authTokenRepository.deleteExpiredTokens(any())).thenReturn(3);
+        when(userRepository.deleteUnverifiedWithoutToken(any())).thenReturn(2);
 
         cleanupService.deleteOldTokens();
 
-        verify(authTokenRepository).deleteAllByExpiryDateBefore(any());
-        verify(userRepository).deleteById(1L);
+        verify(authTokenRepository).deleteExpiredTokens(any());
+        verify(userRepository).deleteUnverifiedWithoutToken(any());
+        verify(userRepository, never()).deleteById(any());
+        assertEquals(3.0, meterRegistry.get("cleanup.tokens.deleted").counter().count());
+        assertEquals(2.0, meterRegistry.get("cleanup.users.deleted").counter().count());
     }
 
     @Test
-    void deleteTokens_IgnoresActiveUsers() {
-        User activeUser = new User();
-        activeUser.setId(1L);
-        activeUser.setUserStatus(UserStatus.ACTIVE);
-
-        when(authTokenRepository.findQuizUserByExpiryDateBefore(any()))
-                .thenReturn(List.of(activeUser));
+    void deleteTokens_UsesSameCutoffForTokensAndUsers() {
+        ArgumentCaptor<LocalDateTime> tokenCutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> userCutoff = ArgumentCaptor.forClass(LocalDateTime.class);
 
         cleanupService.deleteOldTokens();
 
-        verify(authTokenRepository).deleteAllByExpiryDateBefore(any());
-        verify(userRepository, never()).deleteById(any());
+        InOrder inOrder = inOrder(authTokenRepository, userRepository);
+        inOrder.verify(authTokenRepository).deleteExpiredTokens(tokenCutoff.capture());
+        inOrder.verify(userRepository).deleteUnverifiedWithoutToken(userCutoff.capture());
+        assertEquals(tokenCutoff.getValue(), userCutoff.getValue());
+        assertTrue(tokenCutoff.getValue().isBefore(LocalDateTime.now().minusMinutes(59)));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,152 @@
+package rh.ptp.quizapp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import rh.ptp.quizapp.event.DailyQuizCompletedEvent;
+import rh.ptp.quizapp.model.Quiz;
+import rh.ptp.quizapp.model.QuizCategory;
+import rh.ptp.quizapp.repository.DailyQuizCompletionRepository;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DailyCompletionServiceTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Berlin");
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 14);
+
+    @Mock
+    private DailyQuizCompletionRepository completionRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final MutableClock clock = new MutableClock(TODAY.atTime(10, 0).atZone(ZONE).toInstant());
+    private DailyCompletionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DailyCompletionService(completionRepository, eventPublisher, clock, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void hasCompletedToday_NotCompleted_AsksDatabaseEachTime() {
+        when(completionRepository.existsByUserIdAndCompletionDate(7L, TODAY)).thenReturn(false);
+
+        assertFalse(service.hasCompletedToday(7L));
+        assertFalse(service.hasCompletedToday(7L));
+
+        verify(completionRepository, times(2)).existsByUserIdAndCompletionDate(7L, TODAY);
+    }
+
+    @Test
+    void hasCompletedToday_CompletedInDatabase_IsAnsweredFromMemoryAfterwards() {
+        when(completionRepository.existsByUserIdAndCompletionDate(7L, TODAY)).thenReturn(true);
+
+        assertTrue(service.hasCompletedToday(7L));
+        assertTrue(service.hasCompletedToday(7L));
+
+        verify(completionRepository, times(1)).existsByUserIdAndCompletionDate(7L, TODAY);
+    }
+
+    @Test
+    void recordIfDaily_FirstDailyCompletion_PublishesEvent() {
+        LocalDateTime playedAt = TODAY.atTime(10, 0);
+        when(completionRepository.insertIfAbsent(7L, TODAY, playedAt)).thenReturn(1);
+
+        assertTrue(service.recordIfDaily(7L, quiz(QuizCategory.DAILY_QUIZ, QuizCategory.SCIENCE), playedAt));
+
+        verify(eventPublisher).publishEvent(new DailyQuizCompletedEvent(7L, TODAY));
+    }
+
+    @Test
+    void recordIfDaily_AlreadyRecorded_PublishesNothing() {
+        LocalDateTime playedAt = TODAY.atTime(10, 0);
+        when(completionRepository.insertIfAbsent(7L, TODAY, playedAt)).thenReturn(0);
+
+        assertFalse(service.recordIfDaily(7L, quiz(QuizCategory.DAILY_QUIZ), playedAt));
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void recordIfDaily_RegularQuiz_IsIgnored() {
+        assertFalse(service.recordIfDaily(7L, quiz(QuizCategory.SCIENCE), TODAY.atTime(10, 0)));
+
+        verifyNoInteractions(completionRepository, eventPublisher);
+    }
+
+    @Test
+    void completedEvent_MarksUserWithoutDatabase() {
+        service.on(new DailyQuizCompletedEvent(7L, TODAY));
+
+        assertTrue(service.hasCompletedToday(7L));
+        verifyNoInteractions(completionRepository);
+    }
+
+    @Test
+    void hasCompletedToday_AfterMidnight_ForgetsYesterdaysCompleters() {
+        service.on(new DailyQuizCompletedEvent(7L, TODAY));
+        clock.set(TODAY.plusDays(1).atTime(0, 5).atZone(ZONE).toInstant());
+        when(completionRepository.existsByUserIdAndCompletionDate(7L, TODAY.plusDays(1))).thenReturn(false);
+
+        assertFalse(service.hasCompletedToday(7L));
+    }
+
+    @Test
+    void purgeOld_DeletesCompletionsBeyondRetention() {
+        service.purgeOld();
+
+        verify(completionRepository).deleteByCompletionDateBefore(TODAY.minusDays(DailyCompletionService.RETENTION_DAYS));
+    }
+
+    private static Quiz quiz(QuizCategory... categories) {
+        Quiz quiz = new Quiz();
+        quiz.setCategories(List.of(categories));
+        return quiz;
+    }
+
+    /**
+     * Uhr, deren Zeitpunkt im Test verstellt werden kann.
+     */
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void set(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package rh.ptp.quizapp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rh.ptp.quizapp.dto.DailyQuizBufferStatus;
+import rh.ptp.quizapp.model.Quiz;
+import rh.ptp.quizapp.model.QuizCategory;
+import rh.ptp.quizapp.util.CreateAiRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DailyQuizBufferServiceTest {
+
+    @Mock
+    private QuizService quizService;
+    @Mock
+    private CreateAiRequest createAiRequest;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DailyQuizBufferService bufferService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bufferService = new DailyQuizBufferService(quizService, createAiRequest, 3, meterRegistry);
+    }
+
+    @Test
+    void refill_FillsBufferUpToTargetSize() {
+        when(quizService.countBufferedDailyQuizzes()).thenReturn(1L, 2L, 3L, 3L);
+        when(createAiRequest.fetchQuizFromAPI(anyString())).thenReturn(List.of());
+
+        bufferService.refill();
+
+        verify(createAiRequest, times(2)).fetchQuizFromAPI(anyString());
+        verify(quizService, times(2)).bufferDailyQuiz(any(), any(QuizCategory.class));
+        assertEquals(3.0, meterRegistry.get("daily.quiz.buffer.depth").gauge().value());
+        assertEquals(2.0, meterRegistry.get("daily.quiz.buffer.refill").tag("outcome", "success").counter().count());
+    }
+
+    @Test
+    void refill_PoolHasQuestions_DoesNotCallApi() {
+        when(quizService.countBufferedDailyQuizzes()).thenReturn(2L, 3L, 3L);
+        when(quizService.bufferDailyQuizFromPool(any(), eq(DailyQuizBufferService.DAILY_QUIZ_QUESTIONS)))
+                .thenReturn(Optional.of(new Quiz()));
+
+        bufferService.refill();
+
+        verify(quizService).bufferDailyQuizFromPool(any(QuizCategory.class), eq(DailyQuizBufferService.DAILY_QUIZ_QUESTIONS));
+        verify(quizService, never()).bufferDailyQuiz(any(), any());
+        verifyNoInteractions(createAiRequest);
+    }
+
+    @Test
+    void refill_ApiFailure_StopsAndRecordsError() {
+        when(quizService.countBufferedDailyQuizzes()).thenReturn(0L);
+        when(createAiRequest.fetchQuizFromAPI(anyString()))
+                .thenThrow(new RuntimeException("Fehler beim Abrufen des Quiz von der API"));
+
+        bufferService.refill();
+
+        verify(createAiRequest, times(1)).fetchQuizFromAPI(anyString());
+        verify(quizService, never()).bufferDailyQuiz(any(), any());
+        DailyQuizBufferStatus status = bufferService.getStatus();
+        assertEquals(0, status.depth());
+        assertEquals(3, status.targetSize());
+        assertFalse(status.refilling());
+        assertNotNull(status.lastRefill());
+        assertEquals("Fehler beim Abrufen des Quiz von der API", status.lastError());
+        assertEquals(1.0, meterRegistry.get("daily.quiz.buffer.refill").tag("outcome", "failure").counter().count());
+    }
+
+    @Test
+    void refill_FullBuffer_DoesNotCallApi() {
+        when(quizService.countBufferedDailyQuizzes()).thenReturn(3L);
+
+        bufferService.refill();
+
+        verifyNoInteractions(createAiRequest);
+    }
+
+    @Test
+    void publish_DelegatesAndUpdatesDepth() {
+        LocalDate today = LocalDate.now();
+        Quiz quiz = new Quiz();
+        when(quizService.publishBufferedDailyQuiz(today)).thenReturn(Optional.of(quiz));
+        when(quizService.countBufferedDailyQuizzes()).thenReturn(2L);
+
+        assertEquals(Optional.of(quiz), bufferService.publish(today));
+        assertEquals(2.0, meterRegistry.get("daily.quiz.buffer.depth").gauge().value());
+    }
+
+    @Test
+    void randomCategory_NeverDailyOrGeneralKnowledge() {
+        for (int i = 0; i < 200; i++) {
+            QuizCategory category = DailyQuizBufferService.randomCategory();
+            assertNotEquals(QuizCategory.DAILY_QUIZ, category);
+            assertNotEquals(QuizCategory.GENERAL_KNOWLEDGE, category);
+        }
+    }
+}
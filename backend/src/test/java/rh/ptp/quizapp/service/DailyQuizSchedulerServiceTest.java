@@ -1,6 +1,5 @@
 package rh.ptp.quizapp.service;
 
-import org.json.JSONArray;
 import org.json.JSONException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,6 +18,7 @@ import rh.ptp.quizapp.util.CreateAiRequest;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
@@ -36,6 +36,10 @@ class DailyQuizSchedulerServiceTest {
     private EmailService emailService;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private DailyQuizBufferService dailyQuizBufferService;
+    @Mock
+    private QuestionPoolService questionPoolService;
 
     @InjectMocks
     private DailyQuizSchedulerService schedulerService;
@@ -47,6 +51,8 @@ class DailyQuizSchedulerServiceTest {
         ReflectionTestUtils.setField(schedulerService, "createAiRequest", createAiRequest);
         ReflectionTestUtils.setField(schedulerService, "emailService", emailService);
         ReflectionTestUtils.setField(schedulerService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(schedulerService, "dailyQuizBufferService", dailyQuizBufferService);
+        ReflectionTestUtils.setField(schedulerService, "questionPoolService", questionPoolService);
         ReflectionTestUtils.setField(schedulerService, "frontendUrl", frontendUrl);
     }
 
@@ -59,7 +65,22 @@ class DailyQuizSchedulerServiceTest {
         schedulerService.generateDailyQuiz();
 
         verify(quizRepository, times(1)).findByCategoriesAndDate(QuizCategory.DAILY_QUIZ, today);
-        verifyNoInteractions(createAiRequest, quizService, emailService);
+        verifyNoInteractions(createAiRequest, quizService, emailService, dailyQuizBufferService);
+    }
+
+    @Test
+    void generateDailyQuiz_WhenBufferHasQuiz_PublishesWithoutApiCall() {
+        LocalDate today = LocalDate.now();
+        when(quizRepository.findByCategoriesAndDate(QuizCategory.DAILY_QUIZ, today))
+                .thenReturn(Collections.emptyList());
+        when(dailyQuizBufferService.publish(today)).thenReturn(Optional.of(new Quiz()));
+        when(userRepository.findAll()).thenReturn(List.of());
+
+        schedulerService.generateDailyQuiz();
+
+        verify(dailyQuizBufferService).publish(today);
+        verifyNoInteractions(createAiRequest);
+        verify(quizService, never()).updateDailyQuiz(any(), any());
     }
 
     @Test
@@ -78,11 +99,12 @@ class DailyQuizSchedulerServiceTest {
         when(quizRepository.findByCategoriesAndDate(QuizCategory.DAILY_QUIZ, yesterday))
                 .thenReturn(Collections.singletonList(mock(Quiz.class)));
         when(createAiRequest.fetchQuizFromAPI(anyString()))
-                .thenReturn(new JSONArray());
+                .thenReturn(List.of());
         when(userRepository.findAll()).thenReturn(List.of(userWithStreak, userWithoutReminder));
 
         schedulerService.generateDailyQuiz();
 
+        verify(dailyQuizBufferService).publish(today);
         verify(quizService).updateDailyQuiz(any(), any());
         verify(userRepository).save(userWithStreak);
         assertEquals(0, userWithStreak.getDailyStreak());
@@ -115,6 +137,29 @@ class DailyQuizSchedulerServiceTest {
         verifyNoInteractions(emailService);
     }
 
+    @Test
+    void generateDailyQuiz_WhenBufferEmpty_UsesQuestionPoolBeforeApi() {
+        LocalDate today = LocalDate.now();
+        when(quizRepository.findByCategoriesAndDate(QuizCategory.DAILY_QUIZ, today))
+                .thenReturn(Collections.emptyList());
+        when(quizService.updateDailyQuizFromPool(any(), eq(DailyQuizBufferService.DAILY_QUIZ_QUESTIONS)))
+                .thenReturn(true);
+        when(userRepository.findAll()).thenReturn(List.of());
+
+        schedulerService.generateDailyQuiz();
+
+        verify(quizService).updateDailyQuizFromPool(any(QuizCategory.class), eq(DailyQuizBufferService.DAILY_QUIZ_QUESTIONS));
+        verify(quizService, never()).updateDailyQuiz(any(), any());
+        verifyNoInteractions(createAiRequest);
+    }
+
+    @Test
+    void refillDailyQuizBuffer_DelegatesToBufferService() {
+        schedulerService.refillDailyQuizBuffer();
+
+        verify(dailyQuizBufferService).refill();
+    }
+
     @Test
     void dailyQuizStreakReminder_UserMissedQuizWithStreak_SendsEmail() {
         User eligibleUser = createUser(true, 5, LocalDate.now().minusDays(1));
@@ -0,0 +1,96 @@
+package rh.ptp.quizapp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import rh.ptp.quizapp.event.*;
+import rh.ptp.quizapp.model.User;
+import rh.ptp.quizapp.model.UserRole;
+import rh.ptp.quizapp.repository.UserRepository;
+
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailNotificationListenerTest {
+
+    @Mock private EmailOutboxService emailOutboxService;
+    @Mock private UserRepository userRepository;
+
+    private EmailNotificationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new EmailNotificationListener(emailOutboxService, userRepository,
+                "http://frontend", "admin@example.com");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void verificationRequested_EnqueuesVerificationLink() {
+        listener.on(new VerificationRequestedEvent("test@example.com", "Tester", "abc"));
+
+        ArgumentCaptor<Map<String, Object>> variables = ArgumentCaptor.forClass(Map.class);
+        verify(emailOutboxService).enqueue(eq("test@example.com"), eq("E-Mail-Adresse verifizieren"),
+                eq("verification-email"), variables.capture());
+        assertEquals("http://frontend/verify-email/abc", variables.getValue().get("verificationUrl"));
+        assertEquals("Tester", variables.getValue().get("username"));
+    }
+
+    @Test
+    void roleChanged_EnqueuesPromotionOrDemotion() {
+        listener.on(new RoleChangedEvent("a@example.com", "A", UserRole.ROLE_ADMIN));
+        listener.on(new RoleChangedEvent("b@example.com", "B", UserRole.ROLE_USER));
+
+        verify(emailOutboxService).enqueue(eq("a@example.com"), anyString(), eq("admin-promoted"), anyMap());
+        verify(emailOutboxService).enqueue(eq("b@example.com"), anyString(), eq("admin-demoted"), anyMap());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void accountUpdated_IncludesEmailVariable() {
+        listener.on(new AccountUpdatedEvent("new@example.com", "Neu"));
+
+        ArgumentCaptor<Map<String, Object>> variables = ArgumentCaptor.forClass(Map.class);
+        verify(emailOutboxService).enqueue(eq("new@example.com"), anyString(), eq("account-updated"), variables.capture());
+        assertEquals("new@example.com", variables.getValue().get("email"));
+    }
+
+    @Test
+    void generationFailed_EnqueuesOncePerAdmin() {
+        User admin1 = new User().setName("admin1").setEmail("admin1@example.com");
+        User admin2 = new User().setName("admin2").setEmail("admin2@example.com");
+        when(userRepository.findAllByRole(UserRole.ROLE_ADMIN)).thenReturn(List.of(admin1, admin2));
+
+        listener.on(new DailyQuizGenerationFailedEvent("API connection error", LocalDateTime.now()));
+
+        verify(emailOutboxService, times(2)).enqueue(eq("admin@example.com"), eq("Fehler bei der Generierung des täglichen Quizzes!"),
+                eq("failed-generation-daily"), argThat(v -> "API connection error".equals(v.get("errorMessage"))));
+    }
+
+    @Test
+    void handlers_RunBeforeCommit() {
+        List<Method> handlers = Arrays.stream(EmailNotificationListener.class.getDeclaredMethods())
+                .filter(m -> m.isAnnotationPresent(TransactionalEventListener.class))
+                .toList();
+
+        assertFalse(handlers.isEmpty());
+        for (Method handler : handlers) {
+            TransactionalEventListener annotation = handler.getAnnotation(TransactionalEventListener.class);
+            assertEquals(TransactionPhase.BEFORE_COMMIT, annotation.phase(), handler::toString);
+            assertTrue(annotation.fallbackExecution(), handler::toString);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package rh.ptp.quizapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rh.ptp.quizapp.model.EmailOutboxMessage;
+import rh.ptp.quizapp.repository.EmailOutboxRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxServiceTest {
+
+    @Mock private EmailOutboxRepository outboxRepository;
+    @Mock private EmailService emailService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EmailOutboxService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new EmailOutboxService(outboxRepository, emailService, new ObjectMapper(), 10, 3, 60, meterRegistry);
+    }
+
+    private static EmailOutboxMessage message(long id, int attempts) {
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setId(id);
+        message.setRecipient("test@example.com");
+        message.setSubject("Betreff");
+        message.setTemplate("account-deleted");
+        message.setVariables("{\"username\":\"Tester\"}");
+        message.setAttempts(attempts);
+        return message;
+    }
+
+    @Test
+    void enqueue_StoresSerializedVariables() {
+        service.enqueue("test@example.com", "Betreff", "account-deleted", Map.of("username", "Tester"));
+
+        ArgumentCaptor<EmailOutboxMessage> captor = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+        verify(outboxRepository).save(captor.capture());
+        assertEquals("test@example.com", captor.getValue().getRecipient());
+        assertEquals("{\"username\":\"Tester\"}", captor.getValue().getVariables());
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    void dispatch_SendsMessageAndMarksItSent() {
+        when(outboxRepository.findDue(any(), eq(3), any())).thenReturn(List.of(message(1L, 0)));
+        when(outboxRepository.countPending(3)).thenReturn(0L);
+
+        service.dispatch();
+
+        verify(emailService).sendEmail(eq("test@example.com"), eq("Betreff"), eq("account-deleted"),
+                argThat(variables -> "Tester".equals(variables.get("username"))));
+        verify(outboxRepository).markSent(eq(1L), any());
+        assertEquals(1.0, meterRegistry.get("email.outbox.sent").counter().count());
+    }
+
+    @Test
+    void dispatch_FailureIsRecordedWithBackoffAndDoesNotStopOtherMessages() {
+        when(outboxRepository.findDue(any(), eq(3), any())).thenReturn(List.of(message(1L, 1), message(2L, 0)));
+        when(outboxRepository.countPending(3)).thenReturn(1L);
+        doThrow(new RuntimeException("SMTP down")).doNothing()
+                .when(emailService).sendEmail(anyString(), anyString(), anyString(), anyMap());
+
+        LocalDateTime before = LocalDateTime.now();
+        service.dispatch();
+
+        ArgumentCaptor<LocalDateTime> next = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepository).markFailed(eq(1L), eq("SMTP down"), next.capture());
+        assertFalse(next.getValue().isBefore(before.plusSeconds(120)));
+        verify(outboxRepository).markSent(eq(2L), any());
+        verify(outboxRepository, never()).markSent(eq(1L), any());
+        assertEquals(1.0, meterRegistry.get("email.outbox.failed").counter().count());
+        assertEquals(1.0, meterRegistry.get("email.outbox.pending").gauge().value());
+    }
+
+    @Test
+    void dispatch_LastFailedAttemptAbandonsMessage() {
+        when(outboxRepository.findDue(any(), eq(3), any())).thenReturn(List.of(message(1L, 2)));
+        doThrow(new RuntimeException("SMTP down"))
+                .when(emailService).sendEmail(anyString(), anyString(), anyString(), anyMap());
+
+        service.dispatch();
+
+        verify(outboxRepository).markAbandoned(eq(1L), eq("SMTP down"), any());
+        verify(outboxRepository, never()).markFailed(anyLong(), any(), any());
+    }
+
+    @Test
+    void purgeSent_DeletesSentAndAbandonedMessages() {
+        LocalDateTime before = LocalDateTime.now().minusDays(30);
+
+        service.purgeSent();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepository).deleteFinishedBefore(cutoff.capture(), eq(3));
+        assertFalse(cutoff.getValue().isBefore(before));
+    }
+}
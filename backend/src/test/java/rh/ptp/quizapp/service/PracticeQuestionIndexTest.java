@@ -0,0 +1,170 @@
+package rh.ptp.quizapp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rh.ptp.quizapp.dto.PracticeQuestionEntry;
+import rh.ptp.quizapp.event.QuizDeletedEvent;
+import rh.ptp.quizapp.event.QuizSavedEvent;
+import rh.ptp.quizapp.model.Quiz;
+import rh.ptp.quizapp.model.QuizCategory;
+import rh.ptp.quizapp.model.QuizQuestion;
+import rh.ptp.quizapp.repository.QuizQuestionRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PracticeQuestionIndexTest {
+
+    @Mock
+    private QuizQuestionRepository quizQuestionRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PracticeQuestionIndex index;
+    private final LocalDate today = LocalDate.of(2025, 6, 1);
+    private final long science = QuizCategory.SCIENCE.maskLo();
+    private final long history = QuizCategory.HISTORY.maskLo();
+    private final long daily = QuizCategory.DAILY_QUIZ.maskLo();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        index = new PracticeQuestionIndex(quizQuestionRepository, meterRegistry);
+        List<PracticeQuestionEntry> entries = new ArrayList<>();
+        // Quiz 1: Wissenschaft, Fragen 1–20 mit Schwierigkeit 1, 21–40 mit Schwierigkeit 5
+        LongStream.rangeClosed(1, 40).forEach(id ->
+                entries.add(new PracticeQuestionEntry(id, 1L, id <= 20 ? 1 : 5, science, 0L, null)));
+        // Quiz 2: Geschichte und Wissenschaft
+        entries.add(new PracticeQuestionEntry(41L, 2L, 3, science | history, 0L, null));
+        // Quiz 3: heutiges Tagesquiz
+        entries.add(new PracticeQuestionEntry(42L, 3L, 3, science | daily, 0L, today));
+        when(quizQuestionRepository.streamPracticeEntries()).thenReturn(entries.stream());
+        index.rebuild();
+    }
+
+    @Test
+    void rebuild_IndexesAllEntries() {
+        assertEquals(42, index.size());
+        assertEquals(42.0, meterRegistry.get("quiz.practice.questions").gauge().value());
+    }
+
+    @Test
+    void sample_ReturnsDistinctQuestionsOfCategory() {
+        List<Long> ids = index.sample(QuizCategory.SCIENCE, 3, 30, today);
+
+        assertEquals(30, ids.size());
+        assertEquals(30, new HashSet<>(ids).size());
+        assertFalse(ids.contains(42L), "heutiges Tagesquiz darf nicht gezogen werden");
+    }
+
+    @Test
+    void sample_PrefersTargetDifficulty() {
+        int hard = 0;
+        for (int i = 0; i < 200; i++) {
+            hard += (int) index.sample(QuizCategory.SCIENCE, 5, 1, today).stream().filter(id -> id > 20 && id <= 40).count();
+        }
+        // Gewicht 8 gegen 1 pro Frage: etwa 89 % schwere Fragen
+        assertTrue(hard > 150, "schwere Fragen: " + hard);
+    }
+
+    @Test
+    void sample_OtherCategory_OnlyMatchingQuestions() {
+        assertEquals(List.of(41L), index.sample(QuizCategory.HISTORY, 1, 10, today));
+        assertTrue(index.sample(QuizCategory.MUSIC, 3, 10, today).isEmpty());
+    }
+
+    @Test
+    void sample_DailyQuizFromYesterday_IsIncluded() {
+        List<Long> ids = index.sample(QuizCategory.DAILY_QUIZ, 3, 10, today.plusDays(1));
+
+        assertEquals(List.of(42L), ids);
+    }
+
+    @Test
+    void put_ReplacesQuestionsAndRemovesPrivateQuiz() {
+        Quiz quiz = new Quiz();
+        quiz.setId(2L);
+        quiz.setPublic(true);
+        quiz.setCategories(new ArrayList<>(List.of(QuizCategory.HISTORY)));
+        QuizQuestion question = new QuizQuestion();
+        question.setId(99L);
+        question.setDifficulty(2);
+        quiz.setQuestions(new ArrayList<>(List.of(question)));
+
+        index.put(quiz);
+        assertEquals(List.of(99L), index.sample(QuizCategory.HISTORY, 2, 10, today));
+        assertEquals(42, index.size());
+
+        quiz.setPublic(false);
+        index.put(quiz);
+        assertTrue(index.sample(QuizCategory.HISTORY, 2, 10, today).isEmpty());
+        assertEquals(41, index.size());
+    }
+
+    @Test
+    void remove_DropsAllQuestionsOfQuiz() {
+        index.remove(1L);
+
+        assertEquals(2, index.size());
+        assertEquals(List.of(41L), index.sample(QuizCategory.SCIENCE, 3, 10, today));
+    }
+
+    @Test
+    void rebuild_ReplaysUpdatesReceivedDuringBuild() {
+        Quiz quiz = new Quiz();
+        quiz.setId(4L);
+        quiz.setPublic(true);
+        quiz.setCategories(new ArrayList<>(List.of(QuizCategory.HISTORY)));
+        QuizQuestion question = new QuizQuestion();
+        question.setId(50L);
+        question.setDifficulty(3);
+        quiz.setQuestions(new ArrayList<>(List.of(question)));
+        // Änderungen, die committet werden, während der Aufbau noch liest
+        when(quizQuestionRepository.streamPracticeEntries()).thenReturn(Stream.of(
+                new PracticeQuestionEntry(41L, 2L, 3, science | history, 0L, null),
+                new PracticeQuestionEntry(43L, 5L, 3, history, 0L, null)
+        ).peek(e -> {
+            if (e.quizId() == 5L) {
+                index.on(new QuizSavedEvent(quiz));
+                index.on(new QuizDeletedEvent(2L, List.of()));
+            }
+        }));
+
+        index.rebuild();
+
+        assertEquals(2, index.size());
+        assertEquals(new HashSet<>(List.of(43L, 50L)), new HashSet<>(index.sample(QuizCategory.HISTORY, 3, 10, today)));
+    }
+
+    @Test
+    void aliasTable_FollowsWeights() {
+        PracticeQuestionIndex.AliasTable table = new PracticeQuestionIndex.AliasTable(new long[]{0, 3, 1});
+        Random random = new Random(42);
+        int[] counts = new int[3];
+        for (int i = 0; i < 40_000; i++) {
+            counts[table.next(random)]++;
+        }
+
+        assertEquals(0, counts[0]);
+        assertEquals(0.75, counts[1] / 40_000.0, 0.02);
+    }
+
+    @Test
+    void levelWeight_HalvesPerStep() {
+        assertEquals(8, PracticeQuestionIndex.levelWeight(3, 3));
+        assertEquals(4, PracticeQuestionIndex.levelWeight(2, 3));
+        assertEquals(1, PracticeQuestionIndex.levelWeight(5, 1));
+    }
+}
@@ -0,0 +1,149 @@
+package rh.ptp.quizapp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rh.ptp.quizapp.dto.CategoryCount;
+import rh.ptp.quizapp.dto.GeneratedQuestion;
+import rh.ptp.quizapp.dto.QuestionTextRow;
+import rh.ptp.quizapp.model.PoolQuestion;
+import rh.ptp.quizapp.model.QuizCategory;
+import rh.ptp.quizapp.repository.PoolQuestionRepository;
+import rh.ptp.quizapp.repository.QuizQuestionRepository;
+import rh.ptp.quizapp.util.CreateAiRequest;
+import rh.ptp.quizapp.util.QuestionText;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class QuestionPoolServiceTest {
+
+    @Mock
+    private PoolQuestionRepository poolQuestionRepository;
+    @Mock
+    private QuizQuestionRepository quizQuestionRepository;
+    @Mock
+    private CreateAiRequest createAiRequest;
+    @Mock
+    private QuestionSimilarityService questionSimilarityService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private QuestionPoolService questionPoolService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        questionPoolService = new QuestionPoolService(poolQuestionRepository, quizQuestionRepository, createAiRequest,
+                questionSimilarityService, 20, 10, 2, meterRegistry);
+    }
+
+    private static GeneratedQuestion question(String text, int difficulty) {
+        return new GeneratedQuestion(text, List.of("Ja", "Nein"), "Ja", difficulty);
+    }
+
+    private static PoolQuestion poolQuestion(long id, String text, int difficulty) {
+        PoolQuestion p = new PoolQuestion();
+        p.setId(id);
+        p.setCategory(QuizCategory.SCIENCE);
+        p.setQuestion(text);
+        p.setAnswers(List.of("Ja", "Nein"));
+        p.setCorrectAnswer("Ja");
+        p.setDifficulty(difficulty);
+        return p;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void addToPool_DropsDuplicatesWithinBatchPoolQuizzesAndNearDuplicates() {
+        List<GeneratedQuestion> batch = List.of(
+                question("Ist Wasser nass?", 1),
+                question("ist wasser   nass", 2),
+                question("Schon im Pool?", 1),
+                question("Schon in einem Quiz?", 1),
+                question("Neu?", 3));
+        when(poolQuestionRepository.findExistingTextHashes(anyCollection()))
+                .thenReturn(List.of(QuestionText.hash("Schon im Pool?")));
+        when(quizQuestionRepository.findExistingTextHashes(anyCollection()))
+                .thenReturn(List.of(QuestionText.hash("Schon in einem Quiz?")));
+        when(questionSimilarityService.filterNearDuplicates(anyList()))
+                .thenAnswer(inv -> ((List<GeneratedQuestion>) inv.getArgument(0)).stream()
+                        .filter(q -> !q.question().equals("Neu?"))
+                        .toList());
+
+        int stored = questionPoolService.addToPool(QuizCategory.SCIENCE, batch);
+
+        assertEquals(1, stored);
+        ArgumentCaptor<List<PoolQuestion>> captor = ArgumentCaptor.forClass(List.class);
+        verify(poolQuestionRepository).saveAll(captor.capture());
+        assertEquals(List.of("Ist Wasser nass?"), captor.getValue().stream().map(PoolQuestion::getQuestion).toList());
+        assertEquals(QuizCategory.SCIENCE, captor.getValue().get(0).getCategory());
+        assertEquals(1, captor.getValue().get(0).getDifficulty());
+        assertEquals(4.0, meterRegistry.get("question.pool.duplicates").counter().count());
+    }
+
+    @Test
+    void takeForDailyQuiz_EnoughQuestions_MarksUsedAndSortsByDifficulty() {
+        when(poolQuestionRepository.lockUnusedIds("SCIENCE", 2)).thenReturn(List.of(1L, 2L));
+        when(poolQuestionRepository.markUsed(eq(List.of(1L, 2L)), any())).thenReturn(2);
+        when(poolQuestionRepository.findAllById(List.of(1L, 2L)))
+                .thenReturn(List.of(poolQuestion(1L, "Schwer?", 4), poolQuestion(2L, "Leicht?", 1)));
+
+        Optional<List<GeneratedQuestion>> questions = questionPoolService.takeForDailyQuiz(QuizCategory.SCIENCE, 2);
+
+        assertTrue(questions.isPresent());
+        assertEquals(List.of("Leicht?", "Schwer?"), questions.get().stream().map(GeneratedQuestion::question).toList());
+    }
+
+    @Test
+    void takeForDailyQuiz_NotEnoughQuestions_ReturnsEmpty() {
+        when(poolQuestionRepository.lockUnusedIds("SCIENCE", 10)).thenReturn(List.of(1L));
+
+        assertTrue(questionPoolService.takeForDailyQuiz(QuizCategory.SCIENCE, 10).isEmpty());
+        verify(poolQuestionRepository, never()).markUsed(any(), any());
+    }
+
+    @Test
+    void takeForDailyQuiz_NotAllMarked_ThrowsToRollBack() {
+        when(poolQuestionRepository.lockUnusedIds("SCIENCE", 2)).thenReturn(List.of(1L, 2L));
+        when(poolQuestionRepository.markUsed(eq(List.of(1L, 2L)), any())).thenReturn(1);
+
+        assertThrows(IllegalStateException.class, () -> questionPoolService.takeForDailyQuiz(QuizCategory.SCIENCE, 2));
+    }
+
+    @Test
+    void refill_FillsEmptiestCategoriesUpToBatchLimit() {
+        List<CategoryCount> counts = new java.util.ArrayList<>();
+        for (QuizCategory category : QuizCategory.values()) {
+            if (category != QuizCategory.DAILY_QUIZ && category != QuizCategory.HISTORY && category != QuizCategory.MUSIC) {
+                counts.add(new CategoryCount(category, 10));
+            }
+        }
+        counts.add(new CategoryCount(QuizCategory.MUSIC, 3));
+        when(poolQuestionRepository.countUnusedByCategory()).thenReturn(counts);
+        when(createAiRequest.fetchQuestionBatch(anyString(), eq(20))).thenReturn(List.of());
+
+        questionPoolService.refill();
+
+        verify(createAiRequest).fetchQuestionBatch(QuizCategory.HISTORY.getDisplayName(), 20);
+        verify(createAiRequest).fetchQuestionBatch(QuizCategory.MUSIC.getDisplayName(), 20);
+        verifyNoMoreInteractions(createAiRequest);
+    }
+
+    @Test
+    void backfillTextHashes_UpdatesQuestionsWithoutHash() {
+        when(quizQuestionRepository.findWithoutTextHash(any())).thenReturn(List.of(new QuestionTextRow(7L, "Frage?")));
+        when(quizQuestionRepository.updateTextHash(7L, QuestionText.hash("Frage?"))).thenReturn(1);
+
+        questionPoolService.backfillTextHashes();
+
+        verify(quizQuestionRepository).updateTextHash(7L, QuestionText.hash("Frage?"));
+    }
+}
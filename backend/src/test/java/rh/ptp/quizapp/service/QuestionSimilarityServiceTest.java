@@ -0,0 +1,93 @@
+package rh.ptp.quizapp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rh.ptp.quizapp.dto.GeneratedQuestion;
+import rh.ptp.quizapp.dto.QuestionSignatureRow;
+import rh.ptp.quizapp.dto.QuestionTextRow;
+import rh.ptp.quizapp.dto.SimilarQuestion;
+import rh.ptp.quizapp.repository.QuizQuestionRepository;
+import rh.ptp.quizapp.util.MinHash;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class QuestionSimilarityServiceTest {
+
+    @Mock
+    private QuizQuestionRepository quizQuestionRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private QuestionSimilarityService questionSimilarityService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        questionSimilarityService = new QuestionSimilarityService(quizQuestionRepository, 0.7, 1000, meterRegistry);
+    }
+
+    private static QuestionSignatureRow row(long id, String question) {
+        return new QuestionSignatureRow(id, 100 + id, question, MinHash.toBytes(MinHash.signature(question)));
+    }
+
+    private static GeneratedQuestion question(String text) {
+        return new GeneratedQuestion(text, List.of("Ja", "Nein"), "Ja");
+    }
+
+    @Test
+    void filterNearDuplicates_DropsQuestionsSimilarToExistingOrEarlierOnes() {
+        when(quizQuestionRepository.findByLshBuckets(anyCollection(), any()))
+                .thenReturn(List.of(row(1L, "Was ist die Hauptstadt von Frankreich?")));
+        List<GeneratedQuestion> batch = List.of(
+                question("Was ist die Hauptstadt von Frankreich"),
+                question("Wie viele Beine hat eine Spinne?"),
+                question("Wie viele Beine hat eine Spinne eigentlich?"),
+                question("In welchem Jahr fiel die Berliner Mauer?"));
+
+        List<GeneratedQuestion> unique = questionSimilarityService.filterNearDuplicates(batch);
+
+        assertEquals(List.of("Wie viele Beine hat eine Spinne?", "In welchem Jahr fiel die Berliner Mauer?"),
+                unique.stream().map(GeneratedQuestion::question).toList());
+        assertEquals(2.0, meterRegistry.get("question.near_duplicates").counter().count());
+        verify(quizQuestionRepository, times(1)).findByLshBuckets(anyCollection(), any());
+    }
+
+    @Test
+    void findSimilar_ReturnsOnlyCandidatesAboveThreshold() {
+        when(quizQuestionRepository.findByLshBuckets(anyCollection(), any())).thenReturn(List.of(
+                row(1L, "Welcher Planet ist der größte in unserem Sonnensystem?"),
+                row(2L, "Welcher Planet ist der kleinste?")));
+
+        List<SimilarQuestion> similar = questionSimilarityService.findSimilar("Welcher Planet ist der größte in unserem Sonnensystem");
+
+        assertEquals(1, similar.size());
+        assertEquals(1L, similar.get(0).questionId());
+        assertEquals(101L, similar.get(0).quizId());
+        assertEquals(1.0, similar.get(0).similarity());
+    }
+
+    @Test
+    void findSimilar_EmptyText_DoesNotQuery() {
+        assertTrue(questionSimilarityService.findSimilar("  ").isEmpty());
+        verifyNoInteractions(quizQuestionRepository);
+    }
+
+    @Test
+    void backfillSignatures_WritesBucketsAndSignature() {
+        when(quizQuestionRepository.findWithoutMinHash(any())).thenReturn(List.of(new QuestionTextRow(7L, "Frage?")));
+        when(quizQuestionRepository.updateMinHash(eq(7L), any())).thenReturn(1);
+
+        questionSimilarityService.backfillSignatures();
+
+        verify(quizQuestionRepository).deleteLshBuckets(7L);
+        verify(quizQuestionRepository, times(MinHash.BANDS)).insertLshBucket(eq(7L), anyLong());
+        verify(quizQuestionRepository).updateMinHash(7L, MinHash.toBytes(MinHash.signature("Frage?")));
+    }
+}
@@ -7,6 +7,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import rh.ptp.quizapp.dto.ScoreDTO;
+import rh.ptp.quizapp.dto.UserScore;
 import rh.ptp.quizapp.model.Quiz;
 import rh.ptp.quizapp.model.QuizResult;
 import rh.ptp.quizapp.model.User;
@@ -21,6 +22,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +37,9 @@ class QuizResultServiceTest {
     @Mock
     private QuizRepository quizRepository;
 
+    @Mock
+    private DailyCompletionService dailyCompletionService;
+
     @InjectMocks
     private QuizResultService quizResultService;
 
@@ -54,6 +59,7 @@ class QuizResultServiceTest {
 
         assertNotNull(actualResult);
         verify(quizResultRepository).save(any(QuizResult.class));
+        verify(dailyCompletionService).recordIfDaily(userId, mockQuiz, expectedResult.getPlayedAt());
     }
 
     @Test
@@ -124,10 +130,8 @@ class QuizResultServiceTest {
 
     @Test
     void getTopScores_ValidData_ReturnsTop10() {
-        Object[] mockEntry = {1L, 100};
         when(quizResultRepository.findTopUserScores(PageRequest.of(0, 10)))
-                .thenReturn(Collections.singletonList(mockEntry));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(new User().setName("testUser")));
+                .thenReturn(Collections.singletonList(new UserScore(1L, "testUser", 100L)));
 
         List<ScoreDTO> scores = quizResultService.getTopScores();
 
@@ -135,13 +139,13 @@ class QuizResultServiceTest {
         assertEquals("testUser", scores.get(0).getUsername());
         assertEquals(100, scores.get(0).getScore());
         assertEquals(-1, scores.get(0).getRank());
+        verifyNoInteractions(userRepository);
     }
 
     @Test
     void getTopScores_UserNotFound_HandlesGracefully() {
-        Object[] mockEntry = {1L, 100};
-        when(quizResultRepository.findTopUserScores(any())).thenReturn(Collections.singletonList(mockEntry));
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(quizResultRepository.findTopUserScores(any()))
+                .thenReturn(Collections.singletonList(new UserScore(1L, null, 100L)));
 
         List<ScoreDTO> scores = quizResultService.getTopScores();
 
@@ -151,15 +155,8 @@ class QuizResultServiceTest {
     @Test
     void getUserScoreAndRank_UserFound_ReturnsScoreAndRank() {
         Long userId = 1L;
-        Object[] mockEntry1 = {userId, 100L};
-        Object[] mockEntry2 = {2L, 90L};
-
         when(quizResultRepository.findAllUserScoresOrdered())
-                .thenReturn(List.of(mockEntry1, mockEntry2));
-
-        User user = new User();
-        user.setName("testUser");
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+                .thenReturn(List.of(new UserScore(userId, "testUser", 100L), new UserScore(2L, "other", 90L)));
 
         ScoreDTO result = quizResultService.getUserScoreAndRank(userId);
 
@@ -168,6 +165,18 @@ class QuizResultServiceTest {
         assertEquals(1, result.getRank());
     }
 
+    @Test
+    void getUserScoreAndRank_SecondPlace_ReturnsRankTwo() {
+        when(quizResultRepository.findAllUserScoresOrdered())
+                .thenReturn(List.of(new UserScore(1L, "first", 100L), new UserScore(2L, "second", 90L)));
+
+        ScoreDTO result = quizResultService.getUserScoreAndRank(2L);
+
+        assertEquals("second", result.getUsername());
+        assertEquals(90, result.getScore());
+        assertEquals(2, result.getRank());
+    }
+
     @Test
     void getUserScoreAndRank_UserNotFound_ReturnsDefault() {
         Long userId = 99L;
@@ -183,9 +192,8 @@ class QuizResultServiceTest {
     @Test
     void getUserScoreAndRank_UserNotInList_ReturnsDefault() {
         Long userId = 2L;
-        List<Object[]> orderedList = Collections.singletonList(new Object[]{1L, 100L});
-
-        when(quizResultRepository.findAllUserScoresOrdered()).thenReturn(orderedList);
+        when(quizResultRepository.findAllUserScoresOrdered())
+                .thenReturn(Collections.singletonList(new UserScore(1L, "testUser", 100L)));
 
         ScoreDTO result = quizResultService.getUserScoreAndRank(userId);
 
@@ -193,4 +201,4 @@ class QuizResultServiceTest {
         assertEquals(0, result.getScore());
         assertEquals(-1, result.getRank());
     }
-}
\ No newline at end of file
+}
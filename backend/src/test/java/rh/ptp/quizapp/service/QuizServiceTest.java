@@ -1,27 +1,42 @@
 package rh.ptp.quizapp.service;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import rh.ptp.quizapp.dto.GeneratedQuestion;
 import rh.ptp.quizapp.dto.QuizDTO;
+import rh.ptp.quizapp.dto.QuizFeedbackDTO;
+import rh.ptp.quizapp.dto.QuizHistoryDTO;
 import rh.ptp.quizapp.dto.QuizQuestionDTO;
+import rh.ptp.quizapp.dto.QuizSearchHit;
+import rh.ptp.quizapp.dto.QuizSearchResultDTO;
+import rh.ptp.quizapp.dto.WrongAnswerDTO;
+import rh.ptp.quizapp.event.QuizDeletedEvent;
+import rh.ptp.quizapp.event.QuizSavedEvent;
 import rh.ptp.quizapp.model.Quiz;
 import rh.ptp.quizapp.model.QuizCategory;
 import rh.ptp.quizapp.model.QuizQuestion;
 import rh.ptp.quizapp.repository.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -45,6 +60,16 @@ public class QuizServiceTest {
     private QuizFavoriteRepository quizFavoriteRepository;
     @Mock
     private UserService userService;
+    @Mock
+    private QuizTypeaheadIndex quizTypeaheadIndex;
+    @Mock
+    private QuestionSimilarityService questionSimilarityService;
+    @Mock
+    private PracticeQuestionIndex practiceQuestionIndex;
+    @Mock
+    private QuestionPoolService questionPoolService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private QuizService quizService;
@@ -92,6 +117,7 @@ public class QuizServiceTest {
         Quiz result = quizService.createQuiz(quizDTO, userId);
         assertNotNull(result);
         verify(quizRepository).save(any(Quiz.class));
+        verify(eventPublisher).publishEvent(new QuizSavedEvent(quiz));
     }
 
     @Test
@@ -113,6 +139,7 @@ public class QuizServiceTest {
         newQuestionDTO.setAnswers(List.of("A", "B"));
         newQuestionDTO.setCorrectAnswer("A");
         quizDTO.setQuestions(List.of(newQuestionDTO));
+        quizDTO.setPublic(true);
 
         when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
         when(quizRepository.save(any())).thenReturn(quiz);
@@ -122,6 +149,99 @@ public class QuizServiceTest {
         assertNotNull(result);
         assertEquals(1, result.getQuestions().size());
         verify(quizRepository).save(quiz);
+        verify(eventPublisher).publishEvent(new QuizSavedEvent(quiz,
+                List.of(QuizCategory.HISTORY), List.of(QuizCategory.SCIENCE)));
+    }
+
+    @Test
+    void updateQuiz_MadePrivate_PublishesNoPublicCategories() {
+        quiz.setQuestions(new ArrayList<>());
+        quizDTO.setPublic(false);
+        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
+        when(quizRepository.save(any())).thenReturn(quiz);
+
+        quizService.updateQuiz(quizId, quizDTO, userId);
+
+        verify(eventPublisher).publishEvent(new QuizSavedEvent(quiz, List.of(QuizCategory.HISTORY), List.of()));
+    }
+
+    @Test
+    void updateQuiz_MatchesQuestionsById() {
+        QuizQuestion kept = new QuizQuestion();
+        kept.setId(1L);
+        kept.setQuestion("Alte Frage");
+        List<String> keptAnswers = new ArrayList<>(List.of("A", "B"));
+        kept.setAnswers(keptAnswers);
+        QuizQuestion dropped = new QuizQuestion();
+        dropped.setId(2L);
+        quiz.setQuestions(new ArrayList<>(List.of(kept, dropped)));
+
+        QuizQuestionDTO keptDTO = new QuizQuestionDTO();
+        keptDTO.setId(1L);
+        keptDTO.setQuestion("Korrigierte Frage");
+        keptDTO.setAnswers(List.of("A", "B"));
+        keptDTO.setCorrectAnswer("A");
+        QuizQuestionDTO addedDTO = new QuizQuestionDTO();
+        addedDTO.setQuestion("Neue Frage");
+        addedDTO.setAnswers(List.of("C", "D"));
+        addedDTO.setCorrectAnswer("D");
+        quizDTO.setQuestions(List.of(keptDTO, addedDTO));
+
+        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
+        when(quizRepository.save(any())).thenReturn(quiz);
+
+        quizService.updateQuiz(quizId, quizDTO, userId);
+
+        assertEquals(2, quiz.getQuestions().size());
+        assertSame(kept, quiz.getQuestions().get(0));
+        assertEquals("Korrigierte Frage", kept.getQuestion());
+        assertSame(keptAnswers, kept.getAnswers());
+        assertFalse(quiz.getQuestions().contains(dropped));
+        QuizQuestion added = quiz.getQuestions().get(1);
+        assertNull(added.getId());
+        assertSame(quiz, added.getQuiz());
+        assertEquals(List.of("C", "D"), added.getAnswers());
+    }
+
+    @Test
+    void updateQuiz_SameCategories_KeepsCollection() {
+        List<QuizCategory> categories = quiz.getCategories();
+        quiz.setQuestions(new ArrayList<>());
+        quizDTO.setCategories(new ArrayList<>(List.of(QuizCategory.HISTORY)));
+        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
+        when(quizRepository.save(any())).thenReturn(quiz);
+
+        quizService.updateQuiz(quizId, quizDTO, userId);
+
+        assertSame(categories, quiz.getCategories());
+        assertEquals(List.of(QuizCategory.HISTORY), categories);
+    }
+
+    @Test
+    void updateQuiz_ChangedCategories_UpdatesCollectionInPlace() {
+        List<QuizCategory> categories = quiz.getCategories();
+        quiz.setQuestions(new ArrayList<>());
+        quiz.setDailyQuiz(true);
+        quizDTO.setCategories(new ArrayList<>(List.of(QuizCategory.SCIENCE, QuizCategory.HISTORY)));
+        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
+        when(quizRepository.save(any())).thenReturn(quiz);
+
+        quizService.updateQuiz(quizId, quizDTO, userId);
+
+        assertSame(categories, quiz.getCategories());
+        assertEquals(List.of(QuizCategory.HISTORY, QuizCategory.DAILY_QUIZ, QuizCategory.SCIENCE), categories);
+        assertEquals(QuizCategory.HISTORY.maskLo() | QuizCategory.DAILY_QUIZ.maskLo() | QuizCategory.SCIENCE.maskLo(),
+                quiz.getCategoryMaskLo());
+    }
+
+    @Test
+    void updateQuiz_StaleVersion_ThrowsOptimisticLockingFailure() {
+        quiz.setVersion(3L);
+        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> quizService.updateQuiz(quizId, quizDTO, userId, 2L));
+        verify(quizRepository, never()).save(any());
     }
 
     @Test
@@ -138,6 +258,7 @@ public class QuizServiceTest {
         when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
         quizService.deleteQuiz(quizId, userId);
         verify(quizRepository).delete(quiz);
+        verify(eventPublisher).publishEvent(new QuizDeletedEvent(quizId, List.of(QuizCategory.HISTORY)));
     }
 
     @Test
@@ -193,32 +314,79 @@ public class QuizServiceTest {
 
     @Test
     void rateQuiz_RatingOwnQuiz_ThrowsException() {
-        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
+        when(quizRepository.findCreatorIdById(quizId)).thenReturn(Optional.of(userId));
 
         assertThrows(RuntimeException.class, () -> quizService.rateQuiz(quizId, userId, 4));
+        verifyNoInteractions(quizRatingRepository);
     }
 
     @Test
-    void toggleFavorite_AddsFavorite_ReturnsTrue() {
+    void rateQuiz_OtherUsersQuiz_UpsertsRating() {
+        when(quizRepository.findCreatorIdById(quizId)).thenReturn(Optional.of(userId));
+
+        assertEquals(4, quizService.rateQuiz(quizId, userId + 1, 4));
+
+        verify(quizRatingRepository).upsert(eq(quizId), eq(userId + 1), eq(4), any(LocalDateTime.class));
+        verify(quizRepository, never()).findById(any());
+    }
+
+    @Test
+    void rateQuiz_UnknownQuiz_ThrowsException() {
+        when(quizRepository.findCreatorIdById(quizId)).thenReturn(Optional.empty());
 
+        assertThrows(RuntimeException.class, () -> quizService.rateQuiz(quizId, userId, 4));
+        verifyNoInteractions(quizRatingRepository);
+    }
+
+    @Test
+    void toggleFavorite_AddsFavorite_ReturnsTrue() {
         UserDetails userDetails = mock(UserDetails.class);
+        when(userDetails.getUsername()).thenReturn("user@example.com");
+        when(quizFavoriteRepository.toggle(eq("user@example.com"), eq(quizId), any(LocalDateTime.class))).thenReturn(1);
 
-        rh.ptp.quizapp.model.User user = new rh.ptp.quizapp.model.User();
+        assertTrue(quizService.toggleFavorite(quizId, userDetails));
 
-        user.setId(userId);
+        verifyNoInteractions(quizRepository, userService);
+    }
 
-        when(userService.getUserFromUserDetails(userDetails)).thenReturn(user);
+    @Test
+    void addFavorite_UnknownQuiz_ThrowsNoSuchElementException() {
+        UserDetails userDetails = mock(UserDetails.class);
+        when(userDetails.getUsername()).thenReturn("user@example.com");
+        when(quizFavoriteRepository.insertIfAbsent(eq("user@example.com"), eq(quizId), any(LocalDateTime.class)))
+                .thenThrow(new DataIntegrityViolationException("fk_quiz_favorites_quiz"));
 
-        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
+        assertThrows(NoSuchElementException.class, () -> quizService.addFavorite(quizId, userDetails));
+    }
 
-        when(quizFavoriteRepository.findByUserIdAndQuizId(userId, quizId))
+    @Test
+    void removeFavorite_NotFavorited_ReturnsFalse() {
+        UserDetails userDetails = mock(UserDetails.class);
+        when(userDetails.getUsername()).thenReturn("user@example.com");
+        when(quizFavoriteRepository.deleteByUserEmailAndQuizId("user@example.com", quizId)).thenReturn(0);
 
-                .thenReturn(Optional.empty());
+        assertFalse(quizService.removeFavorite(quizId, userDetails));
+    }
 
-        assertTrue(quizService.toggleFavorite(quizId, userDetails));
+    @Test
+    void getFavoriteStatus_ReturnsStatusForEveryRequestedId() {
+        UserDetails userDetails = mock(UserDetails.class);
+        when(userDetails.getUsername()).thenReturn("user@example.com");
+        when(quizFavoriteRepository.findQuizIdsByUserEmailAndQuizIdIn("user@example.com", List.of(3L, 1L, 2L)))
+                .thenReturn(List.of(1L));
+
+        Map<Long, Boolean> status = quizService.getFavoriteStatus(List.of(3L, 1L, 2L), userDetails);
+
+        assertEquals(List.of(3L, 1L, 2L), List.copyOf(status.keySet()));
+        assertEquals(List.of(false, true, false), List.copyOf(status.values()));
+    }
 
-        verify(quizFavoriteRepository).save(any());
+    @Test
+    void getFavoriteStatus_TooManyIds_ThrowsException() {
+        List<Long> ids = LongStream.rangeClosed(1, QuizService.MAX_FAVORITE_STATUS_IDS + 1).boxed().toList();
 
+        assertThrows(IllegalArgumentException.class, () -> quizService.getFavoriteStatus(ids, mock(UserDetails.class)));
+        verifyNoInteractions(quizFavoriteRepository);
     }
 
     @Test
@@ -240,18 +408,262 @@ public class QuizServiceTest {
                 () -> quizService.validateQuizDTO(quizDTO));
     }
 
+    @Test
+    void buildPracticeQuiz_LoadsOnlySampledQuestionsSortedByDifficulty() {
+        QuizQuestion hard = new QuizQuestion();
+        hard.setId(5L);
+        hard.setQuestion("Schwer?");
+        hard.setCorrectAnswer("A");
+        hard.setDifficulty(4);
+        QuizQuestion easy = new QuizQuestion();
+        easy.setId(6L);
+        easy.setQuestion("Leicht?");
+        easy.setCorrectAnswer("B");
+        easy.setDifficulty(2);
+        when(practiceQuestionIndex.sample(eq(QuizCategory.SCIENCE), eq(3), eq(QuizService.MAX_PRACTICE_QUESTIONS), any()))
+                .thenReturn(List.of(5L, 6L));
+        when(quizQuestionRepository.findAllById(List.of(5L, 6L))).thenReturn(List.of(hard, easy));
+
+        QuizDTO practice = quizService.buildPracticeQuiz(QuizCategory.SCIENCE, 3, 500);
+
+        assertNull(practice.getId());
+        assertEquals(List.of("Leicht?", "Schwer?"), practice.getQuestions().stream().map(QuizQuestionDTO::getQuestion).toList());
+        assertTrue(practice.getQuestions().stream().allMatch(q -> q.getCorrectAnswer() == null));
+        assertEquals(List.of(6L, 5L), practice.getQuestions().stream().map(QuizQuestionDTO::getId).toList());
+        verifyNoInteractions(quizRepository);
+    }
+
+    @Test
+    void checkPracticeAnswers_ScoresOnlyPracticeQuestions() {
+        quiz.setPublic(true);
+        Quiz todaysDaily = new Quiz();
+        todaysDaily.setPublic(true);
+        todaysDaily.setDate(LocalDate.now());
+        todaysDaily.setCategories(new ArrayList<>(List.of(QuizCategory.DAILY_QUIZ)));
+        Quiz privateQuiz = new Quiz();
+        privateQuiz.setPublic(false);
+        QuizQuestion right = practiceQuestion(1L, quiz, "A");
+        QuizQuestion wrong = practiceQuestion(2L, quiz, "B");
+        QuizQuestion daily = practiceQuestion(3L, todaysDaily, "C");
+        QuizQuestion hidden = practiceQuestion(4L, privateQuiz, "D");
+        Map<Long, String> answers = Map.of(1L, " a ", 2L, "X", 3L, "X", 4L, "X");
+        when(quizQuestionRepository.findAllById(answers.keySet())).thenReturn(List.of(right, wrong, daily, hidden));
+
+        QuizFeedbackDTO feedback = quizService.checkPracticeAnswers(answers);
+
+        assertEquals(1, feedback.getScore());
+        assertEquals(2, feedback.getMaxScore());
+        assertEquals(List.of("B"), feedback.getWrongAnswers().stream().map(WrongAnswerDTO::getCorrectAnswer).toList());
+        verifyNoInteractions(quizResultRepository);
+    }
+
+    @Test
+    void checkPracticeAnswers_TooManyAnswers_Throws() {
+        Map<Long, String> answers = new HashMap<>();
+        LongStream.rangeClosed(1, QuizService.MAX_PRACTICE_QUESTIONS + 1).forEach(id -> answers.put(id, "A"));
+
+        assertThrows(IllegalArgumentException.class, () -> quizService.checkPracticeAnswers(answers));
+        verifyNoInteractions(quizQuestionRepository);
+    }
+
+    private static QuizQuestion practiceQuestion(long id, Quiz quiz, String correctAnswer) {
+        QuizQuestion question = new QuizQuestion();
+        question.setId(id);
+        question.setQuiz(quiz);
+        question.setQuestion("Frage " + id);
+        question.setCorrectAnswer(correctAnswer);
+        return question;
+    }
+
     @Test
     void updateDailyQuiz_ValidInput_CreatesQuiz() {
-        JSONArray questions = new JSONArray();
-        JSONObject q1 = new JSONObject();
-        q1.put("Frage", "Question?");
-        q1.put("Antworten", new JSONArray(List.of("A1", "A2")));
-        q1.put("RichtigeAntwort", "A1");
-        questions.put(q1);
+        List<GeneratedQuestion> questions = List.of(new GeneratedQuestion("Question?", List.of("A1", "A2"), "A1"));
 
+        when(questionSimilarityService.filterNearDuplicates(questions)).thenReturn(questions);
         when(userRepository.findByEmail(any())).thenReturn(Optional.empty());
+        when(quizRepository.save(any(Quiz.class))).thenAnswer(inv -> inv.getArgument(0));
 
         quizService.updateDailyQuiz(questions, QuizCategory.SCIENCE);
         verify(quizRepository).save(any(Quiz.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateDailyQuiz_AllNearDuplicates_Throws() {
+        List<GeneratedQuestion> questions = List.of(new GeneratedQuestion("Question?", List.of("A1", "A2"), "A1"));
+        when(questionSimilarityService.filterNearDuplicates(questions)).thenReturn(List.of());
+
+        assertThrows(RuntimeException.class, () -> quizService.updateDailyQuiz(questions, QuizCategory.SCIENCE));
+        verify(quizRepository, never()).save(any(Quiz.class));
+    }
+
+    @Test
+    void bufferDailyQuiz_StoresPrivateQuizWithoutDate() {
+        List<GeneratedQuestion> questions = List.of(new GeneratedQuestion("Question?", List.of("A1", "A2"), "A1"));
+        when(questionSimilarityService.filterNearDuplicates(questions)).thenReturn(questions);
+        when(userRepository.findByEmail(any())).thenReturn(Optional.of(creator));
+        when(quizRepository.save(any(Quiz.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Quiz buffered = quizService.bufferDailyQuiz(questions, QuizCategory.SCIENCE);
+
+        assertFalse(buffered.isPublic());
+        assertNull(buffered.getDate());
+        assertTrue(buffered.isBufferedDailyQuiz());
+        assertEquals(1, buffered.getQuestions().size());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void bufferDailyQuizFromPool_PoolHasQuestions_StoresQuiz() {
+        List<GeneratedQuestion> questions = List.of(new GeneratedQuestion("Question?", List.of("A1", "A2"), "A1"));
+        when(questionPoolService.takeForDailyQuiz(QuizCategory.SCIENCE, 1)).thenReturn(Optional.of(questions));
+        when(questionSimilarityService.filterNearDuplicates(questions)).thenReturn(questions);
+        when(userRepository.findByEmail(any())).thenReturn(Optional.of(creator));
+        when(quizRepository.save(any(Quiz.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Optional<Quiz> buffered = quizService.bufferDailyQuizFromPool(QuizCategory.SCIENCE, 1);
+
+        assertTrue(buffered.isPresent());
+        assertTrue(buffered.get().isBufferedDailyQuiz());
+    }
+
+    @Test
+    void bufferDailyQuizFromPool_PoolTooSmall_StoresNothing() {
+        when(questionPoolService.takeForDailyQuiz(QuizCategory.SCIENCE, 10)).thenReturn(Optional.empty());
+
+        assertTrue(quizService.bufferDailyQuizFromPool(QuizCategory.SCIENCE, 10).isEmpty());
+        verify(quizRepository, never()).save(any());
+    }
+
+    @Test
+    void updateDailyQuizFromPool_PoolTooSmall_ReturnsFalse() {
+        when(questionPoolService.takeForDailyQuiz(QuizCategory.SCIENCE, 10)).thenReturn(Optional.empty());
+
+        assertFalse(quizService.updateDailyQuizFromPool(QuizCategory.SCIENCE, 10));
+        verify(quizRepository, never()).save(any());
+    }
+
+    @Test
+    void publishBufferedDailyQuiz_PublishesOldestWithSingleUpdate() {
+        LocalDate today = LocalDate.now();
+        Quiz buffered = new Quiz();
+        buffered.setId(quizId);
+        buffered.setCategories(List.of(QuizCategory.DAILY_QUIZ, QuizCategory.SCIENCE));
+        Quiz published = new Quiz();
+        published.setId(quizId);
+        published.setDate(today);
+        published.setCategories(List.of(QuizCategory.DAILY_QUIZ, QuizCategory.SCIENCE));
+        when(quizRepository.findBufferedDailyQuizIds(eq(QuizCategory.DAILY_QUIZ.maskLo()), any()))
+                .thenReturn(List.of(quizId));
+        when(quizRepository.findById(quizId)).thenReturn(Optional.of(buffered), Optional.of(published));
+        when(quizRepository.publishBufferedDailyQuiz(eq(quizId), eq(today), anyString(), any())).thenReturn(1);
+
+        Optional<Quiz> result = quizService.publishBufferedDailyQuiz(today);
+
+        assertEquals(Optional.of(published), result);
+        verify(quizRepository).publishBufferedDailyQuiz(eq(quizId), eq(today),
+                eq("Tägliches Quiz vom " + today + ", Kategorie: " + QuizCategory.SCIENCE.getDisplayName()), any());
+        verify(quizRepository, never()).save(any());
+        verify(eventPublisher).publishEvent(new QuizSavedEvent(published, List.of(),
+                List.of(QuizCategory.DAILY_QUIZ, QuizCategory.SCIENCE)));
+    }
+
+    @Test
+    void publishBufferedDailyQuiz_EmptyBuffer_ReturnsEmpty() {
+        when(quizRepository.findBufferedDailyQuizIds(anyLong(), any())).thenReturn(List.of());
+
+        assertTrue(quizService.publishBufferedDailyQuiz(LocalDate.now()).isEmpty());
+        verify(quizRepository, never()).publishBufferedDailyQuiz(any(), any(), any(), any());
+    }
+
+    @Test
+    void getQuizHistory_FirstPage_UsesProjectionQuery() {
+        UserDetails userDetails = mock(UserDetails.class);
+        when(userDetails.getUsername()).thenReturn("user@example.com");
+        QuizHistoryDTO entry = new QuizHistoryDTO(5L, quizId, "Test Quiz", 3, 5, LocalDateTime.now());
+        when(quizResultRepository.findHistoryByUserEmail("user@example.com", PageRequest.of(0, 20)))
+                .thenReturn(List.of(entry));
+
+        List<QuizHistoryDTO> history = quizService.getQuizHistory(userDetails, null, null, 20);
+
+        assertEquals(List.of(entry), history);
+        verify(quizResultRepository, never()).findByUserId(any());
+    }
+
+    @Test
+    void getQuizHistory_NextPage_UsesKeysetAndClampsSize() {
+        UserDetails userDetails = mock(UserDetails.class);
+        when(userDetails.getUsername()).thenReturn("user@example.com");
+        LocalDateTime before = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+        quizService.getQuizHistory(userDetails, before, 42L, 5000);
+
+        verify(quizResultRepository).findHistoryByUserEmailBefore("user@example.com", before, 42L,
+                PageRequest.of(0, QuizService.MAX_HISTORY_PAGE_SIZE));
+    }
+
+    @Test
+    void createQuiz_SetsCategoryMask() {
+        quizDTO.setCategories(new ArrayList<>(List.of(QuizCategory.SCIENCE, QuizCategory.GASTRONOMY)));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(creator));
+        when(quizRepository.save(any(Quiz.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Quiz result = quizService.createQuiz(quizDTO, userId);
+
+        assertEquals(QuizCategory.SCIENCE.maskLo(), result.getCategoryMaskLo());
+        assertEquals(QuizCategory.GASTRONOMY.maskHi(), result.getCategoryMaskHi());
+    }
+
+    @Test
+    void findAllWithRatings_AnyCategory_UsesCategoryMask() {
+        when(quizRepository.findByAnyCategoryMask(
+                QuizCategory.SCIENCE.maskLo() | QuizCategory.HISTORY.maskLo(), 0L))
+                .thenReturn(List.of(quiz));
+
+        List<Quiz> result = quizService.findAllWithRatings(List.of(QuizCategory.SCIENCE, QuizCategory.HISTORY), false);
+
+        assertEquals(List.of(quiz), result);
+        verify(quizRepository, never()).findAll();
+    }
+
+    @Test
+    void findAllWithRatings_AllCategories_UsesCategoryMask() {
+        when(quizRepository.findByAllCategoryMask(QuizCategory.SCIENCE.maskLo(), QuizCategory.GASTRONOMY.maskHi()))
+                .thenReturn(List.of(quiz));
+
+        List<Quiz> result = quizService.findAllWithRatings(List.of(QuizCategory.SCIENCE, QuizCategory.GASTRONOMY), true);
+
+        assertEquals(List.of(quiz), result);
+    }
+
+    @Test
+    void findAllWithRatings_NoCategories_ReturnsAll() {
+        when(quizRepository.findAll()).thenReturn(List.of(quiz));
+
+        assertEquals(1, quizService.findAllWithRatings(null, false).size());
+    }
+
+    @Test
+    void searchQuizzes_ClampsPagingAndEscapesHighlights() {
+        QuizSearchHit hit = mock(QuizSearchHit.class);
+        when(hit.getQuizId()).thenReturn(quizId);
+        when(hit.getTitle()).thenReturn("<b>Geschichte</b>");
+        when(hit.getRank()).thenReturn(0.5);
+        when(hit.getTitleHighlight()).thenReturn("<b>\u0001Geschichte\u0002</b>");
+        when(quizRepository.searchPublicQuizzes(eq("geschichte"), eq(QuizCategory.DAILY_QUIZ.maskLo()), anyString(),
+                eq(QuizService.MAX_SEARCH_PAGE_SIZE), eq(2L * QuizService.MAX_SEARCH_PAGE_SIZE)))
+                .thenReturn(List.of(hit));
+
+        List<QuizSearchResultDTO> result = quizService.searchQuizzes("  geschichte ", 2, 500);
+
+        assertEquals(1, result.size());
+        assertEquals(quizId, result.get(0).getQuizId());
+        assertEquals("&lt;b&gt;<mark>Geschichte</mark>&lt;/b&gt;", result.get(0).getTitleHighlight());
+        assertNull(result.get(0).getQuestionHighlight());
+    }
+
+    @Test
+    void searchQuizzes_BlankQuery_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> quizService.searchQuizzes("  ", 0, 20));
+        verifyNoInteractions(quizRepository);
+    }
+}
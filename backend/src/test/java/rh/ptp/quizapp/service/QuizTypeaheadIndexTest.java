@@ -0,0 +1,178 @@
+package rh.ptp.quizapp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rh.ptp.quizapp.dto.QuizSuggestion;
+import rh.ptp.quizapp.dto.QuizTypeaheadEntry;
+import rh.ptp.quizapp.event.QuizDeletedEvent;
+import rh.ptp.quizapp.event.QuizSavedEvent;
+import rh.ptp.quizapp.event.QuizzesReassignedEvent;
+import rh.ptp.quizapp.event.UserRenamedEvent;
+import rh.ptp.quizapp.model.Quiz;
+import rh.ptp.quizapp.model.QuizCategory;
+import rh.ptp.quizapp.model.User;
+import rh.ptp.quizapp.repository.QuizRepository;
+import rh.ptp.quizapp.repository.UserRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class QuizTypeaheadIndexTest {
+
+    @Mock
+    private QuizRepository quizRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private QuizTypeaheadIndex index;
+    private final LocalDate today = LocalDate.of(2025, 6, 1);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        index = new QuizTypeaheadIndex(quizRepository, userRepository, meterRegistry);
+        when(quizRepository.streamTypeaheadEntries()).thenReturn(Stream.of(
+                new QuizTypeaheadEntry(1L, "Geschichte Europas", 10L, "Anna", true, 0L, null),
+                new QuizTypeaheadEntry(2L, "Römische Geschichte", 20L, "Bernd", true, 0L, null),
+                new QuizTypeaheadEntry(3L, "Geheimes Quiz", 10L, "Anna", false, 0L, null),
+                new QuizTypeaheadEntry(4L, "Tägliches Quiz", 1L, "Admin", true, QuizCategory.DAILY_QUIZ.maskLo(), today)
+        ));
+        index.rebuild();
+    }
+
+    @Test
+    void rebuild_IndexesOnlyPublicQuizzes() {
+        assertEquals(3, index.size());
+        assertTrue(index.estimatedMemoryBytes() > 0);
+        assertEquals(3.0, meterRegistry.get("quiz.typeahead.entries").gauge().value());
+    }
+
+    @Test
+    void suggest_MatchesWordPrefixes_TitleStartFirst() {
+        List<QuizSuggestion> result = index.suggest("gesch", 10, today);
+
+        assertEquals(List.of(1L, 2L), result.stream().map(QuizSuggestion::quizId).toList());
+    }
+
+    @Test
+    void suggest_ShortPrefixAndDiacritics() {
+        assertEquals(2L, index.suggest("r", 10, today).get(0).quizId());
+        assertEquals(2L, index.suggest("romisch", 10, today).get(0).quizId());
+    }
+
+    @Test
+    void suggest_MatchesCreatorName() {
+        List<QuizSuggestion> result = index.suggest("bernd gesch", 10, today);
+
+        assertEquals(1, result.size());
+        assertEquals("Bernd", result.get(0).creatorName());
+    }
+
+    @Test
+    void suggest_HidesTodaysDailyQuiz() {
+        assertTrue(index.suggest("tägl", 10, today).isEmpty());
+        assertEquals(1, index.suggest("tägl", 10, today.plusDays(1)).size());
+    }
+
+    @Test
+    void suggest_NoMatchOrBlank_ReturnsEmpty() {
+        assertTrue(index.suggest("xyz", 10, today).isEmpty());
+        assertTrue(index.suggest("  ", 10, today).isEmpty());
+    }
+
+    @Test
+    void putAndRemove_UpdateIndexIncrementally() {
+        User creator = new User();
+        creator.setName("Clara");
+        Quiz quiz = new Quiz();
+        quiz.setId(1L);
+        quiz.setTitle("Geografie");
+        quiz.setCreator(creator);
+        quiz.setCategories(new ArrayList<>(List.of(QuizCategory.GEOGRAPHY)));
+
+        index.put(quiz);
+        assertEquals(List.of(2L), index.suggest("geschichte", 10, today).stream().map(QuizSuggestion::quizId).toList());
+        assertEquals(1L, index.suggest("geo", 10, today).get(0).quizId());
+
+        index.remove(1L);
+        assertTrue(index.suggest("geo", 10, today).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void rebuild_ReplaysUpdatesReceivedDuringBuild() {
+        User creator = new User();
+        creator.setName("Clara");
+        Quiz added = new Quiz();
+        added.setId(5L);
+        added.setTitle("Geografie");
+        added.setCreator(creator);
+        added.setCategories(new ArrayList<>(List.of(QuizCategory.GEOGRAPHY)));
+        // Änderungen, die committet werden, während der Aufbau noch liest
+        when(quizRepository.streamTypeaheadEntries()).thenReturn(Stream.of(
+                new QuizTypeaheadEntry(1L, "Geschichte Europas", 10L, "Anna", true, 0L, null),
+                new QuizTypeaheadEntry(2L, "Römische Geschichte", 20L, "Bernd", true, 0L, null)
+        ).peek(e -> {
+            if (e.quizId() == 2L) {
+                index.on(new QuizSavedEvent(added));
+                index.on(new QuizDeletedEvent(1L, List.of()));
+            }
+        }));
+
+        index.rebuild();
+
+        assertEquals(List.of(5L), index.suggest("geo", 10, today).stream().map(QuizSuggestion::quizId).toList());
+        assertEquals(List.of(2L), index.suggest("gesch", 10, today).stream().map(QuizSuggestion::quizId).toList());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void rebuild_AfterwardsUpdatesApplyDirectly() {
+        when(quizRepository.streamTypeaheadEntries()).thenReturn(Stream.of(
+                new QuizTypeaheadEntry(1L, "Geschichte Europas", 10L, "Anna", true, 0L, null)));
+        index.rebuild();
+
+        index.on(new QuizDeletedEvent(1L, List.of()));
+
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void onUserRenamed_UpdatesCreatorNameOfAllQuizzes() {
+        index.on(new UserRenamedEvent(10L, "Annika"));
+
+        List<QuizSuggestion> result = index.suggest("annika", 10, today);
+        assertEquals(List.of(1L), result.stream().map(QuizSuggestion::quizId).toList());
+        assertEquals("Annika", result.get(0).creatorName());
+        assertTrue(index.suggest("anna", 10, today).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void onQuizzesReassigned_MovesQuizzesToNewCreator() {
+        when(userRepository.findNameById(1L)).thenReturn(Optional.of("Admin"));
+
+        index.on(new QuizzesReassignedEvent(20L, 1L));
+
+        assertTrue(index.suggest("bernd", 10, today).isEmpty());
+        assertEquals("Admin", index.suggest("romisch", 10, today).get(0).creatorName());
+
+        index.on(new UserRenamedEvent(1L, "Redaktion"));
+
+        assertEquals("Redaktion", index.suggest("romisch", 10, today).get(0).creatorName());
+        assertEquals("Redaktion", index.suggest("tägl", 10, today.plusDays(1)).get(0).creatorName());
+    }
+}
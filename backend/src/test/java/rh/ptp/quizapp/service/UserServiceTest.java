@@ -6,21 +6,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.test.util.ReflectionTestUtils;
 import rh.ptp.quizapp.dto.UserDTO;
-import rh.ptp.quizapp.model.QuizCategory;
+import rh.ptp.quizapp.event.AccountDeletionRequestedEvent;
+import rh.ptp.quizapp.event.UserRenamedEvent;
+import rh.ptp.quizapp.event.PasswordResetRequestedEvent;
+import rh.ptp.quizapp.model.AuthenticationToken;
 import rh.ptp.quizapp.model.User;
 import rh.ptp.quizapp.model.UserStatus;
 import rh.ptp.quizapp.repository.AuthenticationTokenRepository;
-import rh.ptp.quizapp.repository.QuizResultRepository;
 import rh.ptp.quizapp.repository.UserRepository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -34,10 +35,7 @@ public class UserServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private EmailService emailService;
-
-    @Mock
-    private QuizResultRepository quizResultRepository;
+    private ApplicationEventPublisher eventPublisher;
 
     @Mock
     private AuthenticationTokenRepository authenticationTokenRepository;
@@ -58,7 +56,6 @@ public class UserServiceTest {
 
     @BeforeEach
     void setUp() {
-        ReflectionTestUtils.setField(userService, "frontendUrl", "https://frontend.example.com");
 
         testUser = new User();
         testUser.setId(1L);
@@ -73,18 +70,27 @@ public class UserServiceTest {
     }
 
     @Test
-    void forgotPassword_WithExistingUser_CreatesTokenAndSendsEmail() {
+    void forgotPassword_WithExistingUser_CreatesTokenAndPublishesEvent() {
         String email = "test@example.com";
-        String token = "test-token";
+        AuthenticationToken token = new AuthenticationToken(testUser);
 
         when(userRepository.findByEmail(email)).thenReturn(Optional.of(testUser));
-        when(authenticationTokenRepository.findTokenByQuizUser(testUser)).thenReturn(token);
+        when(authService.createAuthenticationToken(testUser)).thenReturn(token);
 
         userService.forgotPassword(email);
 
         verify(authService, times(1)).createAuthenticationToken(testUser);
-        verify(authenticationTokenRepository, times(1)).findTokenByQuizUser(testUser);
-        verify(emailService, times(1)).sendEmail(eq(email), eq("Passwort zurücksetzen"), eq("password-reset-email"), any(Map.class));
+        verify(eventPublisher, times(1)).publishEvent(
+                new PasswordResetRequestedEvent(email, testUser.getName(), token.getToken()));
+    }
+
+    @Test
+    void requestDeletion_MarksUserAndPublishesEvent() {
+        userService.requestDeletion(testUser);
+
+        assertEquals(UserStatus.PENDING_DELETE, testUser.getUserStatus());
+        verify(userRepository).save(testUser);
+        verify(eventPublisher).publishEvent(new AccountDeletionRequestedEvent(testUser.getEmail(), testUser.getName()));
     }
 
     @Test
@@ -95,7 +101,7 @@ public class UserServiceTest {
         Exception exception = assertThrows(RuntimeException.class, () -> userService.forgotPassword(email));
         assertEquals("Benutzer nicht gefunden", exception.getMessage());
         verify(authService, never()).createAuthenticationToken(any(User.class));
-        verify(emailService, never()).sendEmail(anyString(), anyString(), anyString(), any(Map.class));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -191,6 +197,7 @@ public class UserServiceTest {
         assertEquals(userDTO.getEmail(), result.getEmail());
         assertEquals(userDTO.isDailyQuizReminder(), result.isDailyQuizReminder());
         verify(userRepository, times(1)).save(testUser);
+        verify(eventPublisher).publishEvent(new UserRenamedEvent(1L, "Updated Name"));
     }
 
     @Test
@@ -238,37 +245,27 @@ public class UserServiceTest {
     }
 
     @Test
-    void incrementDailyQuizStreak_WhenNotPlayedToday_IncrementsStreak() {
+    void incrementDailyQuizStreak_ReturnsStreakFromConditionalUpdate() {
         String email = "test@example.com";
-        LocalDate today = LocalDate.now();
 
-        when(userRepository.findByEmail(email)).thenReturn(Optional.of(testUser));
-        when(quizResultRepository.existsByUserIdAndQuizCategoriesAndPlayedAtAfter(
-            eq(testUser.getId()), eq(QuizCategory.DAILY_QUIZ), any(LocalDateTime.class))).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(userRepository.incrementDailyStreak(eq(email), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(6));
 
         int result = userService.incrementDailyQuizStreak(email);
 
         assertEquals(6, result);
-        assertEquals(6, testUser.getDailyStreak());
-        verify(userRepository, times(1)).save(testUser);
+        verify(userRepository).incrementDailyStreak(eq(email), any(LocalDateTime.class),
+                argThat(startOfDay -> startOfDay.equals(LocalDate.now().atStartOfDay())));
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
-    void incrementDailyQuizStreak_WhenAlreadyPlayedToday_DoesNotIncrementStreak() {
-        String email = "test@example.com";
-        LocalDate today = LocalDate.now();
-
-        when(userRepository.findByEmail(email)).thenReturn(Optional.of(testUser));
-        when(quizResultRepository.existsByUserIdAndQuizCategoriesAndPlayedAtAfter(
-            eq(testUser.getId()), eq(QuizCategory.DAILY_QUIZ), any(LocalDateTime.class))).thenReturn(true);
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
-
-        int result = userService.incrementDailyQuizStreak(email);
+    void incrementDailyQuizStreak_UnknownUser_ThrowsUsernameNotFoundException() {
+        when(userRepository.incrementDailyStreak(eq("unknown@example.com"), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
 
-        assertEquals(5, result);
-        assertEquals(5, testUser.getDailyStreak());
-        verify(userRepository, times(1)).save(testUser);
+        assertThrows(UsernameNotFoundException.class,
+                () -> userService.incrementDailyQuizStreak("unknown@example.com"));
     }
 
     @Test
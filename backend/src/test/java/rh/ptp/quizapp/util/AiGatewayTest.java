@@ -0,0 +1,137 @@
+package rh.ptp.quizapp.util;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import rh.ptp.quizapp.exception.AiGatewayException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testet {@link AiGateway} gegen einen lokalen Stub-Server.
+ */
+public class AiGatewayTest {
+
+    private record StubResponse(int status, String body) {
+    }
+
+    private HttpServer server;
+    private final Queue<StubResponse> responses = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger hits = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/generate", exchange -> {
+            hits.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            StubResponse response = responses.isEmpty() ? new StubResponse(200, "{}") : responses.poll();
+            byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(response.status(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private AiGateway gateway(int maxAttempts, int maxResponseBytes, int failureThreshold) {
+        URI endpoint = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/generate?key=test");
+        AiGateway.Settings settings = new AiGateway.Settings(maxAttempts, Duration.ofMillis(1), Duration.ofMillis(5),
+                Duration.ofSeconds(5), maxResponseBytes, failureThreshold, Duration.ofMinutes(5));
+        return new AiGateway(endpoint, settings, HttpClient.newHttpClient(), Clock.systemUTC(), meterRegistry);
+    }
+
+    @Test
+    void generate_Success_ReturnsBodyAndRecordsAttempt() {
+        responses.add(new StubResponse(200, "{\"candidates\":[]}"));
+
+        byte[] body = gateway(3, 1024, 5).generate("prompt");
+
+        assertEquals("{\"candidates\":[]}", new String(body, StandardCharsets.UTF_8));
+        assertEquals(1, hits.get());
+        assertEquals(1, meterRegistry.get("ai.gateway.attempt").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void generate_ServerErrorThenSuccess_RetriesWithBackoff() {
+        responses.add(new StubResponse(503, "busy"));
+        responses.add(new StubResponse(429, "slow down"));
+        responses.add(new StubResponse(200, "ok"));
+
+        byte[] body = gateway(3, 1024, 5).generate("prompt");
+
+        assertEquals("ok", new String(body, StandardCharsets.UTF_8));
+        assertEquals(3, hits.get());
+        assertEquals(1, meterRegistry.get("ai.gateway.attempt").tag("outcome", "http_5xx").timer().count());
+        assertEquals(1, meterRegistry.get("ai.gateway.attempt").tag("outcome", "http_4xx").timer().count());
+    }
+
+    @Test
+    void generate_ClientError_DoesNotRetry() {
+        responses.add(new StubResponse(400, "bad key"));
+
+        AiGatewayException e = assertThrows(AiGatewayException.class, () -> gateway(3, 1024, 5).generate("prompt"));
+
+        assertEquals("http_4xx", e.getOutcome());
+        assertEquals(1, hits.get());
+    }
+
+    @Test
+    void generate_OversizedResponse_IsRejectedWithoutRetry() {
+        responses.add(new StubResponse(200, "x".repeat(100)));
+        responses.add(new StubResponse(200, "x".repeat(100)));
+
+        AiGatewayException e = assertThrows(AiGatewayException.class, () -> gateway(3, 10, 5).generate("prompt"));
+
+        assertEquals("too_large", e.getOutcome());
+        assertEquals(1, hits.get());
+    }
+
+    @Test
+    void generate_RepeatedFailures_OpenCircuitAndFailFast() {
+        responses.add(new StubResponse(500, "down"));
+        responses.add(new StubResponse(500, "down"));
+        AiGateway gateway = gateway(1, 1024, 2);
+
+        assertThrows(AiGatewayException.class, () -> gateway.generate("prompt"));
+        assertThrows(AiGatewayException.class, () -> gateway.generate("prompt"));
+        AiGatewayException e = assertThrows(AiGatewayException.class, () -> gateway.generate("prompt"));
+
+        assertEquals("circuit_open", e.getOutcome());
+        assertTrue(gateway.isCircuitOpen());
+        assertEquals(2, hits.get());
+        assertEquals(1.0, meterRegistry.get("ai.gateway.rejected").counter().count());
+    }
+
+    @Test
+    void backoff_StaysWithinExponentialCap() {
+        AiGateway gateway = gateway(5, 1024, 5);
+
+        for (int attempt = 1; attempt <= 5; attempt++) {
+            long millis = gateway.backoff(attempt).toMillis();
+            assertTrue(millis >= 0 && millis <= 5, "Backoff " + millis + " ms");
+        }
+    }
+}
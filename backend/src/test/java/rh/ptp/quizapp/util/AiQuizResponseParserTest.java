@@ -0,0 +1,94 @@
+package rh.ptp.quizapp.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import rh.ptp.quizapp.dto.GeneratedQuestion;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AiQuizResponseParserTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AiQuizResponseParser parser = new AiQuizResponseParser(objectMapper);
+
+    private byte[] apiResponse(String text) throws Exception {
+        String json = "{\"candidates\":[{\"content\":{\"role\":\"model\",\"parts\":[{\"text\":"
+                + objectMapper.writeValueAsString(text) + "}]},\"finishReason\":\"STOP\"}],"
+                + "\"usageMetadata\":{\"totalTokenCount\":42}}";
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String item(String question, String answers, String correct) {
+        return "{\"Frage\":\"" + question + "\",\"Antworten\":" + answers + ",\"RichtigeAntwort\":\"" + correct + "\"}";
+    }
+
+    @Test
+    void parse_ValidQuestions_ReturnsAllInOrder() throws Exception {
+        String text = "[" + item("Hauptstadt von Frankreich?", "[\"Paris\",\"Lyon\",\"Nizza\",\"Lille\"]", "Paris")
+                + "," + item("2 + 2?", "[\"4\",\"5\"]", "4") + "]";
+
+        AiQuizResponseParser.Result result = parser.parse(apiResponse(text));
+
+        assertEquals(0, result.rejected());
+        assertEquals(List.of(
+                new GeneratedQuestion("Hauptstadt von Frankreich?", List.of("Paris", "Lyon", "Nizza", "Lille"), "Paris"),
+                new GeneratedQuestion("2 + 2?", List.of("4", "5"), "4")), result.questions());
+    }
+
+    @Test
+    void parse_MarkdownFence_IsSkipped() throws Exception {
+        String text = "```json\n[" + item("Frage?", "[\"Ja\",\"Nein\"]", "Ja") + "]\n```";
+
+        AiQuizResponseParser.Result result = parser.parse(apiResponse(text));
+
+        assertEquals(1, result.questions().size());
+    }
+
+    @Test
+    void parse_InvalidItems_AreRejectedIndividually() throws Exception {
+        String text = "["
+                + item("Gültig?", "[\"Ja\",\"Nein\"]", "Ja") + ","
+                + item("Nur eine Antwort?", "[\"Ja\"]", "Ja") + ","
+                + item("Fünf Antworten?", "[\"1\",\"2\",\"3\",\"4\",\"5\"]", "1") + ","
+                + item("Doppelte Antworten?", "[\"Ja\",\" ja \"]", "Ja") + ","
+                + item("Falsche Lösung?", "[\"Ja\",\"Nein\"]", "Vielleicht") + ","
+                + item("  gültig? ", "[\"Ja\",\"Nein\"]", "Ja") + ","
+                + "{\"Frage\":\"Antworten kein Array?\",\"Antworten\":\"Ja\",\"RichtigeAntwort\":\"Ja\"},"
+                + "\"kein Objekt\","
+                + item("Auch gültig?", "[\"Ja\",\"Nein\",\"Vielleicht\"]", "Vielleicht")
+                + "]";
+
+        AiQuizResponseParser.Result result = parser.parse(apiResponse(text));
+
+        assertEquals(List.of("Gültig?", "Auch gültig?"), result.questions().stream().map(GeneratedQuestion::question).toList());
+        assertEquals(7, result.rejected());
+    }
+
+    @Test
+    void parse_TruncatedArray_KeepsCompleteQuestions() throws Exception {
+        String text = "[" + item("Erste?", "[\"Ja\",\"Nein\"]", "Ja") + ",{\"Frage\":\"Zweite?\",\"Antwor";
+
+        AiQuizResponseParser.Result result = parser.parse(apiResponse(text));
+
+        assertEquals(1, result.questions().size());
+        assertEquals("Erste?", result.questions().get(0).question());
+    }
+
+    @Test
+    void parse_NoArray_Throws() throws Exception {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> parser.parse(apiResponse("Leider kann ich das nicht.")));
+
+        assertTrue(e.getMessage().contains("JSON content does not start with '['"));
+    }
+
+    @Test
+    void parse_MissingText_Throws() {
+        byte[] response = "{\"candidates\":[{\"finishReason\":\"SAFETY\"}]}".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(IllegalArgumentException.class, () -> parser.parse(response));
+    }
+}
@@ -1,5 +1,6 @@
 package rh.ptp.quizapp.util;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,15 +9,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
-import rh.ptp.quizapp.model.User;
-import rh.ptp.quizapp.model.UserRole;
-import rh.ptp.quizapp.repository.UserRepository;
-import rh.ptp.quizapp.service.EmailService;
-
-import java.io.IOException;
-import java.net.http.HttpClient;
-import java.net.http.HttpResponse;
+import rh.ptp.quizapp.dto.GeneratedQuestion;
+import rh.ptp.quizapp.event.DailyQuizGenerationFailedEvent;
+import rh.ptp.quizapp.exception.AiGatewayException;
+
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
@@ -28,173 +27,122 @@ import static org.mockito.Mockito.*;
 public class CreateAiRequestTest {
 
     @Mock
-    private EmailService emailService;
-
-    @Mock
-    private UserRepository userRepository;
+    private ApplicationEventPublisher eventPublisher;
 
     @Mock
-    private HttpClient httpClient;
-
-    @Mock
-    private HttpResponse<String> httpResponse;
+    private AiGateway aiGateway;
 
     @InjectMocks
     private CreateAiRequest createAiRequest;
 
     @BeforeEach
     void setUp() {
-        ReflectionTestUtils.setField(createAiRequest, "adminEmail", "admin@example.com");
-        ReflectionTestUtils.setField(createAiRequest, "apiKey", "test-api-key");
-        ReflectionTestUtils.setField(createAiRequest, "apiUrl", "https://api.example.com/");
-        ReflectionTestUtils.setField(createAiRequest, "frontendUrl", "https://frontend.example.com");
+        ReflectionTestUtils.setField(createAiRequest, "aiQuizResponseParser", new AiQuizResponseParser(new ObjectMapper()));
     }
 
-    @Test
-    void fetchQuizFromAPI_SuccessfulRequest_ReturnsQuizList() throws Exception {
-        String category = "Science";
-        String validResponse = createValidApiResponse();
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
 
-        CreateAiRequest spyCreateAiRequest = spy(createAiRequest);
-        JSONArray expectedQuizList = new JSONArray("[{\"Frage\":\"Test Question\",\"Antworten\":[\"A\",\"B\",\"C\",\"D\"],\"RichtigeAntwort\":\"A\"}]");
-        doReturn(expectedQuizList).when(spyCreateAiRequest).fetchQuizFromAPI(any(HttpClient.class), anyString());
+    @Test
+    void fetchQuizFromAPI_SuccessfulRequest_ReturnsQuizList() {
+        when(aiGateway.generate(anyString())).thenReturn(bytes(createValidApiResponse()));
 
-        JSONArray result = spyCreateAiRequest.fetchQuizFromAPI(category);
+        List<GeneratedQuestion> result = createAiRequest.fetchQuizFromAPI("Science");
 
         assertNotNull(result);
-        assertEquals(expectedQuizList.toString(), result.toString());
-        verify(spyCreateAiRequest, times(1)).fetchQuizFromAPI(any(HttpClient.class), anyString());
-        verify(emailService, never()).sendEmail(anyString(), anyString(), anyString(), anyMap());
+        assertEquals(QUESTION_COUNT, result.size());
+        assertEquals("Test Question 1", result.get(0).question());
+        verify(aiGateway, times(1)).generate(contains("Science"));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
-    void fetchQuizFromAPI_FailsAfterRetries_SendsEmailToAdmins() throws Exception {
-        String category = "Science";
-        String errorMessage = "API connection error";
-
-        CreateAiRequest spyCreateAiRequest = spy(createAiRequest);
-        doThrow(new RuntimeException(errorMessage)).when(spyCreateAiRequest).fetchQuizFromAPI(any(HttpClient.class), anyString());
-
-        User admin1 = new User();
-        admin1.setName("admin1");
-        admin1.setEmail("admin1@example.com");
-        User admin2 = new User();
-        admin2.setName("admin2");
-        admin2.setEmail("admin2@example.com");
-        when(userRepository.findAllByRole(UserRole.ROLE_ADMIN)).thenReturn(List.of(admin1, admin2));
-
-        Exception exception = assertThrows(RuntimeException.class, () -> spyCreateAiRequest.fetchQuizFromAPI(category));
-        assertEquals("Fehler beim Abrufen des Quiz von der API nach 5 Versuchen", exception.getMessage());
-
-        verify(userRepository, times(1)).findAllByRole(UserRole.ROLE_ADMIN);
-        verify(emailService, times(2)).sendEmail(eq("admin@example.com"), eq("Fehler bei der Generierung des täglichen Quizzes!"), eq("failed-generation-daily"), any(Map.class));
+    void fetchQuizFromAPI_GatewayFails_PublishesFailureEventWithoutRegenerating() {
+        when(aiGateway.generate(anyString()))
+                .thenThrow(new AiGatewayException("API connection error", "io_error", true));
+
+        Exception exception = assertThrows(RuntimeException.class, () -> createAiRequest.fetchQuizFromAPI("Science"));
+        assertEquals("Fehler beim Abrufen des Quiz von der API", exception.getMessage());
+
+        verify(aiGateway, times(1)).generate(anyString());
+        verify(eventPublisher, times(1)).publishEvent(argThat((Object event) -> event instanceof DailyQuizGenerationFailedEvent failed
+                && failed.errorMessage().equals("API connection error")));
     }
 
     @Test
-    void fetchQuizFromAPI_RetriesBeforeSuccess_ReturnsQuizList() throws Exception {
-        String category = "Science";
-        JSONArray expectedQuizList = new JSONArray("[{\"Frage\":\"Test Question\",\"Antworten\":[\"A\",\"B\",\"C\",\"D\"],\"RichtigeAntwort\":\"A\"}]");
+    void fetchQuizFromAPI_InvalidContentBeforeSuccess_Regenerates() {
+        when(aiGateway.generate(anyString()))
+                .thenReturn(bytes(createInvalidApiResponse()))
+                .thenReturn(bytes(createValidApiResponse()));
 
-        CreateAiRequest spyCreateAiRequest = spy(createAiRequest);
-        doThrow(new RuntimeException("First failure"))
-            .doThrow(new RuntimeException("Second failure"))
-            .doReturn(expectedQuizList)
-            .when(spyCreateAiRequest).fetchQuizFromAPI(any(HttpClient.class), anyString());
+        List<GeneratedQuestion> result = createAiRequest.fetchQuizFromAPI("Science");
 
-        JSONArray result = spyCreateAiRequest.fetchQuizFromAPI(category);
-
-        assertNotNull(result);
-        assertEquals(expectedQuizList.toString(), result.toString());
-        verify(spyCreateAiRequest, times(3)).fetchQuizFromAPI(any(HttpClient.class), anyString());
-        verify(emailService, never()).sendEmail(anyString(), anyString(), anyString(), anyMap());
+        assertEquals(QUESTION_COUNT, result.size());
+        verify(aiGateway, times(2)).generate(anyString());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
-    void fetchQuizFromAPIWithHttpClient_SuccessfulRequest_ReturnsQuizList() throws Exception {
-        String prompt = "Generate quiz questions";
-        String validResponse = createValidApiResponse();
-
-        CreateAiRequest spyCreateAiRequest = spy(createAiRequest);
+    void fetchQuizFromAPI_InvalidContentEveryTime_GivesUpAfterMaxAttempts() {
+        when(aiGateway.generate(anyString())).thenReturn(bytes(createInvalidApiResponse()));
 
-        doAnswer(invocation -> {
-            HttpResponse<String> mockResponse = mock(HttpResponse.class);
-            when(mockResponse.body()).thenReturn(validResponse);
-            return mockResponse;
-        }).when(httpClient).send(any(), any());
+        assertThrows(RuntimeException.class, () -> createAiRequest.fetchQuizFromAPI("Science"));
+        verify(aiGateway, times(CreateAiRequest.MAX_GENERATION_ATTEMPTS)).generate(anyString());
+        verify(eventPublisher).publishEvent(any(DailyQuizGenerationFailedEvent.class));
+    }
 
-        JSONArray result = spyCreateAiRequest.fetchQuizFromAPI(httpClient, prompt);
+    @Test
+    void parseQuizResponse_ValidResponse_ReturnsQuizList() {
+        List<GeneratedQuestion> result = createAiRequest.parseQuizResponse(bytes(createValidApiResponse()));
 
         assertNotNull(result);
-        assertEquals(1, result.length());
-        JSONObject question = result.getJSONObject(0);
-        assertEquals("Test Question", question.getString("Frage"));
+        assertEquals(QUESTION_COUNT, result.size());
+        GeneratedQuestion question = result.get(0);
+        assertEquals("Test Question 1", question.question());
+        assertEquals(List.of("A", "B", "C", "D"), question.answers());
+        assertEquals("A", question.correctAnswer());
     }
 
     @Test
-    void fetchQuizFromAPIWithHttpClient_MalformedResponse_ThrowsException() throws Exception {
-        String prompt = "Generate quiz questions";
-        String invalidResponse = createInvalidApiResponse();
-
-        CreateAiRequest spyCreateAiRequest = spy(createAiRequest);
-
-        doAnswer(invocation -> {
-            HttpResponse<String> mockResponse = mock(HttpResponse.class);
-            when(mockResponse.body()).thenReturn(invalidResponse);
-            return mockResponse;
-        }).when(httpClient).send(any(), any());
-
+    void parseQuizResponse_MalformedResponse_ThrowsException() {
         Exception exception = assertThrows(RuntimeException.class,
-            () -> spyCreateAiRequest.fetchQuizFromAPI(httpClient, prompt));
+            () -> createAiRequest.parseQuizResponse(bytes(createInvalidApiResponse())));
         assertTrue(exception.getMessage().contains("JSON content does not start with '['"));
     }
 
     @Test
-    void fetchQuizFromAPIWithHttpClient_IOExceptionDuringRequest_PropagatesException() throws Exception {
-        String prompt = "Generate quiz questions";
-        IOException ioException = new IOException("Network error");
+    void parseQuizResponse_TooFewValidQuestions_ThrowsException() {
+        Exception exception = assertThrows(RuntimeException.class,
+            () -> createAiRequest.parseQuizResponse(bytes(apiResponse(questionsJson(CreateAiRequest.MIN_VALID_QUESTIONS - 1)))));
+        assertTrue(exception.getMessage().startsWith("Nur "));
+    }
 
-        CreateAiRequest spyCreateAiRequest = spy(createAiRequest);
+    private static final int QUESTION_COUNT = 5;
 
-        doThrow(ioException).when(httpClient).send(any(), any());
+    private String createValidApiResponse() {
+        return apiResponse(questionsJson(QUESTION_COUNT));
+    }
 
-        Exception exception = assertThrows(IOException.class,
-            () -> spyCreateAiRequest.fetchQuizFromAPI(httpClient, prompt));
-        assertEquals("Network error", exception.getMessage());
+    private String createInvalidApiResponse() {
+        return apiResponse("This is not a valid JSON array");
     }
 
-    private String createValidApiResponse() {
-        JSONObject responseJson = new JSONObject();
-        JSONArray candidates = new JSONArray();
-        JSONObject candidate = new JSONObject();
-        JSONObject content = new JSONObject();
-        JSONArray parts = new JSONArray();
-        JSONObject part = new JSONObject();
-
-        part.put("text", "[{\"Frage\":\"Test Question\",\"Antworten\":[\"A\",\"B\",\"C\",\"D\"],\"RichtigeAntwort\":\"A\"}]");
-        parts.put(part);
-        content.put("parts", parts);
-        candidate.put("content", content);
-        candidates.put(candidate);
-        responseJson.put("candidates", candidates);
-
-        return responseJson.toString();
+    private static String questionsJson(int count) {
+        JSONArray questions = new JSONArray();
+        for (int i = 1; i <= count; i++) {
+            questions.put(new JSONObject()
+                    .put("Frage", "Test Question " + i)
+                    .put("Antworten", new JSONArray(List.of("A", "B", "C", "D")))
+                    .put("RichtigeAntwort", "A"));
+        }
+        return questions.toString();
     }
 
-    private String createInvalidApiResponse() {
-        JSONObject responseJson = new JSONObject();
-        JSONArray candidates = new JSONArray();
-        JSONObject candidate = new JSONObject();
-        JSONObject content = new JSONObject();
-        JSONArray parts = new JSONArray();
-        JSONObject part = new JSONObject();
-
-        part.put("text", "This is not a valid JSON array");
-        parts.put(part);
-        content.put("parts", parts);
-        candidate.put("content", content);
-        candidates.put(candidate);
-        responseJson.put("candidates", candidates);
-
-        return responseJson.toString();
+    private static String apiResponse(String text) {
+        JSONObject part = new JSONObject().put("text", text);
+        JSONObject content = new JSONObject().put("parts", new JSONArray().put(part));
+        JSONObject candidate = new JSONObject().put("content", content);
+        return new JSONObject().put("candidates", new JSONArray().put(candidate)).toString();
     }
 }
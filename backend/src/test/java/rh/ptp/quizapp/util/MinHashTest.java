@@ -0,0 +1,54 @@
+package rh.ptp.quizapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MinHashTest {
+
+    @Test
+    void signature_SameNormalizedText_IsEqual() {
+        int[] a = MinHash.signature("Was ist die Hauptstadt von Frankreich?");
+        int[] b = MinHash.signature("was ist die HAUPTSTADT von frankreich");
+
+        assertArrayEquals(a, b);
+        assertEquals(1.0, MinHash.similarity(a, b));
+        assertEquals(MinHash.BANDS, MinHash.bandKeys(a).size());
+    }
+
+    @Test
+    void similarity_RewordedQuestion_IsHighAndSharesBucket() {
+        int[] a = MinHash.signature("Welcher Planet ist der größte in unserem Sonnensystem?");
+        int[] b = MinHash.signature("Welcher Planet ist der größte im Sonnensystem?");
+
+        assertTrue(MinHash.similarity(a, b) >= 0.6, "similarity " + MinHash.similarity(a, b));
+        assertFalse(Collections.disjoint(MinHash.bandKeys(a), MinHash.bandKeys(b)));
+    }
+
+    @Test
+    void similarity_UnrelatedQuestions_IsLow() {
+        int[] a = MinHash.signature("Welcher Planet ist der größte in unserem Sonnensystem?");
+        int[] b = MinHash.signature("In welchem Jahr fiel die Berliner Mauer?");
+
+        assertTrue(MinHash.similarity(a, b) < 0.3, "similarity " + MinHash.similarity(a, b));
+    }
+
+    @Test
+    void signature_EmptyText_IsNull() {
+        assertNull(MinHash.signature(" ?! "));
+        assertTrue(MinHash.bandKeys((int[]) null).isEmpty());
+    }
+
+    @Test
+    void toBytes_RoundTrip() {
+        int[] signature = MinHash.signature("Wie viele Beine hat eine Spinne?");
+
+        byte[] bytes = MinHash.toBytes(signature);
+
+        assertEquals(MinHash.SIGNATURE_BYTES, bytes.length);
+        assertArrayEquals(signature, MinHash.fromBytes(bytes));
+        assertNull(MinHash.fromBytes(new byte[3]));
+    }
+}
@@ -0,0 +1,159 @@
+// Lasttest für den Vergleich Plattform- vs. virtuelle Threads (k6).
+//
+// Ablauf: Backend einmal mit VIRTUAL_THREADS=false und einmal mit VIRTUAL_THREADS=true starten,
+// jeweils gleiche DB_POOL_SIZE, dann
+//   k6 run -e BASE_URL=http://localhost:9090 -e USER_EMAIL=... -e USER_PASSWORD=... deploy/loadtest/request-mix.js
+// und Durchsatz (http_reqs/s) sowie p(99) von http_req_duration je Tag "name" vergleichen. Während
+// des Laufs hikaricp.connections.pending und jvm.threads.virtual.pinned unter /actuator/metrics
+// beobachten. Ergebnisse beider Läufe gehören in die Beschreibung der Änderung, die den Modus umstellt.
+//
+// Der Mix enthält neben Lesezugriffen auch Schreibzugriffe (Anmeldung, Abgabe, Bewertung, Favoriten,
+// Übungsprüfung); ohne USER_EMAIL/USER_PASSWORD laufen nur die Lesezugriffe. Das Konto sollte ein
+// Testkonto sein: Abgaben legen Ergebnisse an, Bewertungen und Favoriten werden überschrieben.
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:9090';
+const USER_EMAIL = __ENV.USER_EMAIL;
+const USER_PASSWORD = __ENV.USER_PASSWORD;
+
+export const options = {
+    scenarios: {
+        users: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '1m', target: 2000 },
+                { duration: '5m', target: 2000 },
+                { duration: '30s', target: 0 },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+const READ_PATHS = [
+    '/api/quizzes',
+    '/api/quizzes/search?q=geschichte',
+    '/api/quizzes/suggest?q=ges',
+    '/api/daily',
+    '/api/categories/meta',
+    '/api/quiz-results/scores/top',
+];
+
+// Anteil der Iterationen je Schreibzugriff; der Rest sind Lesezugriffe.
+const WRITE_MIX = [
+    { weight: 0.10, run: submitAll },
+    { weight: 0.05, run: practiceCheck },
+    { weight: 0.05, run: rate },
+    { weight: 0.05, run: toggleFavorite },
+    { weight: 0.02, run: login },
+];
+
+function ok(res) {
+    return (res.status >= 200 && res.status < 300) || res.status === 304;
+}
+
+function jsonParams(token, name) {
+    const headers = { 'Content-Type': 'application/json' };
+    if (token) {
+        headers.Authorization = `Bearer ${token}`;
+    }
+    return { headers, tags: { name } };
+}
+
+function authenticate() {
+    const res = http.post(`${BASE_URL}/api/auth/login`,
+        JSON.stringify({ email: USER_EMAIL, password: USER_PASSWORD }),
+        jsonParams(null, '/api/auth/login'));
+    check(res, { 'login 2xx': ok });
+    return res.json('token');
+}
+
+export function setup() {
+    if (!USER_EMAIL || !USER_PASSWORD) {
+        return { token: null, quizzes: [] };
+    }
+    const token = authenticate();
+    const catalog = http.get(`${BASE_URL}/api/quizzes`, jsonParams(token, '/api/quizzes'));
+    const quizzes = (catalog.json() || [])
+        .filter((quiz) => quiz.questions && quiz.questions.length > 0)
+        .slice(0, 200)
+        .map((quiz) => ({
+            id: quiz.id,
+            questions: quiz.questions.map((q) => ({ id: q.id, answers: q.answers || [] })),
+        }));
+    return { token, quizzes };
+}
+
+function pick(list) {
+    return list[Math.floor(Math.random() * list.length)];
+}
+
+function randomAnswers(questions) {
+    const answers = {};
+    for (const question of questions) {
+        answers[question.id] = question.answers.length > 0 ? pick(question.answers) : 'a';
+    }
+    return answers;
+}
+
+function submitAll(data) {
+    const quiz = pick(data.quizzes);
+    const res = http.post(`${BASE_URL}/api/${quiz.id}/submit-all`,
+        JSON.stringify({ answers: randomAnswers(quiz.questions) }),
+        jsonParams(data.token, '/api/{quizId}/submit-all'));
+    check(res, { 'submit 2xx': ok });
+}
+
+function practiceCheck(data) {
+    const practice = http.get(`${BASE_URL}/api/practice?category=HISTORY&count=10`,
+        jsonParams(data.token, '/api/practice'));
+    if (!check(practice, { 'practice 2xx': ok })) {
+        return;
+    }
+    const questions = (practice.json('questions') || []).map((q) => ({ id: q.id, answers: q.answers || [] }));
+    const res = http.post(`${BASE_URL}/api/practice/check`,
+        JSON.stringify({ answers: randomAnswers(questions) }),
+        jsonParams(data.token, '/api/practice/check'));
+    check(res, { 'practice check 2xx': ok });
+}
+
+function rate(data) {
+    const quiz = pick(data.quizzes);
+    const res = http.post(`${BASE_URL}/api/quizzes/${quiz.id}/rate`,
+        JSON.stringify({ quizId: quiz.id, rating: 1 + Math.floor(Math.random() * 5) }),
+        jsonParams(data.token, '/api/quizzes/{quizId}/rate'));
+    // Eigene Quizzes dürfen nicht bewertet werden; 4xx ist hier kein Lastfehler.
+    check(res, { 'rate answered': (r) => r.status < 500 });
+}
+
+function toggleFavorite(data) {
+    const quiz = pick(data.quizzes);
+    const url = `${BASE_URL}/api/users/favorites/${quiz.id}`;
+    const params = jsonParams(data.token, '/api/users/favorites/{quizId}');
+    const res = Math.random() < 0.5 ? http.put(url, null, params) : http.del(url, null, params);
+    check(res, { 'favorite 2xx': ok });
+}
+
+function login() {
+    authenticate();
+}
+
+export default function (data) {
+    if (data.token && data.quizzes.length > 0) {
+        let roll = Math.random();
+        for (const write of WRITE_MIX) {
+            if (roll < write.weight) {
+                write.run(data);
+                sleep(Math.random());
+                return;
+            }
+            roll -= write.weight;
+        }
+    }
+    const path = pick(READ_PATHS);
+    const res = http.get(BASE_URL + path, jsonParams(data.token, path.split('?')[0]));
+    check(res, { 'status 2xx/304': ok });
+    sleep(Math.random());
+}
@@ -40,6 +40,7 @@ const EditQuiz = () => {
     const [description, setDescription] = useState("");
     const [questions, setQuestions] = useState([]);
     const [tags, setTags] = useState([]);
+    const [etag, setEtag] = useState(null);
     const [allValues, setAllValues] = useState([]);
     const [allCategories, setAllCategories] = useState([]);
     const [loadingTags, setLoadingTags] = useState(true);
@@ -70,13 +71,15 @@ const EditQuiz = () => {
             setDescription(data.description);
             setQuestions(data.questions || []);
             setTags(tagsFromEnums);
+            setEtag(res.headers.etag || null);
 
             const LOCAL_KEY = `quiz_backup_${id}`;
             localStorage.setItem(LOCAL_KEY, JSON.stringify({
                 title: data.title,
                 description: data.description,
                 questions: data.questions || [],
-                tags: tagsFromEnums
+                tags: tagsFromEnums,
+                etag: res.headers.etag || null
             }));
         } catch (err) {
             console.error(err);
@@ -136,12 +139,14 @@ const EditQuiz = () => {
                         typeof parsed.title === "string" &&
                         typeof parsed.description === "string" &&
                         Array.isArray(parsed.questions) &&
-                        Array.isArray(parsed.tags)
+                        Array.isArray(parsed.tags) &&
+                        typeof parsed.etag === "string"
                     ) {
                         setTitle(parsed.title);
                         setDescription(parsed.description);
                         setQuestions(parsed.questions);
                         setTags(parsed.tags);
+                        setEtag(parsed.etag);
                         setLoading(false);
                         return;
                     } else {
@@ -212,6 +217,11 @@ const EditQuiz = () => {
             setTagError(true);
             return;
         }
+        if (!etag) {
+            // Ohne ETag ließe sich nicht prüfen, ob das Quiz inzwischen geändert wurde
+            setError("Der Bearbeitungsstand ist unbekannt. Bitte das Quiz neu laden.");
+            return;
+        }
         try {
             const selectedEnums = newTagsToEnums(tags);
             await axios.put(`/${id}`, {
@@ -219,6 +229,8 @@ const EditQuiz = () => {
                 description,
                 questions,
                 categories: selectedEnums
+            }, {
+                headers: { "If-Match": etag }
             });
             const LOCAL_KEY = `quiz_backup_${id}`;
             localStorage.removeItem(LOCAL_KEY);
@@ -226,6 +238,10 @@ const EditQuiz = () => {
             setTimeout(() => navigate("/quizzes/my-quizzes"), 1500);
         } catch (err) {
             console.error(err);
+            if (err.response?.status === 412 || err.response?.status === 428) {
+                setError("Das Quiz wurde zwischenzeitlich geändert. Bitte neu laden.");
+                return;
+            }
             setError(err.response?.data?.message || "Fehler beim Aktualisieren des Quiz");
         }
     };
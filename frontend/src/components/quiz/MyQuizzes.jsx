@@ -100,7 +100,10 @@ const MeineQuizze = () => {
 
     const toggleFavorite = async quizId => {
         try {
-            const res = await axios.post(`/users/quizzes/${quizId}/favorite`);
+            const favorite = quizzes.find(q => q.id === quizId)?.isFavorite;
+            const res = favorite
+                ? await axios.delete(`/users/favorites/${quizId}`)
+                : await axios.put(`/users/favorites/${quizId}`);
             setQuizzes(prev =>
                 prev.map(q => q.id === quizId ? { ...q, isFavorite: res.data.favorited } : q)
             );